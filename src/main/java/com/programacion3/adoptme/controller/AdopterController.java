@@ -1,7 +1,8 @@
 package com.programacion3.adoptme.controller;
 
 import com.programacion3.adoptme.domain.Adopter;
-import com.programacion3.adoptme.repo.AdopterRepository; // usa 'repo' si ese es tu package
+import com.programacion3.adoptme.service.CatalogService;
+import com.programacion3.adoptme.service.RecommendationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
@@ -12,16 +13,49 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AdopterController {
 
-    private final AdopterRepository adopterRepository;
+    private final CatalogService catalogService;
+    private final RecommendationService recommendationService;
 
     @GetMapping
     public List<Adopter> getAll() {
-        return adopterRepository.findAll();
+        return catalogService.snapshot().adopters;
     }
 
 
     @PostMapping
     public Adopter create(@RequestBody Adopter adopter) {
-        return adopterRepository.save(adopter);
+        // Guarda y actualiza la foto del catálogo en memoria
+        return catalogService.saveAdopter(adopter);
     }
+
+    /**
+     * Perros recomendados para un adoptante, precalculados y servidos desde memoria.
+     * GET /adopters/P1/recommendations
+     */
+    @GetMapping("/{id}/recommendations")
+    public RecommendationsResponse recommendations(@PathVariable String id) {
+        var result = recommendationService.recommendationsFor(id);
+        return new RecommendationsResponse(
+                result.adopterId,
+                result.dogs.stream()
+                        .map(r -> new RecommendedDog(r.dogId, r.dogName, r.score))
+                        .toList(),
+                result.catalogVersion,
+                result.updatedAtVersion
+        );
+    }
+
+    // DTOs
+    record RecommendationsResponse(
+            String adopterId,
+            List<RecommendedDog> dogs,
+            long catalogVersion,
+            long updatedAtVersion
+    ) {}
+
+    record RecommendedDog(
+            String dogId,
+            String dogName,
+            double score
+    ) {}
 }
@@ -1,17 +1,22 @@
 package com.programacion3.adoptme.controller;
 
+import com.programacion3.adoptme.domain.Adopter;
 import com.programacion3.adoptme.domain.Dog;
+import com.programacion3.adoptme.dto.AssignedDog;
+import com.programacion3.adoptme.dto.BacktrackingResponse;
+import com.programacion3.adoptme.dto.FlowResponse;
+import com.programacion3.adoptme.dto.LnsResponse;
+import com.programacion3.adoptme.dto.StableResponse;
 import com.programacion3.adoptme.exception.ResourceNotFoundException;
-import com.programacion3.adoptme.repo.AdopterRepository;
-import com.programacion3.adoptme.repo.DogRepository;
+import com.programacion3.adoptme.service.AdoptionMatchingService;
+import com.programacion3.adoptme.service.CatalogService;
+import com.programacion3.adoptme.service.DogBitmapIndex;
 import com.programacion3.adoptme.service.ScorerService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -19,10 +24,9 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AdoptionsController {
 
-    private final AdopterRepository adopterRepository;
-    private final DogRepository dogRepository;
+    private final CatalogService catalogService;
     private final ScorerService scorerService;
-    private final com.programacion3.adoptme.service.BacktrackingService backtrackingService;
+    private final AdoptionMatchingService adoptionMatchingService;
 
     /**
      * Algoritmo Greedy: Asigna perros a un adoptante maximizando el score
@@ -33,14 +37,15 @@ public class AdoptionsController {
     public ResponseEntity<GreedyResponse> greedyAdoption(
             @RequestParam String adopterId
     ) {
-        // Buscar adoptante
-        var adopter = adopterRepository.findById(adopterId)
+        // Buscar adoptante en el catálogo en memoria
+        var catalog = catalogService.snapshot();
+        var adopter = catalog.adopter(adopterId)
                 .orElseThrow(() -> new ResourceNotFoundException("Adopter not found: " + adopterId));
 
-        // Obtener todos los perros disponibles
-        List<Dog> allDogs = dogRepository.findAll();
+        // Sólo perros disponibles (sin relación :ADOPTS)
+        List<Dog> availableDogs = catalog.available;
 
-        if (allDogs.isEmpty()) {
+        if (availableDogs.isEmpty()) {
             return ResponseEntity.ok(new GreedyResponse(
                     "No dogs available for adoption",
                     adopterId,
@@ -51,30 +56,26 @@ public class AdoptionsController {
             ));
         }
 
-        // Convertir a formato del ScorerService
-        List<ScorerService.Dog> candidates = allDogs.stream()
-                .map(d -> new ScorerService.Dog(
-                        d.getId(),
-                        d.getGoodWithKids() != null && d.getGoodWithKids(),
-                        "LARGE".equalsIgnoreCase(d.getSize()), // perros grandes necesitan jardín
-                        mapEnergy(d.getEnergy()),
-                        mapSize(d.getSize()),
-                        estimateCost(d) // costo estimado por adopción
-                ))
-                .collect(Collectors.toList());
+        boolean hasKids = adopter.getHasKids() != null && adopter.getHasKids();
+        boolean hasYard = adopter.getHasYard() != null && adopter.getHasYard();
+
+        // Prefiltro por índice: sólo se eligen perros compatibles (niños / jardín), puntuados
+        // sobre la tabla columnar del catálogo, sin armar una tabla por consulta
+        int[] compatible = catalog.availableIndex.matching(DogBitmapIndex.compatibilityFilter(hasKids, hasYard));
 
         // Ejecutar algoritmo Greedy
         var result = scorerService.scoreAndAssign(
-                candidates,
-                adopter.getHasKids() != null && adopter.getHasKids(),
-                adopter.getHasYard() != null && adopter.getHasYard(),
+                catalog.availableFeatures,
+                compatible,
+                hasKids,
+                hasYard,
                 adopter.getMaxDogs() != null ? adopter.getMaxDogs() : 1,
                 adopter.getBudget() != null ? adopter.getBudget() : 20000.0
         );
 
         // Formatear respuesta
         List<AssignedDog> assigned = result.assigned.stream()
-                .map(d -> new AssignedDog(d.id, findDogName(allDogs, d.id), d.cost))
+                .map(d -> new AssignedDog(d.id, catalog.dogName(d.id), d.cost))
                 .collect(Collectors.toList());
 
         return ResponseEntity.ok(new GreedyResponse(
@@ -88,135 +89,142 @@ public class AdoptionsController {
     }
 
     /**
-     * Algoritmo Backtracking: Asigna múltiples perros a múltiples adoptantes
-     * respetando TODAS las restricciones y maximizando satisfacción total.
+     * Greedy en lote: recomendaciones para todos los adoptantes en una sola llamada.
+     * El catálogo se lee y convierte una única vez y los adoptantes se procesan en paralelo.
+     * Cada resultado incluye cuánto tardó su cálculo.
      *
-     * Considera restricciones de:
-     * - Presupuesto
-     * - Capacidad máxima de perros
-     * - Compatibilidad con niños
-     * - Necesidad de jardín
-     * - Preferencia de energía
-     *
-     * GET /adoptions/constraints/backtracking
+     * GET /adoptions/greedy/batch
      */
-    @GetMapping("/constraints/backtracking")
-    public ResponseEntity<BacktrackingResponse> backtrackingAdoption() {
-        // Obtener todos los perros y adoptantes
-        List<Dog> allDogs = dogRepository.findAll();
-        var allAdopters = adopterRepository.findAll();
-
-        if (allDogs.isEmpty()) {
-            return ResponseEntity.ok(new BacktrackingResponse(
-                    "No dogs available for adoption",
-                    Map.of(),
-                    0.0
-            ));
-        }
+    @GetMapping("/greedy/batch")
+    public ResponseEntity<GreedyBatchResponse> greedyBatchAdoption() {
+        long start = System.nanoTime();
+        var catalog = catalogService.snapshot();
+        List<Dog> availableDogs = catalog.available;
+        var allAdopters = catalog.adopters;
 
-        if (allAdopters.isEmpty()) {
-            return ResponseEntity.ok(new BacktrackingResponse(
-                    "No adopters available",
-                    Map.of(),
-                    0.0
+        if (availableDogs.isEmpty() || allAdopters.isEmpty()) {
+            return ResponseEntity.ok(new GreedyBatchResponse(
+                    "No dogs or adopters available", List.of(), 0, 0, 0
             ));
         }
 
-        // Convertir perros al formato del servicio
-        List<com.programacion3.adoptme.service.BacktrackingService.Dog> dogs = allDogs.stream()
-                .map(d -> new com.programacion3.adoptme.service.BacktrackingService.Dog(
-                        d.getId(),
-                        d.getGoodWithKids() != null && d.getGoodWithKids(),
-                        "LARGE".equalsIgnoreCase(d.getSize()),
-                        mapEnergy(d.getEnergy()),
-                        estimateCost(d)
-                ))
-                .toList();
-
-        // Convertir adoptantes al formato del servicio
-        List<com.programacion3.adoptme.service.BacktrackingService.Adopter> adopters = allAdopters.stream()
-                .map(a -> new com.programacion3.adoptme.service.BacktrackingService.Adopter(
+        List<ScorerService.AdopterProfile> profiles = allAdopters.stream()
+                .map(a -> new ScorerService.AdopterProfile(
                         a.getId(),
-                        a.getName(),
                         a.getHasKids() != null && a.getHasKids(),
                         a.getHasYard() != null && a.getHasYard(),
                         a.getMaxDogs() != null ? a.getMaxDogs() : 1,
-                        a.getBudget() != null ? a.getBudget() : 20000.0,
-                        5 // energía preferida default (media)
+                        a.getBudget() != null ? a.getBudget() : 20000.0
                 ))
                 .toList();
 
-        // Ejecutar algoritmo de backtracking
-        var result = backtrackingService.findBestAssignment(dogs, adopters);
+        var entries = scorerService.scoreAndAssignBatch(catalog.availableFeatures, profiles, catalog.availableIndex);
 
-        // Formatear respuesta
-        Map<String, AdopterAssignment> assignments = new HashMap<>();
-
-        for (var adopter : allAdopters) {
-            List<String> dogIds = result.assignments.getOrDefault(adopter.getId(), List.of());
-
-            if (!dogIds.isEmpty()) {
-                List<AssignedDog> assignedDogs = dogIds.stream()
-                        .map(dogId -> {
-                            String dogName = findDogName(allDogs, dogId);
-                            double cost = estimateCost(allDogs.stream()
-                                    .filter(d -> d.getId().equals(dogId))
-                                    .findFirst()
-                                    .orElse(null));
-                            return new AssignedDog(dogId, dogName, cost);
-                        })
-                        .toList();
-
-                assignments.put(adopter.getId(), new AdopterAssignment(
-                        adopter.getId(),
-                        adopter.getName(),
-                        assignedDogs
-                ));
-            }
-        }
+        List<GreedyBatchItem> items = entries.stream()
+                .map(e -> new GreedyBatchItem(
+                        e.adopterId,
+                        catalog.adopter(e.adopterId).map(Adopter::getName).orElse(null),
+                        e.result.assigned.stream()
+                                .map(d -> new AssignedDog(d.id, catalog.dogName(d.id), d.cost))
+                                .toList(),
+                        e.result.totalScore,
+                        e.result.totalCost,
+                        e.latencyMicros
+                ))
+                .toList();
 
-        return ResponseEntity.ok(new BacktrackingResponse(
-                "Backtracking algorithm completed successfully",
-                assignments,
-                result.totalScore
+        long maxLatency = entries.stream().mapToLong(e -> e.latencyMicros).max().orElse(0);
+        long avgLatency = (long) entries.stream().mapToLong(e -> e.latencyMicros).average().orElse(0);
+
+        return ResponseEntity.ok(new GreedyBatchResponse(
+                "Greedy batch executed successfully",
+                items,
+                (System.nanoTime() - start) / 1_000_000,
+                avgLatency,
+                maxLatency
         ));
     }
 
-    // Métodos auxiliares
-    private int mapEnergy(String energy) {
-        if (energy == null) return 5;
-        return switch (energy.toUpperCase()) {
-            case "LOW" -> 2;
-            case "MEDIUM" -> 5;
-            case "HIGH" -> 8;
-            default -> 5;
-        };
+    /**
+     * Algoritmo Backtracking: Asigna múltiples perros a múltiples adoptantes
+     * respetando TODAS las restricciones y maximizando satisfacción total.
+     *
+     * Considera restricciones de:
+     * - Presupuesto
+     * - Capacidad máxima de perros
+     * - Compatibilidad con niños
+     * - Necesidad de jardín
+     * - Preferencia de energía
+     *
+     * Reutiliza la última solución si el catálogo no cambió y, ante cambios chicos,
+     * la repara localmente en lugar de resolver todo desde cero.
+     *
+     * GET /adoptions/constraints/backtracking
+     */
+    @GetMapping("/constraints/backtracking")
+    public ResponseEntity<BacktrackingResponse> backtrackingAdoption() {
+        return ResponseEntity.ok(adoptionMatchingService.backtracking());
+    }
+
+    /**
+     * Large Neighborhood Search: matching aproximado para catálogos grandes.
+     * Mismas restricciones y score que el backtracking, pero sin límite de 20 perros;
+     * corre dentro de un presupuesto de tiempo y opcionalmente con cadenas en paralelo.
+     *
+     * GET /adoptions/lns?timeMs=1000&chains=4
+     */
+    @GetMapping("/lns")
+    public ResponseEntity<LnsResponse> lnsAdoption(
+            @RequestParam(defaultValue = "1000") long timeMs,
+            @RequestParam(defaultValue = "1") int chains,
+            @RequestParam(defaultValue = "42") long seed
+    ) {
+        return ResponseEntity.ok(adoptionMatchingService.lns(timeMs, chains, seed));
     }
 
-    private int mapSize(String size) {
-        if (size == null) return 2;
-        return switch (size.toUpperCase()) {
-            case "SMALL" -> 1;
-            case "MEDIUM" -> 2;
-            case "LARGE" -> 3;
-            default -> 2;
-        };
+    /**
+     * Flujo de costo mínimo: resuelve en tiempo polinomial la relajación sin presupuesto
+     * acumulado (compatibilidad + capacidad) sobre todo el catálogo, sin límite de perros.
+     * Devuelve la cota superior y la asignación reparada para respetar presupuestos.
+     *
+     * GET /adoptions/flow
+     */
+    @GetMapping("/flow")
+    public ResponseEntity<FlowResponse> flowAdoption() {
+        return ResponseEntity.ok(adoptionMatchingService.flow());
     }
 
-    private double estimateCost(Dog dog) {
-        // Costo base + extra por tamaño y necesidades especiales
-        double baseCost = 5000.0;
-        double sizeCost = mapSize(dog.getSize()) * 2000.0;
-        double specialNeedsCost = (dog.getSpecialNeeds() != null && dog.getSpecialNeeds()) ? 5000.0 : 0.0;
-        return baseCost + sizeCost + specialNeedsCost;
+    /**
+     * Matching estable global (Gale-Shapley con los perros proponiendo).
+     * A diferencia del greedy por adoptante, un perro nunca se recomienda a dos
+     * adoptantes; respeta maxDogs y presupuesto y escala a miles de perros.
+     *
+     * GET /adoptions/stable
+     */
+    @GetMapping("/stable")
+    public ResponseEntity<StableResponse> stableAdoption() {
+        return ResponseEntity.ok(adoptionMatchingService.stable());
     }
 
-    private String findDogName(List<Dog> dogs, String id) {
-        return dogs.stream()
-                .filter(d -> d.getId().equals(id))
-                .map(Dog::getName)
-                .findFirst()
-                .orElse("Unknown");
+    /**
+     * Registra una adopción (crea la relación :ADOPTS). El perro deja de ser candidato
+     * para todos los solvers sin volver a leer el catálogo.
+     *
+     * POST /adoptions?adopterId=P1&dogId=D3
+     */
+    @PostMapping
+    public ResponseEntity<AdoptResponse> adopt(
+            @RequestParam String adopterId,
+            @RequestParam String dogId
+    ) {
+        var catalog = catalogService.adopt(adopterId, dogId);
+        return ResponseEntity.ok(new AdoptResponse(
+                "Adoption registered",
+                adopterId,
+                dogId,
+                catalog.available.size(),
+                catalog.version
+        ));
     }
 
     // DTOs
@@ -229,21 +237,29 @@ public class AdoptionsController {
             double totalCost
     ) {}
 
-    record BacktrackingResponse(
+    record GreedyBatchResponse(
             String message,
-            Map<String, AdopterAssignment> assignments,
-            double totalScore
+            List<GreedyBatchItem> recommendations,
+            long elapsedMs,
+            long avgLatencyMicros,
+            long maxLatencyMicros
     ) {}
 
-    record AdopterAssignment(
+    record GreedyBatchItem(
             String adopterId,
             String adopterName,
-            List<AssignedDog> assignedDogs
+            List<AssignedDog> assignedDogs,
+            double totalScore,
+            double totalCost,
+            long latencyMicros
     ) {}
 
-    record AssignedDog(
+    record AdoptResponse(
+            String message,
+            String adopterId,
             String dogId,
-            String dogName,
-            double cost
+            int availableDogs,
+            long catalogVersion
     ) {}
+
 }
\ No newline at end of file
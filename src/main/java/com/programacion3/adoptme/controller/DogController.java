@@ -1,13 +1,15 @@
 package com.programacion3.adoptme.controller;
 
 import com.programacion3.adoptme.domain.Dog;
-import com.programacion3.adoptme.repo.DogRepository;
+import com.programacion3.adoptme.service.CatalogService;
+import com.programacion3.adoptme.service.DogBitmapIndex;
 import com.programacion3.adoptme.service.SortService;
 import org.springframework.web.bind.annotation.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -15,16 +17,40 @@ import java.util.Map;
 @RequestMapping("/dogs")
 @RequiredArgsConstructor
 public class DogController {
-    private final DogRepository dogRepository;
+    private final CatalogService catalogService;
     private final SortService sortService;
 
     /**
-     * Lista todos los perros
+     * Lista todos los perros, opcionalmente filtrados por atributos con un índice de bitmaps.
      * GET /dogs
+     * GET /dogs?size=SMALL,MEDIUM&goodWithKids=true     (coma = OR, parámetros = AND)
+     * GET /dogs?energy=!HIGH&status=available&shelter=A (! = NOT)
      */
     @GetMapping
-    public List<Dog> all() {
-        return dogRepository.findAll();
+    public ResponseEntity<?> all(@RequestParam Map<String, String> filter) {
+        var catalog = catalogService.snapshot();
+        if (filter.isEmpty()) {
+            return ResponseEntity.ok(catalog.dogs);
+        }
+
+        try {
+            return ResponseEntity.ok(catalog.index.select(catalog.dogs, filter));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of(
+                            "error", e.getMessage(),
+                            "validFilters", DogBitmapIndex.ATTRIBUTES
+                    ));
+        }
+    }
+
+    /**
+     * Da de alta (o actualiza) un perro y refresca el catálogo en memoria.
+     * POST /dogs
+     */
+    @PostMapping
+    public Dog create(@RequestBody Dog dog) {
+        return catalogService.saveDog(dog);
     }
 
     /**
@@ -39,8 +65,8 @@ public class DogController {
             @RequestParam(defaultValue = "mergesort") String algorithm
     ) {
         try {
-            // Obtener todos los perros
-            List<Dog> dogs = dogRepository.findAll();
+            // Copia de los perros del catálogo (la foto es inmutable y el sort ordena in-place)
+            List<Dog> dogs = new ArrayList<>(catalogService.snapshot().dogs);
 
             if (dogs.isEmpty()) {
                 return ResponseEntity.ok(new SortResponse(
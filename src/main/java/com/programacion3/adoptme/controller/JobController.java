@@ -0,0 +1,172 @@
+package com.programacion3.adoptme.controller;
+
+import com.programacion3.adoptme.service.AdoptionMatchingService;
+import com.programacion3.adoptme.service.RoutePlanningService;
+import com.programacion3.adoptme.service.SolverJobService;
+import com.programacion3.adoptme.service.SolverJobService.Job;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+/**
+ * API asincrónica para los algoritmos pesados.
+ *
+ * En lugar de bloquear el hilo del request, el cliente encola el trabajo,
+ * recibe un id y luego consulta (o escucha por SSE) su estado y resultado.
+ *
+ * POST   /jobs?algorithm=backtracking
+ * POST   /jobs?algorithm=tsp-bnb&nodes=A,B,C
+ * POST   /jobs?algorithm=lns&timeMs=2000&chains=2
+ * GET    /jobs/{id}
+ * GET    /jobs/{id}/result
+ * GET    /jobs/{id}/events   (Server-Sent Events)
+ * DELETE /jobs/{id}
+ */
+@RestController
+@RequestMapping("/jobs")
+@RequiredArgsConstructor
+public class JobController {
+
+    private static final List<String> ALGORITHMS = List.of("backtracking", "lns", "tsp-bnb");
+    private static final long SSE_TIMEOUT_MS = 5 * 60 * 1000;
+
+    private final SolverJobService jobService;
+    private final AdoptionMatchingService adoptionMatchingService;
+    private final RoutePlanningService routePlanningService;
+
+    /**
+     * Encola un trabajo y devuelve su id (202 Accepted)
+     */
+    @PostMapping
+    public ResponseEntity<?> submit(
+            @RequestParam String algorithm,
+            @RequestParam Map<String, String> params
+    ) {
+        Callable<?> work;
+        try {
+            work = workFor(algorithm.toLowerCase(), params);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid numeric parameter: " + e.getMessage()));
+        }
+        if (work == null) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of(
+                            "error", "Unknown algorithm: " + algorithm,
+                            "validAlgorithms", ALGORITHMS
+                    ));
+        }
+
+        Job job = jobService.submit(algorithm.toLowerCase(), work);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(toStatus(job));
+    }
+
+    /**
+     * Estado de un trabajo
+     */
+    @GetMapping("/{id}")
+    public JobStatus status(@PathVariable String id) {
+        return toStatus(jobService.get(id));
+    }
+
+    /**
+     * Resultado de un trabajo: 200 si terminó bien, 202 si sigue pendiente,
+     * 409 si falló o fue cancelado.
+     */
+    @GetMapping("/{id}/result")
+    public ResponseEntity<?> result(@PathVariable String id) {
+        Job job = jobService.get(id);
+        return switch (job.getStatus()) {
+            case SUCCEEDED -> ResponseEntity.ok(job.getResult());
+            case QUEUED, RUNNING -> ResponseEntity.status(HttpStatus.ACCEPTED).body(toStatus(job));
+            case FAILED, CANCELLED -> ResponseEntity.status(HttpStatus.CONFLICT).body(toStatus(job));
+        };
+    }
+
+    /**
+     * Stream de cambios de estado (Server-Sent Events). Se cierra cuando el trabajo termina.
+     */
+    @GetMapping("/{id}/events")
+    public SseEmitter events(@PathVariable String id) {
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+        Consumer<Job> listener = new Consumer<>() {
+            @Override
+            public void accept(Job job) {
+                try {
+                    emitter.send(SseEmitter.event().name("status").data(toStatus(job)));
+                    if (job.isFinished()) {
+                        jobService.unsubscribe(id, this);
+                        emitter.complete();
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException("Client disconnected", e);
+                }
+            }
+        };
+        emitter.onCompletion(() -> jobService.unsubscribe(id, listener));
+        emitter.onTimeout(() -> jobService.unsubscribe(id, listener));
+        jobService.subscribe(id, listener);
+        return emitter;
+    }
+
+    /**
+     * Cancela un trabajo en cola o en ejecución
+     */
+    @DeleteMapping("/{id}")
+    public JobStatus cancel(@PathVariable String id) {
+        return toStatus(jobService.cancel(id));
+    }
+
+    /**
+     * Cada algoritmo llama al mismo servicio que su endpoint sincrónico. Los parámetros se
+     * validan acá (400 al encolar); si el servicio lanza una excepción el trabajo queda FAILED.
+     */
+    private Callable<?> workFor(String algorithm, Map<String, String> params) {
+        return switch (algorithm) {
+            case "backtracking" -> adoptionMatchingService::backtracking;
+            case "lns" -> {
+                long timeMs = Long.parseLong(params.getOrDefault("timeMs", "1000"));
+                int chains = Integer.parseInt(params.getOrDefault("chains", "1"));
+                long seed = Long.parseLong(params.getOrDefault("seed", "42"));
+                yield () -> adoptionMatchingService.lns(timeMs, chains, seed);
+            }
+            case "tsp-bnb" -> {
+                String nodes = params.get("nodes");
+                yield () -> routePlanningService.tspTour(nodes);
+            }
+            default -> null;
+        };
+    }
+
+    private JobStatus toStatus(Job job) {
+        return new JobStatus(
+                job.id,
+                job.algorithm,
+                job.getStatus().name(),
+                job.submittedAt,
+                job.getStartedAt(),
+                job.getFinishedAt(),
+                job.getError()
+        );
+    }
+
+    // DTO
+    record JobStatus(
+            String jobId,
+            String algorithm,
+            String status,
+            Instant submittedAt,
+            Instant startedAt,
+            Instant finishedAt,
+            String error
+    ) {}
+}
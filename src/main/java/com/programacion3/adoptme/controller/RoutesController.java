@@ -3,15 +3,12 @@ package com.programacion3.adoptme.controller;
 import com.programacion3.adoptme.dto.PathResponse;
 import com.programacion3.adoptme.dto.TspResponse;
 import com.programacion3.adoptme.service.GraphLoader;
+import com.programacion3.adoptme.service.RoutePlanningService;
 import com.programacion3.adoptme.service.ShortestPathService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-
 @RestController
 @RequestMapping("/routes")
 @RequiredArgsConstructor
@@ -19,7 +16,7 @@ public class RoutesController {
 
     private final ShortestPathService shortestPathService;
     private final GraphLoader graphLoader;
-    private final com.programacion3.adoptme.service.TSPService tspService;
+    private final RoutePlanningService routePlanningService;
 
     /**
      * Dijkstra - Encuentra el camino más corto considerando distancias
@@ -79,66 +76,6 @@ public class RoutesController {
     public ResponseEntity<TspResponse> tspBranchBound(
             @RequestParam(required = false) String nodes
     ) {
-        // Determinar qué nodos visitar
-        List<String> nodeList;
-
-        if (nodes != null && !nodes.isBlank()) {
-            // Usar nodos especificados
-            nodeList = Arrays.asList(nodes.split(","));
-            nodeList = nodeList.stream().map(String::trim).toList();
-        } else {
-            // Usar todos los shelters
-            nodeList = new ArrayList<>(graphLoader.loadAllShelterIds());
-        }
-
-        if (nodeList.isEmpty()) {
-            return ResponseEntity.ok(
-                    TspResponse.builder()
-                            .route(List.of())
-                            .totalDistanceKm(0)
-                            .build()
-            );
-        }
-
-        if (nodeList.size() == 1) {
-            return ResponseEntity.ok(
-                    TspResponse.builder()
-                            .route(nodeList)
-                            .totalDistanceKm(0)
-                            .build()
-            );
-        }
-
-        // Cargar aristas con distancias
-        var rawEdges = graphLoader.loadWeightedEdges();
-
-        // Convertir al formato del TSPService
-        List<com.programacion3.adoptme.service.TSPService.Edge> edges = rawEdges.stream()
-                .map(e -> new com.programacion3.adoptme.service.TSPService.Edge(
-                        e.from,
-                        e.to,
-                        e.weight
-                ))
-                .toList();
-
-        // Ejecutar algoritmo de Branch & Bound
-        var result = tspService.solveTSP(nodeList, edges);
-
-        // Verificar si se encontró una solución
-        if (result.route.isEmpty() || Double.isInfinite(result.totalDistance)) {
-            return ResponseEntity.ok(
-                    TspResponse.builder()
-                            .route(null)
-                            .totalDistanceKm(null)
-                            .build()
-            );
-        }
-
-        return ResponseEntity.ok(
-                TspResponse.builder()
-                        .route(result.route)
-                        .totalDistanceKm((int) Math.round(result.totalDistance))
-                        .build()
-        );
+        return ResponseEntity.ok(routePlanningService.tspTour(nodes));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+package com.programacion3.adoptme.controller;
+
+import com.programacion3.adoptme.service.ScoringProfileService;
+import com.programacion3.adoptme.service.ScoringProfileService.Rule;
+import com.programacion3.adoptme.service.ScoringProfileService.ScoringProfile;
+import com.programacion3.adoptme.service.ScoringProfileService.Segment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Administración de los perfiles de scoring del greedy.
+ * Los cambios aplican en la siguiente recomendación, sin redeploy.
+ */
+@RestController
+@RequestMapping("/scoring/profiles")
+@RequiredArgsConstructor
+public class ScoringProfileController {
+
+    private final ScoringProfileService scoringProfileService;
+
+    /**
+     * Lista los perfiles definidos (DEFAULT siempre está).
+     * GET /scoring/profiles
+     */
+    @GetMapping
+    public List<ProfileResponse> list() {
+        return scoringProfileService.profiles().stream().map(ProfileResponse::of).toList();
+    }
+
+    /**
+     * Perfil efectivo de un segmento (el propio o el DEFAULT).
+     * GET /scoring/profiles/FAMILY
+     */
+    @GetMapping("/{segment}")
+    public ProfileResponse get(@PathVariable Segment segment) {
+        return ProfileResponse.of(scoringProfileService.profileFor(segment));
+    }
+
+    /**
+     * Reemplaza los pesos de un segmento. Las reglas omitidas quedan en 0.
+     * PUT /scoring/profiles/FAMILY  {"weights": {"KIDS": 4, "ENERGY": 2, "PRIORITY": 1}}
+     */
+    @PutMapping("/{segment}")
+    public ResponseEntity<?> update(@PathVariable Segment segment, @RequestBody ProfileRequest request) {
+        if (request == null || request.weights() == null) {
+            return ResponseEntity.badRequest().body(Map.of("message", "weights are required"));
+        }
+        try {
+            return ResponseEntity.ok(ProfileResponse.of(scoringProfileService.update(segment, request.weights())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Vuelve el segmento al perfil DEFAULT (o el DEFAULT a los pesos históricos).
+     * DELETE /scoring/profiles/FAMILY
+     */
+    @DeleteMapping("/{segment}")
+    public ProfileResponse reset(@PathVariable Segment segment) {
+        scoringProfileService.reset(segment);
+        return ProfileResponse.of(scoringProfileService.profileFor(segment));
+    }
+
+    // DTOs
+    record ProfileRequest(Map<Rule, Double> weights) {}
+
+    record ProfileResponse(Segment segment, Map<Rule, Double> weights, long version) {
+        static ProfileResponse of(ScoringProfile profile) {
+            return new ProfileResponse(profile.segment, profile.weights, profile.version);
+        }
+    }
+}
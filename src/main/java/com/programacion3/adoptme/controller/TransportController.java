@@ -1,12 +1,15 @@
 package com.programacion3.adoptme.controller;
 
 import com.programacion3.adoptme.domain.Dog;
-import com.programacion3.adoptme.repo.DogRepository;
+import com.programacion3.adoptme.service.CapacityCurveService;
+import com.programacion3.adoptme.service.CatalogService;
+import com.programacion3.adoptme.service.IncrementalTransportService;
 import com.programacion3.adoptme.service.TransportService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -20,7 +23,9 @@ import java.util.List;
 public class TransportController {
 
     private final TransportService transportService;
-    private final DogRepository dogRepository;
+    private final CatalogService catalogService;
+    private final CapacityCurveService capacityCurveService;
+    private final IncrementalTransportService incrementalTransportService;
 
     /**
      * Optimiza el transporte de perros usando Programación Dinámica (Knapsack).
@@ -28,14 +33,16 @@ public class TransportController {
      * Dado un vehículo con capacidad limitada, selecciona el conjunto óptimo
      * de perros que maximiza la prioridad total sin exceder la capacidad.
      *
-     * GET /transport/optimal-dp?capacityKg=50
+     * GET /transport/optimal-dp?capacityKg=50&mode=AUTO
      *
      * @param capacityKg capacidad del vehículo en kilogramos
+     * @param mode AUTO (default), DENSE (tabla completa), LINEAR (memoria O(capacidad)) o SPARSE (frontera de Pareto)
      * @return conjunto óptimo de perros para transportar
      */
     @GetMapping("/optimal-dp")
     public ResponseEntity<?> optimalTransport(
-            @RequestParam(defaultValue = "50") int capacityKg
+            @RequestParam(defaultValue = "50") int capacityKg,
+            @RequestParam(defaultValue = "AUTO") String mode
     ) {
         if (capacityKg <= 0) {
             return ResponseEntity.badRequest()
@@ -44,12 +51,30 @@ public class TransportController {
                             capacityKg,
                             List.of(),
                             0,
-                            0
+                            0,
+                            mode,
+                            null
                     ));
         }
 
-        // Obtener todos los perros disponibles
-        List<Dog> allDogs = dogRepository.findAll();
+        TransportService.Mode dpMode;
+        try {
+            dpMode = TransportService.Mode.valueOf(mode.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new TransportResponse(
+                            "Invalid mode: must be AUTO, DENSE, LINEAR or SPARSE",
+                            capacityKg,
+                            List.of(),
+                            0,
+                            0,
+                            mode,
+                            null
+                    ));
+        }
+
+        // Obtener los perros disponibles (los adoptados no se transportan)
+        List<Dog> allDogs = catalogService.snapshot().available;
 
         if (allDogs.isEmpty()) {
             return ResponseEntity.ok(new TransportResponse(
@@ -57,12 +82,14 @@ public class TransportController {
                     capacityKg,
                     List.of(),
                     0,
-                    0
+                    0,
+                    dpMode.name(),
+                    null
             ));
         }
 
         // Ejecutar algoritmo de programación dinámica
-        TransportService.KnapsackResult result = transportService.optimizeTransport(allDogs, capacityKg);
+        TransportService.KnapsackResult result = transportService.optimizeTransport(allDogs, capacityKg, dpMode);
 
         // Convertir perros a DTO simple
         List<DogDTO> selectedDogs = result.selectedDogs.stream()
@@ -79,7 +106,222 @@ public class TransportController {
                 capacityKg,
                 selectedDogs,
                 result.totalPriority,
-                result.totalWeight
+                result.totalWeight,
+                result.mode.name(),
+                result.preprocessing == null ? null : new PreprocessingDTO(
+                        result.preprocessing.items,
+                        result.preprocessing.infeasible,
+                        result.preprocessing.useless,
+                        result.preprocessing.dominated,
+                        result.preprocessing.forced,
+                        result.preprocessing.gcd,
+                        result.preprocessing.packages,
+                        result.preprocessing.originalCells,
+                        result.preprocessing.reducedCells
+                )
+        ));
+    }
+
+    /**
+     * Carga aproximada con error acotado (FPTAS), pensada para sliders interactivos.
+     *
+     * GET /transport/approx?capacityKg=50&epsilon=0.1
+     *
+     * @param capacityKg capacidad del vehículo en kilogramos
+     * @param epsilon error relativo admitido, en (0, 1)
+     * @return carga con prioridad >= guaranteedRatio · óptimo y la cota alcanzada;
+     *         guaranteedRatio es 1 - epsilon salvo que epsilonMet sea false (catálogo
+     *         demasiado grande para ese epsilon dentro del límite de memoria)
+     */
+    @GetMapping("/approx")
+    public ResponseEntity<?> approximateTransport(
+            @RequestParam(defaultValue = "50") int capacityKg,
+            @RequestParam(defaultValue = "0.1") double epsilon
+    ) {
+        if (capacityKg <= 0) {
+            return ResponseEntity.badRequest().body("Invalid capacity: must be greater than 0");
+        }
+        if (!(epsilon > 0.0 && epsilon < 1.0)) {
+            return ResponseEntity.badRequest().body("Invalid epsilon: must be in (0, 1)");
+        }
+
+        TransportService.ApproximateResult result = transportService.approximateTransport(
+                catalogService.snapshot().available, capacityKg, epsilon);
+
+        return ResponseEntity.ok(new ApproximateResponse(
+                capacityKg,
+                epsilon,
+                result.selectedDogs.stream()
+                        .map(dog -> new DogDTO(dog.getId(), dog.getName(), dog.getWeight(), dog.getPriority()))
+                        .toList(),
+                result.totalPriority,
+                result.totalWeight,
+                result.upperBound,
+                result.guaranteedRatio,
+                result.epsilonMet,
+                result.achievedRatio
+        ));
+    }
+
+    /**
+     * Carga óptima mantenida entre consultas: sólo aplica los cambios del catálogo
+     * desde la consulta anterior para esa capacidad.
+     *
+     * GET /transport/incremental?capacityKg=50
+     *
+     * @param capacityKg capacidad del vehículo en kilogramos (1 a IncrementalTransportService.MAX_CAPACITY_KG)
+     * @return carga óptima y filas de DP calculadas para ponerla al día
+     */
+    @GetMapping("/incremental")
+    public ResponseEntity<?> incrementalTransport(@RequestParam(defaultValue = "50") int capacityKg) {
+        IncrementalTransportService.Plan plan;
+        try {
+            plan = incrementalTransportService.optimize(capacityKg);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        return ResponseEntity.ok(new IncrementalResponse(
+                capacityKg,
+                plan.catalogVersion,
+                plan.selectedDogs.stream()
+                        .map(dog -> new DogDTO(dog.getId(), dog.getName(), dog.getWeight(), dog.getPriority()))
+                        .toList(),
+                plan.totalPriority,
+                plan.totalWeight,
+                plan.rebuilt,
+                plan.rowsComputed
+        ));
+    }
+
+    /**
+     * Curva de prioridad óptima para todas las capacidades de un rango, con una sola DP.
+     *
+     * GET /transport/capacity-curve?from=10&to=500&selectAt=100,250
+     *
+     * @param from capacidad mínima en kg
+     * @param to capacidad máxima en kg
+     * @param selectAt capacidades (>= 1) para las que además se devuelve la carga
+     * @return valores por capacidad, capacidades donde la curva sube y cargas pedidas
+     */
+    @GetMapping("/capacity-curve")
+    public ResponseEntity<?> capacityCurve(
+            @RequestParam(defaultValue = "10") int from,
+            @RequestParam(defaultValue = "500") int to,
+            @RequestParam(required = false) List<Integer> selectAt
+    ) {
+        CapacityCurveService.Curve curve;
+        try {
+            curve = capacityCurveService.curve(from, to, selectAt == null ? List.of() : selectAt);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        List<CurvePointDTO> points = new ArrayList<>(curve.values.length);
+        for (int i = 0; i < curve.values.length; i++) {
+            points.add(new CurvePointDTO(curve.fromKg + i, curve.values[i]));
+        }
+        List<CurveSelectionDTO> selections = curve.selections.entrySet().stream()
+                .map(e -> new CurveSelectionDTO(
+                        e.getKey(),
+                        e.getValue().totalPriority,
+                        e.getValue().totalWeight,
+                        e.getValue().selectedDogs.stream()
+                                .map(dog -> new DogDTO(dog.getId(), dog.getName(), dog.getWeight(), dog.getPriority()))
+                                .toList()
+                ))
+                .toList();
+
+        return ResponseEntity.ok(new CapacityCurveResponse(
+                curve.catalogVersion,
+                points,
+                curve.breakpoints,
+                selections
+        ));
+    }
+
+    /**
+     * Carga un vehículo con varias restricciones: kg, jaulas y asientos para perros
+     * con necesidades especiales.
+     *
+     * GET /transport/multi?capacities=60,4,1
+     *
+     * @param capacities kg, jaulas y asientos especiales, en ese orden
+     * @return carga óptima (o la mejor encontrada con su cota)
+     */
+    @GetMapping("/multi")
+    public ResponseEntity<?> multiConstraintTransport(@RequestParam List<Integer> capacities) {
+        if (capacities.size() != TransportService.DIMENSIONS
+                || capacities.stream().anyMatch(c -> c == null || c < 0)) {
+            return ResponseEntity.badRequest()
+                    .body("Invalid capacities: expected kg, crates and special-needs seats >= 0");
+        }
+
+        TransportService.MultiConstraintResult result = transportService.optimizeMultiConstraint(
+                catalogService.snapshot().available, capacities.stream().mapToInt(Integer::intValue).toArray());
+
+        return ResponseEntity.ok(new MultiConstraintResponse(
+                result.method.name(),
+                result.optimal,
+                result.selectedDogs.stream()
+                        .map(dog -> new DogDTO(dog.getId(), dog.getName(), dog.getWeight(), dog.getPriority()))
+                        .toList(),
+                result.totalPriority,
+                result.upperBound,
+                new UsageDTO(result.used[0], result.used[1], result.used[2]),
+                new UsageDTO(result.capacities[0], result.capacities[1], result.capacities[2]),
+                result.elapsedMs
+        ));
+    }
+
+    /**
+     * Carga varios vehículos a la vez (mochila múltiple).
+     *
+     * GET /transport/fleet?capacities=50,30,20&mode=EXACT
+     *
+     * @param capacities capacidad de cada vehículo en kilogramos
+     * @param mode EXACT (branch & bound, default) o HEURISTIC (una mochila por vehículo)
+     * @return carga de cada vehículo
+     */
+    @GetMapping("/fleet")
+    public ResponseEntity<?> fleetTransport(
+            @RequestParam List<Integer> capacities,
+            @RequestParam(defaultValue = "EXACT") String mode
+    ) {
+        if (capacities.isEmpty() || capacities.stream().anyMatch(c -> c == null || c <= 0)) {
+            return ResponseEntity.badRequest().body("Invalid capacities: every vehicle must have capacity > 0");
+        }
+        TransportService.FleetMode fleetMode;
+        try {
+            fleetMode = TransportService.FleetMode.valueOf(mode.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid mode: must be EXACT or HEURISTIC");
+        }
+
+        TransportService.FleetResult result = transportService.optimizeFleet(
+                catalogService.snapshot().available, capacities, fleetMode);
+
+        List<VehicleDTO> vehicles = result.vehicles.stream()
+                .map(v -> new VehicleDTO(
+                        v.vehicle,
+                        v.capacityKg,
+                        v.dogs.stream()
+                                .map(dog -> new DogDTO(dog.getId(), dog.getName(), dog.getWeight(), dog.getPriority()))
+                                .toList(),
+                        v.totalPriority,
+                        v.totalWeight
+                ))
+                .toList();
+
+        return ResponseEntity.ok(new FleetResponse(
+                result.mode.name(),
+                result.optimal,
+                vehicles,
+                result.totalPriority,
+                result.totalWeight,
+                result.upperBound,
+                result.nodes,
+                result.elapsedMs
         ));
     }
 
@@ -89,7 +331,21 @@ public class TransportController {
             int vehicleCapacityKg,
             List<DogDTO> selectedDogs,
             int totalPriority,
-            int totalWeightKg
+            int totalWeightKg,
+            String mode,
+            PreprocessingDTO preprocessing
+    ) {}
+
+    record PreprocessingDTO(
+            int dogs,
+            int removedTooHeavy,
+            int removedZeroPriority,
+            int removedDominated,
+            int alwaysLoaded,
+            int weightGcd,
+            int dpItems,
+            long originalCells,
+            long reducedCells
     ) {}
 
     record DogDTO(
@@ -98,4 +354,81 @@ public class TransportController {
             int weightKg,
             int priority
     ) {}
+
+    record ApproximateResponse(
+            int vehicleCapacityKg,
+            double epsilon,
+            List<DogDTO> selectedDogs,
+            int totalPriority,
+            int totalWeightKg,
+            int upperBound,
+            double guaranteedRatio,
+            boolean epsilonMet,
+            double achievedRatio
+    ) {}
+
+    record IncrementalResponse(
+            int vehicleCapacityKg,
+            long catalogVersion,
+            List<DogDTO> selectedDogs,
+            int totalPriority,
+            int totalWeightKg,
+            boolean rebuilt,
+            long dpRowsComputed
+    ) {}
+
+    record CapacityCurveResponse(
+            long catalogVersion,
+            List<CurvePointDTO> curve,
+            List<Integer> breakpointsKg,
+            List<CurveSelectionDTO> selections
+    ) {}
+
+    record CurvePointDTO(
+            int capacityKg,
+            int totalPriority
+    ) {}
+
+    record CurveSelectionDTO(
+            int capacityKg,
+            int totalPriority,
+            int totalWeightKg,
+            List<DogDTO> selectedDogs
+    ) {}
+
+    record MultiConstraintResponse(
+            String method,
+            boolean optimal,
+            List<DogDTO> selectedDogs,
+            int totalPriority,
+            int upperBound,
+            UsageDTO used,
+            UsageDTO capacities,
+            long elapsedMs
+    ) {}
+
+    record UsageDTO(
+            int weightKg,
+            int crates,
+            int specialNeedsSeats
+    ) {}
+
+    record FleetResponse(
+            String mode,
+            boolean optimal,
+            List<VehicleDTO> vehicles,
+            int totalPriority,
+            int totalWeightKg,
+            int upperBound,
+            long nodes,
+            long elapsedMs
+    ) {}
+
+    record VehicleDTO(
+            int vehicle,
+            int capacityKg,
+            List<DogDTO> dogs,
+            int totalPriority,
+            int totalWeightKg
+    ) {}
 }
@@ -0,0 +1,9 @@
+package com.programacion3.adoptme.dto;
+
+import java.util.List;
+
+public record AdopterAssignment(
+        String adopterId,
+        String adopterName,
+        List<AssignedDog> assignedDogs
+) {}
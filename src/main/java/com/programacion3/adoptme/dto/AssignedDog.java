@@ -0,0 +1,7 @@
+package com.programacion3.adoptme.dto;
+
+public record AssignedDog(
+        String dogId,
+        String dogName,
+        double cost
+) {}
@@ -0,0 +1,13 @@
+package com.programacion3.adoptme.dto;
+
+import java.util.Map;
+
+public record BacktrackingResponse(
+        String message,
+        Map<String, AdopterAssignment> assignments,
+        double totalScore,
+        String mode,
+        long catalogVersion,
+        int nodesExplored,
+        long cacheHits
+) {}
@@ -0,0 +1,11 @@
+package com.programacion3.adoptme.dto;
+
+import java.util.Map;
+
+public record FlowResponse(
+        String message,
+        Map<String, AdopterAssignment> assignments,
+        double totalScore,
+        double upperBound,
+        boolean budgetFeasible
+) {}
@@ -0,0 +1,14 @@
+package com.programacion3.adoptme.dto;
+
+import java.util.Map;
+
+public record LnsResponse(
+        String message,
+        Map<String, AdopterAssignment> assignments,
+        double totalScore,
+        double initialScore,
+        int iterations,
+        int improvements,
+        int chains,
+        long elapsedMs
+) {}
@@ -0,0 +1,12 @@
+package com.programacion3.adoptme.dto;
+
+import java.util.Map;
+
+public record StableResponse(
+        String message,
+        Map<String, AdopterAssignment> assignments,
+        double totalScore,
+        int proposals,
+        int unmatchedDogs,
+        long elapsedMs
+) {}
@@ -21,6 +21,20 @@ public class ApiExceptionHandler {
                 .body(new ErrorResponse(LocalDateTime.now(), HttpStatus.NOT_FOUND.value(), ex.getMessage()));
     }
 
+    // Maneja trabajos rechazados por cola llena o límite por algoritmo
+    @ExceptionHandler(JobRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleJobRejected(JobRejectedException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(new ErrorResponse(LocalDateTime.now(), HttpStatus.TOO_MANY_REQUESTS.value(), ex.getMessage()));
+    }
+
+    // Maneja adopciones de perros que ya tienen adoptante
+    @ExceptionHandler(DogAlreadyAdoptedException.class)
+    public ResponseEntity<ErrorResponse> handleAlreadyAdopted(DogAlreadyAdoptedException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse(LocalDateTime.now(), HttpStatus.CONFLICT.value(), ex.getMessage()));
+    }
+
     // Maneja errores de validación
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidation(MethodArgumentNotValidException ex) {
@@ -0,0 +1,7 @@
+package com.programacion3.adoptme.exception;
+
+public class DogAlreadyAdoptedException extends RuntimeException {
+    public DogAlreadyAdoptedException(String msg) {
+        super(msg);
+    }
+}
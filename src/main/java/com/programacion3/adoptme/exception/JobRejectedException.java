@@ -0,0 +1,7 @@
+package com.programacion3.adoptme.exception;
+
+public class JobRejectedException extends RuntimeException {
+    public JobRejectedException(String msg) {
+        super(msg);
+    }
+}
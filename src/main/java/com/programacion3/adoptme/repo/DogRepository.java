@@ -2,5 +2,15 @@ package com.programacion3.adoptme.repo;
 
 import com.programacion3.adoptme.domain.Dog;
 import org.springframework.data.neo4j.repository.Neo4jRepository;
+import org.springframework.data.neo4j.repository.query.Query;
 
-public interface DogRepository extends Neo4jRepository<Dog, String> {}
+import java.util.List;
+
+public interface DogRepository extends Neo4jRepository<Dog, String> {
+
+    /**
+     * Perros sin adoptante: se excluyen en la base los que tienen una relación :ADOPTS entrante
+     */
+    @Query("MATCH (d:Dog) WHERE NOT (:Adopter)-[:ADOPTS]->(d) RETURN d")
+    List<Dog> findAvailable();
+}
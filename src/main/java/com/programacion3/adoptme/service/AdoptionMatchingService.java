@@ -0,0 +1,219 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.domain.Adopter;
+import com.programacion3.adoptme.domain.Dog;
+import com.programacion3.adoptme.dto.AdopterAssignment;
+import com.programacion3.adoptme.dto.AssignedDog;
+import com.programacion3.adoptme.dto.BacktrackingResponse;
+import com.programacion3.adoptme.dto.FlowResponse;
+import com.programacion3.adoptme.dto.LnsResponse;
+import com.programacion3.adoptme.dto.StableResponse;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Matching de todo el catálogo: toma la foto de CatalogService, la convierte al
+ * formato de los solvers (backtracking, LNS, flujo, estable) y arma la respuesta.
+ *
+ * Lo usan tanto los endpoints sincrónicos de /adoptions como los trabajos de /jobs,
+ * así ambos devuelven exactamente lo mismo.
+ */
+@Service
+public class AdoptionMatchingService {
+
+    /** Presupuesto de tiempo máximo del LNS (para no bloquear el servidor) */
+    public static final long MAX_LNS_TIME_MS = 30000;
+
+    private final CatalogService catalogService;
+    private final IncrementalAssignmentService incrementalAssignmentService;
+    private final LnsMatchingService lnsMatchingService;
+    private final MinCostFlowService minCostFlowService;
+    private final StableMatchingService stableMatchingService;
+
+    public AdoptionMatchingService(CatalogService catalogService,
+                                   IncrementalAssignmentService incrementalAssignmentService,
+                                   LnsMatchingService lnsMatchingService,
+                                   MinCostFlowService minCostFlowService,
+                                   StableMatchingService stableMatchingService) {
+        this.catalogService = catalogService;
+        this.incrementalAssignmentService = incrementalAssignmentService;
+        this.lnsMatchingService = lnsMatchingService;
+        this.minCostFlowService = minCostFlowService;
+        this.stableMatchingService = stableMatchingService;
+    }
+
+    /**
+     * Backtracking exacto, incremental respecto de la última versión del catálogo.
+     */
+    public BacktrackingResponse backtracking() {
+        var catalog = catalogService.snapshot();
+
+        if (catalog.available.isEmpty()) {
+            return new BacktrackingResponse("No dogs available for adoption", Map.of(), 0.0, null, 0, 0, 0);
+        }
+        if (catalog.adopters.isEmpty()) {
+            return new BacktrackingResponse("No adopters available", Map.of(), 0.0, null, 0, 0, 0);
+        }
+
+        var solved = incrementalAssignmentService.solve(
+                toBacktrackingDogs(compatibleWithAny(catalog)), toBacktrackingAdopters(feasibleAdopters(catalog)));
+        var result = solved.assignment;
+
+        return new BacktrackingResponse(
+                "Backtracking algorithm completed successfully",
+                toAdopterAssignments(result, catalog),
+                result.totalScore,
+                solved.mode.name(),
+                solved.catalogVersion,
+                result.nodesExplored,
+                result.cacheHits
+        );
+    }
+
+    /**
+     * Large Neighborhood Search con presupuesto de tiempo y cadenas en paralelo.
+     * El tiempo se acota a [10, MAX_LNS_TIME_MS] y las cadenas a los núcleos disponibles.
+     */
+    public LnsResponse lns(long timeMs, int chains, long seed) {
+        var catalog = catalogService.snapshot();
+
+        if (catalog.available.isEmpty() || catalog.adopters.isEmpty()) {
+            return new LnsResponse("No dogs or adopters available", Map.of(), 0.0, 0.0, 0, 0, 0, 0);
+        }
+
+        long budgetMs = Math.max(10, Math.min(timeMs, MAX_LNS_TIME_MS));
+        int chainCount = Math.max(1, Math.min(chains, Runtime.getRuntime().availableProcessors()));
+
+        var result = lnsMatchingService.solve(
+                toBacktrackingDogs(compatibleWithAny(catalog)), toBacktrackingAdopters(feasibleAdopters(catalog)),
+                budgetMs, chainCount, seed);
+
+        return new LnsResponse(
+                "Large Neighborhood Search completed",
+                toAdopterAssignments(result.assignment, catalog),
+                result.assignment.totalScore,
+                result.initialScore,
+                result.iterations,
+                result.improvements,
+                result.chains,
+                result.elapsedMs
+        );
+    }
+
+    /**
+     * Relajación por flujo de costo mínimo (cota superior + asignación reparada).
+     */
+    public FlowResponse flow() {
+        var catalog = catalogService.snapshot();
+
+        if (catalog.available.isEmpty() || catalog.adopters.isEmpty()) {
+            return new FlowResponse("No dogs or adopters available", Map.of(), 0.0, 0.0, true);
+        }
+
+        var result = minCostFlowService.solve(toBacktrackingDogs(compatibleWithAny(catalog)),
+                toBacktrackingAdopters(feasibleAdopters(catalog)));
+
+        return new FlowResponse(
+                "Min-cost flow completed",
+                toAdopterAssignments(new BacktrackingService.Assignment(result.assignments, result.score), catalog),
+                result.score,
+                result.upperBound,
+                result.budgetFeasible
+        );
+    }
+
+    /**
+     * Matching estable global (Gale-Shapley con los perros proponiendo).
+     */
+    public StableResponse stable() {
+        var catalog = catalogService.snapshot();
+
+        if (catalog.available.isEmpty() || catalog.adopters.isEmpty()) {
+            return new StableResponse("No dogs or adopters available", Map.of(), 0.0, 0, 0, 0);
+        }
+
+        var result = stableMatchingService.solve(toBacktrackingDogs(compatibleWithAny(catalog)),
+                toBacktrackingAdopters(feasibleAdopters(catalog)));
+
+        return new StableResponse(
+                "Stable matching completed",
+                toAdopterAssignments(result.assignment, catalog),
+                result.assignment.totalScore,
+                result.proposals,
+                result.unmatchedDogs,
+                result.elapsedMs
+        );
+    }
+
+    /**
+     * Descarta los perros que no son compatibles con ningún adoptante: el backtracking
+     * los rechazaría en cada canAssign y además ocupan lugares del límite de 20 perros.
+     * Sale de la matriz de compatibilidad del catálogo (OR de las filas).
+     */
+    private List<Dog> compatibleWithAny(CatalogService.Snapshot catalog) {
+        int[] positions = catalog.compatibility.dogsCompatibleWithAny();
+        return Arrays.stream(positions).mapToObj(catalog.available::get).toList();
+    }
+
+    /**
+     * Adoptantes con al menos un perro compatible: los demás no pueden recibir nada
+     * y sólo agrandarían la búsqueda.
+     */
+    private List<Adopter> feasibleAdopters(CatalogService.Snapshot catalog) {
+        return IntStream.range(0, catalog.adopters.size())
+                .filter(a -> catalog.compatibility.feasibleCount(a) > 0)
+                .mapToObj(catalog.adopters::get)
+                .toList();
+    }
+
+    private List<BacktrackingService.Dog> toBacktrackingDogs(List<Dog> dogs) {
+        DogFeatureTable table = DogFeatureTable.from(dogs);
+        return IntStream.range(0, table.size()).mapToObj(table::toBacktrackingDog).toList();
+    }
+
+    private List<BacktrackingService.Adopter> toBacktrackingAdopters(List<Adopter> adopters) {
+        return adopters.stream()
+                .map(a -> new BacktrackingService.Adopter(
+                        a.getId(),
+                        a.getName(),
+                        a.getHasKids() != null && a.getHasKids(),
+                        a.getHasYard() != null && a.getHasYard(),
+                        a.getMaxDogs() != null ? a.getMaxDogs() : 1,
+                        a.getBudget() != null ? a.getBudget() : 20000.0,
+                        5 // energía preferida default (media)
+                ))
+                .toList();
+    }
+
+    private Map<String, AdopterAssignment> toAdopterAssignments(BacktrackingService.Assignment result,
+                                                                CatalogService.Snapshot catalog) {
+        Map<String, AdopterAssignment> assignments = new HashMap<>();
+
+        for (var adopter : catalog.adopters) {
+            List<String> dogIds = result.assignments.getOrDefault(adopter.getId(), List.of());
+
+            if (!dogIds.isEmpty()) {
+                List<AssignedDog> assignedDogs = dogIds.stream()
+                        .map(dogId -> {
+                            // Búsquedas O(1) por id en la foto del catálogo
+                            int position = catalog.dogPosition(dogId);
+                            double cost = position >= 0 ? catalog.features.cost(position) : 0.0;
+                            return new AssignedDog(dogId, catalog.dogName(dogId), cost);
+                        })
+                        .toList();
+
+                assignments.put(adopter.getId(), new AdopterAssignment(
+                        adopter.getId(),
+                        adopter.getName(),
+                        assignedDogs
+                ));
+            }
+        }
+        return assignments;
+    }
+}
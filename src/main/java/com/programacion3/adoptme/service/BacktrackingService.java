@@ -1,5 +1,6 @@
 package com.programacion3.adoptme.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -16,6 +17,31 @@ import java.util.*;
 @Service
 public class BacktrackingService {
 
+    /** Máxima cantidad de perros que explora el backtracking exhaustivo */
+    public static final int MAX_DOGS = 20;
+
+    private static final long TIMEOUT_MS = 5000;
+
+    /** Con pocos adoptantes los subproblemas se repiten: se memorizan en lugar de re-explorarse */
+    static final int MEMO_MAX_ADOPTERS = 4;
+
+    /** Máxima cantidad de estados memorizados (LRU) */
+    static final int MEMO_CACHE_SIZE = 200_000;
+
+    /** Tolerancia al comparar contra la cota del flujo */
+    private static final double EPS = 1e-6;
+
+    private final MinCostFlowService minCostFlowService;
+
+    public BacktrackingService() {
+        this(new MinCostFlowService());
+    }
+
+    @Autowired
+    public BacktrackingService(MinCostFlowService minCostFlowService) {
+        this.minCostFlowService = minCostFlowService;
+    }
+
     /**
      * Información de un perro para asignación
      */
@@ -65,10 +91,28 @@ public class BacktrackingService {
     public static class Assignment {
         public final Map<String, List<String>> assignments; // adopterId -> [dogIds]
         public final double totalScore;
+        public final int nodesExplored;
+        public final boolean timedOut; // true si la búsqueda se cortó antes de probar optimalidad
+        public final long cacheHits;   // subproblemas resueltos desde la memoización
+        public final long cacheMisses; // subproblemas calculados (y memorizados)
 
         public Assignment(Map<String, List<String>> assignments, double totalScore) {
+            this(assignments, totalScore, 0, false);
+        }
+
+        public Assignment(Map<String, List<String>> assignments, double totalScore,
+                          int nodesExplored, boolean timedOut) {
+            this(assignments, totalScore, nodesExplored, timedOut, 0, 0);
+        }
+
+        public Assignment(Map<String, List<String>> assignments, double totalScore,
+                          int nodesExplored, boolean timedOut, long cacheHits, long cacheMisses) {
             this.assignments = assignments;
             this.totalScore = totalScore;
+            this.nodesExplored = nodesExplored;
+            this.timedOut = timedOut;
+            this.cacheHits = cacheHits;
+            this.cacheMisses = cacheMisses;
         }
     }
 
@@ -80,13 +124,41 @@ public class BacktrackingService {
      * @return mejor asignación encontrada
      */
     public Assignment findBestAssignment(List<Dog> dogs, List<Adopter> adopters) {
+        return findBestAssignment(dogs, adopters, null);
+    }
+
+    /**
+     * Igual que {@link #findBestAssignment(List, List)} pero arrancando con una
+     * solución incumbente (por ejemplo, la asignación anterior reparada).
+     * Con un buen incumbente la poda por cota descarta casi todo el árbol.
+     *
+     * @param incumbent solución factible para estos perros/adoptantes, o null
+     */
+    public Assignment findBestAssignment(List<Dog> dogs, List<Adopter> adopters, Assignment incumbent) {
+        Assignment result = solveExact(dogs, adopters, incumbent);
+
+        System.out.println("[BACKTRACKING] Explored " + result.nodesExplored + " nodes");
+        System.out.println("[BACKTRACKING] Best score: " + result.totalScore);
+        if (result.cacheHits + result.cacheMisses > 0) {
+            System.out.println("[BACKTRACKING] Memo cache: " + result.cacheHits + " hits / "
+                    + result.cacheMisses + " misses");
+        }
+
+        return result;
+    }
+
+    /**
+     * Búsqueda exacta sin logging, para motores que la invocan muchas veces
+     * sobre vecindarios chicos (por ejemplo, LNS).
+     */
+    Assignment solveExact(List<Dog> dogs, List<Adopter> adopters, Assignment incumbent) {
         if (dogs.isEmpty() || adopters.isEmpty()) {
             return new Assignment(new HashMap<>(), 0.0);
         }
 
         // OPTIMIZATION: Limit to first 20 dogs to keep execution time reasonable
         // With 30+ dogs and 15 adopters, complexity becomes too high
-        List<Dog> limitedDogs = dogs.size() > 20 ? dogs.subList(0, 20) : dogs;
+        List<Dog> limitedDogs = dogs.size() > MAX_DOGS ? dogs.subList(0, MAX_DOGS) : dogs;
 
         // Estado inicial: ningún perro asignado
         Map<String, List<String>> currentAssignment = new HashMap<>();
@@ -102,15 +174,80 @@ public class BacktrackingService {
         // Variables para la mejor solución encontrada
         BestSolution best = new BestSolution();
         best.startTime = System.currentTimeMillis();
-        best.timeoutMs = 5000; // 5 second timeout
+        best.timeoutMs = TIMEOUT_MS;
+        best.suffixBound = suffixBounds(limitedDogs, adopters);
 
-        // Iniciar backtracking
+        if (incumbent != null) {
+            best.score = incumbent.totalScore;
+            best.assignments = deepCopy(incumbent.assignments);
+        }
+
+        // Cota global por flujo de costo mínimo (relajación sin presupuesto acumulado).
+        // Su reparación es factible y sirve de incumbente si es mejor que el recibido.
+        // Sin ningún par compatible la cota es 0 y se corta acá.
+        MinCostFlowService.FlowResult flow = minCostFlowService.solve(limitedDogs, adopters);
+        best.globalBound = flow.upperBound;
+        if (flow.score > best.score) {
+            best.score = flow.score;
+            best.assignments = deepCopy(flow.assignments);
+        }
+
+        if (best.reachedBound()) {
+            return new Assignment(best.assignments, best.score, best.nodesExplored, best.timedOut);
+        }
+
+        // Pocos adoptantes: programación dinámica memorizada sobre el estado residual
+        if (adopters.size() <= MEMO_MAX_ADOPTERS) {
+            MemoSearch memo = MemoSearch.create(limitedDogs, adopters, best);
+            if (memo != null) {
+                Map<String, List<String>> assignments = memo.solve();
+                if (assignments != null && memo.optimum > best.score) {
+                    best.score = memo.optimum;
+                    best.assignments = assignments;
+                }
+                return new Assignment(best.assignments, best.score, (int) memo.misses, best.timedOut,
+                        memo.hits, memo.misses);
+            }
+        }
+
+        // Compatibilidad (niños / jardín) precalculada: en cada nodo sólo se prueban
+        // los adoptantes de la columna del perro, sin reevaluar las reglas. Sólo la lee
+        // el backtracking, así que no se arma si cortan la cota o la memoización.
+        CompatibilityMatrix compatibility = CompatibilityMatrix.fromBacktracking(limitedDogs, adopters);
+        best.adoptersFor = new int[limitedDogs.size()][];
+        for (int i = 0; i < limitedDogs.size(); i++) {
+            best.adoptersFor[i] = compatibility.adoptersFor(i);
+        }
+
+        // Iniciar backtracking (sólo si el incumbente todavía no alcanza la cota)
         backtrack(0, limitedDogs, adopters, currentAssignment, currentCost, 0.0, best);
 
-        System.out.println("[BACKTRACKING] Explored " + best.nodesExplored + " nodes");
-        System.out.println("[BACKTRACKING] Best score: " + best.score);
+        return new Assignment(best.assignments, best.score, best.nodesExplored, best.timedOut);
+    }
+
+    /**
+     * Cota superior optimista: suffixBound[i] = suma, para los perros i..n-1,
+     * del mejor score que cada uno podría aportar con algún adoptante compatible.
+     */
+    private double[] suffixBounds(List<Dog> dogs, List<Adopter> adopters) {
+        double[] bound = new double[dogs.size() + 1];
+        for (int i = dogs.size() - 1; i >= 0; i--) {
+            bound[i] = bound[i + 1] + bestScoreFor(dogs.get(i), adopters);
+        }
+        return bound;
+    }
 
-        return new Assignment(best.assignments, best.score);
+    /**
+     * Mejor score que un perro puede aportar con alguno de los adoptantes (0 si no encaja en ninguno).
+     */
+    static double bestScoreFor(Dog dog, List<Adopter> adopters) {
+        double max = 0.0;
+        for (Adopter adopter : adopters) {
+            if (adopter.maxDogs > 0 && dog.cost <= adopter.budget && isCompatible(dog, adopter)) {
+                max = Math.max(max, calculateScore(dog, adopter));
+            }
+        }
+        return max;
     }
 
     /**
@@ -120,11 +257,25 @@ public class BacktrackingService {
         Map<String, List<String>> assignments = new HashMap<>();
         double score = 0.0;
         long startTime = 0;
-        long timeoutMs = 5000;
+        long timeoutMs = TIMEOUT_MS;
         int nodesExplored = 0;
+        boolean timedOut = false;
+        double[] suffixBound;
+        int[][] adoptersFor; // adoptantes compatibles con cada perro (columna de la matriz)
+        double globalBound = Double.POSITIVE_INFINITY;
+
+        /** La mejor solución ya es óptima: iguala la cota del flujo */
+        boolean reachedBound() {
+            return score >= globalBound - EPS;
+        }
 
         boolean isTimeout() {
-            return System.currentTimeMillis() - startTime > timeoutMs;
+            // También se corta si el hilo fue interrumpido (trabajo cancelado)
+            if (!timedOut && (System.currentTimeMillis() - startTime > timeoutMs
+                    || Thread.currentThread().isInterrupted())) {
+                timedOut = true;
+            }
+            return timedOut;
         }
     }
 
@@ -148,8 +299,8 @@ public class BacktrackingService {
             double currentScore,
             BestSolution best
     ) {
-        // Check timeout
-        if (best.isTimeout()) {
+        // Check timeout (o corte porque ya se alcanzó la cota del flujo)
+        if (best.isTimeout() || best.reachedBound()) {
             return;
         }
 
@@ -165,13 +316,19 @@ public class BacktrackingService {
             return;
         }
 
+        // Poda: ni asignando cada perro restante a su mejor adoptante se supera la mejor solución
+        if (currentScore + best.suffixBound[dogIndex] <= best.score) {
+            return;
+        }
+
         Dog dog = dogs.get(dogIndex);
 
         // Opción 1: No asignar este perro a nadie (puede quedar sin adoptar)
         backtrack(dogIndex + 1, dogs, adopters, currentAssignment, currentCost, currentScore, best);
 
-        // Opción 2: Intentar asignar este perro a cada adoptante
-        for (Adopter adopter : adopters) {
+        // Opción 2: Intentar asignar este perro a cada adoptante compatible
+        for (int a : best.adoptersFor[dogIndex]) {
+            Adopter adopter = adopters.get(a);
             // Check timeout periodically
             if (best.nodesExplored % 1000 == 0 && best.isTimeout()) {
                 return;
@@ -199,6 +356,7 @@ public class BacktrackingService {
 
     /**
      * Verifica si se puede asignar un perro a un adoptante respetando restricciones.
+     * La compatibilidad (niños / jardín) ya la filtró la matriz: acá sólo cupo y presupuesto.
      */
     private boolean canAssign(
             Dog dog,
@@ -212,10 +370,13 @@ public class BacktrackingService {
         }
 
         // Restricción 2: No exceder presupuesto
-        if (currentCost.get(adopter.id) + dog.cost > adopter.budget) {
-            return false;
-        }
+        return currentCost.get(adopter.id) + dog.cost <= adopter.budget;
+    }
 
+    /**
+     * Restricciones duras que no dependen del estado de la búsqueda.
+     */
+    static boolean isCompatible(Dog dog, Adopter adopter) {
         // Restricción 3: Si el perro no es bueno con niños y el adoptante tiene niños, no asignar
         if (adopter.hasKids && !dog.goodWithKids) {
             return false;
@@ -232,7 +393,7 @@ public class BacktrackingService {
     /**
      * Calcula el score de asignar un perro específico a un adoptante específico.
      */
-    private double calculateScore(Dog dog, Adopter adopter) {
+    static double calculateScore(Dog dog, Adopter adopter) {
         double score = 0.0;
 
         // +5 puntos si es compatible con niños y el adoptante tiene niños
@@ -252,6 +413,217 @@ public class BacktrackingService {
         return score;
     }
 
+    /**
+     * Búsqueda exacta memorizada para pocos adoptantes.
+     *
+     * El valor óptimo de los perros i..n-1 sólo depende de i y de lo que le queda
+     * a cada adoptante (lugares y presupuesto), no de qué perros tomó antes. El
+     * estado se codifica en un long con base mixta:
+     * - presupuesto discretizado en unidades del MCD de los costos (exacto), y
+     *   acotado por el costo total de los perros que faltan;
+     * - lugares acotados por la cantidad de perros que faltan.
+     * Así, estados que sólo difieren en holgura que ya no se puede usar coinciden.
+     *
+     * El caché es un LRU acotado; si un estado se desaloja, se recalcula.
+     */
+    private static final class MemoSearch {
+        private final List<Dog> dogs;
+        private final List<Adopter> adopters;
+        private final int n;
+        private final int m;
+        private final double[][] score;  // score[d][a], NaN si no es compatible
+        private final long[] costUnits;
+        private final long[] suffixUnits; // costo total (en unidades) de los perros i..n-1
+        private final long[] slotRadix;
+        private final long[] budgetRadix;
+        private final long[] slots;      // estado residual actual
+        private final long[] budget;
+        private final BestSolution clock;
+        private final Map<Long, MemoEntry> cache = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, MemoEntry> eldest) {
+                return size() > MEMO_CACHE_SIZE;
+            }
+        };
+        long hits;
+        long misses;
+        double optimum;
+
+        private record MemoEntry(double value, int choice) {}
+
+        private MemoSearch(List<Dog> dogs, List<Adopter> adopters, long[] costUnits, long[] budgetUnits,
+                           BestSolution clock) {
+            this.dogs = dogs;
+            this.adopters = adopters;
+            this.n = dogs.size();
+            this.m = adopters.size();
+            this.costUnits = costUnits;
+            this.clock = clock;
+            this.score = new double[n][m];
+            DogFeatureTable table = DogFeatureTable.fromBacktracking(dogs);
+            double[] row = new double[n];
+            for (int a = 0; a < m; a++) {
+                // Perros fuera de presupuesto tampoco se pueden tomar nunca: se descartan acá
+                table.matchScores(adopters.get(a), row);
+                for (int d = 0; d < n; d++) {
+                    score[d][a] = row[d] >= 0 ? row[d] : Double.NaN;
+                }
+            }
+            this.suffixUnits = new long[n + 1];
+            for (int i = n - 1; i >= 0; i--) {
+                suffixUnits[i] = suffixUnits[i + 1] + costUnits[i];
+            }
+            this.slots = new long[m];
+            this.budget = new long[m];
+            this.slotRadix = new long[m];
+            this.budgetRadix = new long[m];
+            for (int a = 0; a < m; a++) {
+                slots[a] = Math.max(0, Math.min(adopters.get(a).maxDogs, n));
+                budget[a] = Math.min(budgetUnits[a], suffixUnits[0]);
+                slotRadix[a] = slots[a] + 1;
+                budgetRadix[a] = budget[a] + 1;
+            }
+        }
+
+        /**
+         * Prepara la búsqueda, o devuelve null si no aplica: costos no enteros
+         * o un espacio de estados que no entra en la clave de 64 bits.
+         */
+        static MemoSearch create(List<Dog> dogs, List<Adopter> adopters, BestSolution clock) {
+            long gcd = 0;
+            for (Dog dog : dogs) {
+                if (dog.cost < 0 || dog.cost != Math.rint(dog.cost) || dog.cost > Long.MAX_VALUE / 2) {
+                    return null;
+                }
+                gcd = gcd(gcd, (long) dog.cost);
+            }
+            long unit = gcd == 0 ? 1 : gcd;
+            long[] costUnits = new long[dogs.size()];
+            for (int d = 0; d < dogs.size(); d++) {
+                costUnits[d] = (long) dogs.get(d).cost / unit;
+            }
+            long[] budgetUnits = new long[adopters.size()];
+            for (int a = 0; a < adopters.size(); a++) {
+                // Presupuesto negativo: no puede tomar ningún perro (ni siquiera de costo 0)
+                budgetUnits[a] = adopters.get(a).budget < 0 ? -1 : (long) Math.floor(adopters.get(a).budget / unit);
+            }
+
+            MemoSearch search = new MemoSearch(dogs, adopters, costUnits, budgetUnits, clock);
+            try {
+                long states = dogs.size() + 1;
+                for (int a = 0; a < adopters.size(); a++) {
+                    if (budgetUnits[a] < 0) {
+                        search.slots[a] = 0;
+                        search.budget[a] = 0;
+                        search.slotRadix[a] = 1;
+                        search.budgetRadix[a] = 1;
+                    }
+                    states = Math.multiplyExact(states, search.slotRadix[a]);
+                    states = Math.multiplyExact(states, search.budgetRadix[a]);
+                }
+            } catch (ArithmeticException e) {
+                return null;
+            }
+            return search;
+        }
+
+        /**
+         * Resuelve y reconstruye la asignación óptima siguiendo las decisiones memorizadas.
+         * Devuelve null si se cortó por timeout.
+         */
+        Map<String, List<String>> solve() {
+            MemoEntry root = entry(0);
+            if (root == null) {
+                return null;
+            }
+            optimum = root.value();
+
+            Map<String, List<String>> assignments = new HashMap<>();
+            for (Adopter adopter : adopters) {
+                assignments.put(adopter.id, new ArrayList<>());
+            }
+            for (int i = 0; i < n; i++) {
+                MemoEntry current = entry(i);
+                if (current == null) {
+                    return null;
+                }
+                int a = current.choice();
+                if (a >= 0) {
+                    assignments.get(adopters.get(a).id).add(dogs.get(i).id);
+                    slots[a]--;
+                    budget[a] -= costUnits[i];
+                }
+            }
+            return assignments;
+        }
+
+        private MemoEntry entry(int i) {
+            if (i == n) {
+                return new MemoEntry(0.0, -1);
+            }
+            if ((misses & 1023) == 0 && clock.isTimeout()) {
+                return null;
+            }
+            long key = encode(i);
+            MemoEntry cached = cache.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+
+            // Opción 1: el perro queda sin adoptar
+            MemoEntry skip = entry(i + 1);
+            if (skip == null) {
+                return null;
+            }
+            double bestValue = skip.value();
+            int bestChoice = -1;
+
+            // Opción 2: asignarlo a cada adoptante que todavía pueda recibirlo
+            for (int a = 0; a < m; a++) {
+                if (Double.isNaN(score[i][a]) || slots[a] == 0 || costUnits[i] > budget[a]) {
+                    continue;
+                }
+                slots[a]--;
+                budget[a] -= costUnits[i];
+                MemoEntry next = entry(i + 1);
+                slots[a]++;
+                budget[a] += costUnits[i];
+                if (next == null) {
+                    return null;
+                }
+                if (score[i][a] + next.value() > bestValue) {
+                    bestValue = score[i][a] + next.value();
+                    bestChoice = a;
+                }
+            }
+
+            MemoEntry result = new MemoEntry(bestValue, bestChoice);
+            cache.put(key, result);
+            return result;
+        }
+
+        private long encode(int i) {
+            long key = i;
+            int remaining = n - i;
+            for (int a = 0; a < m; a++) {
+                key = key * slotRadix[a] + Math.min(slots[a], remaining);
+                key = key * budgetRadix[a] + Math.min(budget[a], suffixUnits[i]);
+            }
+            return key;
+        }
+
+        private static long gcd(long a, long b) {
+            while (b != 0) {
+                long t = a % b;
+                a = b;
+                b = t;
+            }
+            return a;
+        }
+    }
+
     /**
      * Crea una copia profunda del mapa de asignaciones.
      */
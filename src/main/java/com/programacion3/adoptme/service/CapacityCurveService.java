@@ -0,0 +1,126 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.service.TransportService.KnapsackResult;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Curva "prioridad total vs capacidad del vehículo" para planificar la compra de la flota.
+ *
+ * La curva sale de una sola fila de DP (ver {@link TransportService#valueCurve}) y se
+ * guarda para la versión actual del catálogo; si se pide un rango más ancho se calcula
+ * la fila hasta el nuevo máximo y reemplaza a la anterior (las filas más cortas son
+ * prefijos de las más largas). Las cargas concretas sólo se reconstruyen para las
+ * capacidades pedidas, recorriendo las decisiones que guardó esa misma DP (O(perros), sin
+ * volver a resolver), y también se guardan. Si la curva es demasiado grande para guardar
+ * decisiones, la carga se resuelve aparte con {@link TransportService#optimizeTransport}.
+ * Cuando cambia la versión del catálogo (alta, edición o adopción de un perro) se
+ * descarta todo.
+ */
+@Service
+public class CapacityCurveService {
+
+    /** Capacidad máxima de la curva (una fila de 4 MB) */
+    public static final int MAX_CAPACITY_KG = 1_000_000;
+
+    /**
+     * Curva en el rango pedido con las cargas de las capacidades pedidas
+     */
+    public static class Curve {
+        public final long catalogVersion;
+        public final int fromKg;
+        public final int toKg;
+        public final int[] values;                        // values[i] = óptimo con fromKg + i kg
+        public final List<Integer> breakpoints;           // capacidades donde la curva sube
+        public final Map<Integer, KnapsackResult> selections;
+
+        public Curve(long catalogVersion, int fromKg, int toKg, int[] values, List<Integer> breakpoints,
+                     Map<Integer, KnapsackResult> selections) {
+            this.catalogVersion = catalogVersion;
+            this.fromKg = fromKg;
+            this.toKg = toKg;
+            this.values = values;
+            this.breakpoints = breakpoints;
+            this.selections = selections;
+        }
+    }
+
+    private final CatalogService catalogService;
+    private final TransportService transportService;
+
+    private long version = -1;
+    private TransportService.ValueCurve row;
+    private final Map<Integer, KnapsackResult> selections = new HashMap<>();
+    private long rowComputations;
+    private long selectionComputations;
+
+    public CapacityCurveService(CatalogService catalogService, TransportService transportService) {
+        this.catalogService = catalogService;
+        this.transportService = transportService;
+    }
+
+    /**
+     * Curva entre fromKg y toKg (inclusive), con las cargas de selectAt.
+     *
+     * @throws IllegalArgumentException si el rango es inválido o alguna capacidad de selectAt es
+     *                                  nula, menor que 1 o queda fuera del rango
+     */
+    public synchronized Curve curve(int fromKg, int toKg, Collection<Integer> selectAt) {
+        if (fromKg < 0 || toKg < fromKg || toKg > MAX_CAPACITY_KG) {
+            throw new IllegalArgumentException("Invalid range: expected 0 <= from <= to <= " + MAX_CAPACITY_KG);
+        }
+        for (Integer c : selectAt) {
+            if (c == null || c < 1) {
+                throw new IllegalArgumentException("Invalid selection capacity: must be at least 1");
+            }
+            if (c < fromKg || c > toKg) {
+                throw new IllegalArgumentException("Selection capacity out of range: " + c);
+            }
+        }
+
+        CatalogService.Snapshot catalog = catalogService.snapshot();
+        if (catalog.version != version) {
+            version = catalog.version;
+            row = null;
+            selections.clear();
+        }
+        if (row == null || row.values.length <= toKg) {
+            row = transportService.valueCurve(catalog.available, toKg);
+            rowComputations++;
+        }
+
+        int[] values = Arrays.copyOfRange(row.values, fromKg, toKg + 1);
+        List<Integer> breakpoints = new ArrayList<>();
+        for (int c = fromKg; c <= toKg; c++) {
+            if (c == 0 ? row.values[0] > 0 : row.values[c] > row.values[c - 1]) {
+                breakpoints.add(c);
+            }
+        }
+
+        Map<Integer, KnapsackResult> selected = new LinkedHashMap<>();
+        for (int c : new TreeSet<>(selectAt)) {
+            KnapsackResult result = selections.get(c);
+            if (result == null) {
+                result = row.selection(c);
+                if (result == null) {
+                    result = transportService.optimizeTransport(catalog.available, c);
+                }
+                selections.put(c, result);
+                selectionComputations++;
+            }
+            selected.put(c, result);
+        }
+        return new Curve(version, fromKg, toKg, values, breakpoints, selected);
+    }
+
+    /** Filas de DP calculadas (para diagnóstico y tests) */
+    public synchronized long rowComputations() {
+        return rowComputations;
+    }
+
+    /** Cargas reconstruidas (para diagnóstico y tests) */
+    public synchronized long selectionComputations() {
+        return selectionComputations;
+    }
+}
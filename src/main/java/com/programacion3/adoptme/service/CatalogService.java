@@ -0,0 +1,470 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.domain.Adopter;
+import com.programacion3.adoptme.domain.Dog;
+import com.programacion3.adoptme.exception.DogAlreadyAdoptedException;
+import com.programacion3.adoptme.exception.ResourceNotFoundException;
+import com.programacion3.adoptme.repo.AdopterRepository;
+import com.programacion3.adoptme.repo.DogRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Catálogo en memoria de perros y adoptantes (modelo de lectura).
+ *
+ * Los endpoints leen de una foto inmutable del catálogo en lugar de llamar a
+ * findAll() en cada request. La foto trae índices por id (búsquedas O(1)), la
+ * tabla columnar para los scorers y el índice de bitmaps para los filtros.
+ *
+ * Las escrituras pasan por este servicio (o lo invalidan): cada cambio arma una
+ * foto nueva con la versión siguiente. Los lectores que ya tomaron una foto la
+ * siguen usando sin bloqueos; la referencia se publica con volatile.
+ *
+ * Además mantiene la vista de perros disponibles (sin relación :ADOPTS), que es
+ * lo único que ven los solvers. Al registrar una adopción la vista se actualiza
+ * en memoria: la tabla de todos los perros y los índices por id se reutilizan y
+ * de la vista sólo se quita la posición del perro adoptado.
+ *
+ * La matriz de compatibilidad (disponibles × adoptantes) se actualiza por fila o
+ * columna cuando cambia un adoptante o un perro, sobre una copia para no tocar
+ * la foto que están leyendo otros requests.
+ */
+@Service
+public class CatalogService {
+
+    /**
+     * Foto inmutable del catálogo
+     */
+    public static class Snapshot {
+        public final long version;
+        public final List<Dog> dogs;
+        public final List<Adopter> adopters;
+        public final DogFeatureTable features; // alineada con dogs
+        public final DogBitmapIndex index;     // alineado con dogs
+
+        // Vista de perros disponibles (los candidatos de los solvers)
+        public final List<Dog> available;
+        public final DogFeatureTable availableFeatures; // alineada con available
+        public final DogBitmapIndex availableIndex;     // alineado con available
+        public final CompatibilityMatrix compatibility; // available × adopters (sólo lectura)
+
+        final Map<String, String> shelterByDog;
+        // Posiciones por id. Perros y adoptantes nunca se quitan de dogs/adopters (sólo se
+        // agregan al final), así que hasta la próxima recarga todas las fotos comparten estos
+        // mapas: un alta agrega su id y las fotos anteriores lo ignoran porque su lista es más corta.
+        private final Map<String, Integer> dogPosition;
+        private final Map<String, Integer> adopterPosition;
+        // Bit i prendido si dogs[i] está disponible; rank[w] = disponibles antes de la palabra w.
+        // Con los dos, la posición en la vista de disponibles sale en O(1) sin un mapa por id.
+        private final long[] availableBits;
+        private final int[] availableRank;
+
+        Snapshot(long version, List<Dog> dogs, List<Adopter> adopters,
+                 Map<String, String> shelterByDog, Set<String> adoptedIds) {
+            this.version = version;
+            this.dogs = List.copyOf(dogs);
+            this.adopters = List.copyOf(adopters);
+            this.shelterByDog = Map.copyOf(shelterByDog);
+            this.features = DogFeatureTable.from(this.dogs);
+            this.index = DogBitmapIndex.build(this.dogs, this.shelterByDog, adoptedIds);
+
+            this.dogPosition = new ConcurrentHashMap<>();
+            for (int i = 0; i < this.dogs.size(); i++) {
+                dogPosition.put(this.dogs.get(i).getId(), i);
+            }
+            this.adopterPosition = new ConcurrentHashMap<>();
+            for (int i = 0; i < this.adopters.size(); i++) {
+                adopterPosition.put(this.adopters.get(i).getId(), i);
+            }
+
+            List<Dog> free = new ArrayList<>(this.dogs.size());
+            long[] bits = new long[(this.dogs.size() + 63) >>> 6];
+            for (int i = 0; i < this.dogs.size(); i++) {
+                Dog d = this.dogs.get(i);
+                if (!adoptedIds.contains(d.getId())) {
+                    free.add(d);
+                    bits[i >>> 6] |= 1L << i;
+                }
+            }
+            this.availableBits = bits;
+            this.availableRank = rank(bits);
+            this.available = Collections.unmodifiableList(free);
+            this.availableFeatures = DogFeatureTable.from(this.available);
+            this.availableIndex = DogBitmapIndex.build(this.available, this.shelterByDog, Set.of());
+            this.compatibility = CompatibilityMatrix.from(this.availableFeatures, this.adopters);
+        }
+
+        private Snapshot(long version, List<Dog> dogs, DogFeatureTable features, DogBitmapIndex index,
+                         Map<String, Integer> dogPosition, List<Adopter> adopters, Map<String, Integer> adopterPosition, Map<String, String> shelterByDog,
+                         long[] availableBits, int[] availableRank, List<Dog> available,
+                         DogFeatureTable availableFeatures, DogBitmapIndex availableIndex,
+                         CompatibilityMatrix compatibility) {
+            this.version = version;
+            this.dogs = dogs;
+            this.features = features;
+            this.index = index;
+            this.dogPosition = dogPosition;
+            this.adopters = adopters;
+            this.adopterPosition = adopterPosition;
+            this.shelterByDog = shelterByDog;
+            this.availableBits = availableBits;
+            this.availableRank = availableRank;
+            this.available = available;
+            this.availableFeatures = availableFeatures;
+            this.availableIndex = availableIndex;
+            this.compatibility = compatibility;
+        }
+
+        /**
+         * Foto siguiente con un perro nuevo o modificado y la matriz ya actualizada. Sólo se
+         * reemplaza (o agrega) su fila en las tablas y sus bits en los índices; si está adoptado
+         * la vista de disponibles no cambia. Los adoptantes se comparten.
+         */
+        Snapshot withDog(long version, Dog dog, CompatibilityMatrix compatibility) {
+            String id = dog.getId();
+            int p = dogPosition(id);
+            boolean added = p < 0;
+            List<Dog> allDogs = new ArrayList<>(dogs);
+            long[] bits = availableBits;
+            int[] rank = availableRank;
+            if (added) {
+                p = dogs.size();
+                allDogs.add(dog);
+                dogPosition.put(id, p);
+                bits = Arrays.copyOf(availableBits, (p + 64) >>> 6); // los nuevos llegan disponibles
+                bits[p >>> 6] |= 1L << p;
+                rank = rank(bits);
+            } else {
+                allDogs.set(p, dog);
+            }
+            boolean adopted = isAdopted(id);
+            String shelter = shelterByDog.get(id);
+            DogFeatureTable nextFeatures = features.withDog(p, dog);
+            DogBitmapIndex nextIndex = index.withDog(p, dog, shelter,
+                    adopted ? DogBitmapIndex.ADOPTED : DogBitmapIndex.AVAILABLE);
+
+            List<Dog> free = available;
+            DogFeatureTable freeFeatures = availableFeatures;
+            DogBitmapIndex freeIndex = availableIndex;
+            if (!adopted) {
+                int d = added ? available.size() : availablePosition(id);
+                List<Dog> list = new ArrayList<>(available);
+                if (added) {
+                    list.add(dog);
+                } else {
+                    list.set(d, dog);
+                }
+                free = Collections.unmodifiableList(list);
+                freeFeatures = availableFeatures.withDog(d, dog);
+                freeIndex = availableIndex.withDog(d, dog, shelter, DogBitmapIndex.AVAILABLE);
+            }
+            return new Snapshot(version, Collections.unmodifiableList(allDogs), nextFeatures, nextIndex, dogPosition,
+                    adopters, adopterPosition, shelterByDog, bits, rank, free, freeFeatures, freeIndex, compatibility);
+        }
+
+        /**
+         * Foto siguiente con un adoptante nuevo o modificado y la matriz ya actualizada:
+         * todo lo de los perros se comparte.
+         */
+        Snapshot withAdopter(long version, Adopter adopter, CompatibilityMatrix compatibility) {
+            List<Adopter> list = new ArrayList<>(adopters);
+            int p = adopterPosition(adopter.getId());
+            if (p >= 0) {
+                list.set(p, adopter);
+            } else {
+                adopterPosition.put(adopter.getId(), list.size());
+                list.add(adopter);
+            }
+            return new Snapshot(version, dogs, features, index, dogPosition, Collections.unmodifiableList(list),
+                    adopterPosition, shelterByDog, availableBits, availableRank, available, availableFeatures,
+                    availableIndex, compatibility);
+        }
+
+        /** Posición del perro en available/availableFeatures/compatibility, o -1 si no está disponible */
+        public int availablePosition(String id) {
+            int p = dogPosition(id);
+            if (p < 0 || (availableBits[p >>> 6] & (1L << p)) == 0) {
+                return -1;
+            }
+            return availableRank[p >>> 6] + Long.bitCount(availableBits[p >>> 6] & ((1L << p) - 1));
+        }
+
+        /**
+         * Foto siguiente con un perro más adoptado. Perros, tabla completa y búsquedas por id
+         * se reutilizan; en el índice completo sólo cambian los bitsets de estado, y de la vista
+         * de disponibles (lista, tabla, índice y columna de la matriz) se quita la posición del
+         * perro sin volver a interpretar los demás.
+         */
+        Snapshot withAdopted(long version, String dogId) {
+            int p = dogPosition(dogId);
+            int d = availablePosition(dogId);
+            long[] bits = availableBits.clone();
+            bits[p >>> 6] &= ~(1L << p);
+            List<Dog> free = new ArrayList<>(available);
+            free.remove(d);
+            CompatibilityMatrix matrix = compatibility.copy();
+            matrix.removeDog(d);
+            return new Snapshot(version, dogs, features, index.withStatus(p, DogBitmapIndex.ADOPTED), dogPosition,
+                    adopters, adopterPosition, shelterByDog, bits, rank(bits),
+                    Collections.unmodifiableList(free), availableFeatures.without(d), availableIndex.without(d),
+                    matrix);
+        }
+
+        private static int[] rank(long[] bits) {
+            int[] rank = new int[bits.length];
+            for (int w = 1; w < bits.length; w++) {
+                rank[w] = rank[w - 1] + Long.bitCount(bits[w - 1]);
+            }
+            return rank;
+        }
+
+        public Optional<Dog> dog(String id) {
+            int position = dogPosition(id);
+            return position < 0 ? Optional.empty() : Optional.of(dogs.get(position));
+        }
+
+        /** Posición del perro en dogs/features/index, o -1 si no existe */
+        public int dogPosition(String id) {
+            Integer position = dogPosition.get(id);
+            return position != null && position < dogs.size() ? position : -1;
+        }
+
+        /** Posición del adoptante en adopters (fila de compatibility), o -1 si no existe */
+        public int adopterPosition(String id) {
+            Integer position = adopterPosition.get(id);
+            return position != null && position < adopters.size() ? position : -1;
+        }
+
+        public Optional<Adopter> adopter(String id) {
+            int position = adopterPosition(id);
+            return position < 0 ? Optional.empty() : Optional.of(adopters.get(position));
+        }
+
+        public boolean isAdopted(String id) {
+            int p = dogPosition(id);
+            return p >= 0 && (availableBits[p >>> 6] & (1L << p)) == 0;
+        }
+
+        public String dogName(String id) {
+            return dog(id).map(Dog::getName).orElse("Unknown");
+        }
+    }
+
+    private final DogRepository dogRepository;
+    private final AdopterRepository adopterRepository;
+    private final GraphLoader graphLoader;
+    /**
+     * Cambio puntual del catálogo (para que los modelos derivados se actualicen sin recalcular todo)
+     */
+    public static class Change {
+        public enum Kind { DOG, ADOPTER }
+
+        public final long version;
+        public final Kind kind;
+        public final String id;
+
+        public Change(long version, Kind kind, String id) {
+            this.version = version;
+            this.kind = kind;
+            this.id = id;
+        }
+    }
+
+    /**
+     * Posición de un modelo derivado en el registro de cambios. Cada {@link #advance} toma la
+     * foto actual y junta los perros y adoptantes que cambiaron desde la llamada anterior
+     * (sin repetir, en orden de llegada). Los cambios publicados después de tomar la foto
+     * quedan para la próxima llamada. No es thread-safe: cada consumidor usa el suyo bajo su
+     * propio lock.
+     */
+    public static class ChangeCursor {
+
+        /**
+         * Lo que hay que aplicar para llevar el modelo a la versión de la foto
+         */
+        public static class Delta {
+            public final Snapshot catalog;
+            public final boolean full;             // primera vez, recarga completa o registro descartado
+            public final Set<String> dogIds;       // vacíos si full
+            public final Set<String> adopterIds;
+
+            Delta(Snapshot catalog, boolean full, Set<String> dogIds, Set<String> adopterIds) {
+                this.catalog = catalog;
+                this.full = full;
+                this.dogIds = dogIds;
+                this.adopterIds = adopterIds;
+            }
+        }
+
+        private final CatalogService catalogService;
+        private long version = -1; // versión del catálogo ya aplicada
+
+        ChangeCursor(CatalogService catalogService) {
+            this.catalogService = catalogService;
+        }
+
+        public Delta advance() {
+            Snapshot catalog = catalogService.snapshot();
+            Set<String> dogIds = new LinkedHashSet<>();
+            Set<String> adopterIds = new LinkedHashSet<>();
+            if (catalog.version == version) {
+                return new Delta(catalog, false, dogIds, adopterIds);
+            }
+            List<Change> changes = version < 0 ? null : catalogService.changesSince(version);
+            if (changes != null) {
+                for (Change c : changes) {
+                    if (c.version > catalog.version) break; // llegó después de la foto: se aplica en la próxima
+                    (c.kind == Change.Kind.DOG ? dogIds : adopterIds).add(c.id);
+                }
+            }
+            version = catalog.version;
+            return new Delta(catalog, changes == null, dogIds, adopterIds);
+        }
+    }
+
+    /** Cambios recientes que se recuerdan; más atrás, los consumidores recalculan todo */
+    static final int MAX_CHANGES = 1024;
+
+    private volatile Snapshot snapshot;
+    private long version;
+    private final ArrayDeque<Change> changes = new ArrayDeque<>();
+    private long changesBase; // versión desde la que el registro de cambios está completo
+
+    public CatalogService(DogRepository dogRepository, AdopterRepository adopterRepository, GraphLoader graphLoader) {
+        this.dogRepository = dogRepository;
+        this.adopterRepository = adopterRepository;
+        this.graphLoader = graphLoader;
+    }
+
+    /**
+     * Foto actual del catálogo (se carga de la base la primera vez).
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : refresh();
+    }
+
+    /**
+     * Vuelve a leer todo de la base y publica una foto nueva.
+     * Los adoptados se deducen de la consulta de disponibles (findAvailable).
+     */
+    public synchronized Snapshot refresh() {
+        List<Dog> dogs = dogRepository.findAll();
+        Set<String> availableIds = new HashSet<>();
+        dogRepository.findAvailable().forEach(d -> availableIds.add(d.getId()));
+        Set<String> adoptedIds = new HashSet<>();
+        for (Dog d : dogs) {
+            if (!availableIds.contains(d.getId())) {
+                adoptedIds.add(d.getId());
+            }
+        }
+        List<Adopter> adopters = adopterRepository.findAll();
+        snapshot = new Snapshot(++version, dogs, adopters, graphLoader.loadDogShelters(), adoptedIds);
+        changes.clear(); // recarga completa: no hay diferencias puntuales
+        changesBase = version;
+        return snapshot;
+    }
+
+    /**
+     * Registra una adopción: crea la relación :ADOPTS y saca al perro de la vista de disponibles.
+     *
+     * @throws ResourceNotFoundException si el adoptante o el perro no existen
+     * @throws DogAlreadyAdoptedException si el perro ya tiene adoptante
+     */
+    public synchronized Snapshot adopt(String adopterId, String dogId) {
+        Snapshot current = snapshot();
+        if (current.adopter(adopterId).isEmpty()) {
+            throw new ResourceNotFoundException("Adopter not found: " + adopterId);
+        }
+        if (current.dog(dogId).isEmpty()) {
+            throw new ResourceNotFoundException("Dog not found: " + dogId);
+        }
+        if (current.isAdopted(dogId) || !graphLoader.createAdoption(adopterId, dogId)) {
+            throw new DogAlreadyAdoptedException("Dog already adopted: " + dogId);
+        }
+        snapshot = current.withAdopted(++version, dogId);
+        record(Change.Kind.DOG, dogId);
+        return snapshot;
+    }
+
+    /**
+     * Guarda un perro (alta o modificación) y publica una foto nueva sin releer la base.
+     */
+    public synchronized Dog saveDog(Dog dog) {
+        Dog saved = dogRepository.save(dog);
+        Snapshot current = snapshot();
+
+        // Sólo cambia la columna del perro (los nuevos quedan al final de los disponibles)
+        CompatibilityMatrix compatibility = current.compatibility;
+        if (!current.isAdopted(saved.getId())) {
+            DogFeatureTable row = DogFeatureTable.from(List.of(saved));
+            compatibility = compatibility.copy();
+            int column = current.availablePosition(saved.getId());
+            if (column >= 0) {
+                compatibility.setDog(column, row.goodWithKids(0), row.needsGarden(0));
+            } else {
+                compatibility.addDog(row.goodWithKids(0), row.needsGarden(0));
+            }
+        }
+        snapshot = current.withDog(++version, saved, compatibility);
+        record(Change.Kind.DOG, saved.getId());
+        return saved;
+    }
+
+    /**
+     * Guarda un adoptante y publica una foto nueva (sin recargar los perros).
+     */
+    public synchronized Adopter saveAdopter(Adopter adopter) {
+        Adopter saved = adopterRepository.save(adopter);
+        Snapshot current = snapshot();
+        int position = current.adopterPosition(saved.getId());
+
+        // Sólo cambia la fila del adoptante
+        boolean hasKids = Boolean.TRUE.equals(saved.getHasKids());
+        boolean hasGarden = Boolean.TRUE.equals(saved.getHasYard());
+        CompatibilityMatrix compatibility = current.compatibility.copy();
+        if (position >= 0) {
+            compatibility.setAdopter(position, hasKids, hasGarden);
+        } else {
+            compatibility.addAdopter(hasKids, hasGarden);
+        }
+        snapshot = current.withAdopter(++version, saved, compatibility);
+        record(Change.Kind.ADOPTER, saved.getId());
+        return saved;
+    }
+
+    /**
+     * Cursor nuevo sobre el registro de cambios (la primera llamada pide recalcular todo).
+     */
+    public ChangeCursor changeCursor() {
+        return new ChangeCursor(this);
+    }
+
+    /**
+     * Cambios publicados después de la versión dada, en orden.
+     *
+     * @return los cambios, o null si la versión es anterior a la última recarga completa
+     *         o ya se descartó del registro (hay que recalcular todo)
+     */
+    public synchronized List<Change> changesSince(long sinceVersion) {
+        if (sinceVersion < changesBase) {
+            return null;
+        }
+        List<Change> result = new ArrayList<>();
+        for (Change c : changes) {
+            if (c.version > sinceVersion) {
+                result.add(c);
+            }
+        }
+        return result;
+    }
+
+    private void record(Change.Kind kind, String id) {
+        changes.addLast(new Change(version, kind, id));
+        if (changes.size() > MAX_CHANGES) {
+            changesBase = changes.removeFirst().version;
+        }
+    }
+}
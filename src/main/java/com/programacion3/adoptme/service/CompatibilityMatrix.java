@@ -0,0 +1,287 @@
+package com.programacion3.adoptme.service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Matriz de compatibilidad adoptante × perro con las restricciones duras del backtracking:
+ * - si el adoptante tiene niños, el perro debe ser bueno con niños
+ * - si el adoptante no tiene jardín, el perro no puede necesitarlo (perros grandes)
+ *
+ * Cada adoptante tiene una fila long[] con un bit por perro. Las filas se arman
+ * palabra a palabra a partir de dos bitsets por atributo de los perros, así que
+ * construir la matriz cuesta O(adoptantes × perros / 64) y las consultas
+ * (compatibles de un adoptante, adoptantes sin ningún perro posible, unión de
+ * filas) son AND/OR/popcount sobre palabras.
+ *
+ * Es mutable: setDog/addDog/removeDog y setAdopter/addAdopter actualizan sólo la
+ * columna o la fila afectada. Quien la comparte entre hilos debe publicar una copia.
+ */
+public final class CompatibilityMatrix {
+
+    private long[] goodWithKids = new long[1]; // bit d: el perro d es bueno con niños
+    private long[] needsGarden = new long[1];  // bit d: el perro d necesita jardín
+    private boolean[] hasKids = new boolean[4];
+    private boolean[] hasGarden = new boolean[4];
+    private long[][] rows = new long[4][];
+    private int dogs;
+    private int adopters;
+
+    private CompatibilityMatrix() {
+    }
+
+    /**
+     * Matriz para los perros y adoptantes del backtracking (mismo orden que las listas).
+     */
+    public static CompatibilityMatrix fromBacktracking(List<BacktrackingService.Dog> dogs,
+                                                       List<BacktrackingService.Adopter> adopters) {
+        CompatibilityMatrix matrix = new CompatibilityMatrix();
+        matrix.ensureDogCapacity(dogs.size());
+        for (BacktrackingService.Dog d : dogs) {
+            matrix.setDogBits(matrix.dogs++, d.goodWithKids, d.needsGarden);
+        }
+        for (BacktrackingService.Adopter a : adopters) {
+            matrix.addAdopter(a.hasKids, a.hasGarden);
+        }
+        return matrix;
+    }
+
+    /**
+     * Matriz para una tabla de perros del catálogo y los adoptantes del dominio.
+     */
+    public static CompatibilityMatrix from(DogFeatureTable table,
+                                           List<com.programacion3.adoptme.domain.Adopter> adopters) {
+        CompatibilityMatrix matrix = new CompatibilityMatrix();
+        matrix.ensureDogCapacity(table.size());
+        for (int i = 0; i < table.size(); i++) {
+            matrix.setDogBits(matrix.dogs++, table.goodWithKids(i), table.needsGarden(i));
+        }
+        for (com.programacion3.adoptme.domain.Adopter a : adopters) {
+            matrix.addAdopter(Boolean.TRUE.equals(a.getHasKids()), Boolean.TRUE.equals(a.getHasYard()));
+        }
+        return matrix;
+    }
+
+    /**
+     * Copia independiente (para publicar una versión nueva sin tocar la anterior).
+     */
+    public CompatibilityMatrix copy() {
+        CompatibilityMatrix copy = new CompatibilityMatrix();
+        copy.goodWithKids = goodWithKids.clone();
+        copy.needsGarden = needsGarden.clone();
+        copy.hasKids = hasKids.clone();
+        copy.hasGarden = hasGarden.clone();
+        copy.rows = new long[rows.length][];
+        for (int a = 0; a < adopters; a++) {
+            copy.rows[a] = rows[a].clone();
+        }
+        copy.dogs = dogs;
+        copy.adopters = adopters;
+        return copy;
+    }
+
+    public int dogCount() {
+        return dogs;
+    }
+
+    public int adopterCount() {
+        return adopters;
+    }
+
+    // Actualizaciones incrementales
+
+    /**
+     * Agrega un perro al final y devuelve su posición. Actualiza un bit por fila.
+     */
+    public int addDog(boolean goodWithKids, boolean needsGarden) {
+        ensureDogCapacity(dogs + 1);
+        int d = dogs++;
+        setDog(d, goodWithKids, needsGarden);
+        return d;
+    }
+
+    /**
+     * Cambia los atributos de un perro existente: sólo se recalcula su columna.
+     */
+    public void setDog(int d, boolean goodWithKids, boolean needsGarden) {
+        setDogBits(d, goodWithKids, needsGarden);
+        int w = d >>> 6;
+        long bit = 1L << d;
+        for (int a = 0; a < adopters; a++) {
+            if (compatible(hasKids[a], hasGarden[a], goodWithKids, needsGarden)) {
+                rows[a][w] |= bit;
+            } else {
+                rows[a][w] &= ~bit;
+            }
+        }
+    }
+
+    /**
+     * Quita el perro d: los perros siguientes bajan una posición (se corre un bit
+     * cada palabra de cada fila desde la de d).
+     */
+    public void removeDog(int d) {
+        DogBitmapIndex.removeBit(goodWithKids, d);
+        DogBitmapIndex.removeBit(needsGarden, d);
+        for (int a = 0; a < adopters; a++) {
+            DogBitmapIndex.removeBit(rows[a], d);
+        }
+        dogs--;
+    }
+
+    /**
+     * Agrega un adoptante al final y devuelve su posición. Arma una sola fila.
+     */
+    public int addAdopter(boolean hasKids, boolean hasGarden) {
+        if (adopters == rows.length) {
+            int capacity = Math.max(4, adopters * 2);
+            rows = Arrays.copyOf(rows, capacity);
+            this.hasKids = Arrays.copyOf(this.hasKids, capacity);
+            this.hasGarden = Arrays.copyOf(this.hasGarden, capacity);
+        }
+        int a = adopters++;
+        rows[a] = new long[goodWithKids.length];
+        setAdopter(a, hasKids, hasGarden);
+        return a;
+    }
+
+    /**
+     * Cambia los datos de un adoptante existente: sólo se recalcula su fila.
+     */
+    public void setAdopter(int a, boolean hasKids, boolean hasGarden) {
+        this.hasKids[a] = hasKids;
+        this.hasGarden[a] = hasGarden;
+        long[] row = rows[a];
+        int words = words();
+        for (int w = 0; w < words; w++) {
+            long bits = validMask(w);
+            if (hasKids) bits &= goodWithKids[w];
+            if (!hasGarden) bits &= ~needsGarden[w];
+            row[w] = bits;
+        }
+    }
+
+    // Consultas
+
+    public boolean compatible(int a, int d) {
+        return (rows[a][d >>> 6] & (1L << d)) != 0;
+    }
+
+    /**
+     * Cantidad de perros compatibles con el adoptante (popcount de su fila).
+     */
+    public int feasibleCount(int a) {
+        long[] row = rows[a];
+        int count = 0;
+        for (int w = 0, words = words(); w < words; w++) {
+            count += Long.bitCount(row[w]);
+        }
+        return count;
+    }
+
+    /**
+     * Cantidad de perros compatibles con el adoptante dentro de una máscara (AND + popcount).
+     */
+    public int feasibleCount(int a, long[] mask) {
+        long[] row = rows[a];
+        int count = 0;
+        for (int w = 0, words = Math.min(words(), mask.length); w < words; w++) {
+            count += Long.bitCount(row[w] & mask[w]);
+        }
+        return count;
+    }
+
+    /**
+     * Posiciones de los perros compatibles con el adoptante, en orden.
+     */
+    public int[] dogsFor(int a) {
+        return DogBitmapIndex.positions(Arrays.copyOf(rows[a], words()));
+    }
+
+    /**
+     * Adoptantes compatibles con el perro d, en orden (recorre la columna).
+     */
+    public int[] adoptersFor(int d) {
+        int w = d >>> 6;
+        long bit = 1L << d;
+        int count = 0;
+        for (int a = 0; a < adopters; a++) {
+            if ((rows[a][w] & bit) != 0) count++;
+        }
+        int[] result = new int[count];
+        int k = 0;
+        for (int a = 0; a < adopters; a++) {
+            if ((rows[a][w] & bit) != 0) result[k++] = a;
+        }
+        return result;
+    }
+
+    /**
+     * Adoptantes sin ningún perro compatible: se pueden descartar antes de buscar.
+     */
+    public int[] adoptersWithoutFeasibleDog() {
+        int count = 0;
+        for (int a = 0; a < adopters; a++) {
+            if (isEmptyRow(a)) count++;
+        }
+        int[] result = new int[count];
+        int k = 0;
+        for (int a = 0; a < adopters; a++) {
+            if (isEmptyRow(a)) result[k++] = a;
+        }
+        return result;
+    }
+
+    /**
+     * Perros compatibles con al menos un adoptante (OR de todas las filas).
+     */
+    public int[] dogsCompatibleWithAny() {
+        long[] union = new long[words()];
+        for (int a = 0; a < adopters; a++) {
+            long[] row = rows[a];
+            for (int w = 0; w < union.length; w++) union[w] |= row[w];
+        }
+        return DogBitmapIndex.positions(union);
+    }
+
+    private boolean isEmptyRow(int a) {
+        long[] row = rows[a];
+        for (int w = 0, words = words(); w < words; w++) {
+            if (row[w] != 0) return false;
+        }
+        return true;
+    }
+
+    // Internos
+
+    private static boolean compatible(boolean hasKids, boolean hasGarden, boolean goodWithKids, boolean needsGarden) {
+        return (!hasKids || goodWithKids) && (hasGarden || !needsGarden);
+    }
+
+    private int words() {
+        return (dogs + 63) >>> 6;
+    }
+
+    private long validMask(int w) {
+        int rest = dogs - (w << 6);
+        return rest >= 64 ? -1L : (1L << rest) - 1;
+    }
+
+    private void setDogBits(int d, boolean kids, boolean garden) {
+        int w = d >>> 6;
+        long bit = 1L << d;
+        goodWithKids[w] = kids ? goodWithKids[w] | bit : goodWithKids[w] & ~bit;
+        needsGarden[w] = garden ? needsGarden[w] | bit : needsGarden[w] & ~bit;
+    }
+
+    private void ensureDogCapacity(int n) {
+        int needed = Math.max(1, (n + 63) >>> 6);
+        if (needed <= goodWithKids.length) return;
+        int capacity = Math.max(needed, goodWithKids.length * 2);
+        goodWithKids = Arrays.copyOf(goodWithKids, capacity);
+        needsGarden = Arrays.copyOf(needsGarden, capacity);
+        for (int a = 0; a < adopters; a++) {
+            rows[a] = Arrays.copyOf(rows[a], capacity);
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.domain.Dog;
+
+import java.util.*;
+
+/**
+ * Índice de bitmaps sobre los atributos de los perros.
+ *
+ * Para cada valor de cada atributo (size=LARGE, energy=HIGH, goodWithKids=true,
+ * shelter=A, status=available...) se guarda un bitset con un bit por perro, en el
+ * mismo orden que la lista con la que se construyó. Un filtro se resuelve con
+ * operaciones AND/OR/NOT sobre palabras de 64 bits, sin recorrer los objetos.
+ *
+ * Sintaxis de filtros: atributo -> lista de valores separados por coma.
+ * - Valores de un mismo atributo se combinan con OR:  size=SMALL,MEDIUM
+ * - Atributos distintos se combinan con AND:         size=SMALL&goodWithKids=true
+ * - Un "!" al principio niega el término:             energy=!HIGH
+ *
+ * El índice es inmutable: cuando cambia el catálogo se construye uno nuevo, o se
+ * deriva del anterior (withDog/withStatus/without) copiando sólo los bitsets que cambian.
+ */
+public final class DogBitmapIndex {
+
+    public static final String SIZE = "size";
+    public static final String ENERGY = "energy";
+    public static final String GOOD_WITH_KIDS = "goodWithKids";
+    public static final String SPECIAL_NEEDS = "specialNeeds";
+    public static final String SHELTER = "shelter";
+    public static final String STATUS = "status";
+
+    public static final String AVAILABLE = "AVAILABLE";
+    public static final String ADOPTED = "ADOPTED";
+
+    /** Atributos filtrables */
+    public static final List<String> ATTRIBUTES = List.of(SIZE, ENERGY, GOOD_WITH_KIDS, SPECIAL_NEEDS, SHELTER, STATUS);
+
+    private final int size;
+    private final int words;
+    private final Map<String, Map<String, long[]>> bitmaps = new HashMap<>();
+
+    private DogBitmapIndex(int size) {
+        this.size = size;
+        this.words = (size + 63) >>> 6;
+        for (String attribute : ATTRIBUTES) {
+            bitmaps.put(attribute, new HashMap<>());
+        }
+    }
+
+    /**
+     * Construye el índice.
+     *
+     * @param dogs perros (la posición en la lista es el número de bit)
+     * @param shelterByDog refugio de cada perro (puede no contener a todos)
+     * @param adoptedIds ids de perros ya adoptados
+     */
+    public static DogBitmapIndex build(List<Dog> dogs, Map<String, String> shelterByDog, Set<String> adoptedIds) {
+        DogBitmapIndex index = new DogBitmapIndex(dogs.size());
+        for (int i = 0; i < dogs.size(); i++) {
+            Dog d = dogs.get(i);
+            String[] values = valuesOf(d, shelterByDog.get(d.getId()), adoptedIds.contains(d.getId()) ? ADOPTED : AVAILABLE);
+            for (int a = 0; a < ATTRIBUTES.size(); a++) {
+                if (values[a] != null) {
+                    index.set(ATTRIBUTES.get(a), values[a], i);
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Índice con el perro de la posición dada reemplazado (bit == size() lo agrega al final).
+     * Sólo se copian los bitsets que cambian, salvo que haga falta una palabra más.
+     *
+     * @param shelter refugio del perro, o null si no tiene
+     * @param status AVAILABLE o ADOPTED
+     */
+    public DogBitmapIndex withDog(int bit, Dog dog, String shelter, String status) {
+        int newSize = Math.max(size, bit + 1);
+        DogBitmapIndex next;
+        if (((newSize + 63) >>> 6) == words) {
+            next = shallowCopy(newSize);
+        } else {
+            next = new DogBitmapIndex(newSize);
+            for (String attribute : ATTRIBUTES) {
+                Map<String, long[]> values = next.bitmaps.get(attribute);
+                bitmaps.get(attribute).forEach((value, bits) -> values.put(value, Arrays.copyOf(bits, next.words)));
+            }
+        }
+        String[] values = valuesOf(dog, shelter, status);
+        for (int a = 0; a < ATTRIBUTES.size(); a++) {
+            next.assign(ATTRIBUTES.get(a), values[a], bit);
+        }
+        return next;
+    }
+
+    /** Valor de cada atributo (en el orden de ATTRIBUTES) para un perro; null si no tiene */
+    private static String[] valuesOf(Dog d, String shelter, String status) {
+        return new String[]{
+                normalize(d.getSize() != null ? d.getSize() : "MEDIUM"),
+                normalize(d.getEnergy() != null ? d.getEnergy() : "MEDIUM"),
+                String.valueOf(Boolean.TRUE.equals(d.getGoodWithKids())).toUpperCase(),
+                String.valueOf(Boolean.TRUE.equals(d.getSpecialNeeds())).toUpperCase(),
+                shelter != null ? normalize(shelter) : null,
+                status
+        };
+    }
+
+    /**
+     * Índice igual a éste con otro estado para el perro de la posición dada. Sólo se
+     * copian los bitsets de estado que cambian; el resto se comparte.
+     */
+    public DogBitmapIndex withStatus(int bit, String status) {
+        DogBitmapIndex next = shallowCopy(size);
+        next.assign(STATUS, status, bit);
+        return next;
+    }
+
+    /**
+     * Índice sin el perro de la posición dada: los siguientes bajan una posición.
+     */
+    public DogBitmapIndex without(int bit) {
+        DogBitmapIndex next = new DogBitmapIndex(size - 1);
+        for (String attribute : ATTRIBUTES) {
+            Map<String, long[]> values = next.bitmaps.get(attribute);
+            for (Map.Entry<String, long[]> e : bitmaps.get(attribute).entrySet()) {
+                long[] bits = e.getValue().clone();
+                removeBit(bits, bit);
+                values.put(e.getKey(), bits.length == next.words ? bits : Arrays.copyOf(bits, next.words));
+            }
+        }
+        return next;
+    }
+
+    /** Índice con los mismos bitsets (compartidos: ninguno se modifica en el lugar) */
+    private DogBitmapIndex shallowCopy(int newSize) {
+        DogBitmapIndex next = new DogBitmapIndex(newSize);
+        for (String attribute : ATTRIBUTES) {
+            next.bitmaps.get(attribute).putAll(bitmaps.get(attribute));
+        }
+        return next;
+    }
+
+    /**
+     * Deja el bit prendido sólo en el bitset del valor dado (o en ninguno si es null).
+     * Los bitsets que cambian se copian antes de tocarlos.
+     */
+    private void assign(String attribute, String value, int bit) {
+        Map<String, long[]> values = bitmaps.get(attribute);
+        int w = bit >>> 6;
+        long mask = 1L << bit;
+        for (Map.Entry<String, long[]> e : values.entrySet()) {
+            boolean wanted = e.getKey().equals(value);
+            if (((e.getValue()[w] & mask) != 0) != wanted) {
+                long[] bits = e.getValue().clone();
+                bits[w] ^= mask;
+                e.setValue(bits);
+            }
+        }
+        if (value != null && !values.containsKey(value)) {
+            long[] bits = new long[words];
+            bits[w] = mask;
+            values.put(value, bits);
+        }
+    }
+
+    private void set(String attribute, String value, int bit) {
+        bitmaps.get(attribute).computeIfAbsent(value, v -> new long[words])[bit >>> 6] |= 1L << bit;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toUpperCase();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Evalúa un filtro y devuelve el bitset resultante.
+     *
+     * @throws IllegalArgumentException si el filtro usa un atributo desconocido
+     */
+    public long[] evaluate(Map<String, String> filter) {
+        long[] result = all();
+        for (Map.Entry<String, String> term : filter.entrySet()) {
+            Map<String, long[]> values = bitmaps.get(term.getKey());
+            if (values == null) {
+                throw new IllegalArgumentException("Unknown filter attribute: " + term.getKey());
+            }
+            String expression = term.getValue().trim();
+            boolean negated = expression.startsWith("!");
+            if (negated) {
+                expression = expression.substring(1);
+            }
+
+            // OR de los valores del atributo
+            long[] union = new long[words];
+            for (String value : expression.split(",")) {
+                if (value.isBlank()) continue;
+                long[] bits = values.get(normalize(value));
+                if (bits != null) {
+                    or(union, bits);
+                }
+            }
+
+            if (negated) {
+                andNot(result, union);
+            } else {
+                and(result, union);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Posiciones (en la lista original) de los perros que cumplen el filtro, en orden.
+     */
+    public int[] matching(Map<String, String> filter) {
+        return positions(evaluate(filter));
+    }
+
+    /**
+     * Filtra una lista alineada con el índice.
+     */
+    public <T> List<T> select(List<T> items, Map<String, String> filter) {
+        int[] positions = matching(filter);
+        List<T> result = new ArrayList<>(positions.length);
+        for (int p : positions) {
+            result.add(items.get(p));
+        }
+        return result;
+    }
+
+    /**
+     * Posiciones de los perros que cumplen al menos uno de los filtros (OR entre filtros).
+     */
+    public int[] matchingAny(Collection<Map<String, String>> filters) {
+        long[] union = new long[words];
+        for (Map<String, String> filter : filters) {
+            or(union, evaluate(filter));
+        }
+        return positions(union);
+    }
+
+    /**
+     * Filtro de compatibilidad con un adoptante, con las mismas reglas del backtracking:
+     * con niños sólo perros buenos con niños; sin jardín, ningún perro grande.
+     */
+    public static Map<String, String> compatibilityFilter(boolean hasKids, boolean hasGarden) {
+        Map<String, String> filter = new HashMap<>();
+        if (hasKids) {
+            filter.put(GOOD_WITH_KIDS, "true");
+        }
+        if (!hasGarden) {
+            filter.put(SIZE, "!LARGE");
+        }
+        return filter;
+    }
+
+    /**
+     * Cantidad de perros que cumplen el filtro (popcount, sin materializarlos).
+     */
+    public int count(Map<String, String> filter) {
+        long[] bits = evaluate(filter);
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    // Operaciones sobre bitsets
+
+    private long[] all() {
+        long[] bits = new long[words];
+        Arrays.fill(bits, -1L);
+        if ((size & 63) != 0) {
+            bits[words - 1] = (1L << (size & 63)) - 1; // sin bits más allá del último perro
+        }
+        return bits;
+    }
+
+    private static void and(long[] target, long[] other) {
+        for (int w = 0; w < target.length; w++) target[w] &= other[w];
+    }
+
+    private static void or(long[] target, long[] other) {
+        for (int w = 0; w < target.length; w++) target[w] |= other[w];
+    }
+
+    private static void andNot(long[] target, long[] other) {
+        for (int w = 0; w < target.length; w++) target[w] &= ~other[w];
+    }
+
+    /**
+     * Saca el bit de la posición dada corriendo una posición hacia abajo todos los
+     * bits siguientes (en el lugar, O(palabras desde la del bit)).
+     */
+    static void removeBit(long[] bits, int bit) {
+        int w = bit >>> 6;
+        long low = (1L << bit) - 1;
+        bits[w] = (bits[w] & low) | ((bits[w] >>> 1) & ~low);
+        for (int k = w; k < bits.length; k++) {
+            if (k > w) bits[k] >>>= 1;
+            if (k + 1 < bits.length) bits[k] |= bits[k + 1] << 63;
+        }
+    }
+
+    static int[] positions(long[] bits) {
+        int count = 0;
+        for (long word : bits) count += Long.bitCount(word);
+        int[] result = new int[count];
+        int k = 0;
+        for (int w = 0; w < bits.length; w++) {
+            long word = bits[w];
+            while (word != 0) {
+                result[k++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return result;
+    }
+}
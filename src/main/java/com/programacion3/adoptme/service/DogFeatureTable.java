@@ -0,0 +1,219 @@
+package com.programacion3.adoptme.service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tabla columnar (struct-of-arrays) con los atributos de los perros que usan los scorers.
+ *
+ * En lugar de recorrer objetos (Dog de dominio -> Dog de cada servicio -> campos),
+ * cada atributo vive en su propio arreglo primitivo: energía y tamaño en bytes,
+ * booleanos como bits de un byte y el costo en float. Los Strings de energía y
+ * tamaño se interpretan una sola vez al construir la tabla.
+ *
+ * Los kernels de score son bucles simples sobre estos arreglos, sin llamadas ni
+ * saltos dependientes del perro, para que el JIT los vectorice (SIMD) solo.
+ *
+ * La tabla es inmutable: cuando cambia el catálogo se construye una nueva o se
+ * deriva de la anterior copiando columnas.
+ */
+public final class DogFeatureTable {
+
+    public static final byte FLAG_KIDS = 1;          // bueno con niños
+    public static final byte FLAG_GARDEN = 2;        // necesita jardín (perros grandes)
+    public static final byte FLAG_SPECIAL_NEEDS = 4; // necesidades especiales
+
+    private final String[] ids;
+    private final String[] names;
+    private final byte[] energy;   // 1..10
+    private final byte[] size;     // 1 small .. 3 large
+    private final byte[] priority; // 0..127
+    private final byte[] flags;
+    private final float[] cost;
+
+    private DogFeatureTable(int n) {
+        ids = new String[n];
+        names = new String[n];
+        energy = new byte[n];
+        size = new byte[n];
+        priority = new byte[n];
+        flags = new byte[n];
+        cost = new float[n];
+    }
+
+    /** Copia de las columnas de otra tabla con n filas (las que sobran quedan vacías) */
+    private DogFeatureTable(DogFeatureTable from, int n) {
+        ids = Arrays.copyOf(from.ids, n);
+        names = Arrays.copyOf(from.names, n);
+        energy = Arrays.copyOf(from.energy, n);
+        size = Arrays.copyOf(from.size, n);
+        priority = Arrays.copyOf(from.priority, n);
+        flags = Arrays.copyOf(from.flags, n);
+        cost = Arrays.copyOf(from.cost, n);
+    }
+
+    /**
+     * Construye la tabla a partir de los perros del catálogo.
+     */
+    public static DogFeatureTable from(List<com.programacion3.adoptme.domain.Dog> dogs) {
+        DogFeatureTable table = new DogFeatureTable(dogs.size());
+        for (int i = 0; i < dogs.size(); i++) {
+            table.setRow(i, dogs.get(i));
+        }
+        return table;
+    }
+
+    /**
+     * Tabla con la fila i reemplazada por el perro dado (i == size() lo agrega al final).
+     * Las demás filas se copian tal cual, sin volver a interpretar sus atributos.
+     */
+    public DogFeatureTable withDog(int i, com.programacion3.adoptme.domain.Dog dog) {
+        int n = Math.max(ids.length, i + 1);
+        DogFeatureTable table = new DogFeatureTable(this, n);
+        table.setRow(i, dog);
+        return table;
+    }
+
+    private void setRow(int i, com.programacion3.adoptme.domain.Dog d) {
+        ids[i] = d.getId();
+        names[i] = d.getName();
+        energy[i] = (byte) mapEnergy(d.getEnergy());
+        size[i] = (byte) mapSize(d.getSize());
+        priority[i] = (byte) Math.max(0, Math.min(127, d.getPriority() != null ? d.getPriority() : 0));
+        flags[i] = (byte) ((Boolean.TRUE.equals(d.getGoodWithKids()) ? FLAG_KIDS : 0)
+                | ("LARGE".equalsIgnoreCase(d.getSize()) ? FLAG_GARDEN : 0)
+                | (Boolean.TRUE.equals(d.getSpecialNeeds()) ? FLAG_SPECIAL_NEEDS : 0));
+        cost[i] = (float) estimateCost(d);
+    }
+
+    /**
+     * Construye la tabla a partir de los perros del backtracking (sin tamaño ni prioridad).
+     */
+    public static DogFeatureTable fromBacktracking(List<BacktrackingService.Dog> dogs) {
+        DogFeatureTable table = new DogFeatureTable(dogs.size());
+        for (int i = 0; i < dogs.size(); i++) {
+            BacktrackingService.Dog d = dogs.get(i);
+            table.ids[i] = d.id;
+            table.energy[i] = (byte) d.energy;
+            table.size[i] = 2;
+            table.flags[i] = (byte) ((d.goodWithKids ? FLAG_KIDS : 0) | (d.needsGarden ? FLAG_GARDEN : 0));
+            table.cost[i] = (float) d.cost;
+        }
+        return table;
+    }
+
+    /**
+     * Tabla sin la fila i (los siguientes bajan una posición): copia de columnas, sin
+     * volver a interpretar los atributos.
+     */
+    public DogFeatureTable without(int i) {
+        int n = ids.length;
+        DogFeatureTable table = new DogFeatureTable(n - 1);
+        copyWithout(ids, table.ids, i, n);
+        copyWithout(names, table.names, i, n);
+        copyWithout(energy, table.energy, i, n);
+        copyWithout(size, table.size, i, n);
+        copyWithout(priority, table.priority, i, n);
+        copyWithout(flags, table.flags, i, n);
+        copyWithout(cost, table.cost, i, n);
+        return table;
+    }
+
+    private static void copyWithout(Object from, Object to, int i, int n) {
+        System.arraycopy(from, 0, to, 0, i);
+        System.arraycopy(from, i + 1, to, i, n - i - 1);
+    }
+
+    public int size() { return ids.length; }
+    public String id(int i) { return ids[i]; }
+    public String name(int i) { return names[i]; }
+    public int energy(int i) { return energy[i]; }
+    public int dogSize(int i) { return size[i]; }
+    public int priority(int i) { return priority[i]; }
+    public double cost(int i) { return cost[i]; }
+    public boolean goodWithKids(int i) { return (flags[i] & FLAG_KIDS) != 0; }
+    public boolean needsGarden(int i) { return (flags[i] & FLAG_GARDEN) != 0; }
+    public boolean specialNeeds(int i) { return (flags[i] & FLAG_SPECIAL_NEEDS) != 0; }
+
+    public ScorerService.Dog toScorerDog(int i) {
+        return new ScorerService.Dog(ids[i], goodWithKids(i), needsGarden(i), energy[i], size[i], cost[i]);
+    }
+
+    public BacktrackingService.Dog toBacktrackingDog(int i) {
+        return new BacktrackingService.Dog(ids[i], goodWithKids(i), needsGarden(i), energy[i], cost[i]);
+    }
+
+    /**
+     * Kernel del greedy: score de cada perro para un adoptante (mismos criterios que ScorerService).
+     * Los booleanos del adoptante se convierten en pesos (0 o w) para que el cuerpo del bucle no tenga saltos.
+     */
+    public void greedyScores(boolean adopterHasKids, boolean adopterHasGarden, double[] weights, double[] out) {
+        double kidsWeight = adopterHasKids ? weights[0] : 0.0;
+        double gardenWeight = adopterHasGarden ? weights[1] : 0.0;
+        double energyWeight = weights[2];
+        double sizeWeight = weights[3];
+        int n = ids.length;
+        for (int i = 0; i < n; i++) {
+            int f = flags[i];
+            out[i] = kidsWeight * (f & FLAG_KIDS)
+                    + gardenWeight * ((f & FLAG_GARDEN) >> 1)
+                    + energyWeight * (1.0 - Math.abs(energy[i] - 5) / 5.0)
+                    + sizeWeight * (3.0 - size[i]) / 2.0;
+        }
+    }
+
+    /**
+     * Kernel del backtracking: score de cada perro para un adoptante, o -1 si el perro
+     * no es compatible (niños/jardín) o no entra en el presupuesto.
+     * Mismos criterios que {@link BacktrackingService#calculateScore}. El presupuesto se
+     * compara en float: quien necesite exactitud con costos fraccionarios debe re-chequearlo.
+     */
+    public void matchScores(BacktrackingService.Adopter adopter, double[] out) {
+        // Si hay niños el perro debe ser bueno con niños; si no hay jardín no puede necesitarlo
+        int requiredKids = adopter.hasKids ? FLAG_KIDS : 0;
+        int rejected = adopter.hasGarden ? 0 : FLAG_GARDEN;
+        double kidsBonus = adopter.hasKids ? 5.0 : 0.0;
+        double gardenBonus = adopter.hasGarden ? 3.0 : 0.0;
+        int preferred = adopter.preferredEnergy;
+        float budget = adopter.budget >= Float.MAX_VALUE ? Float.MAX_VALUE : (float) adopter.budget;
+        int n = ids.length;
+        for (int i = 0; i < n; i++) {
+            int f = flags[i];
+            double score = kidsBonus * (f & FLAG_KIDS)
+                    + gardenBonus * ((f & FLAG_GARDEN) >> 1)
+                    + Math.max(0, 5.0 - Math.abs(energy[i] - preferred));
+            boolean feasible = (f & rejected) == 0 && (f & requiredKids) == requiredKids && cost[i] <= budget;
+            out[i] = feasible ? score : -1.0;
+        }
+    }
+
+    // Interpretación de los atributos del catálogo (antes repetida en el controller)
+
+    public static int mapEnergy(String energy) {
+        if (energy == null) return 5;
+        return switch (energy.toUpperCase()) {
+            case "LOW" -> 2;
+            case "MEDIUM" -> 5;
+            case "HIGH" -> 8;
+            default -> 5;
+        };
+    }
+
+    public static int mapSize(String size) {
+        if (size == null) return 2;
+        return switch (size.toUpperCase()) {
+            case "SMALL" -> 1;
+            case "MEDIUM" -> 2;
+            case "LARGE" -> 3;
+            default -> 2;
+        };
+    }
+
+    public static double estimateCost(com.programacion3.adoptme.domain.Dog dog) {
+        // Costo base + extra por tamaño y necesidades especiales
+        double baseCost = 5000.0;
+        double sizeCost = mapSize(dog.getSize()) * 2000.0;
+        double specialNeedsCost = (dog.getSpecialNeeds() != null && dog.getSpecialNeeds()) ? 5000.0 : 0.0;
+        return baseCost + sizeCost + specialNeedsCost;
+    }
+}
@@ -90,4 +90,39 @@ public class GraphLoader {
         });
         return edges;
     }
-}
\ No newline at end of file
+
+    /**
+     * Refugio de cada perro (relación :HAS_DOG), para el índice de atributos
+     */
+    public Map<String, String> loadDogShelters() {
+        String q = """
+            MATCH (s:Shelter)-[:HAS_DOG]->(d:Dog)
+            RETURN d.id AS dog, s.id AS shelter
+        """;
+
+        Map<String, String> shelters = new HashMap<>();
+        neo4j.query(q).fetch().all().forEach(row ->
+                shelters.put((String) row.get("dog"), (String) row.get("shelter")));
+        return shelters;
+    }
+
+    /**
+     * Crea la relación (:Adopter)-[:ADOPTS]->(:Dog) si el perro todavía no tiene adoptante.
+     *
+     * @return true si se creó la relación
+     */
+    public boolean createAdoption(String adopterId, String dogId) {
+        String q = """
+            MATCH (a:Adopter {id: $adopterId}), (d:Dog {id: $dogId})
+            WHERE NOT (:Adopter)-[:ADOPTS]->(d)
+            CREATE (a)-[:ADOPTS]->(d)
+            RETURN count(*) AS created
+        """;
+        return neo4j.query(q)
+                .bind(adopterId).to("adopterId")
+                .bind(dogId).to("dogId")
+                .fetch().one()
+                .map(row -> ((Number) row.get("created")).longValue() > 0)
+                .orElse(false);
+    }
+}
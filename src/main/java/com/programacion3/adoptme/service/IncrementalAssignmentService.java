@@ -0,0 +1,302 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.service.BacktrackingService.Adopter;
+import com.programacion3.adoptme.service.BacktrackingService.Assignment;
+import com.programacion3.adoptme.service.BacktrackingService.Dog;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Re-optimización incremental de la asignación por backtracking.
+ *
+ * Guarda la última solución junto con la versión del catálogo (perros + adoptantes)
+ * que la produjo. Ante un cambio chico (perro agregado/quitado, cambio de presupuesto
+ * o de maxDogs de un adoptante) repara localmente: mantiene fijas las asignaciones
+ * no afectadas y resuelve por backtracking sólo los perros liberados contra la
+ * capacidad residual de cada adoptante. Si la reparación no alcanza la cota superior
+ * que garantiza optimalidad, se hace una búsqueda completa sembrada con la reparación.
+ */
+@Service
+public class IncrementalAssignmentService {
+
+    private static final double EPS = 1e-9;
+
+    /**
+     * Cómo se obtuvo la asignación devuelta
+     */
+    public enum Mode {
+        REUSED,       // el catálogo no cambió: se devuelve la solución guardada
+        REPAIRED,     // reparación local con optimalidad probada por cota
+        FULL_SEEDED,  // búsqueda completa con la reparación como incumbente
+        FULL          // búsqueda completa desde cero
+    }
+
+    /**
+     * Resultado con la versión del catálogo a la que corresponde
+     */
+    public static class Result {
+        public final Assignment assignment;
+        public final long catalogVersion;
+        public final Mode mode;
+
+        public Result(Assignment assignment, long catalogVersion, Mode mode) {
+            this.assignment = assignment;
+            this.catalogVersion = catalogVersion;
+            this.mode = mode;
+        }
+    }
+
+    /**
+     * Última solución calculada y el catálogo que la produjo
+     */
+    private static class Snapshot {
+        final Map<String, Dog> dogs;
+        final Map<String, Adopter> adopters;
+        final Assignment assignment;
+        final long version;
+
+        Snapshot(Map<String, Dog> dogs, Map<String, Adopter> adopters, Assignment assignment, long version) {
+            this.dogs = dogs;
+            this.adopters = adopters;
+            this.assignment = assignment;
+            this.version = version;
+        }
+    }
+
+    private final BacktrackingService backtrackingService;
+
+    private Snapshot last;
+    private long version = 0;
+
+    public IncrementalAssignmentService(BacktrackingService backtrackingService) {
+        this.backtrackingService = backtrackingService;
+    }
+
+    /**
+     * Devuelve la mejor asignación para el catálogo dado, reutilizando o reparando
+     * la solución anterior cuando es posible.
+     */
+    public synchronized Result solve(List<Dog> dogs, List<Adopter> adopters) {
+        // El backtracking sólo mira los primeros MAX_DOGS perros: el catálogo relevante es ese prefijo
+        if (dogs.size() > BacktrackingService.MAX_DOGS) {
+            dogs = dogs.subList(0, BacktrackingService.MAX_DOGS);
+        }
+        Map<String, Dog> dogsById = indexDogs(dogs);
+        Map<String, Adopter> adoptersById = indexAdopters(adopters);
+
+        // Una solución cortada (timeout o trabajo cancelado) no se reutiliza: se vuelve a buscar
+        if (last != null && !last.assignment.timedOut
+                && sameDogs(last.dogs, dogsById) && sameAdopters(last.adopters, adoptersById)) {
+            return new Result(last.assignment, last.version, Mode.REUSED);
+        }
+
+        Result result = repairable(adoptersById)
+                ? repair(dogs, adopters, dogsById, adoptersById)
+                : new Result(backtrackingService.findBestAssignment(dogs, adopters), version + 1, Mode.FULL);
+
+        version = result.catalogVersion;
+        last = new Snapshot(dogsById, adoptersById, result.assignment, version);
+        return result;
+    }
+
+    /**
+     * Olvida la solución guardada (la próxima llamada resuelve desde cero)
+     */
+    public synchronized void invalidate() {
+        last = null;
+    }
+
+    /**
+     * La reparación sólo tiene sentido si la solución anterior era completa (no cortada
+     * por timeout) y el conjunto de adoptantes es el mismo.
+     */
+    private boolean repairable(Map<String, Adopter> adopters) {
+        if (last == null || last.assignment.timedOut) {
+            return false;
+        }
+        if (!last.adopters.keySet().equals(adopters.keySet())) {
+            return false;
+        }
+        for (Adopter a : adopters.values()) {
+            Adopter prev = last.adopters.get(a.id);
+            // Sólo se reparan cambios de capacidad (presupuesto / maxDogs)
+            if (prev.hasKids != a.hasKids || prev.hasGarden != a.hasGarden
+                    || prev.preferredEnergy != a.preferredEnergy) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Result repair(List<Dog> dogs, List<Adopter> adopters,
+                          Map<String, Dog> dogsById, Map<String, Adopter> adoptersById) {
+        // 1. Perros nuevos o modificados: quedan libres y suman a la cota
+        Set<String> changedDogs = new HashSet<>();
+        for (Dog d : dogs) {
+            Dog prev = last.dogs.get(d.id);
+            if (prev == null || !sameDog(prev, d)) {
+                changedDogs.add(d.id);
+            }
+        }
+
+        // 2. Adoptantes tocados: cambió su capacidad o perdieron un perro asignado
+        Set<String> touchedAdopters = new HashSet<>();
+        boolean relaxed = false; // algún adoptante ganó capacidad -> la cota previa deja de valer
+        for (Adopter a : adopters) {
+            Adopter prev = last.adopters.get(a.id);
+            if (a.budget != prev.budget || a.maxDogs != prev.maxDogs) {
+                touchedAdopters.add(a.id);
+                relaxed |= a.budget > prev.budget || a.maxDogs > prev.maxDogs;
+            }
+        }
+
+        // 3. Partir de la asignación anterior y fijar lo que sigue siendo válido
+        Map<String, List<String>> fixed = new HashMap<>();
+        Set<String> assignedBefore = new HashSet<>();
+        for (Map.Entry<String, List<String>> e : last.assignment.assignments.entrySet()) {
+            for (String dogId : e.getValue()) {
+                assignedBefore.add(dogId);
+                if (!dogsById.containsKey(dogId) || changedDogs.contains(dogId)) {
+                    touchedAdopters.add(e.getKey());
+                }
+            }
+        }
+        for (Map.Entry<String, List<String>> e : last.assignment.assignments.entrySet()) {
+            if (touchedAdopters.contains(e.getKey())) {
+                continue; // sus perros vuelven a quedar libres
+            }
+            List<String> kept = new ArrayList<>();
+            for (String dogId : e.getValue()) {
+                if (dogsById.containsKey(dogId) && !changedDogs.contains(dogId)) {
+                    kept.add(dogId);
+                }
+            }
+            fixed.put(e.getKey(), kept);
+        }
+
+        // 4. Vecindario libre: perros nuevos, perros liberados y perros sin asignar
+        //    que algún adoptante tocado podría tomar (en el orden original)
+        Set<String> fixedDogs = new HashSet<>();
+        fixed.values().forEach(fixedDogs::addAll);
+        List<Dog> freeDogs = new ArrayList<>();
+        for (Dog d : dogs) {
+            if (fixedDogs.contains(d.id)) {
+                continue;
+            }
+            boolean released = assignedBefore.contains(d.id) || changedDogs.contains(d.id);
+            if (released || fitsAnyTouched(d, touchedAdopters, adoptersById)) {
+                freeDogs.add(d);
+            }
+        }
+
+        // 5. Capacidad residual de cada adoptante y score de la parte fija
+        List<Adopter> residual = new ArrayList<>();
+        double fixedScore = 0.0;
+        for (Adopter a : adopters) {
+            List<String> kept = fixed.getOrDefault(a.id, List.of());
+            double spent = 0.0;
+            for (String dogId : kept) {
+                Dog d = dogsById.get(dogId);
+                spent += d.cost;
+                fixedScore += BacktrackingService.calculateScore(d, a);
+            }
+            residual.add(new Adopter(a.id, a.name, a.hasKids, a.hasGarden,
+                    a.maxDogs - kept.size(), a.budget - spent, a.preferredEnergy));
+        }
+
+        Assignment local = backtrackingService.findBestAssignment(freeDogs, residual);
+        Assignment repaired = merge(fixed, local, fixedScore + local.totalScore, adopters);
+
+        // 6. Cota superior del nuevo óptimo: sacar perros o achicar capacidad no puede mejorarlo,
+        //    cada perro nuevo aporta a lo sumo su mejor score. También vale la cota global.
+        double upperBound = 0.0;
+        for (Dog d : dogs) {
+            upperBound += BacktrackingService.bestScoreFor(d, adopters);
+        }
+        if (!relaxed) {
+            double deltaBound = last.assignment.totalScore;
+            for (String dogId : changedDogs) {
+                deltaBound += BacktrackingService.bestScoreFor(dogsById.get(dogId), adopters);
+            }
+            upperBound = Math.min(upperBound, deltaBound);
+        }
+
+        long newVersion = version + 1;
+        if (!local.timedOut && repaired.totalScore >= upperBound - EPS) {
+            return new Result(repaired, newVersion, Mode.REPAIRED);
+        }
+        return new Result(backtrackingService.findBestAssignment(dogs, adopters, repaired),
+                newVersion, Mode.FULL_SEEDED);
+    }
+
+    private boolean fitsAnyTouched(Dog dog, Set<String> touched, Map<String, Adopter> adopters) {
+        for (String id : touched) {
+            Adopter a = adopters.get(id);
+            if (a.maxDogs > 0 && dog.cost <= a.budget && BacktrackingService.isCompatible(dog, a)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Assignment merge(Map<String, List<String>> fixed, Assignment local, double score, List<Adopter> adopters) {
+        Map<String, List<String>> merged = new HashMap<>();
+        for (Adopter a : adopters) {
+            List<String> dogIds = new ArrayList<>(fixed.getOrDefault(a.id, List.of()));
+            dogIds.addAll(local.assignments.getOrDefault(a.id, List.of()));
+            if (!dogIds.isEmpty()) {
+                merged.put(a.id, dogIds);
+            }
+        }
+        return new Assignment(merged, score, local.nodesExplored, local.timedOut,
+                local.cacheHits, local.cacheMisses);
+    }
+
+    private Map<String, Dog> indexDogs(List<Dog> dogs) {
+        Map<String, Dog> map = new LinkedHashMap<>();
+        for (Dog d : dogs) {
+            map.put(d.id, d);
+        }
+        return map;
+    }
+
+    private Map<String, Adopter> indexAdopters(List<Adopter> adopters) {
+        Map<String, Adopter> map = new LinkedHashMap<>();
+        for (Adopter a : adopters) {
+            map.put(a.id, a);
+        }
+        return map;
+    }
+
+    private boolean sameDogs(Map<String, Dog> a, Map<String, Dog> b) {
+        if (!new ArrayList<>(a.keySet()).equals(new ArrayList<>(b.keySet()))) {
+            return false;
+        }
+        for (Dog d : b.values()) {
+            if (!sameDog(a.get(d.id), d)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean sameAdopters(Map<String, Adopter> a, Map<String, Adopter> b) {
+        if (!new ArrayList<>(a.keySet()).equals(new ArrayList<>(b.keySet()))) {
+            return false;
+        }
+        for (Adopter x : b.values()) {
+            Adopter y = a.get(x.id);
+            if (x.hasKids != y.hasKids || x.hasGarden != y.hasGarden || x.maxDogs != y.maxDogs
+                    || x.budget != y.budget || x.preferredEnergy != y.preferredEnergy) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean sameDog(Dog a, Dog b) {
+        return a.goodWithKids == b.goodWithKids && a.needsGarden == b.needsGarden
+                && a.energy == b.energy && a.cost == b.cost;
+    }
+}
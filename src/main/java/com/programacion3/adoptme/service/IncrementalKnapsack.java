@@ -0,0 +1,189 @@
+package com.programacion3.adoptme.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mochila 0/1 de capacidad fija que se mantiene mientras entran y salen perros.
+ *
+ * Procesa los ítems en orden de llegada como la DP de siempre, pero en vez de guardar una
+ * fila de ints por ítem guarda un bit por ítem y capacidad (si el ítem mejoró esa celda),
+ * la fila de arriba y una fila de ints cada {@link #CHECKPOINT_EVERY} ítems. Agregar un
+ * ítem calcula una fila nueva a partir de la de arriba: O(capacidad). La carga óptima se
+ * reconstruye recorriendo los bits del último ítem al primero: O(ítems).
+ *
+ * Quitar un ítem lo marca y deja pendiente el recálculo; antes de la próxima consulta se
+ * vuelve a la fila guardada anterior al ítem quitado más antiguo y se recalculan los que
+ * siguen (varias bajas seguidas se pagan una sola vez). Quitar uno de los últimos en
+ * llegar cuesta a lo sumo CHECKPOINT_EVERY filas más que los que llegaron después; quitar
+ * el más antiguo cuesta lo mismo que resolver de cero. Ese es el límite real: un árbol de
+ * segmentos sobre el tiempo (cada ítem en O(log Q) nodos, recorrido en profundidad con
+ * deshacer en O(capacidad)) evitaría el peor caso, pero es offline: necesita conocer de
+ * antemano cuándo sale cada ítem, y acá las consultas se intercalan con altas y
+ * adopciones que no se conocen al llegar el perro.
+ *
+ * Ítems que no entran o no suman no calculan nada ni guardan bits.
+ * Memoria: ítems × (capacidad + 1) bits más una fila de ints cada CHECKPOINT_EVERY
+ * ítems, unas 16 veces menos que guardar todas las filas.
+ */
+public final class IncrementalKnapsack {
+
+    /** Cada cuántos ítems se guarda una fila completa para recalcular desde ahí */
+    static final int CHECKPOINT_EVERY = 32;
+
+    private final int capacity;
+    private final List<String> ids = new ArrayList<>();
+    private final List<int[]> items = new ArrayList<>();     // {peso, prioridad}
+    private final List<Boolean> removed = new ArrayList<>();
+    private final List<long[]> taken = new ArrayList<>();    // bit c: el ítem mejoró la capacidad c (null si no suma)
+    private final List<int[]> checkpoints = new ArrayList<>(); // checkpoints.get(b): fila tras los primeros b · CHECKPOINT_EVERY ítems
+    private final Map<String, Integer> position = new HashMap<>();
+    private int[] top;   // fila con todos los ítems calculados
+    private int[] spare;
+    private int dirtyFrom = Integer.MAX_VALUE; // posición del ítem quitado más antiguo sin aplicar
+    private long rowsComputed;
+
+    public IncrementalKnapsack(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        this.capacity = capacity;
+        this.top = new int[capacity + 1];
+        this.spare = new int[capacity + 1];
+        checkpoints.add(new int[capacity + 1]);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Agrega un ítem (si el id ya estaba con otro peso o prioridad, lo reemplaza).
+     * O(capacidad) si no hay bajas pendientes.
+     */
+    public void add(String id, int weight, int priority) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Invalid weight for " + id + ": " + weight);
+        }
+        Integer at = position.get(id);
+        if (at != null && items.get(at)[0] == weight && items.get(at)[1] == priority) {
+            return; // sin cambios para la mochila
+        }
+        remove(id);
+        position.put(id, ids.size());
+        ids.add(id);
+        items.add(new int[]{weight, priority});
+        removed.add(false);
+        if (dirtyFrom == Integer.MAX_VALUE) {
+            pushRow(ids.size() - 1);
+        }
+    }
+
+    /**
+     * Quita un ítem; el recálculo queda pendiente hasta la próxima consulta.
+     *
+     * @return false si el id no estaba
+     */
+    public boolean remove(String id) {
+        Integer at = position.remove(id);
+        if (at == null) {
+            return false;
+        }
+        removed.set(at, true);
+        dirtyFrom = Math.min(dirtyFrom, at);
+        return true;
+    }
+
+    public boolean contains(String id) {
+        return position.containsKey(id);
+    }
+
+    /** Ítems presentes */
+    public int size() {
+        return position.size();
+    }
+
+    /** Prioridad óptima con la capacidad completa */
+    public int value() {
+        settle();
+        return top[capacity];
+    }
+
+    /**
+     * Ids de la carga óptima, del último en llegar al primero.
+     */
+    public List<String> selection() {
+        settle();
+        List<String> chosen = new ArrayList<>();
+        int w = capacity;
+        for (int k = ids.size() - 1; k >= 0; k--) {
+            long[] bits = taken.get(k);
+            if (bits != null && (bits[w >>> 6] & (1L << w)) != 0) {
+                chosen.add(ids.get(k));
+                w -= items.get(k)[0];
+            }
+        }
+        return chosen;
+    }
+
+    /** Filas de DP calculadas desde la creación (para diagnóstico y tests) */
+    public long rowsComputed() {
+        return rowsComputed;
+    }
+
+    /**
+     * Aplica las bajas pendientes: compacta desde el ítem quitado más antiguo, vuelve a la
+     * fila guardada anterior y recalcula los ítems que siguen.
+     */
+    private void settle() {
+        if (dirtyFrom == Integer.MAX_VALUE) {
+            return;
+        }
+        int from = dirtyFrom;
+        dirtyFrom = Integer.MAX_VALUE;
+        int keep = from;
+        for (int k = from; k < ids.size(); k++) {
+            if (removed.get(k)) continue;
+            ids.set(keep, ids.get(k));
+            items.set(keep, items.get(k));
+            removed.set(keep, false);
+            position.put(ids.get(keep), keep);
+            keep++;
+        }
+        ids.subList(keep, ids.size()).clear();
+        items.subList(keep, items.size()).clear();
+        removed.subList(keep, removed.size()).clear();
+
+        int checkpoint = from / CHECKPOINT_EVERY;
+        int start = checkpoint * CHECKPOINT_EVERY;
+        checkpoints.subList(checkpoint + 1, checkpoints.size()).clear();
+        taken.subList(start, taken.size()).clear();
+        System.arraycopy(checkpoints.get(checkpoint), 0, top, 0, capacity + 1);
+        for (int k = start; k < ids.size(); k++) {
+            pushRow(k);
+        }
+    }
+
+    private void pushRow(int k) {
+        int[] item = items.get(k);
+        if (item[1] <= 0 || item[0] > capacity) {
+            taken.add(null); // no cambia nada: la fila de arriba sigue igual
+        } else {
+            KnapsackRowKernel.relax(top, spare, item[0], item[1], capacity);
+            long[] bits = new long[(capacity >>> 6) + 1];
+            for (int c = item[0]; c <= capacity; c++) {
+                if (spare[c] != top[c]) bits[c >>> 6] |= 1L << c;
+            }
+            taken.add(bits);
+            int[] t = top;
+            top = spare;
+            spare = t;
+            rowsComputed++;
+        }
+        if ((k + 1) % CHECKPOINT_EVERY == 0) {
+            checkpoints.add(top.clone());
+        }
+    }
+}
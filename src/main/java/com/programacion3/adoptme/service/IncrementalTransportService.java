@@ -0,0 +1,127 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.domain.Dog;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Carga óptima de transporte que se mantiene entre consultas mientras cambia el catálogo.
+ *
+ * Guarda una {@link IncrementalKnapsack} por capacidad de vehículo consultada (las últimas
+ * {@link #MAX_VEHICLES}). En cada consulta aplica sólo los cambios de perros publicados
+ * desde la última versión vista: un alta calcula una fila de DP y una adopción o edición
+ * recalcula desde la fila guardada anterior a ese perro. Si el registro de cambios ya no
+ * alcanza (recarga completa) se reconstruye desde cero.
+ */
+@Service
+public class IncrementalTransportService {
+
+    /** Capacidades distintas que se mantienen a la vez */
+    public static final int MAX_VEHICLES = 8;
+
+    /**
+     * Capacidad máxima por vehículo: cada mochila guarda capacidad + 1 bits por perro y una
+     * fila de ints cada 32 perros (con 1000 perros, unos 5 MB por vehículo a 20 t)
+     */
+    public static final int MAX_CAPACITY_KG = 20_000;
+
+    /**
+     * Carga óptima para una capacidad y el costo de haberla puesto al día
+     */
+    public static class Plan {
+        public final int capacityKg;
+        public final long catalogVersion;
+        public final List<Dog> selectedDogs;
+        public final int totalPriority;
+        public final int totalWeight;
+        public final boolean rebuilt;     // se armó desde cero en esta consulta
+        public final long rowsComputed;   // filas de DP calculadas en esta consulta
+
+        public Plan(int capacityKg, long catalogVersion, List<Dog> selectedDogs, int totalPriority,
+                    int totalWeight, boolean rebuilt, long rowsComputed) {
+            this.capacityKg = capacityKg;
+            this.catalogVersion = catalogVersion;
+            this.selectedDogs = selectedDogs;
+            this.totalPriority = totalPriority;
+            this.totalWeight = totalWeight;
+            this.rebuilt = rebuilt;
+            this.rowsComputed = rowsComputed;
+        }
+    }
+
+    private final CatalogService.ChangeCursor changes;
+
+    private final Map<Integer, IncrementalKnapsack> vehicles = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, IncrementalKnapsack> eldest) {
+            return size() > MAX_VEHICLES;
+        }
+    };
+
+    public IncrementalTransportService(CatalogService catalogService) {
+        this.changes = catalogService.changeCursor();
+    }
+
+    /**
+     * Carga óptima con la capacidad dada sobre los perros disponibles.
+     *
+     * @throws IllegalArgumentException si la capacidad no es positiva o pasa de MAX_CAPACITY_KG
+     */
+    public synchronized Plan optimize(int capacityKg) {
+        if (capacityKg <= 0) {
+            throw new IllegalArgumentException("Invalid capacity: must be greater than 0");
+        }
+        if (capacityKg > MAX_CAPACITY_KG) {
+            throw new IllegalArgumentException("Invalid capacity: must be at most " + MAX_CAPACITY_KG);
+        }
+        IncrementalKnapsack previous = vehicles.get(capacityKg);
+        long rowsBefore = previous == null ? 0 : previous.rowsComputed();
+        CatalogService.Snapshot catalog = sync();
+
+        IncrementalKnapsack knapsack = vehicles.get(capacityKg);
+        boolean rebuilt = knapsack == null;
+        if (rebuilt) {
+            rowsBefore = 0;
+            knapsack = new IncrementalKnapsack(capacityKg);
+            for (Dog dog : catalog.available) {
+                knapsack.add(dog.getId(), dog.getWeight(), dog.getPriority());
+            }
+            vehicles.put(capacityKg, knapsack);
+        }
+
+        List<Dog> selected = new ArrayList<>();
+        int totalWeight = 0;
+        for (String id : knapsack.selection()) {
+            Dog dog = catalog.available.get(catalog.availablePosition(id));
+            selected.add(dog);
+            totalWeight += dog.getWeight();
+        }
+        return new Plan(capacityKg, catalog.version, selected, knapsack.value(), totalWeight,
+                rebuilt, knapsack.rowsComputed() - rowsBefore);
+    }
+
+    /**
+     * Lleva todas las mochilas a la versión actual del catálogo.
+     */
+    private CatalogService.Snapshot sync() {
+        CatalogService.ChangeCursor.Delta delta = changes.advance();
+        CatalogService.Snapshot catalog = delta.catalog;
+        if (delta.full) {
+            vehicles.clear(); // se reconstruyen al consultarlas
+            return catalog;
+        }
+        for (String dogId : delta.dogIds) {
+            int d = catalog.availablePosition(dogId);
+            for (IncrementalKnapsack knapsack : vehicles.values()) {
+                if (d < 0) {
+                    knapsack.remove(dogId);
+                } else {
+                    Dog dog = catalog.available.get(d);
+                    knapsack.add(dogId, dog.getWeight(), dog.getPriority());
+                }
+            }
+        }
+        return catalog;
+    }
+}
@@ -0,0 +1,222 @@
+package com.programacion3.adoptme.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reducción de una mochila 0/1 antes de reservar la tabla DP.
+ *
+ * Pasos (sin perder optimalidad):
+ * 1. se descartan los perros que no suman (prioridad <= 0) o que no entran (peso > capacidad)
+ * 2. los de peso 0 y prioridad positiva se llevan siempre, no ocupan fila
+ * 3. dominancia: recorriendo por peso ascendente, un perro se descarta si junto con los
+ *    ya conservados de peso menor o igual y prioridad mayor o igual no entra en la
+ *    capacidad. En cualquier carga que lo tenga falta alguno de ellos, y cambiarlo por
+ *    ese no aumenta el peso ni baja la prioridad. Esto incluye el caso de perros iguales:
+ *    de un mismo peso w se conservan a lo sumo capacidad / w
+ * 4. si lo que queda entra completo, se lleva todo sin DP
+ * 5. pesos y capacidad se dividen por el MCD de los pesos
+ * 6. los perros con igual (peso, prioridad) se agrupan y la multiplicidad se parte en
+ *    paquetes de 1, 2, 4, ..., resto (división binaria): k copias pasan a O(log k) filas
+ */
+public final class KnapsackPreprocessor {
+
+    private KnapsackPreprocessor() {
+    }
+
+    /**
+     * Mochila reducida: cada ítem es un paquete de perros idénticos.
+     */
+    public static final class Reduced {
+        public final int capacity;     // capacidad escalada por el MCD
+        public final int[] weight;     // peso escalado de cada paquete
+        public final int[] priority;   // prioridad de cada paquete
+        public final int[] forced;     // posiciones originales que se llevan siempre
+        public final Stats stats;
+        private final int[][] members; // posiciones originales de cada paquete
+
+        Reduced(int capacity, int[] weight, int[] priority, int[][] members, int[] forced, Stats stats) {
+            this.capacity = capacity;
+            this.weight = weight;
+            this.priority = priority;
+            this.members = members;
+            this.forced = forced;
+            this.stats = stats;
+        }
+
+        public int size() {
+            return weight.length;
+        }
+
+        /**
+         * Posiciones originales de la carga: los forzados más los miembros de los paquetes elegidos,
+         * en orden descendente (el mismo orden en que reconstruye la DP).
+         */
+        public int[] expand(List<Integer> packages) {
+            int count = forced.length;
+            for (int k : packages) count += members[k].length;
+            int[] result = new int[count];
+            int at = 0;
+            for (int i : forced) result[at++] = i;
+            for (int k : packages) {
+                for (int i : members[k]) result[at++] = i;
+            }
+            Arrays.sort(result);
+            for (int l = 0, r = result.length - 1; l < r; l++, r--) {
+                int t = result[l];
+                result[l] = result[r];
+                result[r] = t;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Cuánto se achicó la tabla
+     */
+    public static final class Stats {
+        public final int items;
+        public final int infeasible;     // más pesados que la capacidad
+        public final int useless;        // prioridad <= 0
+        public final int dominated;
+        public final int forced;         // peso 0, o todo lo que quedaba entraba
+        public final int gcd;
+        public final int packages;       // filas de la DP reducida
+        public final long originalCells; // (n + 1) × (capacidad + 1)
+        public final long reducedCells;  // (paquetes + 1) × (capacidad / mcd + 1), 0 si no hace falta DP
+
+        public Stats(int items, int infeasible, int useless, int dominated, int forced, int gcd,
+                     int packages, long originalCells, long reducedCells) {
+            this.items = items;
+            this.infeasible = infeasible;
+            this.useless = useless;
+            this.dominated = dominated;
+            this.forced = forced;
+            this.gcd = gcd;
+            this.packages = packages;
+            this.originalCells = originalCells;
+            this.reducedCells = reducedCells;
+        }
+    }
+
+    /**
+     * Reduce la mochila (weight[i], priority[i]) con la capacidad dada.
+     */
+    public static Reduced reduce(int[] weight, int[] priority, int capacity) {
+        int n = weight.length;
+        int infeasible = 0;
+        int useless = 0;
+        List<Integer> forced = new ArrayList<>();
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (priority[i] <= 0) {
+                useless++;
+            } else if (weight[i] > capacity) {
+                infeasible++;
+            } else if (weight[i] == 0) {
+                forced.add(i);
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        List<Integer> kept = removeDominated(candidates, weight, priority, capacity);
+        int dominated = candidates.size() - kept.size();
+
+        long keptWeight = 0;
+        for (int i : kept) keptWeight += weight[i];
+        if (keptWeight <= capacity) {
+            // Entra todo: no hace falta DP
+            forced.addAll(kept);
+            Stats stats = new Stats(n, infeasible, useless, dominated, forced.size(), 1, 0,
+                    (long) (n + 1) * (capacity + 1), 0);
+            return new Reduced(0, new int[0], new int[0], new int[0][], toArray(forced), stats);
+        }
+
+        int gcd = 0;
+        for (int i : kept) gcd = gcd(gcd, weight[i]);
+        int scaledCapacity = capacity / gcd;
+
+        // Agrupar por (peso, prioridad) conservando el orden original
+        Map<Long, List<Integer>> groups = new LinkedHashMap<>();
+        kept.sort(Comparator.naturalOrder());
+        for (int i : kept) {
+            groups.computeIfAbsent(((long) weight[i] << 32) | priority[i], k -> new ArrayList<>()).add(i);
+        }
+        List<int[]> members = new ArrayList<>();
+        List<Integer> packageWeight = new ArrayList<>();
+        List<Integer> packagePriority = new ArrayList<>();
+        for (List<Integer> group : groups.values()) {
+            int w = weight[group.get(0)] / gcd;
+            int p = priority[group.get(0)];
+            int from = 0;
+            for (int size = 1; from < group.size(); size <<= 1) {
+                int take = Math.min(size, group.size() - from);
+                members.add(toArray(group.subList(from, from + take)));
+                packageWeight.add(w * take);
+                packagePriority.add(p * take);
+                from += take;
+            }
+        }
+
+        int packages = members.size();
+        Stats stats = new Stats(n, infeasible, useless, dominated, forced.size(), gcd, packages,
+                (long) (n + 1) * (capacity + 1), (long) (packages + 1) * (scaledCapacity + 1));
+        return new Reduced(scaledCapacity, toArray(packageWeight), toArray(packagePriority),
+                members.toArray(new int[0][]), toArray(forced), stats);
+    }
+
+    /**
+     * Dominancia por peso ascendente. La suma de pesos conservados con prioridad >= p
+     * se consulta con un árbol de Fenwick sobre el ranking de prioridades.
+     */
+    private static List<Integer> removeDominated(List<Integer> candidates, int[] weight, int[] priority, int capacity) {
+        int[] ranks = candidates.stream().mapToInt(i -> priority[i]).distinct()
+                .boxed().sorted(Comparator.reverseOrder()).mapToInt(Integer::intValue).toArray();
+        long[] tree = new long[ranks.length + 1];
+
+        List<Integer> order = new ArrayList<>(candidates);
+        order.sort((a, b) -> weight[a] != weight[b] ? Integer.compare(weight[a], weight[b])
+                : priority[a] != priority[b] ? Integer.compare(priority[b], priority[a])
+                : Integer.compare(a, b));
+
+        List<Integer> kept = new ArrayList<>();
+        for (int i : order) {
+            int rank = rankOf(ranks, priority[i]) + 1; // 1 = prioridad más alta
+            long dominators = 0;
+            for (int r = rank; r > 0; r -= r & -r) dominators += tree[r];
+            if (weight[i] + dominators > capacity) continue;
+            kept.add(i);
+            for (int r = rank; r < tree.length; r += r & -r) tree[r] += weight[i];
+        }
+        return kept;
+    }
+
+    private static int rankOf(int[] descending, int value) {
+        int lo = 0;
+        int hi = descending.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (descending[mid] > value) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
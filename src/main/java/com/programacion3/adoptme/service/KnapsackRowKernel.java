@@ -0,0 +1,93 @@
+package com.programacion3.adoptme.service;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Actualización de una fila de la DP de la mochila:
+ *
+ *   next[w] = max(prev[w], prev[w - peso] + prioridad)   para w >= peso
+ *   next[w] = prev[w]                                     para w < peso
+ *
+ * La fila se escribe fuera de lugar (prev y next son arreglos distintos), así que no hay
+ * dependencia entre celdas: la parte w < peso es un arraycopy y el resto es un max sobre
+ * dos arreglos desplazados, sin ramas, que el JIT (C2) vectoriza con instrucciones SIMD.
+ * No se usa jdk.incubator.vector porque exige --add-modules en compilación y ejecución;
+ * el bucle está escrito para que el compilador lo vectorice solo.
+ *
+ * Filas anchas (capacidades grandes) se reparten en tramos entre los núcleos con
+ * fork-join: cada tramo lee prev y escribe su parte de next, sin compartir celdas.
+ */
+public final class KnapsackRowKernel {
+
+    /** Ancho mínimo de la parte w >= peso para repartir la fila entre núcleos */
+    static final int PARALLEL_MIN_WIDTH = 1 << 16;
+
+    /** Tramo mínimo por tarea */
+    private static final int CHUNK = 1 << 14;
+
+    private KnapsackRowKernel() {
+    }
+
+    /**
+     * Calcula next a partir de prev agregando un ítem (capacidades 0..capacity).
+     */
+    public static void relax(int[] prev, int[] next, int weight, int priority, int capacity) {
+        int width = capacity + 1;
+        if (weight > capacity) {
+            System.arraycopy(prev, 0, next, 0, width);
+            return;
+        }
+        System.arraycopy(prev, 0, next, 0, weight);
+        if (width - weight >= PARALLEL_MIN_WIDTH && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            ForkJoinPool.commonPool().invoke(new RowTask(prev, next, weight, priority, weight, width));
+        } else {
+            relaxRange(prev, next, weight, priority, weight, width);
+        }
+    }
+
+    /**
+     * Igual que {@link #relax} pero siempre en el hilo actual (para comparar y para filas chicas).
+     */
+    public static void relaxSequential(int[] prev, int[] next, int weight, int priority, int capacity) {
+        int width = capacity + 1;
+        int split = Math.min(weight, width);
+        System.arraycopy(prev, 0, next, 0, split);
+        relaxRange(prev, next, weight, priority, split, width);
+    }
+
+    private static void relaxRange(int[] prev, int[] next, int weight, int priority, int from, int to) {
+        for (int w = from; w < to; w++) {
+            next[w] = Math.max(prev[w], prev[w - weight] + priority);
+        }
+    }
+
+    private static final class RowTask extends RecursiveAction {
+        private final int[] prev;
+        private final int[] next;
+        private final int weight;
+        private final int priority;
+        private final int from;
+        private final int to;
+
+        RowTask(int[] prev, int[] next, int weight, int priority, int from, int to) {
+            this.prev = prev;
+            this.next = next;
+            this.weight = weight;
+            this.priority = priority;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK) {
+                relaxRange(prev, next, weight, priority, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RowTask(prev, next, weight, priority, from, mid),
+                    new RowTask(prev, next, weight, priority, mid, to));
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.service.BacktrackingService.Adopter;
+import com.programacion3.adoptme.service.BacktrackingService.Assignment;
+import com.programacion3.adoptme.service.BacktrackingService.Dog;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Matching perros-adoptantes a gran escala con Large Neighborhood Search (LNS).
+ *
+ * Usa las mismas restricciones (maxDogs, presupuesto, niños, jardín) y el mismo
+ * score que {@link BacktrackingService}, pero en lugar de explorar todo el árbol:
+ * 1. Arma una solución inicial voraz (pares adoptante-perro por score descendente).
+ * 2. Repite hasta agotar el tiempo: "destruye" las asignaciones de unos pocos
+ *    adoptantes relacionados y "repara" ese vecindario chico con el backtracking
+ *    exacto. La reparación nunca empeora la solución (la asignación previa del
+ *    vecindario sigue siendo factible).
+ * Opcionalmente corre varias cadenas independientes en paralelo y se queda con la mejor.
+ */
+@Service
+public class LnsMatchingService {
+
+    private static final int NEIGHBOURHOOD_DOGS = 10;
+    private static final int MAX_DESTROYED_ADOPTERS = 3;
+    private static final double EPS = 1e-9;
+
+    private final BacktrackingService backtrackingService;
+
+    public LnsMatchingService(BacktrackingService backtrackingService) {
+        this.backtrackingService = backtrackingService;
+    }
+
+    /**
+     * Resultado de LNS
+     */
+    public static class LnsResult {
+        public final Assignment assignment;
+        public final double initialScore; // score de la solución voraz inicial
+        public final int iterations;       // vecindarios reparados (sumando todas las cadenas)
+        public final int improvements;     // reparaciones que mejoraron estrictamente
+        public final int chains;
+        public final long elapsedMs;
+
+        public LnsResult(Assignment assignment, double initialScore, int iterations,
+                         int improvements, int chains, long elapsedMs) {
+            this.assignment = assignment;
+            this.initialScore = initialScore;
+            this.iterations = iterations;
+            this.improvements = improvements;
+            this.chains = chains;
+            this.elapsedMs = elapsedMs;
+        }
+    }
+
+    /**
+     * Ejecuta LNS dentro de un presupuesto de tiempo.
+     *
+     * @param dogs perros candidatos (sin límite de cantidad)
+     * @param adopters adoptantes
+     * @param timeBudgetMs tiempo máximo de búsqueda
+     * @param chains cantidad de cadenas independientes (en paralelo si es mayor a 1)
+     * @param seed semilla para reproducibilidad
+     */
+    public LnsResult solve(List<Dog> dogs, List<Adopter> adopters, long timeBudgetMs, int chains, long seed) {
+        long start = System.currentTimeMillis();
+        if (dogs.isEmpty() || adopters.isEmpty()) {
+            return new LnsResult(new Assignment(new HashMap<>(), 0.0), 0.0, 0, 0, 0, 0);
+        }
+
+        Instance instance = new Instance(dogs, adopters);
+        long deadline = start + Math.max(0, timeBudgetMs);
+        int chainCount = Math.max(1, chains);
+
+        IntStream indexes = IntStream.range(0, chainCount);
+        if (chainCount > 1) {
+            indexes = indexes.parallel();
+        }
+        List<Chain> finished = indexes
+                .mapToObj(c -> runChain(instance, new Random(seed + c), deadline))
+                .toList();
+
+        Chain best = finished.get(0);
+        int iterations = 0;
+        int improvements = 0;
+        for (Chain chain : finished) {
+            iterations += chain.iterations;
+            improvements += chain.improvements;
+            if (chain.score > best.score + EPS) {
+                best = chain;
+            }
+        }
+
+        return new LnsResult(best.toAssignment(), instance.greedyScore, iterations, improvements,
+                chainCount, System.currentTimeMillis() - start);
+    }
+
+    private Chain runChain(Instance instance, Random random, long deadline) {
+        Chain chain = instance.greedyChain();
+        while (System.currentTimeMillis() < deadline && !Thread.currentThread().isInterrupted()) {
+            if (!destroyAndRepair(instance, chain, random)) {
+                break; // no hay adoptantes con perros compatibles
+            }
+            chain.iterations++;
+        }
+        return chain;
+    }
+
+    /**
+     * Un paso de LNS: libera los perros de hasta MAX_DESTROYED_ADOPTERS adoptantes
+     * relacionados, agrega perros libres compatibles y resuelve el vecindario exacto.
+     */
+    private boolean destroyAndRepair(Instance instance, Chain chain, Random random) {
+        if (instance.activeAdopters.length == 0) {
+            return false;
+        }
+
+        // Destroy: un adoptante al azar y otros que hoy tienen perros que él podría tomar
+        List<Integer> chosen = new ArrayList<>();
+        int first = instance.activeAdopters[random.nextInt(instance.activeAdopters.length)];
+        chosen.add(first);
+        int[] cand = instance.candidates[first];
+        for (int tries = 0; tries < 2 * MAX_DESTROYED_ADOPTERS && chosen.size() < MAX_DESTROYED_ADOPTERS; tries++) {
+            int d = cand[random.nextInt(Math.min(cand.length, 4 * NEIGHBOURHOOD_DOGS))];
+            int owner = chain.owner[d];
+            if (owner >= 0 && !chosen.contains(owner)) {
+                chosen.add(owner);
+            }
+        }
+
+        List<Integer> released = new ArrayList<>();
+        for (int a : chosen) {
+            for (int k = 0; k < chain.count[a]; k++) {
+                released.add(chain.held[a][k]);
+            }
+        }
+        Collections.shuffle(released, random);
+        if (released.size() > NEIGHBOURHOOD_DOGS) {
+            released = new ArrayList<>(released.subList(0, NEIGHBOURHOOD_DOGS));
+        }
+        Set<Integer> neighbourhood = new LinkedHashSet<>(released);
+
+        // Completar con perros libres que algún adoptante elegido podría tomar
+        for (int tries = 0; tries < 4 * NEIGHBOURHOOD_DOGS && neighbourhood.size() < NEIGHBOURHOOD_DOGS; tries++) {
+            int[] list = instance.candidates[chosen.get(random.nextInt(chosen.size()))];
+            int d = list[random.nextInt(Math.min(list.length, 4 * NEIGHBOURHOOD_DOGS))];
+            if (chain.owner[d] < 0) {
+                neighbourhood.add(d);
+            }
+        }
+
+        // Capacidad residual de los adoptantes elegidos sin los perros liberados
+        double oldScore = 0.0;
+        int[] previousOwner = new int[released.size()];
+        double[] previousScore = new double[released.size()];
+        for (int i = 0; i < released.size(); i++) {
+            int d = released.get(i);
+            previousOwner[i] = chain.owner[d];
+            previousScore[i] = chain.dogScore[d];
+            oldScore += previousScore[i];
+            chain.unassign(d);
+        }
+        List<Adopter> residual = new ArrayList<>();
+        for (int a : chosen) {
+            Adopter adopter = instance.adopters.get(a);
+            residual.add(new Adopter(adopter.id, adopter.name, adopter.hasKids, adopter.hasGarden,
+                    adopter.maxDogs - chain.count[a], adopter.budget - chain.spent[a], adopter.preferredEnergy));
+        }
+        List<Dog> localDogs = new ArrayList<>();
+        for (int d : neighbourhood) {
+            localDogs.add(instance.dogs.get(d));
+        }
+
+        // Repair: backtracking exacto sobre el vecindario
+        Assignment local = backtrackingService.solveExact(localDogs, residual, null);
+
+        if (local.totalScore + EPS < oldScore) {
+            // Sólo puede pasar si el vecindario se cortó por timeout: restaurar
+            for (int i = 0; i < released.size(); i++) {
+                chain.assign(released.get(i), previousOwner[i], previousScore[i]);
+            }
+            return true;
+        }
+
+        for (Map.Entry<String, List<String>> e : local.assignments.entrySet()) {
+            int a = instance.adopterIndex.get(e.getKey());
+            for (String dogId : e.getValue()) {
+                int d = instance.dogIndex.get(dogId);
+                chain.assign(d, a, BacktrackingService.calculateScore(instance.dogs.get(d), instance.adopters.get(a)));
+            }
+        }
+        if (local.totalScore > oldScore + EPS) {
+            chain.improvements++;
+        }
+        return true;
+    }
+
+    /**
+     * Datos del problema compartidos (sólo lectura) por todas las cadenas
+     */
+    private final class Instance {
+        final List<Dog> dogs;
+        final List<Adopter> adopters;
+        final Map<String, Integer> dogIndex = new HashMap<>();
+        final Map<String, Integer> adopterIndex = new HashMap<>();
+        final int[][] candidates;        // por adoptante: perros factibles, score descendente
+        final double[][] candidateScore; // score alineado con candidates
+        final int[] activeAdopters;      // adoptantes con al menos un perro factible
+        double greedyScore;
+        private Chain greedy;
+
+        Instance(List<Dog> dogs, List<Adopter> adopters) {
+            this.dogs = dogs;
+            this.adopters = adopters;
+            for (int d = 0; d < dogs.size(); d++) {
+                dogIndex.put(dogs.get(d).id, d);
+            }
+            for (int a = 0; a < adopters.size(); a++) {
+                adopterIndex.put(adopters.get(a).id, a);
+            }
+
+            candidates = new int[adopters.size()][];
+            candidateScore = new double[adopters.size()][];
+            List<Integer> active = new ArrayList<>();
+            DogFeatureTable table = DogFeatureTable.fromBacktracking(dogs);
+            for (int a = 0; a < adopters.size(); a++) {
+                Adopter adopter = adopters.get(a);
+                List<Integer> feasible = new ArrayList<>();
+                double[] scores = new double[dogs.size()];
+                if (adopter.maxDogs > 0) {
+                    table.matchScores(adopter, scores);
+                    for (int d = 0; d < dogs.size(); d++) {
+                        // El kernel compara el presupuesto en float: se re-chequea exacto
+                        if (scores[d] >= 0 && dogs.get(d).cost <= adopter.budget) {
+                            feasible.add(d);
+                        }
+                    }
+                }
+                feasible.sort((x, y) -> Double.compare(scores[y], scores[x]));
+                candidates[a] = feasible.stream().mapToInt(Integer::intValue).toArray();
+                candidateScore[a] = feasible.stream().mapToDouble(d -> scores[d]).toArray();
+                if (!feasible.isEmpty()) {
+                    active.add(a);
+                }
+            }
+            activeAdopters = active.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        /**
+         * Solución inicial voraz: recorre todos los pares factibles por score descendente.
+         */
+        Chain greedyChain() {
+            synchronized (this) {
+                if (greedy == null) {
+                    List<int[]> pairs = new ArrayList<>();
+                    for (int a = 0; a < candidates.length; a++) {
+                        for (int k = 0; k < candidates[a].length; k++) {
+                            pairs.add(new int[]{a, k});
+                        }
+                    }
+                    pairs.sort((x, y) -> Double.compare(candidateScore[y[0]][y[1]], candidateScore[x[0]][x[1]]));
+
+                    greedy = new Chain(this);
+                    for (int[] p : pairs) {
+                        int a = p[0];
+                        int d = candidates[a][p[1]];
+                        Adopter adopter = adopters.get(a);
+                        if (greedy.owner[d] < 0 && greedy.count[a] < adopter.maxDogs
+                                && greedy.spent[a] + dogs.get(d).cost <= adopter.budget) {
+                            greedy.assign(d, a, candidateScore[a][p[1]]);
+                        }
+                    }
+                    greedyScore = greedy.score;
+                }
+                return greedy.copy();
+            }
+        }
+
+    }
+
+    /**
+     * Estado mutable de una cadena de búsqueda
+     */
+    private static final class Chain {
+        final int[] owner;     // adoptante de cada perro (-1 si libre)
+        final double[] dogScore;
+        final int[][] held;    // perros de cada adoptante
+        final int[] count;
+        final double[] spent;
+        final List<Dog> dogs;
+        final List<Adopter> adopters;
+        double score;
+        int iterations;
+        int improvements;
+
+        Chain(Instance instance) {
+            this.dogs = instance.dogs;
+            this.adopters = instance.adopters;
+            owner = new int[dogs.size()];
+            Arrays.fill(owner, -1);
+            dogScore = new double[dogs.size()];
+            held = new int[adopters.size()][];
+            for (int a = 0; a < adopters.size(); a++) {
+                held[a] = new int[Math.max(0, adopters.get(a).maxDogs)];
+            }
+            count = new int[adopters.size()];
+            spent = new double[adopters.size()];
+        }
+
+        private Chain(Chain other) {
+            dogs = other.dogs;
+            adopters = other.adopters;
+            owner = other.owner.clone();
+            dogScore = other.dogScore.clone();
+            held = new int[other.held.length][];
+            for (int a = 0; a < held.length; a++) {
+                held[a] = other.held[a].clone();
+            }
+            count = other.count.clone();
+            spent = other.spent.clone();
+            score = other.score;
+        }
+
+        Chain copy() {
+            return new Chain(this);
+        }
+
+        void assign(int d, int a, double s) {
+            owner[d] = a;
+            dogScore[d] = s;
+            held[a][count[a]++] = d;
+            spent[a] += dogs.get(d).cost;
+            score += s;
+        }
+
+        void unassign(int d) {
+            int a = owner[d];
+            for (int k = 0; k < count[a]; k++) {
+                if (held[a][k] == d) {
+                    held[a][k] = held[a][--count[a]];
+                    break;
+                }
+            }
+            spent[a] -= dogs.get(d).cost;
+            score -= dogScore[d];
+            owner[d] = -1;
+            dogScore[d] = 0.0;
+        }
+
+        Assignment toAssignment() {
+            Map<String, List<String>> result = new HashMap<>();
+            for (int d = 0; d < owner.length; d++) {
+                if (owner[d] >= 0) {
+                    result.computeIfAbsent(adopters.get(owner[d]).id, k -> new ArrayList<>()).add(dogs.get(d).id);
+                }
+            }
+            return new Assignment(result, score, iterations, false);
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.service.BacktrackingService.Adopter;
+import com.programacion3.adoptme.service.BacktrackingService.Dog;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Flujo de costo mínimo para la versión relajada del problema de adopción.
+ *
+ * Si se ignora el presupuesto acumulado de cada adoptante, asignar perros
+ * (cada uno a lo sumo a un adoptante, cada adoptante hasta maxDogs) maximizando
+ * el score es un problema de transporte que se resuelve en tiempo polinomial:
+ *
+ *   fuente -> adoptante (cap maxDogs) -> perro (cap 1, costo -score) -> sumidero (cap 1)
+ *
+ * Se usa Successive Shortest Path con potenciales (Bellman-Ford inicial y luego
+ * Dijkstra con costos reducidos) sobre arreglos primitivos. Se augmenta mientras
+ * el camino más corto tenga costo negativo, es decir, mientras sume score.
+ *
+ * El valor obtenido es una cota superior del problema real (con presupuestos),
+ * que BacktrackingService usa para cortar la búsqueda apenas la alcanza.
+ */
+@Service
+public class MinCostFlowService {
+
+    /** Los scores se escalan a enteros para trabajar con costos exactos */
+    private static final long SCALE = 1000;
+    private static final long INF = Long.MAX_VALUE / 4;
+
+    /**
+     * Resultado del flujo para el problema de adopción
+     */
+    public static class FlowResult {
+        public final Map<String, List<String>> relaxedAssignments; // óptimo sin presupuesto acumulado
+        public final double relaxedScore;
+        public final double upperBound;       // cota superior del óptimo con presupuestos
+        public final boolean budgetFeasible;  // true si la relajación respeta todos los presupuestos (es óptima)
+        public final Map<String, List<String>> assignments; // relajación reparada para respetar presupuestos
+        public final double score;
+        public final int augmentations;
+
+        public FlowResult(Map<String, List<String>> relaxedAssignments, double relaxedScore, double upperBound,
+                          boolean budgetFeasible, Map<String, List<String>> assignments, double score,
+                          int augmentations) {
+            this.relaxedAssignments = relaxedAssignments;
+            this.relaxedScore = relaxedScore;
+            this.upperBound = upperBound;
+            this.budgetFeasible = budgetFeasible;
+            this.assignments = assignments;
+            this.score = score;
+            this.augmentations = augmentations;
+        }
+    }
+
+    /**
+     * Resuelve la relajación capacitada y la repara para respetar presupuestos.
+     */
+    public FlowResult solve(List<Dog> dogs, List<Adopter> adopters) {
+        int m = adopters.size();
+        int n = dogs.size();
+        if (m == 0 || n == 0) {
+            return new FlowResult(new HashMap<>(), 0.0, 0.0, true, new HashMap<>(), 0.0, 0);
+        }
+
+        int source = 0;
+        int sink = m + n + 1;
+        Network network = new Network(m + n + 2, m + n + m * n);
+
+        for (int a = 0; a < m; a++) {
+            if (adopters.get(a).maxDogs > 0) {
+                network.addEdge(source, 1 + a, adopters.get(a).maxDogs, 0);
+            }
+        }
+        // Arcos adoptante -> perro sólo para pares factibles de a uno
+        int firstPairEdge = network.edgeCount;
+        List<int[]> pairs = new ArrayList<>();
+        DogFeatureTable table = DogFeatureTable.fromBacktracking(dogs);
+        double[] row = new double[n];
+        for (int a = 0; a < m; a++) {
+            Adopter adopter = adopters.get(a);
+            if (adopter.maxDogs <= 0) continue;
+            table.matchScores(adopter, row);
+            for (int d = 0; d < n; d++) {
+                // row[d] < 0: incompatible; el presupuesto se re-chequea exacto (el kernel usa float)
+                if (row[d] > 0 && dogs.get(d).cost <= adopter.budget) {
+                    // Redondeo hacia arriba: la cota nunca queda por debajo del óptimo real
+                    network.addEdge(1 + a, 1 + m + d, 1, -(long) Math.ceil(row[d] * SCALE));
+                    pairs.add(new int[]{a, d});
+                }
+            }
+        }
+        for (int d = 0; d < n; d++) {
+            network.addEdge(1 + m + d, sink, 1, 0);
+        }
+
+        long[] flowAndCost = network.minCostFlow(source, sink);
+
+        // Extraer la asignación relajada: arcos adoptante -> perro saturados
+        Map<String, List<String>> relaxed = new HashMap<>();
+        double relaxedScore = 0.0;
+        for (int k = 0; k < pairs.size(); k++) {
+            if (network.cap[firstPairEdge + 2 * k] == 0) {
+                Adopter adopter = adopters.get(pairs.get(k)[0]);
+                Dog dog = dogs.get(pairs.get(k)[1]);
+                relaxed.computeIfAbsent(adopter.id, x -> new ArrayList<>()).add(dog.id);
+                relaxedScore += BacktrackingService.calculateScore(dog, adopter);
+            }
+        }
+        double upperBound = -flowAndCost[1] / (double) SCALE;
+
+        // Reparar presupuestos: cada adoptante se queda con sus mejores perros que entren
+        Map<String, Dog> dogsById = new HashMap<>();
+        for (Dog d : dogs) dogsById.put(d.id, d);
+        Map<String, List<String>> repaired = new HashMap<>();
+        double repairedScore = 0.0;
+        boolean feasible = true;
+        for (Adopter adopter : adopters) {
+            List<String> held = relaxed.get(adopter.id);
+            if (held == null) continue;
+            List<Dog> byScore = new ArrayList<>();
+            double cost = 0.0;
+            for (String id : held) {
+                byScore.add(dogsById.get(id));
+                cost += dogsById.get(id).cost;
+            }
+            if (cost > adopter.budget) {
+                feasible = false;
+            }
+            byScore.sort(Comparator.comparingDouble((Dog d) -> -BacktrackingService.calculateScore(d, adopter))
+                    .thenComparingDouble(d -> d.cost));
+            double spent = 0.0;
+            List<String> kept = new ArrayList<>();
+            for (Dog dog : byScore) {
+                if (spent + dog.cost <= adopter.budget) {
+                    kept.add(dog.id);
+                    spent += dog.cost;
+                    repairedScore += BacktrackingService.calculateScore(dog, adopter);
+                }
+            }
+            if (!kept.isEmpty()) {
+                repaired.put(adopter.id, kept);
+            }
+        }
+
+        return new FlowResult(relaxed, relaxedScore, upperBound, feasible, repaired, repairedScore,
+                (int) flowAndCost[0]);
+    }
+
+    /**
+     * Sólo la cota superior (para podar búsquedas exactas).
+     */
+    public double upperBound(List<Dog> dogs, List<Adopter> adopters) {
+        return solve(dogs, adopters).upperBound;
+    }
+
+    /**
+     * Red residual en arreglos primitivos (lista de adyacencia con head/next).
+     * La arista e y su reversa son e y e^1.
+     */
+    static final class Network {
+        final int nodes;
+        final int[] head;
+        int[] next;
+        int[] to;
+        int[] cap;
+        long[] cost;
+        int edgeCount;
+
+        Network(int nodes, int expectedEdges) {
+            this.nodes = nodes;
+            this.head = new int[nodes];
+            Arrays.fill(head, -1);
+            int size = Math.max(2, 2 * expectedEdges);
+            next = new int[size];
+            to = new int[size];
+            cap = new int[size];
+            cost = new long[size];
+        }
+
+        /**
+         * Agrega la arista u->v y su reversa; devuelve el índice de la arista directa.
+         */
+        int addEdge(int u, int v, int capacity, long edgeCost) {
+            ensureCapacity(edgeCount + 2);
+            int e = edgeCount;
+            to[e] = v; cap[e] = capacity; cost[e] = edgeCost; next[e] = head[u]; head[u] = e;
+            to[e + 1] = u; cap[e + 1] = 0; cost[e + 1] = -edgeCost; next[e + 1] = head[v]; head[v] = e + 1;
+            edgeCount += 2;
+            return e;
+        }
+
+        private void ensureCapacity(int size) {
+            if (size > to.length) {
+                int newSize = Math.max(size, 2 * to.length);
+                next = Arrays.copyOf(next, newSize);
+                to = Arrays.copyOf(to, newSize);
+                cap = Arrays.copyOf(cap, newSize);
+                cost = Arrays.copyOf(cost, newSize);
+            }
+        }
+
+        /**
+         * Successive Shortest Path: augmenta por caminos de costo mínimo mientras
+         * el costo sea negativo. Devuelve {flujo, costo}.
+         */
+        long[] minCostFlow(int s, int t) {
+            long[] potential = bellmanFord(s);
+            long[] dist = new long[nodes];
+            int[] prevEdge = new int[nodes];
+            long flow = 0;
+            long totalCost = 0;
+            LongIntHeap heap = new LongIntHeap(edgeCount + nodes);
+
+            while (true) {
+                // Dijkstra con costos reducidos (no negativos gracias a los potenciales)
+                Arrays.fill(dist, INF);
+                Arrays.fill(prevEdge, -1);
+                dist[s] = 0;
+                heap.clear();
+                heap.push(0, s);
+                while (!heap.isEmpty()) {
+                    long d = heap.peekKey();
+                    int u = heap.pop();
+                    if (d > dist[u]) continue;
+                    if (u == t) break; // el resto de los nodos no mejora este camino
+                    for (int e = head[u]; e != -1; e = next[e]) {
+                        if (cap[e] <= 0) continue;
+                        int v = to[e];
+                        long nd = d + cost[e] + potential[u] - potential[v];
+                        if (nd < dist[v]) {
+                            dist[v] = nd;
+                            prevEdge[v] = e;
+                            heap.push(nd, v);
+                        }
+                    }
+                }
+                if (dist[t] >= INF) {
+                    break;
+                }
+                // Nodos no finalizados quedan con dist[t]: los costos reducidos siguen siendo >= 0
+                long reached = dist[t];
+                for (int v = 0; v < nodes; v++) {
+                    potential[v] += Math.min(dist[v], reached);
+                }
+
+                long pathCost = potential[t] - potential[s];
+                if (pathCost >= 0) {
+                    break; // más flujo ya no suma score
+                }
+
+                int bottleneck = Integer.MAX_VALUE;
+                for (int v = t; v != s; v = to[prevEdge[v] ^ 1]) {
+                    bottleneck = Math.min(bottleneck, cap[prevEdge[v]]);
+                }
+                for (int v = t; v != s; v = to[prevEdge[v] ^ 1]) {
+                    cap[prevEdge[v]] -= bottleneck;
+                    cap[prevEdge[v] ^ 1] += bottleneck;
+                }
+                flow += bottleneck;
+                totalCost += pathCost * bottleneck;
+            }
+            return new long[]{flow, totalCost};
+        }
+
+        /**
+         * Potenciales iniciales (hay costos negativos): Bellman-Ford con cola (SPFA).
+         */
+        private long[] bellmanFord(int s) {
+            long[] dist = new long[nodes];
+            Arrays.fill(dist, INF);
+            boolean[] inQueue = new boolean[nodes];
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            dist[s] = 0;
+            queue.add(s);
+            inQueue[s] = true;
+            while (!queue.isEmpty()) {
+                int u = queue.poll();
+                inQueue[u] = false;
+                for (int e = head[u]; e != -1; e = next[e]) {
+                    if (cap[e] > 0 && dist[u] + cost[e] < dist[to[e]]) {
+                        dist[to[e]] = dist[u] + cost[e];
+                        if (!inQueue[to[e]]) {
+                            queue.add(to[e]);
+                            inQueue[to[e]] = true;
+                        }
+                    }
+                }
+            }
+            for (int v = 0; v < nodes; v++) {
+                if (dist[v] >= INF) dist[v] = 0; // inalcanzable: nunca aparece en un camino
+            }
+            return dist;
+        }
+    }
+
+    /**
+     * Heap binario de mínimos sobre pares (clave long, nodo int), sin boxing.
+     */
+    static final class LongIntHeap {
+        private long[] keys;
+        private int[] values;
+        private int size;
+
+        LongIntHeap(int capacity) {
+            keys = new long[Math.max(1, capacity)];
+            values = new int[Math.max(1, capacity)];
+        }
+
+        void clear() { size = 0; }
+        boolean isEmpty() { return size == 0; }
+        long peekKey() { return keys[0]; }
+
+        void push(long key, int value) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, 2 * size);
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) break;
+                keys[i] = keys[parent];
+                values[i] = values[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        int pop() {
+            int result = values[0];
+            size--;
+            if (size > 0) {
+                long key = keys[size];
+                int value = values[size];
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= size) break;
+                    if (child + 1 < size && keys[child + 1] < keys[child]) child++;
+                    if (keys[child] >= key) break;
+                    keys[i] = keys[child];
+                    values[i] = values[child];
+                    i = child;
+                }
+                keys[i] = key;
+                values[i] = value;
+            }
+            return result;
+        }
+    }
+}
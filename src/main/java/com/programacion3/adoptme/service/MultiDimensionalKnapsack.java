@@ -0,0 +1,378 @@
+package com.programacion3.adoptme.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mochila 0/1 con varias restricciones (peso, jaulas, asientos especiales, ...).
+ *
+ * - DP exacta: si la tabla de estados (producto de las capacidades + 1) y la tabla de
+ *   decisiones (un bit por ítem y estado) entran en los límites de memoria. Los estados
+ *   se guardan en un solo int[] con índice en base mixta y se recorren de mayor a menor
+ *   (0/1 en el lugar); para reconstruir se marca qué ítem mejoró cada estado.
+ * - Branch & bound con relajación lagrangiana: si la tabla no entra. Los multiplicadores
+ *   se ajustan en la raíz por subgradiente; con ellos la cota de un nodo es
+ *   prioridad actual + λ·capacidad restante + suma de las ganancias reducidas positivas
+ *   (p - λ·w) de los ítems que faltan decidir. Los ítems se recorren por ganancia reducida.
+ *
+ * Antes de resolver se descartan los ítems sin prioridad o que no entran en alguna
+ * dimensión, y cada capacidad se recorta a la suma de pesos de esa dimensión.
+ */
+public final class MultiDimensionalKnapsack {
+
+    /** Estados máximos de la DP (16 MB de ints) */
+    static final long MAX_DP_CELLS = 1L << 22;
+
+    /** Bits máximos de la tabla de decisiones de la DP (32 MB) */
+    static final long MAX_DP_BITS = 1L << 28;
+
+    /** Nodos máximos del branch & bound; al llegar se devuelve la mejor carga encontrada */
+    static final long NODE_LIMIT = 1_000_000L;
+
+    private static final int SUBGRADIENT_ITERATIONS = 300;
+
+    private MultiDimensionalKnapsack() {
+    }
+
+    public enum Method { DP, LAGRANGIAN_BNB }
+
+    /**
+     * Resultado: posiciones elegidas (ascendentes) y garantía
+     */
+    public static final class Solution {
+        public final int[] chosen;
+        public final int totalPriority;
+        public final int upperBound;
+        public final boolean optimal;
+        public final Method method;
+        public final long tableCells; // estados de la DP (0 si se usó branch & bound)
+        public final long nodes;
+
+        public Solution(int[] chosen, int totalPriority, int upperBound, boolean optimal, Method method,
+                        long tableCells, long nodes) {
+            this.chosen = chosen;
+            this.totalPriority = totalPriority;
+            this.upperBound = upperBound;
+            this.optimal = optimal;
+            this.method = method;
+            this.tableCells = tableCells;
+            this.nodes = nodes;
+        }
+    }
+
+    /**
+     * Resuelve max Σ p_i x_i con Σ w_ik x_i <= c_k para cada dimensión k.
+     *
+     * @param weight weight[i][k]: consumo del ítem i en la dimensión k
+     * @param priority prioridad de cada ítem
+     * @param capacity capacidad de cada dimensión
+     */
+    public static Solution solve(int[][] weight, int[] priority, int[] capacity) {
+        int d = capacity.length;
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < priority.length; i++) {
+            if (priority[i] > 0 && fits(weight[i], capacity)) {
+                candidates.add(i);
+            }
+        }
+        int m = candidates.size();
+        int[][] w = new int[m][];
+        int[] p = new int[m];
+        long[] sums = new long[d];
+        for (int j = 0; j < m; j++) {
+            w[j] = weight[candidates.get(j)];
+            p[j] = priority[candidates.get(j)];
+            for (int k = 0; k < d; k++) sums[k] += w[j][k];
+        }
+        int[] cap = new int[d];
+        long cells = 1;
+        for (int k = 0; k < d; k++) {
+            cap[k] = (int) Math.min(capacity[k], sums[k]);
+            cells = cells > MAX_DP_CELLS ? cells : cells * (cap[k] + 1);
+        }
+
+        Solution local;
+        if (cells <= MAX_DP_CELLS && m * cells <= MAX_DP_BITS) {
+            local = solveDp(w, p, cap, (int) cells);
+        } else {
+            local = solveBranchAndBound(w, p, cap);
+        }
+
+        int[] chosen = new int[local.chosen.length];
+        for (int j = 0; j < chosen.length; j++) chosen[j] = candidates.get(local.chosen[j]);
+        Arrays.sort(chosen);
+        return new Solution(chosen, local.totalPriority, local.upperBound, local.optimal, local.method,
+                local.tableCells, local.nodes);
+    }
+
+    // ==================== DP exacta ====================
+
+    private static Solution solveDp(int[][] w, int[] p, int[] cap, int cells) {
+        int m = p.length;
+        int d = cap.length;
+        int[] stride = new int[d];
+        int s0 = 1;
+        for (int k = d - 1; k >= 0; k--) {
+            stride[k] = s0;
+            s0 *= cap[k] + 1;
+        }
+
+        int[] dp = new int[cells];
+        long[] take = new long[(int) (((long) m * cells + 63) >>> 6)];
+        int[] coord = new int[d];
+        for (int i = 0; i < m; i++) {
+            int offset = 0;
+            for (int k = 0; k < d; k++) offset += w[i][k] * stride[k];
+            System.arraycopy(cap, 0, coord, 0, d);
+            long bitBase = (long) i * cells;
+            for (int s = cells - 1; s >= 0; s--) {
+                boolean fits = true;
+                for (int k = 0; k < d && fits; k++) fits = coord[k] >= w[i][k];
+                if (fits) {
+                    int with = dp[s - offset] + p[i];
+                    if (with > dp[s]) {
+                        dp[s] = with;
+                        long bit = bitBase + s;
+                        take[(int) (bit >>> 6)] |= 1L << bit;
+                    }
+                }
+                // Odómetro: estado anterior en base mixta
+                for (int k = d - 1; k >= 0; k--) {
+                    if (coord[k] > 0) {
+                        coord[k]--;
+                        break;
+                    }
+                    coord[k] = cap[k];
+                }
+            }
+        }
+
+        List<Integer> chosen = new ArrayList<>();
+        int s = cells - 1;
+        for (int i = m - 1; i >= 0; i--) {
+            long bit = (long) i * cells + s;
+            if ((take[(int) (bit >>> 6)] & (1L << bit)) != 0) {
+                chosen.add(i);
+                for (int k = 0; k < d; k++) s -= w[i][k] * stride[k];
+            }
+        }
+        int value = dp[cells - 1];
+        return new Solution(chosen.stream().mapToInt(Integer::intValue).toArray(), value, value, true,
+                Method.DP, cells, 0);
+    }
+
+    // ==================== Branch & bound lagrangiano ====================
+
+    private static Solution solveBranchAndBound(int[][] w, int[] p, int[] cap) {
+        int m = p.length;
+        int d = cap.length;
+
+        // Solución inicial: greedy por prioridad sobre consumo normalizado
+        boolean[] incumbent = greedy(w, p, cap);
+        int lowerBound = value(incumbent, p);
+
+        // Multiplicadores por subgradiente
+        double[] lambda = new double[d];
+        double[] bestLambda = new double[d];
+        double bestBound = Double.MAX_VALUE;
+        double mu = 2.0;
+        int stale = 0;
+        boolean[] x = new boolean[m];
+        for (int it = 0; it < SUBGRADIENT_ITERATIONS; it++) {
+            double bound = 0.0;
+            for (int k = 0; k < d; k++) bound += lambda[k] * cap[k];
+            long[] used = new long[d];
+            for (int i = 0; i < m; i++) {
+                double reduced = reducedProfit(w[i], p[i], lambda);
+                x[i] = reduced > 0;
+                if (x[i]) {
+                    bound += reduced;
+                    for (int k = 0; k < d; k++) used[k] += w[i][k];
+                }
+            }
+            if (bound < bestBound) {
+                bestBound = bound;
+                bestLambda = lambda.clone();
+                stale = 0;
+            } else if (++stale >= 20) {
+                mu /= 2;
+                stale = 0;
+            }
+            // Si la solución relajada es factible, es candidata (completada con greedy)
+            boolean feasible = true;
+            for (int k = 0; k < d; k++) feasible &= used[k] <= cap[k];
+            if (feasible) {
+                boolean[] candidate = x.clone();
+                fill(candidate, w, p, cap);
+                if (value(candidate, p) > lowerBound) {
+                    incumbent = candidate;
+                    lowerBound = value(candidate, p);
+                }
+            }
+            if (Math.floor(bestBound + 1e-9) <= lowerBound) break;
+
+            // Subgradiente con cada restricción normalizada a capacidad 1: si no, la dimensión
+            // de números grandes (kg o gramos) domina el paso y las demás casi no se mueven
+            double norm = 0.0;
+            double[] g = new double[d];
+            for (int k = 0; k < d; k++) {
+                g[k] = cap[k] == 0 ? 0.0 : 1.0 - (double) used[k] / cap[k];
+                norm += g[k] * g[k];
+            }
+            if (norm == 0.0) break;
+            double step = mu * Math.max(bound - lowerBound, 1.0) / norm;
+            for (int k = 0; k < d; k++) {
+                if (cap[k] > 0) lambda[k] = Math.max(0.0, lambda[k] - step * g[k] / cap[k]);
+            }
+        }
+        int upperBound = (int) Math.min(Math.floor(bestBound + 1e-9), Integer.MAX_VALUE);
+        if (upperBound <= lowerBound) {
+            return new Solution(indices(incumbent), lowerBound, lowerBound, true, Method.LAGRANGIAN_BNB, 0, 0);
+        }
+
+        Search search = new Search(w, p, cap, bestLambda, incumbent, lowerBound, upperBound);
+        search.dfs(0, 0);
+        boolean optimal = !search.truncated || search.bestValue >= upperBound;
+        return new Solution(indices(search.best), search.bestValue,
+                optimal ? search.bestValue : upperBound, optimal, Method.LAGRANGIAN_BNB, 0, search.nodes);
+    }
+
+    private static final class Search {
+        final int[][] w;
+        final int[] p;
+        final long[] residual;
+        final double[] lambda;
+        final int[] order;          // ítems por ganancia reducida descendente
+        final double[] positiveTail; // suma de ganancias reducidas positivas desde cada posición
+        final boolean[] current;
+        final int upperBound;
+        boolean[] best;
+        int bestValue;
+        long nodes;
+        boolean truncated;
+
+        Search(int[][] w, int[] p, int[] cap, double[] lambda, boolean[] incumbent, int incumbentValue, int upperBound) {
+            this.w = w;
+            this.p = p;
+            this.lambda = lambda;
+            this.residual = new long[cap.length];
+            for (int k = 0; k < cap.length; k++) residual[k] = cap[k];
+            int m = p.length;
+            double[] reduced = new double[m];
+            Integer[] boxed = new Integer[m];
+            for (int i = 0; i < m; i++) {
+                reduced[i] = reducedProfit(w[i], p[i], lambda);
+                boxed[i] = i;
+            }
+            Arrays.sort(boxed, (a, b) -> reduced[a] != reduced[b] ? Double.compare(reduced[b], reduced[a])
+                    : Integer.compare(p[b], p[a]));
+            this.order = new int[m];
+            this.positiveTail = new double[m + 1];
+            for (int j = 0; j < m; j++) order[j] = boxed[j];
+            for (int j = m - 1; j >= 0; j--) positiveTail[j] = positiveTail[j + 1] + Math.max(0.0, reduced[order[j]]);
+            this.current = new boolean[m];
+            this.best = incumbent.clone();
+            this.bestValue = incumbentValue;
+            this.upperBound = upperBound;
+        }
+
+        void dfs(int j, int profit) {
+            if (truncated || bestValue >= upperBound) return;
+            if (++nodes > NODE_LIMIT) {
+                truncated = true;
+                return;
+            }
+            if (profit > bestValue) {
+                bestValue = profit;
+                best = current.clone();
+            }
+            if (j == order.length) return;
+
+            double bound = profit + positiveTail[j];
+            for (int k = 0; k < residual.length; k++) bound += lambda[k] * residual[k];
+            if (Math.floor(bound + 1e-9) <= bestValue) return;
+
+            int i = order[j];
+            boolean fits = true;
+            for (int k = 0; k < residual.length && fits; k++) fits = w[i][k] <= residual[k];
+            if (fits) {
+                for (int k = 0; k < residual.length; k++) residual[k] -= w[i][k];
+                current[i] = true;
+                dfs(j + 1, profit + p[i]);
+                current[i] = false;
+                for (int k = 0; k < residual.length; k++) residual[k] += w[i][k];
+            }
+            dfs(j + 1, profit);
+        }
+    }
+
+    // ==================== Auxiliares ====================
+
+    private static boolean[] greedy(int[][] w, int[] p, int[] cap) {
+        boolean[] x = new boolean[p.length];
+        fill(x, w, p, cap);
+        return x;
+    }
+
+    /**
+     * Agrega, por prioridad sobre consumo normalizado, los ítems que todavía entran.
+     */
+    private static void fill(boolean[] x, int[][] w, int[] p, int[] cap) {
+        int d = cap.length;
+        long[] used = new long[d];
+        for (int i = 0; i < x.length; i++) {
+            if (x[i]) for (int k = 0; k < d; k++) used[k] += w[i][k];
+        }
+        double[] efficiency = new double[p.length];
+        Integer[] order = new Integer[p.length];
+        for (int i = 0; i < p.length; i++) {
+            double load = 0.0;
+            for (int k = 0; k < d; k++) load += cap[k] == 0 ? 0.0 : (double) w[i][k] / cap[k];
+            efficiency[i] = p[i] / (load + 1e-9);
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(efficiency[b], efficiency[a]));
+        for (int i : order) {
+            if (x[i]) continue;
+            boolean fits = true;
+            for (int k = 0; k < d && fits; k++) fits = used[k] + w[i][k] <= cap[k];
+            if (fits) {
+                x[i] = true;
+                for (int k = 0; k < d; k++) used[k] += w[i][k];
+            }
+        }
+    }
+
+    private static double reducedProfit(int[] w, int p, double[] lambda) {
+        double reduced = p;
+        for (int k = 0; k < lambda.length; k++) reduced -= lambda[k] * w[k];
+        return reduced;
+    }
+
+    private static boolean fits(int[] w, int[] cap) {
+        for (int k = 0; k < cap.length; k++) {
+            if (w[k] > cap[k]) return false;
+        }
+        return true;
+    }
+
+    private static int value(boolean[] x, int[] p) {
+        int total = 0;
+        for (int i = 0; i < x.length; i++) {
+            if (x[i]) total += p[i];
+        }
+        return total;
+    }
+
+    private static int[] indices(boolean[] x) {
+        int count = 0;
+        for (boolean b : x) if (b) count++;
+        int[] result = new int[count];
+        int at = 0;
+        for (int i = 0; i < x.length; i++) {
+            if (x[i]) result[at++] = i;
+        }
+        return result;
+    }
+}
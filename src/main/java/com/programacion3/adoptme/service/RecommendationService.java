@@ -0,0 +1,278 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.domain.Adopter;
+import com.programacion3.adoptme.exception.ResourceNotFoundException;
+import com.programacion3.adoptme.service.ScoringProfileService.AdopterContext;
+import com.programacion3.adoptme.service.ScoringProfileService.CompiledProfile;
+import com.programacion3.adoptme.service.ScoringProfileService.Segment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Recomendaciones materializadas: los N mejores perros disponibles de cada adoptante,
+ * con el score del greedy (perfil de su segmento), servidos desde memoria.
+ *
+ * En vez de puntuar todo el catálogo en cada vista, se guarda por adoptante una
+ * lista ordenada con hasta 2N candidatos (la holgura evita recalcular cuando sale
+ * uno de los primeros N). Antes de responder se aplican los cambios del catálogo
+ * desde la última versión vista:
+ * - perro nuevo o editado: se puntúa sólo contra los adoptantes compatibles
+ *   (columna de la matriz de compatibilidad) y se quita de quienes lo tenían
+ * - perro adoptado: se quita sólo de los adoptantes que lo tenían
+ * - adoptante nuevo o editado: se recalcula sólo ese adoptante
+ * Un adoptante se recalcula completo si su lista queda con menos de N sin haber
+ * visto todos sus compatibles, o si cambió el perfil de scoring de su segmento.
+ *
+ * Invariante: la lista de cada adoptante contiene los mejores |lista| perros de
+ * entre sus compatibles que entran en su presupuesto (o todos, si complete).
+ */
+@Service
+public class RecommendationService {
+
+    /** Cantidad de recomendaciones por adoptante */
+    public static final int DEFAULT_TOP_N = 10;
+
+    /**
+     * Perro recomendado
+     */
+    public static class Recommendation {
+        public final String dogId;
+        public final String dogName;
+        public final double score;
+
+        public Recommendation(String dogId, String dogName, double score) {
+            this.dogId = dogId;
+            this.dogName = dogName;
+            this.score = score;
+        }
+    }
+
+    /**
+     * Recomendaciones de un adoptante con la versión del catálogo que reflejan
+     */
+    public static class Recommendations {
+        public final String adopterId;
+        public final List<Recommendation> dogs;
+        public final long catalogVersion;
+        public final long updatedAtVersion; // última versión en la que cambió la lista de este adoptante
+
+        public Recommendations(String adopterId, List<Recommendation> dogs, long catalogVersion, long updatedAtVersion) {
+            this.adopterId = adopterId;
+            this.dogs = dogs;
+            this.catalogVersion = catalogVersion;
+            this.updatedAtVersion = updatedAtVersion;
+        }
+    }
+
+    /**
+     * Candidatos guardados de un adoptante, ordenados por score descendente
+     */
+    private static final class Entry {
+        final List<Recommendation> candidates = new ArrayList<>();
+        boolean complete;     // true si contiene a todos sus perros compatibles
+        long profileVersion;  // versión del perfil de scoring con la que se calculó
+        long updatedAt;
+    }
+
+    private final ScoringProfileService scoringProfiles;
+    private final int topN;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<String, Set<String>> holders = new HashMap<>(); // perro -> adoptantes que lo tienen
+    private final CatalogService.ChangeCursor changes;
+    private long fullRecomputes;
+    private long incrementalUpdates;
+
+    @Autowired
+    public RecommendationService(CatalogService catalogService, ScoringProfileService scoringProfiles) {
+        this(catalogService, scoringProfiles, DEFAULT_TOP_N);
+    }
+
+    public RecommendationService(CatalogService catalogService, ScoringProfileService scoringProfiles, int topN) {
+        this.scoringProfiles = scoringProfiles;
+        this.topN = topN;
+        this.changes = catalogService.changeCursor();
+    }
+
+    /**
+     * Recomendaciones de un adoptante (aplica antes los cambios pendientes del catálogo).
+     *
+     * @throws ResourceNotFoundException si el adoptante no existe
+     */
+    public synchronized Recommendations recommendationsFor(String adopterId) {
+        CatalogService.Snapshot catalog = sync();
+        int a = catalog.adopterPosition(adopterId);
+        if (a < 0) {
+            throw new ResourceNotFoundException("Adopter not found: " + adopterId);
+        }
+        Entry entry = entries.get(adopterId);
+        if (entry == null || entry.profileVersion != profileFor(catalog.adopters.get(a)).version) {
+            recompute(catalog, a); // cambió el perfil de scoring del segmento
+            entry = entries.get(adopterId);
+        }
+        List<Recommendation> top = List.copyOf(entry.candidates.subList(0, Math.min(topN, entry.candidates.size())));
+        return new Recommendations(adopterId, top, catalog.version, entry.updatedAt);
+    }
+
+    /** Recalculos completos de un adoptante (para diagnóstico y tests) */
+    public synchronized long fullRecomputes() {
+        return fullRecomputes;
+    }
+
+    /** Inserciones/remociones puntuales aplicadas (para diagnóstico y tests) */
+    public synchronized long incrementalUpdates() {
+        return incrementalUpdates;
+    }
+
+    /**
+     * Lleva el store a la versión actual del catálogo.
+     */
+    private CatalogService.Snapshot sync() {
+        CatalogService.ChangeCursor.Delta delta = changes.advance();
+        CatalogService.Snapshot catalog = delta.catalog;
+        if (delta.full) {
+            // Primera carga, recarga completa o registro descartado: se recalcula todo
+            entries.clear();
+            holders.clear();
+            for (int a = 0; a < catalog.adopters.size(); a++) {
+                recompute(catalog, a);
+            }
+        } else {
+            for (String adopterId : delta.adopterIds) {
+                int a = catalog.adopterPosition(adopterId);
+                if (a >= 0) recompute(catalog, a);
+            }
+            for (String dogId : delta.dogIds) {
+                applyDogChange(catalog, dogId, delta.adopterIds);
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * Aplica el alta, edición o adopción de un perro sólo sobre los adoptantes afectados.
+     */
+    private void applyDogChange(CatalogService.Snapshot catalog, String dogId, Set<String> alreadyRecomputed) {
+        Set<String> touched = new HashSet<>();
+
+        // Quitar el perro de quienes lo tenían (su score o compatibilidad pudo cambiar)
+        Set<String> held = holders.remove(dogId);
+        if (held != null) {
+            for (String adopterId : held) {
+                Entry entry = entries.get(adopterId);
+                if (alreadyRecomputed.contains(adopterId)) {
+                    holders.computeIfAbsent(dogId, k -> new HashSet<>()).add(adopterId); // ya está al día
+                } else if (entry != null) {
+                    entry.candidates.removeIf(r -> r.dogId.equals(dogId));
+                    touched.add(adopterId);
+                    incrementalUpdates++;
+                }
+            }
+        }
+
+        // Si sigue disponible, ofrecerlo a los adoptantes de su columna
+        int d = catalog.availablePosition(dogId);
+        if (d >= 0) {
+            for (int a : catalog.compatibility.adoptersFor(d)) {
+                Adopter adopter = catalog.adopters.get(a);
+                if (alreadyRecomputed.contains(adopter.getId())) continue;
+                if (catalog.availableFeatures.cost(d) > budgetOf(adopter)) continue;
+                double score = profileFor(adopter).score(catalog.availableFeatures, d, contextFor(adopter));
+                if (offer(adopter.getId(), new Recommendation(dogId, catalog.availableFeatures.name(d), score))) {
+                    touched.add(adopter.getId());
+                    incrementalUpdates++;
+                }
+            }
+        }
+
+        for (String adopterId : touched) {
+            Entry entry = entries.get(adopterId);
+            entry.updatedAt = catalog.version;
+            // Sin holgura y con perros sin ver: hay que volver a puntuar a este adoptante
+            if (entry.candidates.size() < topN && !entry.complete) {
+                recompute(catalog, catalog.adopterPosition(adopterId));
+            }
+        }
+    }
+
+    /**
+     * Inserta un candidato respetando el invariante; devuelve true si la lista cambió.
+     */
+    private boolean offer(String adopterId, Recommendation candidate) {
+        Entry entry = entries.get(adopterId);
+        List<Recommendation> list = entry.candidates;
+        // Si la lista no está completa, sólo se puede insertar algo mejor que el peor guardado
+        if (!entry.complete && (list.isEmpty() || candidate.score <= list.get(list.size() - 1).score)) {
+            return false;
+        }
+        int at = 0;
+        while (at < list.size() && list.get(at).score >= candidate.score) at++;
+        list.add(at, candidate);
+        holders.computeIfAbsent(candidate.dogId, k -> new HashSet<>()).add(adopterId);
+        if (list.size() > capacity()) {
+            Recommendation dropped = list.remove(list.size() - 1);
+            removeHolder(dropped.dogId, adopterId);
+            entry.complete = false;
+        }
+        return true;
+    }
+
+    /**
+     * Puntúa de nuevo todos los compatibles de un adoptante.
+     */
+    private void recompute(CatalogService.Snapshot catalog, int a) {
+        Adopter adopter = catalog.adopters.get(a);
+        Entry previous = entries.get(adopter.getId());
+        if (previous != null) {
+            previous.candidates.forEach(r -> removeHolder(r.dogId, adopter.getId()));
+        }
+
+        CompiledProfile profile = profileFor(adopter);
+        AdopterContext ctx = contextFor(adopter);
+        double budget = budgetOf(adopter);
+        DogFeatureTable table = catalog.availableFeatures;
+        List<Recommendation> scored = new ArrayList<>();
+        for (int d : catalog.compatibility.dogsFor(a)) {
+            if (table.cost(d) <= budget) {
+                scored.add(new Recommendation(table.id(d), table.name(d), profile.score(table, d, ctx)));
+            }
+        }
+        scored.sort((x, y) -> Double.compare(y.score, x.score)); // estable: empates en orden de catálogo
+
+        Entry entry = new Entry();
+        entry.complete = scored.size() <= capacity();
+        entry.candidates.addAll(scored.subList(0, Math.min(capacity(), scored.size())));
+        entry.profileVersion = profile.version;
+        entry.updatedAt = catalog.version;
+        entry.candidates.forEach(r -> holders.computeIfAbsent(r.dogId, k -> new HashSet<>()).add(adopter.getId()));
+        entries.put(adopter.getId(), entry);
+        fullRecomputes++;
+    }
+
+    private void removeHolder(String dogId, String adopterId) {
+        Set<String> set = holders.get(dogId);
+        if (set != null && set.remove(adopterId) && set.isEmpty()) {
+            holders.remove(dogId);
+        }
+    }
+
+    private int capacity() {
+        return 2 * topN;
+    }
+
+    private CompiledProfile profileFor(Adopter adopter) {
+        return scoringProfiles.compiledFor(Segment.of(Boolean.TRUE.equals(adopter.getHasKids()),
+                Boolean.TRUE.equals(adopter.getHasYard())));
+    }
+
+    private static AdopterContext contextFor(Adopter adopter) {
+        return new AdopterContext(Boolean.TRUE.equals(adopter.getHasKids()), Boolean.TRUE.equals(adopter.getHasYard()),
+                ScoringProfileService.DEFAULT_PREFERRED_ENERGY);
+    }
+
+    private static double budgetOf(Adopter adopter) {
+        return adopter.getBudget() != null ? adopter.getBudget() : 20000.0;
+    }
+}
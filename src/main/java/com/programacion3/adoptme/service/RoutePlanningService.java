@@ -0,0 +1,78 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.dto.TspResponse;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Recorrido de refugios (TSP por Branch & Bound) sobre el grafo de Neo4j.
+ *
+ * Lo usan tanto GET /routes/tsp/bnb como los trabajos "tsp-bnb" de /jobs.
+ */
+@Service
+public class RoutePlanningService {
+
+    private final GraphLoader graphLoader;
+    private final TSPService tspService;
+
+    public RoutePlanningService(GraphLoader graphLoader, TSPService tspService) {
+        this.graphLoader = graphLoader;
+        this.tspService = tspService;
+    }
+
+    /**
+     * Tour óptimo que visita los nodos dados y vuelve al inicio.
+     *
+     * @param nodes ids de nodos separados por comas; null o vacío usa todos los refugios
+     */
+    public TspResponse tspTour(String nodes) {
+        // Determinar qué nodos visitar
+        List<String> nodeList;
+
+        if (nodes != null && !nodes.isBlank()) {
+            // Usar nodos especificados
+            nodeList = Arrays.stream(nodes.split(",")).map(String::trim).toList();
+        } else {
+            // Usar todos los shelters
+            nodeList = new ArrayList<>(graphLoader.loadAllShelterIds());
+        }
+
+        if (nodeList.isEmpty()) {
+            return TspResponse.builder()
+                    .route(List.of())
+                    .totalDistanceKm(0)
+                    .build();
+        }
+
+        if (nodeList.size() == 1) {
+            return TspResponse.builder()
+                    .route(nodeList)
+                    .totalDistanceKm(0)
+                    .build();
+        }
+
+        // Cargar aristas con distancias y convertir al formato del TSPService
+        List<TSPService.Edge> edges = graphLoader.loadWeightedEdges().stream()
+                .map(e -> new TSPService.Edge(e.from, e.to, e.weight))
+                .toList();
+
+        // Ejecutar algoritmo de Branch & Bound
+        var result = tspService.solveTSP(nodeList, edges);
+
+        // Verificar si se encontró una solución
+        if (result.route.isEmpty() || Double.isInfinite(result.totalDistance)) {
+            return TspResponse.builder()
+                    .route(null)
+                    .totalDistanceKm(null)
+                    .build();
+        }
+
+        return TspResponse.builder()
+                .route(result.route)
+                .totalDistanceKm((int) Math.round(result.totalDistance))
+                .build();
+    }
+}
@@ -2,8 +2,14 @@
 package com.programacion3.adoptme.service;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
 import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import com.programacion3.adoptme.service.ScoringProfileService.AdopterContext;
+import com.programacion3.adoptme.service.ScoringProfileService.Segment;
 
 
 
@@ -13,6 +19,18 @@ import org.springframework.stereotype.Service;
 */
 @Service
 public class ScorerService {
+
+    private final ScoringProfileService scoringProfiles;
+
+    public ScorerService() {
+        this(new ScoringProfileService());
+    }
+
+    @Autowired
+    public ScorerService(ScoringProfileService scoringProfiles) {
+        this.scoringProfiles = scoringProfiles;
+    }
+
     public static class Dog {
         public final String id;
         public final boolean goodWithKids;
@@ -36,6 +54,37 @@ public class ScorerService {
         }
     }
 
+    /**
+     * Perfil de un adoptante para el cálculo en lote
+     */
+    public static class AdopterProfile {
+        public final String id;
+        public final boolean hasKids;
+        public final boolean hasGarden;
+        public final int maxDogs;
+        public final double budget;
+
+        public AdopterProfile(String id, boolean hasKids, boolean hasGarden, int maxDogs, double budget) {
+            this.id = id; this.hasKids = hasKids; this.hasGarden = hasGarden;
+            this.maxDogs = maxDogs; this.budget = budget;
+        }
+    }
+
+    /**
+     * Resultado de un adoptante dentro del lote, con su latencia de cálculo
+     */
+    public static class BatchEntry {
+        public final String adopterId;
+        public final AssignmentResult result;
+        public final long latencyMicros;
+
+        public BatchEntry(String adopterId, AssignmentResult result, long latencyMicros) {
+            this.adopterId = adopterId; this.result = result; this.latencyMicros = latencyMicros;
+        }
+    }
+
+    private static final double[] WEIGHTS = {3.0, 2.0, 2.0, 1.0}; // niños, jardín, energía, tamaño
+
     // Scoring configurable simple ejemplo:
     private double scoreFor(Dog d, boolean adopterHasKids, boolean adopterHasGarden, double weights[]) {
         double s = 0;
@@ -53,12 +102,248 @@ public class ScorerService {
                                            boolean adopterHasGarden,
                                            int maxDogs,
                                            double budget) {
-        double[] weights = {3.0, 2.0, 2.0, 1.0}; // niños, jardín, energía, tamaño
-        List<ScoredDog> scored = candidates.stream()
-                .map(d -> new ScoredDog(d, scoreFor(d, adopterHasKids, adopterHasGarden, weights)))
+        return selectAndAssign(candidates.size(),
+                i -> scoreFor(candidates.get(i), adopterHasKids, adopterHasGarden, WEIGHTS),
+                candidates::get, i -> candidates.get(i).cost, maxDogs, budget);
+    }
+
+    /**
+     * Igual que {@link #scoreAndAssign(List, boolean, boolean, int, double)} pero sobre la
+     * tabla columnar del catálogo, con el perfil de scoring del segmento del adoptante
+     * (ver {@link ScoringProfileService}). Sólo se crea un Dog por cada perro asignado.
+     */
+    public AssignmentResult scoreAndAssign(DogFeatureTable table,
+                                           boolean adopterHasKids,
+                                           boolean adopterHasGarden,
+                                           int maxDogs,
+                                           double budget) {
+        if (maxDogs <= 0 || table.size() == 0) {
+            return new AssignmentResult(new ArrayList<>(), 0, 0);
+        }
+        double[] scores = new double[table.size()];
+        scoringProfiles.compiledFor(Segment.of(adopterHasKids, adopterHasGarden))
+                .scoreAll(table, contextFor(adopterHasKids, adopterHasGarden), scores);
+        return selectAndAssign(table.size(), i -> scores[i], table::toScorerDog, table::cost, maxDogs, budget);
+    }
+
+    /**
+     * Igual que {@link #scoreAndAssign(DogFeatureTable, boolean, boolean, int, double)} pero
+     * sólo entre las posiciones dadas de la tabla (p. ej. las que devuelve el índice de
+     * bitmaps alineado con ella): no hace falta armar una tabla por consulta.
+     *
+     * @param positions posiciones de la tabla en orden ascendente
+     */
+    public AssignmentResult scoreAndAssign(DogFeatureTable table,
+                                           int[] positions,
+                                           boolean adopterHasKids,
+                                           boolean adopterHasGarden,
+                                           int maxDogs,
+                                           double budget) {
+        if (maxDogs <= 0 || positions.length == 0) {
+            return new AssignmentResult(new ArrayList<>(), 0, 0);
+        }
+        double[] scores = new double[table.size()];
+        scoringProfiles.compiledFor(Segment.of(adopterHasKids, adopterHasGarden))
+                .scoreAll(table, contextFor(adopterHasKids, adopterHasGarden), scores);
+        return selectAndAssign(positions.length, i -> scores[positions[i]],
+                i -> table.toScorerDog(positions[i]), i -> table.cost(positions[i]), maxDogs, budget);
+    }
+
+    private AssignmentResult selectAndAssign(int n,
+                                             IntToDoubleFunction scoreOf,
+                                             IntFunction<Dog> dogOf,
+                                             IntToDoubleFunction costOf,
+                                             int maxDogs,
+                                             double budget) {
+        if (maxDogs <= 0 || n == 0) {
+            return new AssignmentResult(new ArrayList<>(), 0, 0);
+        }
+
+        // Sólo se toman hasta maxDogs perros: en lugar de ordenar todo el catálogo
+        // se seleccionan los K mejores con un heap acotado (O(n log K)). Si algún perro
+        // del top se saltea por presupuesto, K se duplica y se vuelve a seleccionar.
+        int k = Math.min(n, maxDogs);
+        TopK top = new TopK(k);
+        while (true) {
+            top.select(n, scoreOf, k);
+
+            List<Dog> assigned = new ArrayList<>();
+            double totalCost = 0, totalScore = 0;
+            boolean skipped = false;
+            for (int r = 0; r < top.size && assigned.size() < maxDogs; r++) {
+                double cost = costOf.applyAsDouble(top.index[r]);
+                if (totalCost + cost > budget) {
+                    skipped = true;
+                    continue;
+                }
+                assigned.add(dogOf.apply(top.index[r]));
+                totalCost += cost;
+                totalScore += top.score[r];
+            }
+
+            // El recorrido del top-K coincide con el del orden completo si llenó
+            // maxDogs, si no salteó nada o si K ya cubre todo el catálogo
+            if (assigned.size() >= maxDogs || !skipped || k == n) {
+                return new AssignmentResult(assigned, totalScore, totalCost);
+            }
+            k = (int) Math.min(n, 2L * k);
+        }
+    }
+
+    /**
+     * Selección de los K mejores perros con un heap de mínimos sobre arreglos
+     * primitivos (sin un objeto por perro). El orden es score descendente y, a igual
+     * score, posición original ascendente: el mismo que el ordenamiento estable completo.
+     */
+    private static final class TopK {
+        double[] score;
+        int[] index;
+        int size;
+
+        TopK(int capacity) {
+            score = new double[capacity];
+            index = new int[capacity];
+        }
+
+        void select(int n, IntToDoubleFunction scoreOf, int k) {
+            if (score.length < k) {
+                score = new double[k];
+                index = new int[k];
+            }
+            size = 0;
+            for (int i = 0; i < n; i++) {
+                double s = scoreOf.applyAsDouble(i);
+                if (size < k) {
+                    score[size] = s;
+                    index[size] = i;
+                    siftUp(size++);
+                } else if (s > score[0]) {
+                    // A igual score gana el de menor posición, que ya está en el heap
+                    score[0] = s;
+                    index[0] = i;
+                    siftDown(0, size);
+                }
+            }
+            // Heapsort in-place: el peor queda al final, así el arreglo termina de mejor a peor
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+        }
+
+        /** true si el elemento a es peor que b (debe quedar más cerca de la raíz) */
+        private boolean worse(int a, int b) {
+            return score[a] < score[b] || (score[a] == score[b] && index[a] > index[b]);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!worse(i, parent)) break;
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i, int limit) {
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= limit) break;
+                if (child + 1 < limit && worse(child + 1, child)) child++;
+                if (!worse(child, i)) break;
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        private void swap(int a, int b) {
+            double s = score[a]; score[a] = score[b]; score[b] = s;
+            int t = index[a]; index[a] = index[b]; index[b] = t;
+        }
+    }
+
+    /**
+     * Recomendaciones greedy para muchos adoptantes sobre el mismo catálogo.
+     *
+     * El score de un perro sólo depende de si el adoptante tiene niños y jardín,
+     * así que hay a lo sumo 4 rankings distintos: se ordena una vez por perfil y
+     * cada adoptante sólo recorre su ranking. Los adoptantes se procesan en paralelo.
+     * El resultado respeta el orden de entrada.
+     */
+    public List<BatchEntry> scoreAndAssignBatch(List<Dog> candidates, List<AdopterProfile> adopters) {
+        Map<Integer, List<ScoredDog>> rankings = new ConcurrentHashMap<>();
+        return adopters.parallelStream()
+                .map(a -> {
+                    long start = System.nanoTime();
+                    int profile = (a.hasKids ? 2 : 0) | (a.hasGarden ? 1 : 0);
+                    List<ScoredDog> ranking = rankings.computeIfAbsent(profile,
+                            k -> rank(candidates, a.hasKids, a.hasGarden));
+                    AssignmentResult result = assignFromRanking(ranking, a.maxDogs, a.budget);
+                    return new BatchEntry(a.id, result, (System.nanoTime() - start) / 1000);
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Igual que {@link #scoreAndAssignBatch(List, List)} sobre la tabla columnar y con los
+     * perfiles de scoring: el perfil depende del segmento (niños/jardín), así que sigue
+     * habiendo a lo sumo 4 rankings por lote.
+     */
+    public List<BatchEntry> scoreAndAssignBatch(DogFeatureTable table, List<AdopterProfile> adopters) {
+        return scoreAndAssignBatch(table, adopters, null);
+    }
+
+    /**
+     * Lote con prefiltro de compatibilidad: con un índice de bitmaps alineado con la tabla,
+     * cada segmento sólo puntúa los perros compatibles (niños / jardín), igual que el backtracking.
+     *
+     * @param index índice alineado con la tabla, o null para puntuar todo el catálogo
+     */
+    public List<BatchEntry> scoreAndAssignBatch(DogFeatureTable table, List<AdopterProfile> adopters,
+                                                DogBitmapIndex index) {
+        Map<Segment, List<ScoredDog>> rankings = new ConcurrentHashMap<>();
+        return adopters.parallelStream()
+                .map(a -> {
+                    long start = System.nanoTime();
+                    List<ScoredDog> ranking = rankings.computeIfAbsent(Segment.of(a.hasKids, a.hasGarden),
+                            segment -> rank(table, segment, contextFor(a.hasKids, a.hasGarden),
+                                    index == null ? null
+                                            : index.matching(DogBitmapIndex.compatibilityFilter(a.hasKids, a.hasGarden))));
+                    AssignmentResult result = assignFromRanking(ranking, a.maxDogs, a.budget);
+                    return new BatchEntry(a.id, result, (System.nanoTime() - start) / 1000);
+                })
+                .collect(Collectors.toList());
+    }
+
+    private List<ScoredDog> rank(DogFeatureTable table, Segment segment, AdopterContext ctx, int[] positions) {
+        double[] scores = new double[table.size()];
+        scoringProfiles.compiledFor(segment).scoreAll(table, ctx, scores);
+        List<ScoredDog> scored = new ArrayList<>(positions != null ? positions.length : table.size());
+        if (positions == null) {
+            for (int i = 0; i < table.size(); i++) {
+                scored.add(new ScoredDog(table.toScorerDog(i), scores[i]));
+            }
+        } else {
+            for (int i : positions) {
+                scored.add(new ScoredDog(table.toScorerDog(i), scores[i]));
+            }
+        }
+        scored.sort(Comparator.comparingDouble((ScoredDog sd) -> sd.score).reversed());
+        return scored;
+    }
+
+    private static AdopterContext contextFor(boolean adopterHasKids, boolean adopterHasGarden) {
+        return new AdopterContext(adopterHasKids, adopterHasGarden, ScoringProfileService.DEFAULT_PREFERRED_ENERGY);
+    }
+
+    private List<ScoredDog> rank(List<Dog> candidates, boolean adopterHasKids, boolean adopterHasGarden) {
+        return candidates.stream()
+                .map(d -> new ScoredDog(d, scoreFor(d, adopterHasKids, adopterHasGarden, WEIGHTS)))
                 .sorted(Comparator.comparingDouble((ScoredDog sd) -> sd.score).reversed())
                 .collect(Collectors.toList());
+    }
 
+    private AssignmentResult assignFromRanking(List<ScoredDog> scored, int maxDogs, double budget) {
         List<Dog> assigned = new ArrayList<>();
         double totalCost = 0, totalScore = 0;
         for (ScoredDog sd : scored) {
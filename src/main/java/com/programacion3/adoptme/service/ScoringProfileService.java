@@ -0,0 +1,231 @@
+package com.programacion3.adoptme.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Perfiles de scoring configurables para el greedy.
+ *
+ * Un perfil es un conjunto de reglas con peso (niños, jardín, distancia de energía,
+ * tamaño, necesidades especiales, prioridad). Cada segmento de adoptantes puede
+ * tener su propio perfil; si no tiene, se usa el perfil por defecto, que reproduce
+ * los pesos históricos del ScorerService (3, 2, 2, 1).
+ *
+ * Cada perfil se compila una sola vez a una cadena de lambdas (una por regla con
+ * peso distinto de cero) y se cachea por versión: al modificar un perfil cambia su
+ * versión y la próxima evaluación recompila. Así el scoring se ajusta sin redeploy.
+ */
+@Service
+public class ScoringProfileService {
+
+    /**
+     * Reglas disponibles. Cada una aporta un valor en [0, 1] (o 0/1) multiplicado por su peso.
+     */
+    public enum Rule {
+        KIDS,          // 1 si el adoptante tiene niños y el perro es bueno con niños
+        GARDEN,        // 1 si el adoptante tiene jardín y el perro lo necesita
+        ENERGY,        // max(0, 1 - |energía - energía preferida| / 5)
+        SIZE,          // (3 - tamaño) / 2: los perros chicos suman más
+        SPECIAL_NEEDS, // 1 si el perro tiene necesidades especiales (peso negativo = penalizar)
+        PRIORITY       // prioridad de adopción normalizada: min(prioridad, 10) / 10
+    }
+
+    /**
+     * Segmentos de adoptantes, según tengan niños y/o jardín.
+     */
+    public enum Segment {
+        DEFAULT, FAMILY_WITH_GARDEN, FAMILY, GARDEN, BASIC;
+
+        public static Segment of(boolean hasKids, boolean hasGarden) {
+            if (hasKids) return hasGarden ? FAMILY_WITH_GARDEN : FAMILY;
+            return hasGarden ? GARDEN : BASIC;
+        }
+    }
+
+    /**
+     * Perfil inmutable: pesos por regla y versión.
+     */
+    public static class ScoringProfile {
+        public final Segment segment;
+        public final Map<Rule, Double> weights;
+        public final long version;
+
+        public ScoringProfile(Segment segment, Map<Rule, Double> weights, long version) {
+            this.segment = segment;
+            this.weights = Collections.unmodifiableMap(new EnumMap<>(weights));
+            this.version = version;
+        }
+    }
+
+    /**
+     * Datos del adoptante que usan las reglas
+     */
+    public static class AdopterContext {
+        public final boolean hasKids;
+        public final boolean hasGarden;
+        public final int preferredEnergy;
+
+        public AdopterContext(boolean hasKids, boolean hasGarden, int preferredEnergy) {
+            this.hasKids = hasKids;
+            this.hasGarden = hasGarden;
+            this.preferredEnergy = preferredEnergy;
+        }
+    }
+
+    /**
+     * Término compilado: valor ya ponderado de una regla para el perro i de la tabla.
+     */
+    @FunctionalInterface
+    interface Term {
+        double eval(DogFeatureTable table, int i, AdopterContext ctx);
+    }
+
+    /**
+     * Perfil compilado: la suma de sus términos, lista para evaluar catálogos enteros.
+     */
+    public static class CompiledProfile {
+        public final Segment segment;
+        public final long version;
+        private final Term evaluator;
+        private final double[] kernelWeights; // no null: el perfil sólo usa las reglas del kernel columnar
+
+        CompiledProfile(Segment segment, long version, Term evaluator, double[] kernelWeights) {
+            this.segment = segment;
+            this.version = version;
+            this.evaluator = evaluator;
+            this.kernelWeights = kernelWeights;
+        }
+
+        public double score(DogFeatureTable table, int i, AdopterContext ctx) {
+            return evaluator.eval(table, i, ctx);
+        }
+
+        public void scoreAll(DogFeatureTable table, AdopterContext ctx, double[] out) {
+            if (kernelWeights != null && ctx.preferredEnergy == DEFAULT_PREFERRED_ENERGY) {
+                // Mismo resultado que la cadena de términos, con el kernel vectorizable de la tabla
+                table.greedyScores(ctx.hasKids, ctx.hasGarden, kernelWeights, out);
+                return;
+            }
+            int n = table.size();
+            for (int i = 0; i < n; i++) {
+                out[i] = evaluator.eval(table, i, ctx);
+            }
+        }
+    }
+
+    /** Pesos históricos del greedy: niños 3, jardín 2, energía 2, tamaño 1 */
+    public static final Map<Rule, Double> DEFAULT_WEIGHTS = Map.of(
+            Rule.KIDS, 3.0, Rule.GARDEN, 2.0, Rule.ENERGY, 2.0, Rule.SIZE, 1.0);
+
+    /** Energía preferida cuando el adoptante no indica una (moderada) */
+    public static final int DEFAULT_PREFERRED_ENERGY = 5;
+
+    private final AtomicLong versions = new AtomicLong();
+    private final Map<Segment, ScoringProfile> profiles = new ConcurrentHashMap<>();
+    private final Map<Segment, CompiledProfile> compiled = new ConcurrentHashMap<>();
+
+    public ScoringProfileService() {
+        profiles.put(Segment.DEFAULT, new ScoringProfile(Segment.DEFAULT, DEFAULT_WEIGHTS, versions.incrementAndGet()));
+    }
+
+    /**
+     * Perfil efectivo de un segmento (el propio o, si no tiene, el por defecto).
+     */
+    public ScoringProfile profileFor(Segment segment) {
+        ScoringProfile profile = profiles.get(segment);
+        return profile != null ? profile : profiles.get(Segment.DEFAULT);
+    }
+
+    public List<ScoringProfile> profiles() {
+        List<ScoringProfile> result = new ArrayList<>(profiles.values());
+        result.sort(Comparator.comparing(p -> p.segment));
+        return result;
+    }
+
+    /**
+     * Reemplaza los pesos de un segmento. Las reglas omitidas quedan con peso 0.
+     *
+     * @throws IllegalArgumentException si algún peso no es un número finito
+     */
+    public ScoringProfile update(Segment segment, Map<Rule, Double> weights) {
+        for (Map.Entry<Rule, Double> e : weights.entrySet()) {
+            if (e.getValue() == null || !Double.isFinite(e.getValue())) {
+                throw new IllegalArgumentException("Invalid weight for " + e.getKey() + ": " + e.getValue());
+            }
+        }
+        ScoringProfile profile = new ScoringProfile(segment, weights, versions.incrementAndGet());
+        profiles.put(segment, profile);
+        return profile;
+    }
+
+    /**
+     * Elimina el perfil propio de un segmento (vuelve a usar el por defecto).
+     * El perfil por defecto se restablece a los pesos históricos.
+     */
+    public void reset(Segment segment) {
+        if (segment == Segment.DEFAULT) {
+            update(Segment.DEFAULT, DEFAULT_WEIGHTS);
+        } else {
+            profiles.remove(segment);
+        }
+    }
+
+    /**
+     * Evaluador compilado para un segmento; se recompila sólo si cambió la versión del perfil.
+     */
+    public CompiledProfile compiledFor(Segment segment) {
+        ScoringProfile profile = profileFor(segment);
+        CompiledProfile current = compiled.get(segment);
+        if (current != null && current.version == profile.version) {
+            return current;
+        }
+        CompiledProfile fresh = compile(profile);
+        compiled.put(segment, fresh);
+        return fresh;
+    }
+
+    /**
+     * Compila un perfil: un término por regla con peso distinto de cero, sumados en el
+     * orden del enum. Las reglas se resuelven acá una vez, no en cada perro.
+     */
+    static CompiledProfile compile(ScoringProfile profile) {
+        Term evaluator = null;
+        for (Rule rule : Rule.values()) {
+            double w = profile.weights.getOrDefault(rule, 0.0);
+            if (w == 0.0) continue;
+            Term term = switch (rule) {
+                case KIDS -> (t, i, c) -> c.hasKids && t.goodWithKids(i) ? w : 0.0;
+                case GARDEN -> (t, i, c) -> c.hasGarden && t.needsGarden(i) ? w : 0.0;
+                case ENERGY -> (t, i, c) -> w * Math.max(0.0, 1.0 - Math.abs(t.energy(i) - c.preferredEnergy) / 5.0);
+                case SIZE -> (t, i, c) -> w * (3.0 - t.dogSize(i)) / 2.0;
+                case SPECIAL_NEEDS -> (t, i, c) -> t.specialNeeds(i) ? w : 0.0;
+                case PRIORITY -> (t, i, c) -> w * Math.min(t.priority(i), 10) / 10.0;
+            };
+            if (evaluator == null) {
+                evaluator = term;
+            } else {
+                Term previous = evaluator;
+                evaluator = (t, i, c) -> previous.eval(t, i, c) + term.eval(t, i, c);
+            }
+        }
+        if (evaluator == null) {
+            evaluator = (t, i, c) -> 0.0;
+        }
+
+        // Perfiles con sólo niños/jardín/energía/tamaño se pueden evaluar con DogFeatureTable.greedyScores
+        double[] kernelWeights = null;
+        if (profile.weights.getOrDefault(Rule.SPECIAL_NEEDS, 0.0) == 0.0
+                && profile.weights.getOrDefault(Rule.PRIORITY, 0.0) == 0.0) {
+            kernelWeights = new double[]{
+                    profile.weights.getOrDefault(Rule.KIDS, 0.0),
+                    profile.weights.getOrDefault(Rule.GARDEN, 0.0),
+                    profile.weights.getOrDefault(Rule.ENERGY, 0.0),
+                    profile.weights.getOrDefault(Rule.SIZE, 0.0)
+            };
+        }
+        return new CompiledProfile(profile.segment, profile.version, evaluator, kernelWeights);
+    }
+}
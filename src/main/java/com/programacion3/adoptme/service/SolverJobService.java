@@ -0,0 +1,256 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.exception.JobRejectedException;
+import com.programacion3.adoptme.exception.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Ejecución asincrónica de algoritmos pesados (backtracking, TSP, LNS...).
+ *
+ * Los trabajos corren en un pool propio y acotado, separado de los hilos que
+ * atienden requests, así una ráfaga de solvers no deja sin hilos a /dogs o /ping.
+ * - Cola de espera con capacidad fija: si se llena, el trabajo se rechaza.
+ * - Límite de trabajos en curso (en cola + corriendo) por algoritmo.
+ * - Cancelación: interrumpe el hilo del solver (los solvers chequean la interrupción).
+ * - Los resultados terminados se conservan durante un TTL y después se eliminan.
+ */
+@Service
+public class SolverJobService {
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED }
+
+    /**
+     * Estado de un trabajo. Los campos se publican con volatile porque los lee
+     * el hilo del request mientras los escribe el hilo del pool.
+     */
+    public static class Job {
+        public final String id;
+        public final String algorithm;
+        public final Instant submittedAt;
+        private volatile Status status = Status.QUEUED;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile Object result;
+        private volatile String error;
+        private Future<?> future;
+        private final List<Consumer<Job>> listeners = new CopyOnWriteArrayList<>();
+
+        Job(String id, String algorithm, Instant submittedAt) {
+            this.id = id;
+            this.algorithm = algorithm;
+            this.submittedAt = submittedAt;
+        }
+
+        public Status getStatus() { return status; }
+        public Instant getStartedAt() { return startedAt; }
+        public Instant getFinishedAt() { return finishedAt; }
+        public Object getResult() { return result; }
+        public String getError() { return error; }
+
+        public boolean isFinished() {
+            return status == Status.SUCCEEDED || status == Status.FAILED || status == Status.CANCELLED;
+        }
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService janitor;
+    private final int maxPerAlgorithm;
+    private final Duration resultTtl;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<String, Semaphore> slots = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SolverJobService(
+            @Value("${adoptme.jobs.workers:2}") int workers,
+            @Value("${adoptme.jobs.queue-capacity:16}") int queueCapacity,
+            @Value("${adoptme.jobs.max-per-algorithm:2}") int maxPerAlgorithm,
+            @Value("${adoptme.jobs.result-ttl-minutes:10}") long resultTtlMinutes
+    ) {
+        this(workers, queueCapacity, maxPerAlgorithm, Duration.ofMinutes(resultTtlMinutes));
+    }
+
+    public SolverJobService(int workers, int queueCapacity, int maxPerAlgorithm, Duration resultTtl) {
+        this.maxPerAlgorithm = maxPerAlgorithm;
+        this.resultTtl = resultTtl;
+        this.executor = new ThreadPoolExecutor(
+                workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                namedThreads("solver-job"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.janitor = Executors.newSingleThreadScheduledExecutor(namedThreads("solver-job-janitor"));
+        long period = Math.max(1, resultTtl.toSeconds() / 2);
+        this.janitor.scheduleAtFixedRate(this::evictExpired, period, period, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Encola un trabajo.
+     *
+     * @throws JobRejectedException si la cola está llena o el algoritmo alcanzó su límite
+     */
+    public Job submit(String algorithm, Callable<?> work) {
+        Semaphore slot = slots.computeIfAbsent(algorithm, k -> new Semaphore(maxPerAlgorithm));
+        if (!slot.tryAcquire()) {
+            throw new JobRejectedException("Too many " + algorithm + " jobs in progress (limit " + maxPerAlgorithm + ")");
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), algorithm, Instant.now());
+        // El cupo se libera una sola vez: al salir el hilo del solver o, si se canceló antes
+        // de arrancar, en done(). cancel(true) solo interrumpe: el solver puede seguir un rato
+        // y mientras tanto sigue ocupando su lugar.
+        AtomicBoolean claimed = new AtomicBoolean();
+        FutureTask<Object> task = new FutureTask<>(() -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return null; // cancelado justo antes de arrancar: done() ya liberó el cupo
+            }
+            try {
+                return run(job, work);
+            } finally {
+                slot.release();
+            }
+        }) {
+            @Override
+            protected void done() {
+                // Se ejecuta siempre: al terminar, fallar o cancelarse (incluso estando en cola)
+                if (isCancelled() && claimed.compareAndSet(false, true)) {
+                    slot.release();
+                }
+                if (isCancelled()) {
+                    finish(job, Status.CANCELLED, null, null);
+                }
+            }
+        };
+        job.future = task;
+        jobs.put(job.id, job);
+
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            slot.release();
+            throw new JobRejectedException("Solver queue is full, try again later");
+        }
+        return job;
+    }
+
+    private Object run(Job job, Callable<?> work) {
+        job.startedAt = Instant.now();
+        job.status = Status.RUNNING;
+        notifyListeners(job);
+        try {
+            Object result = work.call();
+            if (Thread.currentThread().isInterrupted()) {
+                return null; // cancelado mientras corría: done() marca CANCELLED
+            }
+            finish(job, Status.SUCCEEDED, result, null);
+            return result;
+        } catch (Exception e) {
+            finish(job, Status.FAILED, null, e.getMessage() != null ? e.getMessage() : e.toString());
+            return null;
+        }
+    }
+
+    private synchronized void finish(Job job, Status status, Object result, String error) {
+        if (job.isFinished()) {
+            return;
+        }
+        job.result = result;
+        job.error = error;
+        job.finishedAt = Instant.now();
+        job.status = status;
+        notifyListeners(job);
+    }
+
+    /**
+     * Obtiene un trabajo por id.
+     *
+     * @throws ResourceNotFoundException si no existe o ya fue eliminado por TTL
+     */
+    public Job get(String id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Job not found: " + id);
+        }
+        return job;
+    }
+
+    /**
+     * Cancela un trabajo en cola o en ejecución (no tiene efecto si ya terminó).
+     */
+    public Job cancel(String id) {
+        Job job = get(id);
+        if (!job.isFinished()) {
+            job.future.cancel(true);
+            executor.remove((Runnable) job.future); // libera el lugar en la cola si no había empezado
+        }
+        return job;
+    }
+
+    /**
+     * Registra un listener de cambios de estado y le notifica el estado actual.
+     */
+    public void subscribe(String id, Consumer<Job> listener) {
+        Job job = get(id);
+        job.listeners.add(listener);
+        listener.accept(job);
+    }
+
+    public void unsubscribe(String id, Consumer<Job> listener) {
+        Job job = jobs.get(id);
+        if (job != null) {
+            job.listeners.remove(listener);
+        }
+    }
+
+    private void notifyListeners(Job job) {
+        for (Consumer<Job> listener : job.listeners) {
+            try {
+                listener.accept(job);
+            } catch (RuntimeException e) {
+                job.listeners.remove(listener); // cliente desconectado
+            }
+        }
+    }
+
+    /**
+     * Elimina los trabajos terminados hace más de un TTL
+     */
+    void evictExpired() {
+        Instant limit = Instant.now().minus(resultTtl);
+        jobs.values().removeIf(job -> job.isFinished() && job.finishedAt.isBefore(limit));
+    }
+
+    public int queuedJobs() {
+        return executor.getQueue().size();
+    }
+
+    public int runningJobs() {
+        return executor.getActiveCount();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        janitor.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        ThreadFactory base = Executors.defaultThreadFactory();
+        return runnable -> {
+            Thread thread = base.newThread(runnable);
+            thread.setName(prefix + "-" + thread.getId());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -2,6 +2,8 @@ package com.programacion3.adoptme.service;
 
 import java.util.Comparator;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.function.ToIntFunction;
 import org.springframework.stereotype.Service;
 import com.programacion3.adoptme.domain.Dog;
 
@@ -9,6 +11,9 @@ import com.programacion3.adoptme.domain.Dog;
 @Service
 public class SortService {
 
+    /** Tramos de hasta este tamaño se ordenan por inserción */
+    private static final int INSERTION_SORT_CUTOFF = 16;
+
     /**
      * Ordena perros usando TimSort (default) o QuickSort.
      * @param dogs lista de perros a ordenar (se modifica in-place)
@@ -21,7 +26,7 @@ public class SortService {
         }
 
         if ("quicksort".equalsIgnoreCase(algorithm)) {
-            quickSortDogs(dogs, criteria, 0, dogs.size() - 1);
+            quickSortDogs(dogs, criteria);
         } else {
             // MergeSort (TimSort)
             Comparator<Dog> comparator = getComparator(criteria);
@@ -37,79 +42,155 @@ public class SortService {
     }
 
     /**
-     * Implementación de QuickSort para perros
-     * Algoritmo divide y vencerás que particiona la lista recursivamente
+     * QuickSort para perros (introsort).
+     *
+     * Extrae una vez las claves enteras del criterio y ordena arreglos paralelos de claves y
+     * perros: pivote mediana de tres, partición en tres (menores, iguales, mayores) para que
+     * las prioridades repetidas (1-10) no degraden a O(n²), insertion sort en tramos de hasta
+     * {@value #INSERTION_SORT_CUTOFF} elementos y heapsort si la recursión pasa de 2·log2(n).
+     * Siempre recurre sobre el lado más chico, así la pila queda en O(log n).
      */
-    private void quickSortDogs(List<Dog> dogs, String criteria, int low, int high) {
-        if (low < high) {
-            int pivotIndex = partition(dogs, criteria, low, high);
-            quickSortDogs(dogs, criteria, low, pivotIndex - 1);
-            quickSortDogs(dogs, criteria, pivotIndex + 1, high);
+    private void quickSortDogs(List<Dog> dogs, String criteria) {
+        ToIntFunction<Dog> key = getKey(criteria);
+        Dog[] items = dogs.toArray(new Dog[0]);
+        int[] keys = new int[items.length];
+        for (int i = 0; i < items.length; i++) {
+            keys[i] = key.applyAsInt(items[i]);
+        }
+
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(Math.max(items.length, 1)));
+        introSort(keys, items, 0, items.length, depthLimit);
+
+        ListIterator<Dog> it = dogs.listIterator();
+        for (Dog dog : items) {
+            it.next();
+            it.set(dog);
         }
     }
 
     /**
-     * Particiona la lista usando el último elemento como pivote
+     * Ordena el tramo [low, high)
      */
-    private int partition(List<Dog> dogs, String criteria, int low, int high) {
-        Dog pivot = dogs.get(high);
-        int i = low - 1;
-
-        for (int j = low; j < high; j++) {
-            if (compare(dogs.get(j), pivot, criteria) <= 0) {
-                i++;
-                swap(dogs, i, j);
+    private void introSort(int[] keys, Dog[] items, int low, int high, int depth) {
+        while (high - low > INSERTION_SORT_CUTOFF) {
+            if (depth == 0) {
+                heapSort(keys, items, low, high);
+                return;
+            }
+            depth--;
+
+            int pivot = medianOfThree(keys[low], keys[low + (high - low) / 2], keys[high - 1]);
+
+            // [low, lt) < pivote, [lt, i) == pivote, [gt, high) > pivote
+            int lt = low;
+            int i = low;
+            int gt = high;
+            while (i < gt) {
+                if (keys[i] < pivot) {
+                    swap(keys, items, lt++, i++);
+                } else if (keys[i] > pivot) {
+                    swap(keys, items, i, --gt);
+                } else {
+                    i++;
+                }
+            }
+
+            if (lt - low < high - gt) {
+                introSort(keys, items, low, lt, depth);
+                low = gt;
+            } else {
+                introSort(keys, items, gt, high, depth);
+                high = lt;
             }
         }
+        insertionSort(keys, items, low, high);
+    }
 
-        swap(dogs, i + 1, high);
-        return i + 1;
+    private int medianOfThree(int a, int b, int c) {
+        if (a > b) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        return c <= a ? a : Math.min(b, c);
+    }
+
+    private void insertionSort(int[] keys, Dog[] items, int low, int high) {
+        for (int i = low + 1; i < high; i++) {
+            int k = keys[i];
+            Dog dog = items[i];
+            int j = i - 1;
+            while (j >= low && keys[j] > k) {
+                keys[j + 1] = keys[j];
+                items[j + 1] = items[j];
+                j--;
+            }
+            keys[j + 1] = k;
+            items[j + 1] = dog;
+        }
     }
 
     /**
-     * Compara dos perros según el criterio especificado
-     * @return negativo si a < b, 0 si a == b, positivo si a > b
+     * Heapsort del tramo [low, high): O(n log n) garantizado cuando el quicksort se degrada
      */
-    private int compare(Dog a, Dog b, String criteria) {
-        switch (criteria.toLowerCase()) {
-            case "priority":
-                // Orden ascendente (menor prioridad primero)
-                return Integer.compare(a.getPriority(), b.getPriority());
-            case "age":
-                return Integer.compare(a.getAge(), b.getAge());
-            case "weight":
-                return Integer.compare(a.getWeight(), b.getWeight());
-            default:
-                throw new IllegalArgumentException("Criterio de orden no válido: " + criteria);
+    private void heapSort(int[] keys, Dog[] items, int low, int high) {
+        int n = high - low;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(keys, items, low, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(keys, items, low, low + end);
+            siftDown(keys, items, low, 0, end);
+        }
+    }
+
+    private void siftDown(int[] keys, Dog[] items, int offset, int node, int size) {
+        while (2 * node + 1 < size) {
+            int child = 2 * node + 1;
+            if (child + 1 < size && keys[offset + child + 1] > keys[offset + child]) {
+                child++;
+            }
+            if (keys[offset + node] >= keys[offset + child]) {
+                return;
+            }
+            swap(keys, items, offset + node, offset + child);
+            node = child;
         }
     }
 
     /**
-     * Intercambia dos elementos en la lista
+     * Intercambia dos posiciones de los arreglos paralelos
      */
-    private void swap(List<Dog> dogs, int i, int j) {
-        Dog temp = dogs.get(i);
-        dogs.set(i, dogs.get(j));
-        dogs.set(j, temp);
+    private void swap(int[] keys, Dog[] items, int i, int j) {
+        int k = keys[i];
+        keys[i] = keys[j];
+        keys[j] = k;
+        Dog dog = items[i];
+        items[i] = items[j];
+        items[j] = dog;
     }
 
     /**
-     * Obtiene el comparador para un criterio dado
+     * Clave entera del criterio (se resuelve una sola vez por ordenamiento)
      */
-    private Comparator<Dog> getComparator(String criteria) {
+    private ToIntFunction<Dog> getKey(String criteria) {
         switch (criteria.toLowerCase()) {
             case "priority":
                 // Orden ascendente (menor prioridad primero)
-                return Comparator.comparingInt(Dog::getPriority);
+                return Dog::getPriority;
             case "age":
-                return Comparator.comparingInt(Dog::getAge);
+                return Dog::getAge;
             case "weight":
-                return Comparator.comparingDouble(Dog::getWeight);
+                return Dog::getWeight;
             default:
                 throw new IllegalArgumentException("Criterio de orden no válido: " + criteria);
         }
     }
-}
-
-
 
+    /**
+     * Obtiene el comparador para un criterio dado
+     */
+    private Comparator<Dog> getComparator(String criteria) {
+        return Comparator.comparingInt(getKey(criteria));
+    }
+}
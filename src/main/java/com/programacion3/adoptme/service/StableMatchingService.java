@@ -0,0 +1,284 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.service.BacktrackingService.Adopter;
+import com.programacion3.adoptme.service.BacktrackingService.Assignment;
+import com.programacion3.adoptme.service.BacktrackingService.Dog;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Matching estable muchos-a-uno entre perros y adoptantes (Gale-Shapley, deferred acceptance).
+ *
+ * Los perros proponen en orden de preferencia y cada adoptante retiene provisoriamente
+ * sus mejores propuestas. Si al recibir una propuesta se pasa de maxDogs o de su
+ * presupuesto, rechaza a su peor perro retenido (repetidamente, hasta volver a entrar);
+ * el perro rechazado propone al siguiente adoptante de su lista.
+ *
+ * Sólo con cupos el resultado es estable. Con presupuestos puede no existir un matching
+ * estable (el cupo deja de ser "una unidad por perro"), y además un rechazo por presupuesto
+ * puede dejarle lugar a un adoptante para perros que ya había rechazado. Por eso al final
+ * hay una reparación: cada perro se muda al primer adoptante de su lista que ahora lo
+ * acepta sin rechazar a nadie. Ningún perro empeora, así que termina, y el resultado no
+ * desperdicia lugar: ningún perro prefiere a un adoptante que todavía tiene cupo y
+ * presupuesto para él.
+ *
+ * Las preferencias salen del mismo score del backtracking (niños, jardín, energía):
+ * - el perro prefiere al adoptante con el que tiene mayor score
+ * - el adoptante prefiere mayor score; a igual score, el perro más barato
+ * Sólo se listan pares compatibles y que entran en el presupuesto de a uno.
+ *
+ * A diferencia del greedy por adoptante, nunca se le asigna el mismo perro a dos
+ * adoptantes; a diferencia del backtracking, corre en O(E log maxDogs) con E la
+ * cantidad de pares compatibles, así que escala a miles de perros y adoptantes.
+ */
+@Service
+public class StableMatchingService {
+
+    /**
+     * Resultado del matching estable
+     */
+    public static class MatchResult {
+        public final Assignment assignment;
+        public final int proposals;      // propuestas hechas (incluye rechazos)
+        public final int unmatchedDogs;  // perros que agotaron su lista sin quedar asignados
+        public final long elapsedMs;
+
+        public MatchResult(Assignment assignment, int proposals, int unmatchedDogs, long elapsedMs) {
+            this.assignment = assignment;
+            this.proposals = proposals;
+            this.unmatchedDogs = unmatchedDogs;
+            this.elapsedMs = elapsedMs;
+        }
+    }
+
+    /**
+     * Calcula un matching estable respetando maxDogs y presupuesto de cada adoptante.
+     */
+    public MatchResult solve(List<Dog> dogs, List<Adopter> adopters) {
+        long start = System.nanoTime();
+        int n = dogs.size();
+        int m = adopters.size();
+        if (n == 0 || m == 0) {
+            return new MatchResult(new Assignment(new HashMap<>(), 0.0), 0, n, 0);
+        }
+
+        // Listas de preferencia de los perros en formato CSR: prefStart[d]..prefStart[d+1]
+        DogFeatureTable table = DogFeatureTable.fromBacktracking(dogs);
+        float[][] scores = new float[m][]; // los scores son enteros chicos: float es exacto y ocupa la mitad
+        int[] prefStart = new int[n + 1];
+        double[] kernel = new double[n];
+        for (int a = 0; a < m; a++) {
+            Adopter adopter = adopters.get(a);
+            table.matchScores(adopter, kernel);
+            float[] row = new float[n];
+            for (int d = 0; d < n; d++) {
+                // Recheck exacto del presupuesto (el kernel compara en float)
+                if (kernel[d] >= 0 && dogs.get(d).cost <= adopter.budget && adopter.maxDogs > 0) {
+                    row[d] = (float) kernel[d];
+                    prefStart[d + 1]++;
+                } else {
+                    row[d] = -1f;
+                }
+            }
+            scores[a] = row;
+        }
+        for (int d = 0; d < n; d++) {
+            prefStart[d + 1] += prefStart[d];
+        }
+
+        // Clave ordenable: score descendente y, a igual score, adoptante de menor índice
+        long[] keys = new long[prefStart[n]];
+        int[] fill = Arrays.copyOf(prefStart, n);
+        for (int a = 0; a < m; a++) {
+            float[] row = scores[a];
+            for (int d = 0; d < n; d++) {
+                if (row[d] >= 0) {
+                    long rank = Integer.MAX_VALUE - Math.round(row[d] * 1000);
+                    keys[fill[d]++] = (rank << 32) | a;
+                }
+            }
+        }
+        int[] prefs = new int[keys.length];
+        for (int d = 0; d < n; d++) {
+            Arrays.sort(keys, prefStart[d], prefStart[d + 1]);
+            for (int k = prefStart[d]; k < prefStart[d + 1]; k++) {
+                prefs[k] = (int) keys[k];
+            }
+        }
+
+        // Estado: próximo adoptante a proponer por perro y perros retenidos por adoptante
+        int[] next = Arrays.copyOf(prefStart, n);
+        HeldDogs[] held = new HeldDogs[m];
+        for (int a = 0; a < m; a++) {
+            held[a] = new HeldDogs(scores[a], dogs);
+        }
+        int[] owner = new int[n];
+        Arrays.fill(owner, -1);
+        int[] free = new int[n];
+        int freeCount = 0;
+        for (int d = n - 1; d >= 0; d--) {
+            free[freeCount++] = d;
+        }
+
+        int proposals = 0;
+        int unmatched = 0;
+        while (freeCount > 0) {
+            int d = free[--freeCount];
+            if (next[d] == prefStart[d + 1]) {
+                unmatched++; // lista agotada: queda sin adoptante
+                continue;
+            }
+            int a = prefs[next[d]++];
+            proposals++;
+
+            Adopter adopter = adopters.get(a);
+            HeldDogs h = held[a];
+            h.push(d);
+            owner[d] = a;
+            // Rechaza a los peores hasta respetar cupo y presupuesto
+            while (h.size > adopter.maxDogs || h.cost > adopter.budget) {
+                int rejected = h.popWorst();
+                owner[rejected] = -1;
+                free[freeCount++] = rejected;
+            }
+        }
+
+        // Reparación: mudar perros a adoptantes anteriores de su lista que quedaron con lugar.
+        // El adoptante actual de d es prefs[next[d] - 1]; sin adoptante, toda la lista.
+        boolean moved = true;
+        while (moved) {
+            moved = false;
+            for (int d = 0; d < n; d++) {
+                int end = owner[d] < 0 ? prefStart[d + 1] : next[d] - 1;
+                for (int k = prefStart[d]; k < end; k++) {
+                    int a = prefs[k];
+                    Adopter adopter = adopters.get(a);
+                    HeldDogs h = held[a];
+                    if (h.size < adopter.maxDogs && h.cost + dogs.get(d).cost <= adopter.budget) {
+                        if (owner[d] >= 0) {
+                            held[owner[d]].remove(d);
+                        } else {
+                            unmatched--;
+                        }
+                        h.push(d);
+                        owner[d] = a;
+                        next[d] = k + 1;
+                        proposals++;
+                        moved = true;
+                        break;
+                    }
+                }
+            }
+        }
+
+        Map<String, List<String>> assignments = new HashMap<>();
+        double total = 0.0;
+        for (int a = 0; a < m; a++) {
+            HeldDogs h = held[a];
+            if (h.size == 0) continue;
+            List<String> ids = new ArrayList<>(h.size);
+            for (int d : h.bestFirst()) {
+                ids.add(dogs.get(d).id);
+                total += scores[a][d];
+            }
+            assignments.put(adopters.get(a).id, ids);
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        return new MatchResult(new Assignment(assignments, total), proposals, unmatched, elapsedMs);
+    }
+
+    /**
+     * Perros retenidos por un adoptante: min-heap de ids (el peor arriba) con costo acumulado
+     */
+    private static final class HeldDogs {
+        private final float[] score;  // score del adoptante con cada perro
+        private final List<Dog> dogs;
+        private int[] heap = new int[4];
+        int size;
+        double cost;
+
+        HeldDogs(float[] score, List<Dog> dogs) {
+            this.score = score;
+            this.dogs = dogs;
+        }
+
+        // true si el adoptante prefiere menos a x que a y
+        private boolean worse(int x, int y) {
+            if (score[x] != score[y]) return score[x] < score[y];
+            double cx = dogs.get(x).cost;
+            double cy = dogs.get(y).cost;
+            if (cx != cy) return cx > cy;
+            return x > y;
+        }
+
+        void push(int d) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            int i = size++;
+            heap[i] = d;
+            cost += dogs.get(d).cost;
+            siftUp(i);
+        }
+
+        int popWorst() {
+            int worst = heap[0];
+            removeAt(0);
+            return worst;
+        }
+
+        /** Suelta a un perro retenido cualquiera (el heap tiene a lo sumo maxDogs perros) */
+        void remove(int d) {
+            int i = 0;
+            while (heap[i] != d) i++;
+            removeAt(i);
+        }
+
+        private void removeAt(int i) {
+            cost -= dogs.get(heap[i]).cost;
+            heap[i] = heap[--size];
+            if (size == 0) cost = 0.0; // sin acumular error de redondeo
+            if (i < size) {
+                siftUp(i);
+                siftDown(i);
+            }
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!worse(heap[i], heap[parent])) break;
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int l = 2 * i + 1;
+                if (l >= size) break;
+                int c = l + 1 < size && worse(heap[l + 1], heap[l]) ? l + 1 : l;
+                if (!worse(heap[c], heap[i])) break;
+                swap(i, c);
+                i = c;
+            }
+        }
+
+        int[] bestFirst() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) order[i] = heap[i];
+            Arrays.sort(order, (x, y) -> worse(x, y) ? 1 : worse(y, x) ? -1 : 0);
+            int[] result = new int[size];
+            for (int i = 0; i < size; i++) result[i] = order[i];
+            return result;
+        }
+
+        private void swap(int i, int j) {
+            int tmp = heap[i];
+            heap[i] = heap[j];
+            heap[j] = tmp;
+        }
+    }
+}
@@ -113,6 +113,11 @@ public class TSPService {
             Map<String, Map<String, Double>> distMatrix,
             BestSolution best
     ) {
+        // Trabajo cancelado: abandonar la búsqueda
+        if (Thread.currentThread().isInterrupted()) {
+            return;
+        }
+
         // Caso base: todos los nodos visitados
         if (visited.size() == allNodes.size()) {
             // Agregar costo de regresar al inicio
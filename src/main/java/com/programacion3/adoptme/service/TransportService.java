@@ -4,17 +4,68 @@ import com.programacion3.adoptme.domain.Dog;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Servicio para optimizar el transporte de perros usando Programación Dinámica (Knapsack).
  *
  * Problema: Dado un vehículo con capacidad limitada en kg, seleccionar el mejor conjunto
  * de perros para transportar maximizando la prioridad total.
+ *
+ * Modos:
+ * - DENSE: tabla completa (n+1) × (capacidad+1), reconstrucción directa
+ * - LINEAR: divide y vencerás de Hirschberg con memoria O(capacidad); misma prioridad
+ *   total que DENSE (con empates puede elegir otros perros)
+ * - SPARSE: frontera de Pareto (peso, prioridad) por prefijo de perros; no depende de
+ *   la capacidad sino de la cantidad de estados no dominados (capacidades en gramos,
+ *   viajes múltiples)
+ * - AUTO: SPARSE si la estimación de estados ocupa menos que la tabla; si no, DENSE
+ *   mientras la tabla sea chica y LINEAR para tablas grandes
+ *
+ * Antes de la DP los perros pasan por {@link KnapsackPreprocessor} (descarta los que
+ * no entran o están dominados, escala por el MCD y agrupa iguales), así que la tabla
+ * se arma sobre la mochila reducida.
+ *
+ * Aproximación con error acotado (FPTAS) para respuestas interactivas:
+ * ver {@link #approximateTransport(List, int, double)}.
+ *
+ * Varias restricciones por vehículo (kg, jaulas, asientos para necesidades especiales):
+ * ver {@link #optimizeMultiConstraint(List, int[])}.
+ *
+ * Flota (mochila múltiple): varios vehículos de distinta capacidad a la vez,
+ * ver {@link #optimizeFleet(List, List, FleetMode)}.
  */
 @Service
 public class TransportService {
 
+    /** Modo de resolución de la mochila */
+    public enum Mode { AUTO, DENSE, LINEAR, SPARSE }
+
+    /** Celdas máximas de la tabla densa en modo AUTO (4 MB de ints) */
+    static final long DENSE_MAX_CELLS = 1L << 20;
+
+    /** Estados máximos (estimados) para elegir SPARSE en modo AUTO: se guardan todos los niveles */
+    static final long SPARSE_MAX_STATES = 1L << 22;
+
+    /** En LINEAR, los tramos de hasta tantos perros se resuelven con una tabla local */
+    private static final int LEAF_ITEMS = 32;
+
+    /** Modo de carga de la flota */
+    public enum FleetMode { EXACT, HEURISTIC }
+
+    /** Bits máximos de la tabla de decisiones del FPTAS (32 MB) */
+    static final long FPTAS_MAX_BITS = 1L << 28;
+
+    /** Bits máximos de las decisiones que guarda la curva valor / capacidad (32 MB) */
+    static final long CURVE_MAX_BITS = 1L << 28;
+
+    /** Nodos máximos del branch & bound de flota; al llegar se devuelve la mejor carga encontrada */
+    static final long FLEET_NODE_LIMIT = 2_000_000L;
+
     /**
      * Resuelve el problema de la mochila 0/1 usando Programación Dinámica.
      *
@@ -23,51 +74,945 @@ public class TransportService {
      * @return resultado con perros seleccionados y valor total
      */
     public KnapsackResult optimizeTransport(List<Dog> dogs, int capacityKg) {
+        return optimizeTransport(dogs, capacityKg, Mode.AUTO);
+    }
+
+    /**
+     * Igual que {@link #optimizeTransport(List, int)} eligiendo el modo.
+     */
+    public KnapsackResult optimizeTransport(List<Dog> dogs, int capacityKg, Mode mode) {
         if (dogs == null || dogs.isEmpty() || capacityKg <= 0) {
             return new KnapsackResult(new ArrayList<>(), 0, 0);
         }
 
         int n = dogs.size();
+        int[] weight = new int[n];
+        int[] priority = new int[n];
+        for (int i = 0; i < n; i++) {
+            weight[i] = dogs.get(i).getWeight();
+            priority[i] = dogs.get(i).getPriority();
+        }
+
+        // Reducir antes de reservar la tabla (ver KnapsackPreprocessor)
+        KnapsackPreprocessor.Reduced reduced = KnapsackPreprocessor.reduce(weight, priority, capacityKg);
+        if (mode == Mode.AUTO) {
+            mode = chooseMode(reduced);
+        }
+        List<Integer> packages;
+        if (reduced.size() == 0) {
+            packages = List.of();
+        } else if (mode == Mode.SPARSE) {
+            packages = solveSparse(reduced.weight, reduced.priority, reduced.capacity);
+        } else if (mode == Mode.LINEAR) {
+            packages = solveLinear(reduced.weight, reduced.priority, reduced.capacity);
+        } else {
+            packages = solveDense(reduced.weight, reduced.priority, reduced.capacity);
+        }
+
+        List<Dog> selectedDogs = new ArrayList<>();
+        int totalPriority = 0;
+        int totalWeight = 0;
+        for (int i : reduced.expand(packages)) {
+            selectedDogs.add(dogs.get(i));
+            totalPriority += priority[i];
+            totalWeight += weight[i];
+        }
+        return new KnapsackResult(selectedDogs, totalPriority, totalWeight, mode, reduced.stats);
+    }
+
+    private static Mode chooseMode(KnapsackPreprocessor.Reduced reduced) {
+        long cells = reduced.stats.reducedCells;
+        long states = estimateSparseStates(reduced.priority, reduced.capacity);
+        // Cada estado guarda dos ints (peso y prioridad) contra uno por celda de la tabla
+        if (2 * states < cells && states <= SPARSE_MAX_STATES) {
+            return Mode.SPARSE;
+        }
+        return cells <= DENSE_MAX_CELLS ? Mode.DENSE : Mode.LINEAR;
+    }
+
+    /**
+     * Cota de los estados que guarda SPARSE: cada frontera tiene prioridades estrictamente
+     * crecientes y pesos <= capacidad, así que su tamaño no pasa de 2^i, capacidad + 1
+     * ni (suma de prioridades del prefijo) + 1.
+     */
+    static long estimateSparseStates(int[] priority, int capacity) {
+        long total = 1;
+        long size = 1;
+        long prefix = 0;
+        for (int p : priority) {
+            prefix += p;
+            size = Math.min(Math.min(size * 2, capacity + 1L), prefix + 1);
+            total += size;
+        }
+        return total;
+    }
+
+    /**
+     * DP dispersa: por cada prefijo de ítems se guarda sólo la frontera de Pareto, ordenada
+     * por peso con prioridad estrictamente creciente, en dos arreglos de enteros. La frontera
+     * siguiente es el merge de la actual con su copia desplazada (peso + w, prioridad + p),
+     * descartando lo que excede la capacidad o queda dominado. Para reconstruir se guardan
+     * todas las fronteras: un estado que no está en la anterior usó el ítem.
+     */
+    private List<Integer> solveSparse(int[] weight, int[] priority, int capacity) {
+        int n = weight.length;
+        int[][] levelWeight = new int[n + 1][];
+        int[][] levelPriority = new int[n + 1][];
+        levelWeight[0] = new int[]{0};
+        levelPriority[0] = new int[]{0};
+
+        for (int i = 0; i < n; i++) {
+            int[] lw = levelWeight[i];
+            int[] lp = levelPriority[i];
+            int size = lw.length;
+            int wi = weight[i];
+            int pi = priority[i];
+            int[] nw = new int[2 * size];
+            int[] np = new int[2 * size];
+            int k = 0;
+            int a = 0; // sin el ítem
+            int b = 0; // con el ítem
+            while (a < size || (b < size && lw[b] + wi <= capacity)) {
+                boolean shifted = b < size && lw[b] + wi <= capacity;
+                int cw;
+                int cp;
+                if (a < size && (!shifted || lw[a] < lw[b] + wi
+                        || (lw[a] == lw[b] + wi && lp[a] >= lp[b] + pi))) {
+                    cw = lw[a];
+                    cp = lp[a++];
+                } else {
+                    cw = lw[b] + wi;
+                    cp = lp[b++] + pi;
+                }
+                // Más pesado que el último guardado: sólo sirve si suma más prioridad
+                if (k == 0 || cp > np[k - 1]) {
+                    nw[k] = cw;
+                    np[k++] = cp;
+                }
+            }
+            levelWeight[i + 1] = Arrays.copyOf(nw, k);
+            levelPriority[i + 1] = Arrays.copyOf(np, k);
+        }
+
+        // El último estado de la frontera final es el óptimo
+        int last = levelWeight[n].length - 1;
+        int w = levelWeight[n][last];
+        int p = levelPriority[n][last];
+        List<Integer> chosen = new ArrayList<>();
+        for (int i = n; i > 0; i--) {
+            int at = Arrays.binarySearch(levelWeight[i - 1], w);
+            if (at < 0 || levelPriority[i - 1][at] != p) {
+                chosen.add(i - 1);
+                w -= weight[i - 1];
+                p -= priority[i - 1];
+            }
+        }
+        return chosen;
+    }
 
-        // Tabla DP: dp[i][w] = máxima prioridad con primeros i perros y capacidad w
-        int[][] dp = new int[n + 1][capacityKg + 1];
+    /**
+     * DP con la tabla completa. Devuelve los ítems elegidos en orden descendente.
+     */
+    private List<Integer> solveDense(int[] weight, int[] priority, int capacity) {
+        int n = weight.length;
 
-        // Llenar tabla usando programación dinámica
+        // Tabla DP: dp[i][w] = máxima prioridad con primeros i ítems y capacidad w
+        int[][] dp = new int[n + 1][capacity + 1];
+
+        // Llenar tabla fila por fila: dp[i][w] = max(dp[i-1][w], dp[i-1][w - peso] + prioridad)
         for (int i = 1; i <= n; i++) {
-            Dog dog = dogs.get(i - 1);
-            int weight = dog.getWeight();
-            int priority = dog.getPriority();
-
-            for (int w = 0; w <= capacityKg; w++) {
-                // Opción 1: No incluir este perro
-                dp[i][w] = dp[i - 1][w];
-
-                // Opción 2: Incluir este perro (si cabe)
-                if (weight <= w) {
-                    int valueWithDog = dp[i - 1][w - weight] + priority;
-                    dp[i][w] = Math.max(dp[i][w], valueWithDog);
+            KnapsackRowKernel.relax(dp[i - 1], dp[i], weight[i - 1], priority[i - 1], capacity);
+        }
+
+        // Reconstruir solución: qué ítems fueron seleccionados
+        List<Integer> chosen = new ArrayList<>();
+        int w = capacity;
+        for (int i = n; i > 0; i--) {
+            // Si el valor cambió, significa que incluimos este ítem
+            if (dp[i][w] != dp[i - 1][w]) {
+                chosen.add(i - 1);
+                w -= weight[i - 1];
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * Mochila con memoria lineal en la capacidad (Hirschberg).
+     *
+     * Subproblema: ítems [lo, hi) con capacidad cap. Se calcula la fila de la mitad
+     * izquierda [lo, mid) y la de la derecha [mid, hi), cada una desde cero, y se elige el
+     * reparto c1 + c2 = cap que maximiza izquierda[c1] + derecha[c2]; las dos filas se
+     * sueltan antes de resolver cada mitad con su capacidad. Nunca viven más que un par de
+     * filas (más la tabla local de las hojas), así que la memoria es O(capacidad) y el
+     * tiempo a lo sumo el doble que DENSE. La prioridad total es la de DENSE; con empates
+     * puede elegir otros perros.
+     */
+    private List<Integer> solveLinear(int[] weight, int[] priority, int capacity) {
+        List<Integer> chosen = new ArrayList<>();
+        solveRange(weight, priority, 0, weight.length, capacity, chosen);
+        return chosen;
+    }
+
+    /**
+     * Resuelve [lo, hi) con capacidad cap y agrega los perros elegidos en orden descendente.
+     */
+    private void solveRange(int[] weight, int[] priority, int lo, int hi, int cap, List<Integer> chosen) {
+        if (hi - lo <= LEAF_ITEMS) {
+            solveLeaf(weight, priority, lo, hi, cap, chosen);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        int leftCap = splitCapacity(weight, priority, lo, mid, hi, cap);
+        solveRange(weight, priority, mid, hi, cap - leftCap, chosen);
+        solveRange(weight, priority, lo, mid, leftCap, chosen);
+    }
+
+    /**
+     * Capacidad que le toca a [lo, mid) en un óptimo de [lo, hi) con capacidad cap.
+     */
+    private static int splitCapacity(int[] weight, int[] priority, int lo, int mid, int hi, int cap) {
+        int[] left = new int[cap + 1];
+        advance(left, weight, priority, lo, mid, cap);
+        int[] right = new int[cap + 1];
+        advance(right, weight, priority, mid, hi, cap);
+        int best = 0;
+        int bestValue = -1;
+        for (int c = 0; c <= cap; c++) {
+            int value = left[c] + right[cap - c];
+            if (value > bestValue) {
+                bestValue = value;
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Tramo chico: tabla local de (hi - lo + 1) filas y reconstrucción igual a DENSE.
+     */
+    private void solveLeaf(int[] weight, int[] priority, int lo, int hi, int cap, List<Integer> chosen) {
+        int k = hi - lo;
+        int[][] dp = new int[k + 1][];
+        dp[0] = new int[cap + 1];
+        for (int j = 1; j <= k; j++) {
+            dp[j] = new int[cap + 1];
+            KnapsackRowKernel.relax(dp[j - 1], dp[j], weight[lo + j - 1], priority[lo + j - 1], cap);
+        }
+        int w = cap;
+        for (int j = k; j > 0; j--) {
+            if (dp[j][w] != dp[j - 1][w]) {
+                chosen.add(lo + j - 1);
+                w -= weight[lo + j - 1];
+            }
+        }
+    }
+
+    // ==================== Curva valor / capacidad ====================
+
+    /**
+     * Óptimo para todas las capacidades 0..maxCapacityKg con una sola pasada de DP:
+     * la última fila de la tabla ya tiene la respuesta para cada capacidad.
+     * Además de la fila guarda un bit por perro y capacidad (si el perro mejoró esa celda)
+     * mientras entren en CURVE_MAX_BITS: con eso la carga de cualquier capacidad de la curva
+     * se reconstruye en O(perros) sin volver a resolver (ver {@link ValueCurve#selection}).
+     *
+     * @return values[c] = máxima prioridad con capacidad c, y las decisiones si entraron
+     */
+    public ValueCurve valueCurve(List<Dog> dogs, int maxCapacityKg) {
+        int cap = Math.max(0, maxCapacityKg);
+        List<Dog> items = new ArrayList<>();
+        if (dogs != null) {
+            for (Dog dog : dogs) {
+                if (dog.getPriority() > 0 && dog.getWeight() <= cap) {
+                    items.add(dog);
+                }
+            }
+        }
+        int n = items.size();
+        long[][] taken = (long) n * (cap + 1) <= CURVE_MAX_BITS ? new long[n][] : null;
+        int[] current = new int[cap + 1];
+        int[] next = new int[cap + 1];
+        for (int i = 0; i < n; i++) {
+            int w = items.get(i).getWeight();
+            KnapsackRowKernel.relax(current, next, w, items.get(i).getPriority(), cap);
+            if (taken != null) {
+                long[] bits = new long[(cap >>> 6) + 1];
+                for (int c = w; c <= cap; c++) {
+                    if (next[c] != current[c]) bits[c >>> 6] |= 1L << c;
+                }
+                taken[i] = bits;
+            }
+            int[] t = current;
+            current = next;
+            next = t;
+        }
+        return new ValueCurve(current, items, taken);
+    }
+
+    // ==================== Aproximación (FPTAS) ====================
+
+    /**
+     * Carga con prioridad garantizada >= (1 - epsilon) · óptimo, en tiempo polinomial
+     * en la cantidad de perros y 1 / epsilon (no depende de la capacidad).
+     *
+     * Sobre la mochila reducida (n paquetes, el de más prioridad pmax) las prioridades se
+     * dividen por K = epsilon · pmax / n y se redondean hacia abajo; la DP indexada por
+     * valor guarda el peso mínimo para cada prioridad escalada. Lo que se pierde por
+     * redondeo es a lo sumo n · K = epsilon · pmax <= epsilon · óptimo (cada paquete entra
+     * solo). Si K < 1 se usa K = 1 y el resultado es exacto. Al final se agregan, por
+     * prioridad/peso, los paquetes no elegidos que todavía entran.
+     *
+     * La cota informada es la menor entre la pérdida real por redondeo y la cota de Dantzig.
+     *
+     * La tabla de decisiones tiene paquetes × valores escalados bits y no puede pasar de
+     * {@link #FPTAS_MAX_BITS}. Si con ese K no entra (muchos paquetes y epsilon chico), K
+     * se agranda hasta que entre: la respuesta llega igual, pero la garantía pasa a ser
+     * 1 - K · n / pmax (puede ser 0) y el resultado lo indica con epsilonMet = false.
+     *
+     * @param epsilon error relativo admitido, en (0, 1)
+     * @throws IllegalArgumentException si epsilon no está en (0, 1)
+     */
+    public ApproximateResult approximateTransport(List<Dog> dogs, int capacityKg, double epsilon) {
+        if (!(epsilon > 0.0 && epsilon < 1.0)) {
+            throw new IllegalArgumentException("Invalid epsilon: must be in (0, 1)");
+        }
+        if (dogs == null || dogs.isEmpty() || capacityKg <= 0) {
+            return new ApproximateResult(new ArrayList<>(), 0, 0, epsilon, 1.0, 1.0, true, 0);
+        }
+
+        int n = dogs.size();
+        int[] weight = new int[n];
+        int[] priority = new int[n];
+        for (int i = 0; i < n; i++) {
+            weight[i] = dogs.get(i).getWeight();
+            priority[i] = dogs.get(i).getPriority();
+        }
+        KnapsackPreprocessor.Reduced reduced = KnapsackPreprocessor.reduce(weight, priority, capacityKg);
+        int items = reduced.size();
+        int capacity = reduced.capacity;
+
+        int pmax = 0;
+        long prioritySum = 0;
+        for (int p : reduced.priority) {
+            pmax = Math.max(pmax, p);
+            prioritySum += p;
+        }
+        // Ningún valor escalado alcanzable supera la cota de Dantzig / K
+        long dantzig = dantzigBound(reduced.weight, reduced.priority, capacity);
+        double scale = Math.max(1.0, epsilon * pmax / Math.max(1, items));
+        long values = Math.min(prioritySum, dantzig);
+        boolean epsilonMet = true;
+        if ((long) items * (values / scale + 1) > FPTAS_MAX_BITS) {
+            // Tabla de decisiones demasiado grande: se redondea más grueso y ya no vale 1 - epsilon
+            scale = (double) items * values / FPTAS_MAX_BITS + 1.0;
+            epsilonMet = false;
+        }
+        int[] scaled = new int[items];
+        double roundingLoss = 0.0;
+        long scaledSum = 0;
+        for (int i = 0; i < items; i++) {
+            scaled[i] = (int) Math.floor(reduced.priority[i] / scale);
+            roundingLoss += reduced.priority[i] - scale * scaled[i];
+            scaledSum += scaled[i];
+        }
+        int maxValue = (int) Math.min(scaledSum, (long) Math.floor(dantzig / scale));
+        double guaranteed = scale <= 1.0 ? 1.0 : Math.max(0.0, 1.0 - scale * items / pmax);
+
+        // minWeight[v] = peso mínimo para sumar exactamente v; take[i] marca mejoras del ítem i
+        long[] minWeight = new long[maxValue + 1];
+        Arrays.fill(minWeight, Long.MAX_VALUE);
+        minWeight[0] = 0;
+        long[][] take = new long[items][];
+        for (int i = 0; i < items; i++) {
+            take[i] = new long[(maxValue >>> 6) + 1];
+            int pv = scaled[i];
+            if (pv == 0) continue;
+            long wi = reduced.weight[i];
+            for (int v = maxValue; v >= pv; v--) {
+                long base = minWeight[v - pv];
+                if (base != Long.MAX_VALUE && base + wi < minWeight[v] && base + wi <= capacity) {
+                    minWeight[v] = base + wi;
+                    take[i][v >>> 6] |= 1L << v;
                 }
             }
         }
 
-        // Reconstruir solución: qué perros fueron seleccionados
+        int best = 0;
+        for (int v = maxValue; v > 0; v--) {
+            if (minWeight[v] <= capacity) {
+                best = v;
+                break;
+            }
+        }
+        boolean[] chosen = new boolean[items];
+        long used = 0;
+        for (int i = items - 1, v = best; i >= 0 && v > 0; i--) {
+            if ((take[i][v >>> 6] & (1L << v)) != 0) {
+                chosen[i] = true;
+                used += reduced.weight[i];
+                v -= scaled[i];
+            }
+        }
+
+        // Completar con lo que todavía entre (sólo puede mejorar)
+        Integer[] byRatio = new Integer[items];
+        for (int i = 0; i < items; i++) byRatio[i] = i;
+        Arrays.sort(byRatio, (a, b) -> Long.compare((long) reduced.priority[b] * reduced.weight[a],
+                (long) reduced.priority[a] * reduced.weight[b]));
+        for (int i : byRatio) {
+            if (!chosen[i] && used + reduced.weight[i] <= capacity) {
+                chosen[i] = true;
+                used += reduced.weight[i];
+            }
+        }
+
+        List<Integer> packages = new ArrayList<>();
+        int packagePriority = 0;
+        for (int i = items - 1; i >= 0; i--) {
+            if (chosen[i]) {
+                packages.add(i);
+                packagePriority += reduced.priority[i];
+            }
+        }
         List<Dog> selectedDogs = new ArrayList<>();
-        int w = capacityKg;
+        int totalPriority = 0;
         int totalWeight = 0;
+        for (int i : reduced.expand(packages)) {
+            selectedDogs.add(dogs.get(i));
+            totalPriority += priority[i];
+            totalWeight += weight[i];
+        }
+        int forcedPriority = totalPriority - packagePriority;
+        long packageBound = Math.min(dantzig, (long) Math.floor(packagePriority + roundingLoss + 1e-9));
+        return new ApproximateResult(selectedDogs, totalPriority, totalWeight, epsilon, scale,
+                guaranteed, epsilonMet, (int) (forcedPriority + Math.max(packageBound, packagePriority)));
+    }
 
-        for (int i = n; i > 0 && w > 0; i--) {
-            // Si el valor cambió, significa que incluimos este perro
-            if (dp[i][w] != dp[i - 1][w]) {
-                Dog dog = dogs.get(i - 1);
-                selectedDogs.add(dog);
-                w -= dog.getWeight();
-                totalWeight += dog.getWeight();
+    /**
+     * Cota de Dantzig: mochila fraccional con los ítems ordenados por prioridad/peso.
+     */
+    private static long dantzigBound(int[] weight, int[] priority, int capacity) {
+        Integer[] order = new Integer[weight.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Long.compare((long) priority[b] * weight[a], (long) priority[a] * weight[b]));
+        long remaining = capacity;
+        double bound = 0.0;
+        for (int i : order) {
+            if (weight[i] <= remaining) {
+                remaining -= weight[i];
+                bound += priority[i];
+            } else {
+                bound += priority[i] * (double) remaining / weight[i];
+                break;
+            }
+        }
+        return (long) Math.floor(bound + 1e-9);
+    }
+
+    // ==================== Varias restricciones ====================
+
+    /** Dimensiones del vehículo: kg, jaulas y asientos para perros con necesidades especiales */
+    public static final int DIMENSIONS = 3;
+
+    /**
+     * Carga un vehículo limitado por peso, cantidad de jaulas (una por perro) y asientos
+     * equipados (uno por perro con specialNeeds), ver {@link MultiDimensionalKnapsack}.
+     *
+     * @param capacities {kg, jaulas, asientos especiales}
+     * @throws IllegalArgumentException si no son tres capacidades no negativas
+     */
+    public MultiConstraintResult optimizeMultiConstraint(List<Dog> dogs, int[] capacities) {
+        if (capacities == null || capacities.length != DIMENSIONS || Arrays.stream(capacities).anyMatch(c -> c < 0)) {
+            throw new IllegalArgumentException("Invalid capacities: expected kg, crates and special-needs seats >= 0");
+        }
+        long start = System.currentTimeMillis();
+        List<Dog> items = dogs == null ? List.of() : dogs;
+        int n = items.size();
+        int[][] usage = new int[n][];
+        int[] priority = new int[n];
+        for (int i = 0; i < n; i++) {
+            Dog dog = items.get(i);
+            usage[i] = new int[]{dog.getWeight(), 1, Boolean.TRUE.equals(dog.getSpecialNeeds()) ? 1 : 0};
+            priority[i] = dog.getPriority();
+        }
+
+        MultiDimensionalKnapsack.Solution solution = MultiDimensionalKnapsack.solve(usage, priority, capacities);
+
+        List<Dog> selectedDogs = new ArrayList<>(solution.chosen.length);
+        int[] used = new int[DIMENSIONS];
+        for (int i : solution.chosen) {
+            selectedDogs.add(items.get(i));
+            for (int k = 0; k < DIMENSIONS; k++) used[k] += usage[i][k];
+        }
+        return new MultiConstraintResult(selectedDogs, solution.totalPriority, used, capacities.clone(),
+                solution, System.currentTimeMillis() - start);
+    }
+
+    // ==================== Flota: mochila múltiple ====================
+
+    /**
+     * Carga varios vehículos a la vez maximizando la prioridad total (mochila múltiple 0/1).
+     *
+     * - HEURISTIC: llena los vehículos de a uno con la DP de una mochila sobre los perros
+     *   que quedan (probando de menor a mayor capacidad y al revés, se queda con la mejor)
+     * - EXACT: branch & bound (bound-and-bound, como MTM/Mulknap). Cota global: relajación
+     *   subrogada (una sola mochila con la suma de capacidades, resuelta por DP). Antes de
+     *   buscar se reparte la carga subrogada entre los vehículos por subset sum; si alcanza
+     *   la cota ya es óptima (300 perros y 8 vans de 100 a 400 kg se prueban así, sin
+     *   ramificar). En cada nodo, cota = DP del sufijo evaluada en la suma de lo que de
+     *   verdad se puede llenar en cada vehículo (mayor subset sum de los perros restantes
+     *   que entra en su capacidad restante), y se vuelve a repartir la carga subrogada del
+     *   sufijo: si alcanza la cota del nodo, no se ramifica. Se ramifica de más pesado a más
+     *   liviano, así los huecos que los livianos no pueden llenar bajan la cota enseguida.
+     *   Si la tabla de sufijos no entra en DENSE_MAX_CELLS: orden por prioridad/peso y cota
+     *   de Dantzig sobre la capacidad restante total.
+     *   Vehículos con la misma capacidad restante son simétricos y se prueba sólo uno.
+     *
+     * @param dogs perros disponibles
+     * @param capacitiesKg capacidad de cada vehículo (el resultado respeta este orden)
+     * @param mode EXACT o HEURISTIC
+     * @return carga de cada vehículo y si se probó optimalidad
+     */
+    public FleetResult optimizeFleet(List<Dog> dogs, List<Integer> capacitiesKg, FleetMode mode) {
+        long start = System.currentTimeMillis();
+        int m = capacitiesKg == null ? 0 : capacitiesKg.size();
+        int[] capacity = new int[m];
+        int maxCapacity = 0;
+        long totalCapacity = 0;
+        for (int j = 0; j < m; j++) {
+            capacity[j] = Math.max(0, capacitiesKg.get(j));
+            maxCapacity = Math.max(maxCapacity, capacity[j]);
+            totalCapacity += capacity[j];
+        }
+
+        // Candidatos: suman prioridad y entran en algún vehículo
+        List<Dog> candidates = new ArrayList<>();
+        long totalWeight = 0;
+        if (dogs != null) {
+            for (Dog dog : dogs) {
+                if (dog.getPriority() > 0 && dog.getWeight() <= maxCapacity) {
+                    candidates.add(dog);
+                    totalWeight += dog.getWeight();
+                }
+            }
+        }
+        int n = candidates.size();
+        int surrogate = (int) Math.min(totalCapacity, totalWeight);
+
+        // Orden de búsqueda: de más pesado a más liviano si entra la tabla de sufijos (lo que
+        // los perros livianos que quedan no pueden llenar aparece enseguida en la cota); si
+        // no, por prioridad/peso, que es lo que necesita la cota de Dantzig
+        boolean suffixFits = (long) (n + 1) * (surrogate + 1) <= DENSE_MAX_CELLS;
+        if (suffixFits) {
+            candidates.sort((a, b) -> Integer.compare(b.getWeight(), a.getWeight()));
+        } else {
+            candidates.sort((a, b) -> Long.compare((long) b.getPriority() * a.getWeight(),
+                    (long) a.getPriority() * b.getWeight()));
+        }
+        int[] weight = new int[n];
+        int[] priority = new int[n];
+        for (int i = 0; i < n; i++) {
+            weight[i] = candidates.get(i).getWeight();
+            priority[i] = candidates.get(i).getPriority();
+        }
+
+        // Cota superior: relajación subrogada (una mochila con la suma de capacidades)
+        int[][] suffix = suffixFits ? suffixRows(weight, priority, surrogate) : null;
+        int upperBound;
+        if (suffix != null) {
+            upperBound = suffix[0][surrogate];
+        } else {
+            int[] row = new int[surrogate + 1];
+            advance(row, weight, priority, 0, n, surrogate);
+            upperBound = row[surrogate];
+        }
+
+        // Solución inicial: una mochila por vehículo
+        int[] assignment = fleetHeuristic(candidates, capacity);
+        int bestProfit = profitOf(assignment, priority);
+
+        long nodes = 0;
+        boolean optimal = bestProfit == upperBound;
+        if (mode == FleetMode.EXACT && !optimal && suffix != null) {
+            // Repartir la carga subrogada; la más liviana con el mismo valor deja más holgura
+            int lightest = surrogate;
+            while (lightest > 0 && suffix[0][lightest - 1] == upperBound) lightest--;
+            for (int loadCapacity : new int[]{surrogate, lightest}) {
+                for (Integer[] order : capacityOrders(capacity)) {
+                    int[] split = splitSurrogate(weight, capacity, suffix, 0, loadCapacity, order);
+                    int splitProfit = profitOf(split, priority);
+                    if (splitProfit > bestProfit) {
+                        assignment = split;
+                        bestProfit = splitProfit;
+                    }
+                }
+            }
+            optimal = bestProfit == upperBound;
+        }
+        if (mode == FleetMode.EXACT && !optimal) {
+            FleetSearch search = new FleetSearch(weight, priority, capacity, assignment, bestProfit, upperBound,
+                    suffix);
+            search.dfs(0, 0);
+            assignment = search.best;
+            nodes = search.nodes;
+            optimal = !search.truncated;
+        }
+
+        List<VehicleLoad> vehicles = new ArrayList<>(m);
+        for (int j = 0; j < m; j++) {
+            List<Dog> load = new ArrayList<>();
+            int loadPriority = 0;
+            int loadWeight = 0;
+            for (int i = 0; i < n; i++) {
+                if (assignment[i] == j) {
+                    load.add(candidates.get(i));
+                    loadPriority += priority[i];
+                    loadWeight += weight[i];
+                }
+            }
+            vehicles.add(new VehicleLoad(j, capacity[j], load, loadPriority, loadWeight));
+        }
+        return new FleetResult(vehicles, upperBound, optimal, mode, nodes, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Llena los vehículos de a uno con la mochila de un vehículo sobre los perros restantes.
+     * Devuelve el vehículo de cada candidato (-1 si queda afuera).
+     */
+    private int[] fleetHeuristic(List<Dog> candidates, int[] capacity) {
+        int[] best = null;
+        int bestProfit = -1;
+        for (Integer[] order : capacityOrders(capacity)) {
+            int[] assignment = sequentialFill(candidates, capacity, order);
+            int profit = 0;
+            for (int i = 0; i < assignment.length; i++) {
+                if (assignment[i] >= 0) profit += candidates.get(i).getPriority();
+            }
+            if (profit > bestProfit) {
+                bestProfit = profit;
+                best = assignment;
+            }
+        }
+        return best;
+    }
+
+    /** Vehículos de menor a mayor capacidad y de mayor a menor */
+    private static List<Integer[]> capacityOrders(int[] capacity) {
+        Integer[] ascending = new Integer[capacity.length];
+        for (int j = 0; j < capacity.length; j++) ascending[j] = j;
+        Arrays.sort(ascending, (a, b) -> Integer.compare(capacity[a], capacity[b]));
+        Integer[] descending = ascending.clone();
+        for (int l = 0, r = descending.length - 1; l < r; l++, r--) {
+            Integer t = descending[l];
+            descending[l] = descending[r];
+            descending[r] = t;
+        }
+        return List.of(ascending, descending);
+    }
+
+    private int[] sequentialFill(List<Dog> candidates, int[] capacity, Integer[] order) {
+        int[] assignment = new int[candidates.size()];
+        Arrays.fill(assignment, -1);
+        for (int j : order) {
+            List<Dog> remaining = new ArrayList<>();
+            List<Integer> positions = new ArrayList<>();
+            for (int i = 0; i < candidates.size(); i++) {
+                if (assignment[i] < 0) {
+                    remaining.add(candidates.get(i));
+                    positions.add(i);
+                }
+            }
+            if (remaining.isEmpty()) break;
+            Map<Dog, Integer> position = new IdentityHashMap<>();
+            for (int k = 0; k < remaining.size(); k++) {
+                position.put(remaining.get(k), positions.get(k));
+            }
+            for (Dog dog : optimizeTransport(remaining, capacity[j]).selectedDogs) {
+                assignment[position.get(dog)] = j;
+            }
+        }
+        return assignment;
+    }
+
+    private static int profitOf(int[] assignment, int[] priority) {
+        int profit = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            if (assignment[i] >= 0) profit += priority[i];
+        }
+        return profit;
+    }
+
+    /**
+     * Reparte entre los vehículos una carga óptima de la relajación subrogada (la de
+     * capacidad loadCapacity): llena cada vehículo, en el orden dado, con el subconjunto de
+     * esa carga que más se acerca a su capacidad (subset sum) y con los huecos que quedan
+     * prueba, en orden, los perros desde from que no entraron. Si no sobra nada de la carga
+     * subrogada, la solución alcanza la cota y es óptima sin buscar.
+     */
+    private static int[] splitSurrogate(int[] weight, int[] capacity, int[][] suffix, int from, int loadCapacity,
+                                        Integer[] order) {
+        int n = weight.length;
+        int[] assignment = new int[n];
+        Arrays.fill(assignment, -1);
+        if (capacity.length == 0) {
+            return assignment;
+        }
+        List<Integer> load = new ArrayList<>();
+        int c = loadCapacity;
+        for (int k = from; k < n; k++) {
+            if (suffix[k][c] != suffix[k + 1][c]) {
+                load.add(k);
+                c -= weight[k];
             }
         }
 
-        int totalPriority = dp[n][capacityKg];
+        int[] residual = capacity.clone();
+        for (int j : order) {
+            int cap = residual[j];
+            boolean[] reached = new boolean[cap + 1];
+            int[] via = new int[cap + 1];
+            reached[0] = true;
+            for (int t = 0; t < load.size(); t++) {
+                int w = weight[load.get(t)];
+                if (w == 0) continue;
+                for (int s = cap; s >= w; s--) {
+                    if (!reached[s] && reached[s - w]) {
+                        reached[s] = true;
+                        via[s] = t;
+                    }
+                }
+            }
+            int s = cap;
+            while (!reached[s]) s--;
+            residual[j] -= s;
+            List<Integer> taken = new ArrayList<>();
+            while (s > 0) {
+                taken.add(via[s]);
+                s -= weight[load.get(via[s])];
+            }
+            taken.sort(Collections.reverseOrder());
+            for (int t : taken) {
+                assignment[load.remove(t)] = j;
+            }
+        }
+        for (int k : load) {
+            if (weight[k] == 0) assignment[k] = order[0];
+        }
 
-        return new KnapsackResult(selectedDogs, totalPriority, totalWeight);
+        for (int k = from; k < n; k++) {
+            if (assignment[k] >= 0) continue;
+            for (int j : order) {
+                if (residual[j] >= weight[k]) {
+                    residual[j] -= weight[k];
+                    assignment[k] = j;
+                    break;
+                }
+            }
+        }
+        return assignment;
+    }
+
+    /** target |= source << shift (bitsets de igual largo, los bits que salen se pierden) */
+    private static void shiftOr(long[] target, long[] source, int shift) {
+        int wordShift = shift >>> 6;
+        int bitShift = shift & 63;
+        for (int w = target.length - 1; w >= wordShift; w--) {
+            long v = source[w - wordShift] << bitShift;
+            if (bitShift != 0 && w - wordShift - 1 >= 0) {
+                v |= source[w - wordShift - 1] >>> (64 - bitShift);
+            }
+            target[w] |= v;
+        }
+    }
+
+    /**
+     * Filas de DP de los sufijos: rows[k][c] es el óptimo de una mochila de capacidad c con
+     * los perros k..n-1.
+     */
+    private static int[][] suffixRows(int[] weight, int[] priority, int cap) {
+        int n = weight.length;
+        int[][] rows = new int[n + 1][];
+        rows[n] = new int[cap + 1];
+        for (int k = n - 1; k >= 0; k--) {
+            rows[k] = new int[cap + 1];
+            KnapsackRowKernel.relax(rows[k + 1], rows[k], weight[k], priority[k], cap);
+        }
+        return rows;
+    }
+
+    /**
+     * Branch & bound de la mochila múltiple sobre los candidatos en el orden de búsqueda
+     * (con suffix: de más pesado a más liviano; sin suffix: por prioridad/peso).
+     */
+    private static final class FleetSearch {
+        final int[] weight;
+        final int[] priority;
+        final int[] residual;
+        final int[] current;
+        final int[] best;
+        final int upperBound;
+        final int[][] suffix; // suffix[k][c]: óptimo de una sola mochila de capacidad c con los perros k..n-1
+        final long[][] reach; // reach[k]: bit s prendido si algún subconjunto de k..n-1 pesa s (con suffix)
+        int bestProfit;
+        long nodes;
+        boolean truncated;
+
+        FleetSearch(int[] weight, int[] priority, int[] capacity, int[] seed, int seedProfit, int upperBound,
+                    int[][] suffix) {
+            this.suffix = suffix;
+            this.reach = suffix == null ? null : new long[weight.length + 1][];
+            if (reach != null) {
+                int maxCapacity = 0;
+                for (int c : capacity) maxCapacity = Math.max(maxCapacity, c);
+                reach[weight.length] = new long[(maxCapacity >>> 6) + 1];
+                reach[weight.length][0] = 1L;
+                for (int i = weight.length - 1; i >= 0; i--) {
+                    reach[i] = reach[i + 1].clone();
+                    shiftOr(reach[i], reach[i + 1], weight[i]);
+                }
+            }
+            this.weight = weight;
+            this.priority = priority;
+            this.residual = capacity.clone();
+            this.current = new int[weight.length];
+            Arrays.fill(current, -1);
+            this.best = seed.clone();
+            this.bestProfit = seedProfit;
+            this.upperBound = upperBound;
+        }
+
+        void dfs(int k, int profit) {
+            if (bestProfit >= upperBound || truncated) return;
+            if (++nodes > FLEET_NODE_LIMIT) {
+                truncated = true;
+                return;
+            }
+            if (profit > bestProfit) {
+                bestProfit = profit;
+                System.arraycopy(current, 0, best, 0, current.length);
+            }
+            if (k == weight.length) return;
+
+            int maxResidual = 0;
+            long totalResidual = 0;
+            for (int r : residual) {
+                maxResidual = Math.max(maxResidual, r);
+                totalResidual += r;
+            }
+            int bound;
+            if (suffix != null) {
+                bound = suffix[k][Math.min(loadCapacity(k), suffix[k].length - 1)];
+            } else {
+                bound = bound(k, totalResidual, maxResidual);
+            }
+            if (profit + bound <= bestProfit) return;
+            if (suffix != null && split(k, profit, bound)) return;
+
+            int w = weight[k];
+            if (w == 0) {
+                // Peso cero: siempre conviene llevarlo
+                current[k] = 0;
+                dfs(k + 1, profit + priority[k]);
+                current[k] = -1;
+                return;
+            }
+            for (int j = 0; j < residual.length; j++) {
+                if (residual[j] < w || symmetric(j)) continue;
+                residual[j] -= w;
+                current[k] = j;
+                dfs(k + 1, profit + priority[k]);
+                current[k] = -1;
+                residual[j] += w;
+            }
+            dfs(k + 1, profit);
+        }
+
+        /**
+         * Reparte la carga subrogada de los perros k..n-1 en las capacidades restantes.
+         * Actualiza la mejor solución si mejora y devuelve true si alcanza la cota del nodo
+         * (no hace falta ramificar).
+         */
+        private boolean split(int k, int profit, int bound) {
+            Integer[] order = new Integer[residual.length];
+            for (int j = 0; j < order.length; j++) order[j] = j;
+            Arrays.sort(order, (a, b) -> Integer.compare(residual[b], residual[a]));
+            int loadCapacity = Math.min(loadCapacity(k), suffix[k].length - 1);
+            int[] split = splitSurrogate(weight, residual, suffix, k, loadCapacity, order);
+            int splitProfit = 0;
+            for (int i = k; i < split.length; i++) {
+                if (split[i] >= 0) splitProfit += priority[i];
+            }
+            if (profit + splitProfit > bestProfit) {
+                bestProfit = profit + splitProfit;
+                System.arraycopy(current, 0, best, 0, k);
+                System.arraycopy(split, k, best, k, split.length - k);
+            }
+            return splitProfit >= bound;
+        }
+
+        /** Capacidad que los perros k..n-1 pueden ocupar de verdad: suma de lo llenable por vehículo */
+        private int loadCapacity(int k) {
+            long fill = 0;
+            for (int r : residual) fill += fillable(k, r);
+            return (int) Math.min(fill, Integer.MAX_VALUE);
+        }
+
+        /** Mayor suma de pesos de perros k..n-1 que entra en r (subset sum por bitset) */
+        private int fillable(int k, int r) {
+            long[] bits = reach[k];
+            int w = Math.min(r, (bits.length << 6) - 1);
+            int word = w >>> 6;
+            long masked = bits[word] & (-1L >>> (63 - (w & 63)));
+            while (masked == 0) {
+                masked = bits[--word];
+            }
+            return (word << 6) + 63 - Long.numberOfLeadingZeros(masked);
+        }
+
+        /** true si un vehículo anterior tiene la misma capacidad restante */
+        private boolean symmetric(int j) {
+            for (int i = 0; i < j; i++) {
+                if (residual[i] == residual[j]) return true;
+            }
+            return false;
+        }
+
+        /** Cota de Dantzig sobre los perros desde k que entran en algún vehículo */
+        private int bound(int k, long totalResidual, int maxResidual) {
+            long remaining = totalResidual;
+            double bound = 0.0;
+            for (int i = k; i < weight.length && remaining > 0; i++) {
+                if (weight[i] > maxResidual) continue;
+                if (weight[i] <= remaining) {
+                    remaining -= weight[i];
+                    bound += priority[i];
+                } else {
+                    bound += priority[i] * (double) remaining / weight[i];
+                    break;
+                }
+            }
+            return (int) Math.floor(bound + 1e-9);
+        }
+    }
+
+    /**
+     * Avanza una fila DP sobre los ítems [from, to) alternando con una fila auxiliar
+     * (ver {@link KnapsackRowKernel}); el resultado queda en row.
+     */
+    private static void advance(int[] row, int[] weight, int[] priority, int from, int to, int cap) {
+        if (from >= to) return;
+        int[] current = row;
+        int[] next = new int[cap + 1];
+        for (int i = from; i < to; i++) {
+            KnapsackRowKernel.relax(current, next, weight[i], priority[i], cap);
+            int[] t = current;
+            current = next;
+            next = t;
+        }
+        if (current != row) {
+            System.arraycopy(current, 0, row, 0, cap + 1);
+        }
     }
 
     /**
@@ -77,11 +1022,166 @@ public class TransportService {
         public final List<Dog> selectedDogs;
         public final int totalPriority;
         public final int totalWeight;
+        public final Mode mode;
+        public final KnapsackPreprocessor.Stats preprocessing; // null si la entrada era vacía
 
         public KnapsackResult(List<Dog> selectedDogs, int totalPriority, int totalWeight) {
+            this(selectedDogs, totalPriority, totalWeight, Mode.DENSE, null);
+        }
+
+        public KnapsackResult(List<Dog> selectedDogs, int totalPriority, int totalWeight, Mode mode,
+                              KnapsackPreprocessor.Stats preprocessing) {
             this.selectedDogs = selectedDogs;
             this.totalPriority = totalPriority;
             this.totalWeight = totalWeight;
+            this.mode = mode;
+            this.preprocessing = preprocessing;
+        }
+    }
+
+    /**
+     * Curva valor / capacidad con las decisiones de la DP para reconstruir cargas
+     */
+    public static class ValueCurve {
+        public final int[] values;     // values[c] = máxima prioridad con capacidad c
+        private final List<Dog> items; // perros que entraron en la DP, en orden
+        private final long[][] taken;  // taken[i]: bit c prendido si el perro i mejoró la capacidad c
+
+        public ValueCurve(int[] values, List<Dog> items, long[][] taken) {
+            this.values = values;
+            this.items = items;
+            this.taken = taken;
+        }
+
+        /**
+         * Carga óptima con la capacidad dada, recorriendo las decisiones del último perro al
+         * primero. null si la curva no guardó decisiones (no entraban en CURVE_MAX_BITS).
+         *
+         * @throws IllegalArgumentException si la capacidad queda fuera de la curva
+         */
+        public KnapsackResult selection(int capacityKg) {
+            if (capacityKg < 0 || capacityKg >= values.length) {
+                throw new IllegalArgumentException("Capacity out of curve: " + capacityKg);
+            }
+            if (taken == null) {
+                return null;
+            }
+            List<Dog> selected = new ArrayList<>();
+            int c = capacityKg;
+            int totalWeight = 0;
+            for (int i = items.size() - 1; i >= 0; i--) {
+                if ((taken[i][c >>> 6] & (1L << c)) != 0) {
+                    Dog dog = items.get(i);
+                    selected.add(dog);
+                    c -= dog.getWeight();
+                    totalWeight += dog.getWeight();
+                }
+            }
+            Collections.reverse(selected);
+            return new KnapsackResult(selected, values[capacityKg], totalWeight);
+        }
+    }
+
+    /**
+     * Resultado aproximado con su garantía
+     */
+    public static class ApproximateResult {
+        public final List<Dog> selectedDogs;
+        public final int totalPriority;
+        public final int totalWeight;
+        public final double epsilon;
+        public final double scale;          // K: divisor de las prioridades
+        public final int upperBound;        // el óptimo no supera este valor
+        public final double guaranteedRatio; // 1 - K · n / pmax: 1 - epsilon, o 1 si K = 1 (exacto)
+        public final boolean epsilonMet;     // false si K se agrandó por memoria: guaranteedRatio < 1 - epsilon
+        public final double achievedRatio;   // totalPriority / upperBound (>= guaranteedRatio)
+
+        public ApproximateResult(List<Dog> selectedDogs, int totalPriority, int totalWeight, double epsilon,
+                                 double scale, double guaranteedRatio, boolean epsilonMet, int upperBound) {
+            this.selectedDogs = selectedDogs;
+            this.totalPriority = totalPriority;
+            this.totalWeight = totalWeight;
+            this.epsilon = epsilon;
+            this.scale = scale;
+            this.upperBound = upperBound;
+            this.guaranteedRatio = guaranteedRatio;
+            this.epsilonMet = epsilonMet;
+            this.achievedRatio = upperBound == 0 ? 1.0 : (double) totalPriority / upperBound;
+        }
+    }
+
+    /**
+     * Resultado de la carga con varias restricciones
+     */
+    public static class MultiConstraintResult {
+        public final List<Dog> selectedDogs;
+        public final int totalPriority;
+        public final int[] used;        // {kg, jaulas, asientos especiales}
+        public final int[] capacities;
+        public final MultiDimensionalKnapsack.Method method;
+        public final boolean optimal;
+        public final int upperBound;
+        public final long tableCells;
+        public final long nodes;
+        public final long elapsedMs;
+
+        public MultiConstraintResult(List<Dog> selectedDogs, int totalPriority, int[] used, int[] capacities,
+                                     MultiDimensionalKnapsack.Solution solution, long elapsedMs) {
+            this.selectedDogs = selectedDogs;
+            this.totalPriority = totalPriority;
+            this.used = used;
+            this.capacities = capacities;
+            this.method = solution.method;
+            this.optimal = solution.optimal;
+            this.upperBound = solution.upperBound;
+            this.tableCells = solution.tableCells;
+            this.nodes = solution.nodes;
+            this.elapsedMs = elapsedMs;
+        }
+    }
+
+    /**
+     * Carga de un vehículo de la flota
+     */
+    public static class VehicleLoad {
+        public final int vehicle;       // posición en la lista de capacidades
+        public final int capacityKg;
+        public final List<Dog> dogs;
+        public final int totalPriority;
+        public final int totalWeight;
+
+        public VehicleLoad(int vehicle, int capacityKg, List<Dog> dogs, int totalPriority, int totalWeight) {
+            this.vehicle = vehicle;
+            this.capacityKg = capacityKg;
+            this.dogs = dogs;
+            this.totalPriority = totalPriority;
+            this.totalWeight = totalWeight;
+        }
+    }
+
+    /**
+     * Resultado de la carga de la flota
+     */
+    public static class FleetResult {
+        public final List<VehicleLoad> vehicles;
+        public final int totalPriority;
+        public final int totalWeight;
+        public final int upperBound;   // cota de la relajación subrogada
+        public final boolean optimal;
+        public final FleetMode mode;
+        public final long nodes;
+        public final long elapsedMs;
+
+        public FleetResult(List<VehicleLoad> vehicles, int upperBound, boolean optimal, FleetMode mode,
+                           long nodes, long elapsedMs) {
+            this.vehicles = vehicles;
+            this.totalPriority = vehicles.stream().mapToInt(v -> v.totalPriority).sum();
+            this.totalWeight = vehicles.stream().mapToInt(v -> v.totalWeight).sum();
+            this.upperBound = upperBound;
+            this.optimal = optimal;
+            this.mode = mode;
+            this.nodes = nodes;
+            this.elapsedMs = elapsedMs;
         }
     }
 }
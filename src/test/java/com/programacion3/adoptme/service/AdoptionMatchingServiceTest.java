@@ -0,0 +1,122 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.domain.Adopter;
+import com.programacion3.adoptme.domain.Dog;
+import com.programacion3.adoptme.dto.AdopterAssignment;
+import com.programacion3.adoptme.dto.AssignedDog;
+import com.programacion3.adoptme.dto.BacktrackingResponse;
+import com.programacion3.adoptme.dto.LnsResponse;
+import com.programacion3.adoptme.repo.AdopterRepository;
+import com.programacion3.adoptme.repo.DogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("AdoptionMatchingService (Catalog -> Solver -> Response) Unit Tests")
+class AdoptionMatchingServiceTest {
+
+    private AdoptionMatchingService adoptionMatchingService;
+
+    @Mock
+    private DogRepository dogRepository;
+
+    @Mock
+    private AdopterRepository adopterRepository;
+
+    @Mock
+    private GraphLoader graphLoader;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        List<Dog> dogs = List.of(
+                Dog.builder().id("D1").name("Luna").size("SMALL").energy("MEDIUM")
+                        .goodWithKids(true).specialNeeds(false).priority(5).build(),
+                Dog.builder().id("D2").name("Rex").size("LARGE").energy("HIGH")
+                        .goodWithKids(false).specialNeeds(false).priority(3).build(),
+                Dog.builder().id("D3").name("Toto").size("MEDIUM").energy("LOW")
+                        .goodWithKids(true).specialNeeds(false).priority(7).build()
+        );
+        when(dogRepository.findAll()).thenReturn(dogs);
+        when(dogRepository.findAvailable()).thenReturn(dogs);
+        when(adopterRepository.findAll()).thenReturn(List.of(
+                Adopter.builder().id("P1").name("Ana").budget(20000).hasKids(true).hasYard(false).maxDogs(2).build(),
+                Adopter.builder().id("P2").name("Bruno").budget(20000).hasKids(false).hasYard(true).maxDogs(1).build()
+        ));
+        when(graphLoader.loadDogShelters()).thenReturn(Map.of());
+
+        BacktrackingService backtrackingService = new BacktrackingService();
+        adoptionMatchingService = new AdoptionMatchingService(
+                new CatalogService(dogRepository, adopterRepository, graphLoader),
+                new IncrementalAssignmentService(backtrackingService),
+                new LnsMatchingService(backtrackingService),
+                new MinCostFlowService(),
+                new StableMatchingService());
+    }
+
+    private void assertFeasible(Map<String, AdopterAssignment> assignments) {
+        Set<String> seen = new HashSet<>();
+        for (AdopterAssignment a : assignments.values()) {
+            for (AssignedDog d : a.assignedDogs()) {
+                assertTrue(seen.add(d.dogId()), "dog assigned twice: " + d.dogId());
+            }
+        }
+        assertFalse(assignments.containsKey("P2") && assignments.get("P2").assignedDogs().size() > 1);
+        if (assignments.containsKey("P1")) {
+            assertTrue(assignments.get("P1").assignedDogs().stream().noneMatch(d -> d.dogId().equals("D2")));
+        }
+    }
+
+    @Test
+    @DisplayName("Matching: Backtracking builds the response and reuses it for the same catalog")
+    void testBacktracking() {
+        // Act
+        BacktrackingResponse first = adoptionMatchingService.backtracking();
+        BacktrackingResponse second = adoptionMatchingService.backtracking();
+
+        // Assert
+        assertEquals("FULL", first.mode());
+        assertEquals("REUSED", second.mode());
+        assertEquals(first.totalScore(), second.totalScore(), 1e-9);
+        assertEquals(3, first.assignments().values().stream().mapToInt(a -> a.assignedDogs().size()).sum());
+        assertEquals("Luna", first.assignments().values().stream()
+                .flatMap(a -> a.assignedDogs().stream())
+                .filter(d -> d.dogId().equals("D1")).findFirst().orElseThrow().dogName());
+        assertFeasible(first.assignments());
+    }
+
+    @Test
+    @DisplayName("Matching: LNS, flow and stable matching return feasible assignments")
+    void testOtherSolvers() {
+        // Act
+        LnsResponse lns = adoptionMatchingService.lns(50, 1, 42);
+
+        // Assert
+        assertTrue(lns.totalScore() >= lns.initialScore());
+        assertFeasible(lns.assignments());
+        assertFeasible(adoptionMatchingService.flow().assignments());
+        assertFeasible(adoptionMatchingService.stable().assignments());
+        assertTrue(adoptionMatchingService.flow().upperBound() >= adoptionMatchingService.backtracking().totalScore() - 1e-9);
+    }
+
+    @Test
+    @DisplayName("Matching: Empty adopter list returns an explanatory response")
+    void testNoAdopters() {
+        // Arrange
+        when(adopterRepository.findAll()).thenReturn(List.of());
+
+        // Act
+        BacktrackingResponse response = adoptionMatchingService.backtracking();
+
+        // Assert
+        assertEquals("No adopters available", response.message());
+        assertTrue(response.assignments().isEmpty());
+    }
+}
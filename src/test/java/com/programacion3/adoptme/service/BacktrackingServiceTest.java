@@ -461,8 +461,99 @@ class BacktrackingServiceTest {
                 "Should not assign any dogs when maxDogs is 0");
     }
 
+    // ==================== Memoization Tests ====================
+
+    @Test
+    @DisplayName("Backtracking: Memoized search matches brute force with few adopters")
+    void testMemoMatchesBruteForce() {
+        for (int seed = 0; seed < 10; seed++) {
+            // Arrange
+            Random random = new Random(seed);
+            List<Dog> dogs = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                dogs.add(new Dog("D" + i, random.nextBoolean(), random.nextInt(3) == 0,
+                        1 + random.nextInt(10), 5000.0 + 2000.0 * random.nextInt(4)));
+            }
+            List<Adopter> adopters = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                adopters.add(new Adopter("A" + i, "Adopter" + i, random.nextBoolean(), random.nextBoolean(),
+                        1 + random.nextInt(3), 8000.0 + 4000.0 * random.nextInt(4), 1 + random.nextInt(10)));
+            }
+
+            // Act
+            Assignment result = backtrackingService.findBestAssignment(dogs, adopters);
+
+            // Assert
+            assertEquals(bruteForce(dogs, adopters, 0, new int[adopters.size()], new double[adopters.size()]),
+                    result.totalScore, 0.001, "Seed " + seed);
+        }
+    }
+
+    @Test
+    @DisplayName("Backtracking: Memoization reuses repeated subproblems")
+    void testMemoReportsCacheHits() {
+        // Arrange: 20 perros idénticos y presupuestos ajustados (la cota del flujo no alcanza)
+        List<Dog> dogs = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            dogs.add(new Dog("D" + i, true, false, 5, 5000.0 + 1000.0 * (i % 3)));
+        }
+        List<Adopter> adopters = Arrays.asList(
+                new Adopter("A1", "Alice", true, true, 4, 16000.0, 5),
+                new Adopter("A2", "Bob", true, false, 3, 13000.0, 4)
+        );
+
+        // Act
+        Assignment result = backtrackingService.findBestAssignment(dogs, adopters);
+
+        // Assert
+        assertTrue(result.cacheHits > 0, "Repeated states should be served from the cache");
+        assertFalse(result.timedOut);
+        assertEquals(48.0, result.totalScore, 0.001); // Alice: 3 x 10, Bob: 2 x 9
+    }
+
+    @Test
+    @DisplayName("Backtracking: Fractional costs fall back to plain search")
+    void testMemoFallbackWithFractionalCosts() {
+        // Arrange
+        List<Dog> dogs = Arrays.asList(
+                new Dog("D1", true, false, 5, 5000.5),
+                new Dog("D2", true, false, 4, 4999.25)
+        );
+        List<Adopter> adopters = Arrays.asList(
+                new Adopter("A1", "Alice", true, true, 2, 9000.0, 5)
+        );
+
+        // Act
+        Assignment result = backtrackingService.findBestAssignment(dogs, adopters);
+
+        // Assert
+        assertEquals(0, result.cacheMisses);
+        assertEquals(10.0, result.totalScore, 0.001);
+    }
+
     // ==================== Helper Methods ====================
 
+    private double bruteForce(List<Dog> dogs, List<Adopter> adopters, int index, int[] taken, double[] spent) {
+        if (index == dogs.size()) {
+            return 0.0;
+        }
+        Dog dog = dogs.get(index);
+        double best = bruteForce(dogs, adopters, index + 1, taken, spent);
+        for (int a = 0; a < adopters.size(); a++) {
+            Adopter adopter = adopters.get(a);
+            if (taken[a] < adopter.maxDogs && spent[a] + dog.cost <= adopter.budget
+                    && BacktrackingService.isCompatible(dog, adopter)) {
+                taken[a]++;
+                spent[a] += dog.cost;
+                best = Math.max(best, BacktrackingService.calculateScore(dog, adopter)
+                        + bruteForce(dogs, adopters, index + 1, taken, spent));
+                taken[a]--;
+                spent[a] -= dog.cost;
+            }
+        }
+        return best;
+    }
+
     private boolean allAssignmentsEmpty(Map<String, List<String>> assignments) {
         for (List<String> dogList : assignments.values()) {
             if (!dogList.isEmpty()) {
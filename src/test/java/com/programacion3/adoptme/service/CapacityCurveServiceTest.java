@@ -0,0 +1,147 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.domain.Dog;
+import com.programacion3.adoptme.repo.AdopterRepository;
+import com.programacion3.adoptme.repo.DogRepository;
+import com.programacion3.adoptme.service.CapacityCurveService.Curve;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@DisplayName("CapacityCurveService (Value vs Capacity) Unit Tests")
+class CapacityCurveServiceTest {
+
+    private TransportService transportService;
+    private CatalogService catalogService;
+    private CapacityCurveService capacityCurveService;
+    private List<Dog> dogs;
+
+    @Mock
+    private DogRepository dogRepository;
+
+    @Mock
+    private AdopterRepository adopterRepository;
+
+    @Mock
+    private GraphLoader graphLoader;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Random random = new Random(48);
+        dogs = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            dogs.add(Dog.builder().id("D" + i).name("Dog " + i).size("MEDIUM").energy("LOW")
+                    .goodWithKids(true).specialNeeds(false)
+                    .weightKg(3 + random.nextInt(40)).priority(1 + random.nextInt(10)).build());
+        }
+        when(dogRepository.findAll()).thenReturn(dogs);
+        when(dogRepository.findAvailable()).thenReturn(dogs);
+        when(adopterRepository.findAll()).thenReturn(List.of());
+        when(graphLoader.loadDogShelters()).thenReturn(Map.of());
+        when(dogRepository.save(any(Dog.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        transportService = new TransportService();
+        catalogService = new CatalogService(dogRepository, adopterRepository, graphLoader);
+        capacityCurveService = new CapacityCurveService(catalogService, transportService);
+    }
+
+    @Test
+    @DisplayName("Curve: Every point equals solving the knapsack at that capacity")
+    void testCurveMatchesPointQueries() {
+        // Act
+        Curve curve = capacityCurveService.curve(10, 200, List.of());
+
+        // Assert
+        assertEquals(191, curve.values.length);
+        for (int c = 10; c <= 200; c++) {
+            assertEquals(transportService.optimizeTransport(dogs, c).totalPriority, curve.values[c - 10], "capacity " + c);
+        }
+        for (int i = 1; i < curve.values.length; i++) {
+            assertTrue(curve.values[i] >= curve.values[i - 1]);
+        }
+        for (int c : curve.breakpoints) {
+            assertTrue(c == 10 || curve.values[c - 10] > curve.values[c - 11]);
+        }
+    }
+
+    @Test
+    @DisplayName("Curve: Row and selections are cached per catalog version")
+    void testCaching() {
+        // Act
+        Curve first = capacityCurveService.curve(10, 500, List.of(100, 250));
+        Curve narrower = capacityCurveService.curve(50, 300, List.of(100));
+        Curve wider = capacityCurveService.curve(10, 800, List.of(250, 700));
+
+        // Assert: la fila se recalcula sólo al ensanchar y cada carga se reconstruye una vez
+        assertEquals(2, capacityCurveService.rowComputations());
+        assertEquals(3, capacityCurveService.selectionComputations());
+        assertSame(first.selections.get(100), narrower.selections.get(100));
+        assertEquals(first.values[240], wider.values[240]);
+        assertEquals(first.values[90], first.selections.get(100).totalPriority);
+        assertTrue(first.selections.get(250).totalWeight <= 250);
+    }
+
+    @Test
+    @DisplayName("Curve: A catalog change invalidates the cache")
+    void testInvalidation() {
+        // Arrange
+        Curve before = capacityCurveService.curve(10, 100, List.of(50));
+
+        // Act: un perro muy prioritario y liviano cambia toda la curva
+        catalogService.saveDog(Dog.builder().id("VIP").name("Vip").size("SMALL").energy("LOW")
+                .goodWithKids(true).specialNeeds(false).weightKg(1).priority(100).build());
+        Curve after = capacityCurveService.curve(10, 100, List.of(50));
+
+        // Assert
+        assertTrue(after.catalogVersion > before.catalogVersion);
+        assertEquals(before.values[39] + 100, after.values[40]); // 50 kg = VIP + óptimo anterior con 49 kg
+        assertEquals(2, capacityCurveService.rowComputations());
+        assertEquals(2, capacityCurveService.selectionComputations());
+    }
+
+    @Test
+    @DisplayName("Curve: Selections are rebuilt from the curve's DP without solving again")
+    void testSelectionsFromDecisions() {
+        // Arrange
+        TransportService spied = spy(transportService);
+        CapacityCurveService service = new CapacityCurveService(catalogService, spied);
+        List<Integer> capacities = List.of(1, 7, 33, 100, 180, 400);
+
+        // Act
+        Curve curve = service.curve(1, 400, capacities);
+
+        // Assert
+        verify(spied, never()).optimizeTransport(anyList(), anyInt());
+        for (int c : capacities) {
+            TransportService.KnapsackResult selection = curve.selections.get(c);
+            assertEquals(transportService.optimizeTransport(dogs, c).totalPriority, selection.totalPriority, "capacity " + c);
+            assertEquals(curve.values[c - 1], selection.totalPriority);
+            assertTrue(selection.totalWeight <= c);
+            assertEquals(selection.totalPriority, selection.selectedDogs.stream().mapToInt(Dog::getPriority).sum());
+            assertEquals(selection.totalWeight, selection.selectedDogs.stream().mapToInt(Dog::getWeight).sum());
+        }
+    }
+
+    @Test
+    @DisplayName("Curve: Invalid ranges and selections are rejected")
+    void testInvalidRange() {
+        assertThrows(IllegalArgumentException.class, () -> capacityCurveService.curve(100, 10, List.of()));
+        assertThrows(IllegalArgumentException.class, () -> capacityCurveService.curve(10, 100, List.of(500)));
+        assertThrows(IllegalArgumentException.class,
+                () -> capacityCurveService.curve(0, CapacityCurveService.MAX_CAPACITY_KG + 1, List.of()));
+        assertThrows(IllegalArgumentException.class, () -> capacityCurveService.curve(0, 100, List.of(0)));
+        assertThrows(IllegalArgumentException.class,
+                () -> capacityCurveService.curve(0, 100, Arrays.asList(50, null)));
+    }
+}
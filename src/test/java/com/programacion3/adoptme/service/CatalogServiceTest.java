@@ -0,0 +1,359 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.domain.Adopter;
+import com.programacion3.adoptme.domain.Dog;
+import com.programacion3.adoptme.exception.DogAlreadyAdoptedException;
+import com.programacion3.adoptme.exception.ResourceNotFoundException;
+import com.programacion3.adoptme.repo.AdopterRepository;
+import com.programacion3.adoptme.repo.DogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("CatalogService (In-Memory Read Model) Unit Tests")
+class CatalogServiceTest {
+
+    private CatalogService catalogService;
+
+    @Mock
+    private DogRepository dogRepository;
+
+    @Mock
+    private AdopterRepository adopterRepository;
+
+    @Mock
+    private GraphLoader graphLoader;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(dogRepository.findAll()).thenReturn(List.of(
+                dog("D1", "Luna", "SMALL"),
+                dog("D2", "Rex", "LARGE")
+        ));
+        when(adopterRepository.findAll()).thenReturn(List.of(
+                Adopter.builder().id("P1").name("Ana").budget(20000).hasKids(false).hasYard(true).maxDogs(1).build()
+        ));
+        when(graphLoader.loadDogShelters()).thenReturn(Map.of("D1", "S1", "D2", "S1"));
+        when(dogRepository.findAvailable()).thenReturn(List.of(dog("D1", "Luna", "SMALL")));
+        when(graphLoader.createAdoption(anyString(), anyString())).thenReturn(true);
+        when(dogRepository.save(any(Dog.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(adopterRepository.save(any(Adopter.class))).thenAnswer(inv -> inv.getArgument(0));
+        catalogService = new CatalogService(dogRepository, adopterRepository, graphLoader);
+    }
+
+    private Dog dog(String id, String name, String size) {
+        return Dog.builder().id(id).name(name).size(size).energy("MEDIUM")
+                .goodWithKids(true).specialNeeds(false).priority(5).build();
+    }
+
+    @Test
+    @DisplayName("Catalog: Loads once and serves repeated reads from memory")
+    void testLoadsOnce() {
+        // Act
+        CatalogService.Snapshot first = catalogService.snapshot();
+        CatalogService.Snapshot second = catalogService.snapshot();
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(2, first.dogs.size());
+        verify(dogRepository, times(1)).findAll();
+        verify(adopterRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Catalog: Id lookups, feature table and index are aligned")
+    void testLookups() {
+        // Act
+        CatalogService.Snapshot catalog = catalogService.snapshot();
+
+        // Assert
+        assertEquals("Rex", catalog.dogName("D2"));
+        assertEquals("Unknown", catalog.dogName("D9"));
+        assertEquals(1, catalog.dogPosition("D2"));
+        assertEquals(-1, catalog.dogPosition("D9"));
+        assertEquals("Ana", catalog.adopter("P1").orElseThrow().getName());
+        assertEquals(DogFeatureTable.estimateCost(catalog.dogs.get(1)), catalog.features.cost(1), 1e-9);
+        assertEquals(1, catalog.index.count(Map.of("status", "available")));
+        assertEquals(2, catalog.index.count(Map.of("shelter", "S1")));
+    }
+
+    @Test
+    @DisplayName("Catalog: Saving a dog publishes a new version without reloading")
+    void testSaveDog() {
+        // Arrange
+        CatalogService.Snapshot before = catalogService.snapshot();
+
+        // Act
+        catalogService.saveDog(dog("D3", "Toto", "MEDIUM"));
+        catalogService.saveDog(dog("D1", "Luna II", "SMALL"));
+        CatalogService.Snapshot after = catalogService.snapshot();
+
+        // Assert
+        assertEquals(before.version + 2, after.version);
+        assertEquals(2, before.dogs.size()); // la foto anterior no cambia
+        assertEquals(3, after.dogs.size());
+        assertEquals("Luna II", after.dogName("D1"));
+        assertEquals(2, after.dogPosition("D3"));
+        assertEquals(2, after.index.count(Map.of("status", "available")));
+        verify(dogRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Catalog: Saving an adopter replaces it and keeps the dogs")
+    void testSaveAdopter() {
+        // Arrange
+        CatalogService.Snapshot before = catalogService.snapshot();
+
+        // Act
+        catalogService.saveAdopter(Adopter.builder().id("P1").name("Ana María").build());
+        catalogService.saveAdopter(Adopter.builder().id("P2").name("Bruno").build());
+        CatalogService.Snapshot after = catalogService.snapshot();
+
+        // Assert
+        assertTrue(after.version > before.version);
+        assertEquals(2, after.adopters.size());
+        assertEquals("Ana María", after.adopter("P1").orElseThrow().getName());
+        assertSame(before.dogs, after.dogs);
+        verify(adopterRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Catalog: Refresh reloads from the repositories")
+    void testRefresh() {
+        // Arrange
+        CatalogService.Snapshot before = catalogService.snapshot();
+        when(dogRepository.findAll()).thenReturn(List.of(dog("D7", "Nala", "SMALL")));
+
+        // Act
+        CatalogService.Snapshot after = catalogService.refresh();
+
+        // Assert
+        assertTrue(after.version > before.version);
+        assertEquals(List.of("D7"), after.dogs.stream().map(Dog::getId).toList());
+        assertTrue(after.dog("D1").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Catalog: Change cursor replays each write once and asks for a rebuild after refresh")
+    void testChangeCursor() {
+        // Arrange
+        CatalogService.ChangeCursor cursor = catalogService.changeCursor();
+
+        // Act + Assert: la primera vez hay que recalcular todo
+        CatalogService.ChangeCursor.Delta first = cursor.advance();
+        assertTrue(first.full);
+        assertEquals(catalogService.snapshot().version, first.catalog.version);
+
+        // Sin cambios: nada que aplicar
+        CatalogService.ChangeCursor.Delta idle = cursor.advance();
+        assertFalse(idle.full);
+        assertTrue(idle.dogIds.isEmpty() && idle.adopterIds.isEmpty());
+
+        // Varias escrituras del mismo perro se juntan en una
+        catalogService.saveDog(dog("D3", "Toby", "SMALL"));
+        catalogService.saveAdopter(Adopter.builder().id("P1").name("Ana María").budget(20000)
+                .hasKids(false).hasYard(true).maxDogs(1).build());
+        catalogService.saveDog(dog("D3", "Toby", "MEDIUM"));
+        catalogService.adopt("P1", "D1");
+        CatalogService.ChangeCursor.Delta delta = cursor.advance();
+        assertFalse(delta.full);
+        assertEquals(List.of("D3", "D1"), List.copyOf(delta.dogIds));
+        assertEquals(List.of("P1"), List.copyOf(delta.adopterIds));
+        assertSame(catalogService.snapshot(), delta.catalog);
+
+        // Una recarga completa descarta el registro
+        catalogService.refresh();
+        assertTrue(cursor.advance().full);
+    }
+
+    @Test
+    @DisplayName("Catalog: Available view excludes adopted dogs")
+    void testAvailableView() {
+        // Act
+        CatalogService.Snapshot catalog = catalogService.snapshot();
+
+        // Assert
+        assertTrue(catalog.isAdopted("D2"));
+        assertEquals(List.of("D1"), catalog.available.stream().map(Dog::getId).toList());
+        assertEquals(1, catalog.availableFeatures.size());
+        assertEquals(1, catalog.availableIndex.size());
+        assertEquals(2, catalog.dogs.size());
+    }
+
+    @Test
+    @DisplayName("Catalog: Adoption removes the dog from the available view in memory")
+    void testAdoptUpdatesView() {
+        // Arrange
+        catalogService.saveDog(dog("D3", "Toto", "MEDIUM"));
+        CatalogService.Snapshot before = catalogService.snapshot();
+
+        // Act
+        CatalogService.Snapshot after = catalogService.adopt("P1", "D1");
+
+        // Assert
+        assertEquals(List.of("D3"), after.available.stream().map(Dog::getId).toList());
+        assertEquals(before.version + 1, after.version);
+        assertSame(before.features, after.features); // la tabla de todos los perros se reutiliza
+        assertEquals(2, after.index.count(Map.of("status", "adopted")));
+        verify(graphLoader).createAdoption("P1", "D1");
+        verify(dogRepository, times(1)).findAvailable();
+    }
+
+    /** Foto armada desde cero con los mismos datos, para comparar con la incremental */
+    private void assertMatchesRebuild(CatalogService.Snapshot catalog) {
+        Set<String> adopted = new HashSet<>();
+        catalog.dogs.stream().filter(d -> catalog.isAdopted(d.getId())).forEach(d -> adopted.add(d.getId()));
+        CatalogService.Snapshot rebuilt = new CatalogService.Snapshot(catalog.version, catalog.dogs,
+                catalog.adopters, catalog.shelterByDog, adopted);
+
+        assertEquals(rebuilt.available, catalog.available);
+        assertEquals(rebuilt.availableFeatures.size(), catalog.availableFeatures.size());
+        for (int i = 0; i < rebuilt.available.size(); i++) {
+            String id = rebuilt.available.get(i).getId();
+            assertEquals(i, catalog.availablePosition(id));
+            assertEquals(id, catalog.availableFeatures.id(i));
+            assertEquals(rebuilt.availableFeatures.cost(i), catalog.availableFeatures.cost(i), 1e-9);
+            assertEquals(rebuilt.availableFeatures.energy(i), catalog.availableFeatures.energy(i));
+        }
+        for (Map<String, String> filter : List.of(Map.of("size", "LARGE"), Map.of("goodWithKids", "true"),
+                Map.of("shelter", "S1"), Map.of("size", "!SMALL", "energy", "HIGH"))) {
+            assertArrayEquals(rebuilt.availableIndex.matching(filter), catalog.availableIndex.matching(filter));
+        }
+        for (Map<String, String> filter : List.of(Map.of("status", "available"), Map.of("status", "adopted"),
+                Map.of("shelter", "S2"), Map.of("size", "LARGE", "goodWithKids", "true"))) {
+            assertArrayEquals(rebuilt.index.matching(filter), catalog.index.matching(filter));
+        }
+        for (int i = 0; i < rebuilt.dogs.size(); i++) {
+            assertEquals(i, catalog.dogPosition(rebuilt.dogs.get(i).getId()));
+            assertEquals(rebuilt.features.id(i), catalog.features.id(i));
+            assertEquals(rebuilt.features.dogSize(i), catalog.features.dogSize(i));
+            assertEquals(rebuilt.features.needsGarden(i), catalog.features.needsGarden(i));
+        }
+        for (int a = 0; a < rebuilt.adopters.size(); a++) {
+            assertEquals(a, catalog.adopterPosition(rebuilt.adopters.get(a).getId()));
+        }
+        assertEquals(rebuilt.compatibility.dogCount(), catalog.compatibility.dogCount());
+        for (int a = 0; a < rebuilt.adopters.size(); a++) {
+            assertArrayEquals(rebuilt.compatibility.dogsFor(a), catalog.compatibility.dogsFor(a));
+        }
+    }
+
+    private void loadRandomCatalog(int n, Random random) {
+        List<Dog> dogs = MatchingFixtures.createRandomCatalogDogs(n, random);
+        Map<String, String> shelters = new HashMap<>();
+        for (Dog d : dogs) {
+            shelters.put(d.getId(), "S" + random.nextInt(3));
+        }
+        List<Adopter> adopters = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            adopters.add(Adopter.builder().id("P" + i).name("Adopter" + i).budget(20000)
+                    .hasKids(i % 2 == 0).hasYard(i % 3 == 0).maxDogs(2).build());
+        }
+        when(dogRepository.findAll()).thenReturn(dogs);
+        when(dogRepository.findAvailable()).thenReturn(dogs.stream().filter(d -> random.nextInt(5) > 0).toList());
+        when(adopterRepository.findAll()).thenReturn(adopters);
+        when(graphLoader.loadDogShelters()).thenReturn(shelters);
+        catalogService.refresh();
+    }
+
+    @Test
+    @DisplayName("Catalog: Adoptions applied in memory equal a full rebuild")
+    void testAdoptionsMatchRebuild() {
+        // Arrange: más de dos palabras de bits, para cruzar los límites de palabra
+        Random random = new Random(37);
+        loadRandomCatalog(200, random);
+        CatalogService.Snapshot first = catalogService.snapshot();
+
+        for (int step = 0; step < 60; step++) {
+            CatalogService.Snapshot before = catalogService.snapshot();
+            String dogId = before.available.get(random.nextInt(before.available.size())).getId();
+
+            // Act
+            CatalogService.Snapshot after = catalogService.adopt("P0", dogId);
+
+            // Assert
+            assertTrue(after.isAdopted(dogId));
+            assertEquals(-1, after.availablePosition(dogId));
+            assertEquals(before.available.size() - 1, after.available.size());
+            assertSame(before.features, after.features);
+            assertMatchesRebuild(after);
+        }
+        assertMatchesRebuild(first); // las fotos anteriores no cambian
+    }
+
+    @Test
+    @DisplayName("Catalog: Dog and adopter writes applied in memory equal a full rebuild")
+    void testWritesMatchRebuild() {
+        // Arrange
+        Random random = new Random(39);
+        loadRandomCatalog(120, random);
+        String[] sizes = {"SMALL", "MEDIUM", "LARGE"};
+
+        for (int step = 0; step < 80; step++) {
+            CatalogService.Snapshot before = catalogService.snapshot();
+
+            // Act: altas (cruzando el límite de palabra), ediciones de disponibles y adoptados, adoptantes
+            int op = random.nextInt(4);
+            if (op == 0) {
+                catalogService.saveDog(Dog.builder().id("N" + step).name("New" + step).size(sizes[random.nextInt(3)])
+                        .energy("HIGH").goodWithKids(random.nextBoolean()).specialNeeds(false).priority(3).build());
+            } else if (op == 1) {
+                Dog old = before.dogs.get(random.nextInt(before.dogs.size()));
+                catalogService.saveDog(Dog.builder().id(old.getId()).name(old.getName() + "'")
+                        .size(sizes[random.nextInt(3)]).energy("LOW").goodWithKids(random.nextBoolean())
+                        .specialNeeds(random.nextBoolean()).priority(4).build());
+            } else if (op == 2) {
+                catalogService.saveAdopter(Adopter.builder().id("P" + random.nextInt(10)).name("A" + step)
+                        .hasKids(random.nextBoolean()).hasYard(random.nextBoolean()).build());
+            } else {
+                catalogService.adopt("P0", before.available.get(random.nextInt(before.available.size())).getId());
+            }
+            CatalogService.Snapshot after = catalogService.snapshot();
+
+            // Assert
+            assertMatchesRebuild(after);
+            if (op == 2) {
+                assertSame(before.features, after.features);
+                assertSame(before.availableIndex, after.availableIndex);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Catalog: Adopting an unknown or adopted dog is rejected")
+    void testAdoptRejected() {
+        assertThrows(ResourceNotFoundException.class, () -> catalogService.adopt("P9", "D1"));
+        assertThrows(ResourceNotFoundException.class, () -> catalogService.adopt("P1", "D9"));
+        assertThrows(DogAlreadyAdoptedException.class, () -> catalogService.adopt("P1", "D2"));
+        verify(graphLoader, never()).createAdoption(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Catalog: Compatibility matrix follows adopter and dog writes")
+    void testCompatibilityUpdates() {
+        // Arrange: Luna (D1) es la única disponible, chica y buena con niños
+        CompatibilityMatrix before = catalogService.snapshot().compatibility;
+
+        // Act
+        catalogService.saveAdopter(Adopter.builder().id("P1").name("Ana").hasKids(true).hasYard(false).build());
+        catalogService.saveDog(dog("D3", "Bruto", "LARGE"));
+        CompatibilityMatrix after = catalogService.snapshot().compatibility;
+
+        // Assert
+        assertEquals(1, before.dogCount());
+        assertEquals(2, after.dogCount());
+        assertTrue(after.compatible(0, 0));
+        assertFalse(after.compatible(0, 1)); // grande y el adoptante no tiene jardín
+        assertTrue(before.compatible(0, 0));
+    }
+}
@@ -0,0 +1,128 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.service.BacktrackingService.Adopter;
+import com.programacion3.adoptme.service.BacktrackingService.Dog;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static com.programacion3.adoptme.service.MatchingFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CompatibilityMatrix (Bitset Rows) Unit Tests")
+class CompatibilityMatrixTest {
+
+    private void assertMatchesRules(CompatibilityMatrix matrix, List<Dog> dogs, List<Adopter> adopters) {
+        assertEquals(dogs.size(), matrix.dogCount());
+        assertEquals(adopters.size(), matrix.adopterCount());
+        for (int a = 0; a < adopters.size(); a++) {
+            int count = 0;
+            for (int d = 0; d < dogs.size(); d++) {
+                boolean expected = BacktrackingService.isCompatible(dogs.get(d), adopters.get(a));
+                assertEquals(expected, matrix.compatible(a, d), "adopter " + a + ", dog " + d);
+                if (expected) count++;
+            }
+            assertEquals(count, matrix.feasibleCount(a));
+        }
+    }
+
+    @Test
+    @DisplayName("Matrix: Rows match the backtracking compatibility rules")
+    void testMatchesRules() {
+        // Arrange
+        Random random = new Random(4);
+        List<Dog> dogs = createRandomDogs(150, random);
+        List<Adopter> adopters = createRandomAdopters(12, random, 1.0);
+
+        // Act
+        CompatibilityMatrix matrix = CompatibilityMatrix.fromBacktracking(dogs, adopters);
+
+        // Assert
+        assertMatchesRules(matrix, dogs, adopters);
+    }
+
+    @Test
+    @DisplayName("Matrix: Incremental updates equal a full rebuild")
+    void testIncrementalUpdates() {
+        // Arrange
+        Random random = new Random(9);
+        List<Dog> dogs = new ArrayList<>(createRandomDogs(60, random));
+        List<Adopter> adopters = new ArrayList<>(createRandomAdopters(5, random, 1.0));
+        CompatibilityMatrix matrix = CompatibilityMatrix.fromBacktracking(dogs, adopters);
+
+        // Act: agregar perros (cruzando el límite de palabra), cambiar perros y adoptantes, quitar perros
+        for (int i = 0; i < 10; i++) {
+            Dog d = new Dog("N" + i, random.nextBoolean(), random.nextBoolean(), 5, 5000.0);
+            dogs.add(d);
+            assertEquals(dogs.size() - 1, matrix.addDog(d.goodWithKids, d.needsGarden));
+        }
+        Dog changed = new Dog("D3", !dogs.get(3).goodWithKids, !dogs.get(3).needsGarden, 5, 5000.0);
+        dogs.set(3, changed);
+        matrix.setDog(3, changed.goodWithKids, changed.needsGarden);
+
+        Adopter moved = new Adopter("A1", "Moved", true, false, 1, 20000.0, 5);
+        adopters.set(1, moved);
+        matrix.setAdopter(1, moved.hasKids, moved.hasGarden);
+        Adopter added = new Adopter("A9", "New", false, true, 1, 20000.0, 5);
+        adopters.add(added);
+        matrix.addAdopter(added.hasKids, added.hasGarden);
+
+        // Quitar perros antes y después del límite de palabra
+        for (int d : new int[]{65, 2, 63, 0}) {
+            dogs.remove(d);
+            matrix.removeDog(d);
+        }
+
+        // Assert
+        assertMatchesRules(matrix, dogs, adopters);
+    }
+
+    @Test
+    @DisplayName("Matrix: Detects adopters without feasible dogs and unused dogs")
+    void testEmptyRowsAndUnion() {
+        // Arrange
+        List<Dog> dogs = List.of(
+                new Dog("Big", false, true, 5, 5000.0),    // necesita jardín, no apto niños
+                new Dog("Small", true, false, 5, 5000.0),
+                new Dog("Wild", false, true, 5, 5000.0)
+        );
+        List<Adopter> adopters = List.of(
+                new Adopter("Flat", "Flat", false, false, 1, 20000.0, 5),
+                new Adopter("KidsFlat", "KidsFlat", true, false, 1, 20000.0, 5),
+                new Adopter("KidsGarden", "KidsGarden", true, true, 1, 20000.0, 5)
+        );
+        CompatibilityMatrix matrix = CompatibilityMatrix.fromBacktracking(dogs, adopters);
+
+        // Act & Assert: sólo "Small" sirve y todos lo aceptan
+        assertArrayEquals(new int[]{1}, matrix.dogsCompatibleWithAny());
+        assertArrayEquals(new int[]{0, 1, 2}, matrix.adoptersFor(1));
+        assertArrayEquals(new int[0], matrix.adoptersFor(0));
+        assertArrayEquals(new int[0], matrix.adoptersWithoutFeasibleDog());
+
+        matrix.setDog(1, false, true);
+        assertArrayEquals(new int[]{0, 1, 2}, matrix.adoptersWithoutFeasibleDog());
+    }
+
+    @Test
+    @DisplayName("Matrix: Masked popcount and copies are independent")
+    void testMaskAndCopy() {
+        // Arrange
+        Random random = new Random(2);
+        List<Dog> dogs = createRandomDogs(130, random);
+        List<Adopter> adopters = List.of(new Adopter("Any", "Any", false, true, 1, 20000.0, 5));
+        CompatibilityMatrix matrix = CompatibilityMatrix.fromBacktracking(dogs, adopters);
+        long[] evens = new long[3];
+        for (int d = 0; d < 130; d += 2) evens[d >>> 6] |= 1L << d;
+
+        // Act
+        CompatibilityMatrix copy = matrix.copy();
+        copy.setAdopter(0, true, false);
+
+        // Assert
+        assertEquals(65, matrix.feasibleCount(0, evens));
+        assertEquals(130, matrix.feasibleCount(0));
+        assertTrue(copy.feasibleCount(0) < 130);
+        assertArrayEquals(java.util.stream.IntStream.range(0, 130).toArray(), matrix.dogsFor(0));
+    }
+}
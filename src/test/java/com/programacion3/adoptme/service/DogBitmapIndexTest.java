@@ -0,0 +1,111 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.domain.Dog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DogBitmapIndex (Attribute Filters) Unit Tests")
+class DogBitmapIndexTest {
+
+    private List<Dog> dogs;
+    private DogBitmapIndex index;
+
+    @BeforeEach
+    void setUp() {
+        dogs = List.of(
+                dog("D1", "SMALL", "LOW", true, false),
+                dog("D2", "LARGE", "HIGH", false, false),
+                dog("D3", "MEDIUM", "MEDIUM", true, true),
+                dog("D4", "LARGE", "LOW", true, false),
+                dog("D5", "SMALL", "HIGH", false, true)
+        );
+        index = DogBitmapIndex.build(dogs, Map.of("D1", "A", "D2", "A", "D3", "B"), Set.of("D4"));
+    }
+
+    private Dog dog(String id, String size, String energy, boolean kids, boolean specialNeeds) {
+        return Dog.builder().id(id).name(id).size(size).energy(energy)
+                .goodWithKids(kids).specialNeeds(specialNeeds).build();
+    }
+
+    private List<String> ids(List<Dog> selected) {
+        return selected.stream().map(Dog::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Index: Comma-separated values are OR-ed")
+    void testOrWithinAttribute() {
+        assertEquals(List.of("D1", "D3", "D5"), ids(index.select(dogs, Map.of("size", "small,medium"))));
+    }
+
+    @Test
+    @DisplayName("Index: Different attributes are AND-ed")
+    void testAndAcrossAttributes() {
+        assertEquals(List.of("D1", "D4"), ids(index.select(dogs, Map.of("energy", "LOW", "goodWithKids", "true"))));
+    }
+
+    @Test
+    @DisplayName("Index: Leading ! negates the term")
+    void testNot() {
+        assertEquals(List.of("D1", "D3", "D5"), ids(index.select(dogs, Map.of("size", "!LARGE"))));
+        assertEquals(List.of("D2", "D5"), ids(index.select(dogs, Map.of("energy", "!LOW,MEDIUM"))));
+    }
+
+    @Test
+    @DisplayName("Index: Shelter and adoption status are filterable")
+    void testShelterAndStatus() {
+        assertEquals(List.of("D1", "D2"), ids(index.select(dogs, Map.of("shelter", "A"))));
+        assertEquals(List.of("D4"), ids(index.select(dogs, Map.of("status", "adopted"))));
+        assertEquals(4, index.count(Map.of("status", "available")));
+    }
+
+    @Test
+    @DisplayName("Index: Unknown attribute is rejected")
+    void testUnknownAttribute() {
+        assertThrows(IllegalArgumentException.class, () -> index.evaluate(Map.of("color", "brown")));
+    }
+
+    @Test
+    @DisplayName("Index: Compatibility filters match backtracking rules")
+    void testCompatibilityFilters() {
+        // Con niños y sin jardín: buenos con niños y no grandes
+        assertEquals(List.of("D1", "D3"),
+                ids(index.select(dogs, DogBitmapIndex.compatibilityFilter(true, false))));
+
+        // Unión de los perfiles de dos adoptantes
+        int[] any = index.matchingAny(List.of(
+                DogBitmapIndex.compatibilityFilter(true, false),
+                DogBitmapIndex.compatibilityFilter(false, false)));
+        assertArrayEquals(new int[]{0, 2, 4}, any);
+    }
+
+    @Test
+    @DisplayName("Index: Matches a linear scan across many words")
+    void testMatchesLinearScan() {
+        // Arrange
+        Random random = new Random(8);
+        String[] sizes = {"SMALL", "MEDIUM", "LARGE"};
+        String[] energies = {"LOW", "MEDIUM", "HIGH"};
+        List<Dog> many = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            many.add(dog("D" + i, sizes[random.nextInt(3)], energies[random.nextInt(3)],
+                    random.nextBoolean(), random.nextBoolean()));
+        }
+        DogBitmapIndex big = DogBitmapIndex.build(many, Map.of(), Set.of());
+        Predicate<Dog> expected = d -> !d.getSize().equals("LARGE")
+                && (d.getEnergy().equals("LOW") || d.getEnergy().equals("HIGH"))
+                && d.getGoodWithKids();
+
+        // Act
+        List<Dog> selected = big.select(many, Map.of("size", "!LARGE", "energy", "LOW,HIGH", "goodWithKids", "true"));
+
+        // Assert
+        assertEquals(many.stream().filter(expected).toList(), selected);
+        assertEquals(1000, big.count(Map.of()));
+    }
+}
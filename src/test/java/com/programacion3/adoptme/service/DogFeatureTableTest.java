@@ -0,0 +1,125 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.domain.Dog;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static com.programacion3.adoptme.service.MatchingFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DogFeatureTable (Columnar Scoring) Unit Tests")
+class DogFeatureTableTest {
+
+    @Test
+    @DisplayName("Table: Columns decode the catalog attributes")
+    void testColumnsMatchCatalog() {
+        // Arrange
+        Dog dog = Dog.builder().id("D1").name("Rex").size("LARGE").energy("HIGH")
+                .goodWithKids(true).specialNeeds(true).priority(7).build();
+
+        // Act
+        DogFeatureTable table = DogFeatureTable.from(List.of(dog));
+
+        // Assert
+        assertEquals(1, table.size());
+        assertEquals("Rex", table.name(0));
+        assertEquals(8, table.energy(0));
+        assertEquals(3, table.dogSize(0));
+        assertEquals(7, table.priority(0));
+        assertTrue(table.goodWithKids(0));
+        assertTrue(table.needsGarden(0));
+        assertTrue(table.specialNeeds(0));
+        assertEquals(5000.0 + 3 * 2000.0 + 5000.0, table.cost(0), 0.001);
+    }
+
+    @Test
+    @DisplayName("Table: Match kernel agrees with backtracking score and constraints")
+    void testMatchKernelMatchesBacktracking() {
+        // Arrange
+        Random random = new Random(9);
+        DogFeatureTable table = DogFeatureTable.from(createRandomCatalogDogs(500, random));
+        List<BacktrackingService.Dog> dogs = IntStream.range(0, table.size())
+                .mapToObj(table::toBacktrackingDog).toList();
+        double[] row = new double[table.size()];
+
+        for (int a = 0; a < 20; a++) {
+            BacktrackingService.Adopter adopter = new BacktrackingService.Adopter("A" + a, "Adopter" + a,
+                    random.nextBoolean(), random.nextBoolean(), 2, 7000.0 + 2000.0 * random.nextInt(5),
+                    1 + random.nextInt(10));
+
+            // Act
+            table.matchScores(adopter, row);
+
+            // Assert
+            for (int d = 0; d < dogs.size(); d++) {
+                BacktrackingService.Dog dog = dogs.get(d);
+                boolean feasible = dog.cost <= adopter.budget && BacktrackingService.isCompatible(dog, adopter);
+                if (feasible) {
+                    assertEquals(BacktrackingService.calculateScore(dog, adopter), row[d], 1e-9);
+                } else {
+                    assertEquals(-1.0, row[d], 1e-9);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Table: Greedy kernel gives the same assignment as the object path")
+    void testGreedyKernelMatchesObjectPath() {
+        // Arrange
+        ScorerService scorer = new ScorerService();
+        Random random = new Random(4);
+        DogFeatureTable table = DogFeatureTable.from(createRandomCatalogDogs(2000, random));
+        List<ScorerService.Dog> dogs = IntStream.range(0, table.size()).mapToObj(table::toScorerDog).toList();
+
+        for (int a = 0; a < 20; a++) {
+            boolean kids = random.nextBoolean();
+            boolean garden = random.nextBoolean();
+            int maxDogs = 1 + random.nextInt(4);
+            double budget = 8000.0 + 4000.0 * random.nextInt(5);
+
+            // Act
+            var fromObjects = scorer.scoreAndAssign(dogs, kids, garden, maxDogs, budget);
+            var fromTable = scorer.scoreAndAssign(table, kids, garden, maxDogs, budget);
+
+            // Assert
+            assertEquals(fromObjects.assigned.stream().map(d -> d.id).toList(),
+                    fromTable.assigned.stream().map(d -> d.id).toList());
+            assertEquals(fromObjects.totalScore, fromTable.totalScore, 1e-9);
+            assertEquals(fromObjects.totalCost, fromTable.totalCost, 1e-9);
+        }
+    }
+
+    @Test
+    @DisplayName("Table: Scoring on index positions matches a table of the compatible dogs")
+    void testPositionsMatchSubTable() {
+        // Arrange
+        ScorerService scorer = new ScorerService();
+        Random random = new Random(35);
+        List<Dog> catalog = createRandomCatalogDogs(1500, random);
+        DogFeatureTable table = DogFeatureTable.from(catalog);
+        DogBitmapIndex index = DogBitmapIndex.build(catalog, Map.of(), Set.of());
+
+        for (int a = 0; a < 20; a++) {
+            boolean kids = random.nextBoolean();
+            boolean garden = random.nextBoolean();
+            int maxDogs = 1 + random.nextInt(4);
+            double budget = 8000.0 + 4000.0 * random.nextInt(5);
+            var filter = DogBitmapIndex.compatibilityFilter(kids, garden);
+
+            // Act
+            var fromSubTable = scorer.scoreAndAssign(DogFeatureTable.from(index.select(catalog, filter)),
+                    kids, garden, maxDogs, budget);
+            var fromPositions = scorer.scoreAndAssign(table, index.matching(filter), kids, garden, maxDogs, budget);
+
+            // Assert
+            assertEquals(fromSubTable.assigned.stream().map(d -> d.id).toList(),
+                    fromPositions.assigned.stream().map(d -> d.id).toList());
+            assertEquals(fromSubTable.totalScore, fromPositions.totalScore, 1e-9);
+            assertEquals(fromSubTable.totalCost, fromPositions.totalCost, 1e-9);
+        }
+    }
+}
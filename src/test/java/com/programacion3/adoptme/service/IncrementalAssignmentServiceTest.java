@@ -0,0 +1,177 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.service.BacktrackingService.Adopter;
+import com.programacion3.adoptme.service.BacktrackingService.Assignment;
+import com.programacion3.adoptme.service.BacktrackingService.Dog;
+import com.programacion3.adoptme.service.IncrementalAssignmentService.Mode;
+import com.programacion3.adoptme.service.IncrementalAssignmentService.Result;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IncrementalAssignmentService (Re-optimization) Unit Tests")
+class IncrementalAssignmentServiceTest {
+
+    private BacktrackingService backtrackingService;
+    private IncrementalAssignmentService incrementalService;
+
+    @BeforeEach
+    void setUp() {
+        backtrackingService = new BacktrackingService();
+        incrementalService = new IncrementalAssignmentService(backtrackingService);
+    }
+
+    private List<Dog> createDogs() {
+        List<Dog> dogs = new ArrayList<>();
+        dogs.add(new Dog("D1", true, false, 5, 5000.0));
+        dogs.add(new Dog("D2", false, true, 7, 8000.0));
+        dogs.add(new Dog("D3", true, true, 3, 10000.0));
+        dogs.add(new Dog("D4", true, false, 2, 6000.0));
+        return dogs;
+    }
+
+    private List<Adopter> createAdopters() {
+        List<Adopter> adopters = new ArrayList<>();
+        adopters.add(new Adopter("A1", "Alice", true, true, 2, 20000.0, 5));
+        adopters.add(new Adopter("A2", "Bob", false, false, 1, 6000.0, 7));
+        adopters.add(new Adopter("A3", "Carol", false, true, 2, 15000.0, 3));
+        return adopters;
+    }
+
+    @Test
+    @DisplayName("Incremental: First call solves from scratch")
+    void testFirstCallIsFull() {
+        Result result = incrementalService.solve(createDogs(), createAdopters());
+
+        assertEquals(Mode.FULL, result.mode);
+        assertEquals(1, result.catalogVersion);
+    }
+
+    @Test
+    @DisplayName("Incremental: Unchanged catalog reuses last solution")
+    void testUnchangedCatalogIsReused() {
+        Result first = incrementalService.solve(createDogs(), createAdopters());
+        Result second = incrementalService.solve(createDogs(), createAdopters());
+
+        assertEquals(Mode.REUSED, second.mode);
+        assertEquals(first.catalogVersion, second.catalogVersion);
+        assertEquals(first.assignment.totalScore, second.assignment.totalScore, 0.001);
+    }
+
+    @Test
+    @DisplayName("Incremental: A timed-out or cancelled solution is never reused")
+    void testTimedOutSolutionIsNotReused() {
+        // Arrange: la primera búsqueda se corta (como un trabajo cancelado)
+        int[] calls = {0};
+        BacktrackingService interrupted = new BacktrackingService() {
+            @Override
+            public Assignment findBestAssignment(List<Dog> dogs, List<Adopter> adopters) {
+                calls[0]++;
+                return calls[0] == 1
+                        ? new Assignment(new HashMap<>(), 0.0, 1, true)
+                        : super.findBestAssignment(dogs, adopters);
+            }
+        };
+        IncrementalAssignmentService service = new IncrementalAssignmentService(interrupted);
+
+        // Act
+        Result first = service.solve(createDogs(), createAdopters());
+        Result second = service.solve(createDogs(), createAdopters());
+
+        // Assert
+        assertTrue(first.assignment.timedOut);
+        assertEquals(Mode.FULL, second.mode);
+        assertFalse(second.assignment.timedOut);
+        assertEquals(2, calls[0]);
+        assertEquals(backtrackingService.findBestAssignment(createDogs(), createAdopters()).totalScore,
+                second.assignment.totalScore, 0.001);
+    }
+
+    @Test
+    @DisplayName("Incremental: Added dog matches full solve score")
+    void testAddedDogMatchesFullSolve() {
+        incrementalService.solve(createDogs(), createAdopters());
+
+        List<Dog> dogs = createDogs();
+        dogs.add(new Dog("D5", true, true, 5, 4000.0));
+        Result result = incrementalService.solve(dogs, createAdopters());
+
+        assertNotEquals(Mode.REUSED, result.mode);
+        assertEquals(2, result.catalogVersion);
+        assertEquals(backtrackingService.findBestAssignment(dogs, createAdopters()).totalScore,
+                result.assignment.totalScore, 0.001);
+    }
+
+    @Test
+    @DisplayName("Incremental: Removed dog is never assigned again")
+    void testRemovedDogMatchesFullSolve() {
+        incrementalService.solve(createDogs(), createAdopters());
+
+        List<Dog> dogs = createDogs();
+        dogs.remove(0);
+        Result result = incrementalService.solve(dogs, createAdopters());
+
+        for (List<String> dogIds : result.assignment.assignments.values()) {
+            assertFalse(dogIds.contains("D1"), "Removed dog should not be assigned");
+        }
+        assertEquals(backtrackingService.findBestAssignment(dogs, createAdopters()).totalScore,
+                result.assignment.totalScore, 0.001);
+    }
+
+    @Test
+    @DisplayName("Incremental: Budget cut is repaired within the new budget")
+    void testBudgetChangeRespected() {
+        incrementalService.solve(createDogs(), createAdopters());
+
+        List<Adopter> adopters = createAdopters();
+        adopters.set(0, new Adopter("A1", "Alice", true, true, 2, 5000.0, 5));
+        Result result = incrementalService.solve(createDogs(), adopters);
+
+        double cost = 0.0;
+        for (String dogId : result.assignment.assignments.getOrDefault("A1", List.of())) {
+            cost += createDogs().stream().filter(d -> d.id.equals(dogId)).findFirst().orElseThrow().cost;
+        }
+        assertTrue(cost <= 5000.0, "Repaired assignment should respect the new budget");
+        assertEquals(backtrackingService.findBestAssignment(createDogs(), adopters).totalScore,
+                result.assignment.totalScore, 0.001);
+    }
+
+    @Test
+    @DisplayName("Incremental: Budget increase falls back to a full search")
+    void testBudgetIncreaseMatchesFullSolve() {
+        incrementalService.solve(createDogs(), createAdopters());
+
+        List<Adopter> adopters = createAdopters();
+        adopters.set(1, new Adopter("A2", "Bob", false, false, 3, 40000.0, 7));
+        Result result = incrementalService.solve(createDogs(), adopters);
+
+        assertEquals(backtrackingService.findBestAssignment(createDogs(), adopters).totalScore,
+                result.assignment.totalScore, 0.001);
+    }
+
+    @Test
+    @DisplayName("Incremental: New adopter triggers full solve")
+    void testNewAdopterIsFull() {
+        incrementalService.solve(createDogs(), createAdopters());
+
+        List<Adopter> adopters = createAdopters();
+        adopters.add(new Adopter("A4", "Dan", false, true, 1, 9000.0, 5));
+        Result result = incrementalService.solve(createDogs(), adopters);
+
+        assertEquals(Mode.FULL, result.mode);
+    }
+
+    @Test
+    @DisplayName("Backtracking: Seeded incumbent keeps optimal score")
+    void testSeededSearchKeepsScore() {
+        var full = backtrackingService.findBestAssignment(createDogs(), createAdopters());
+        var seeded = backtrackingService.findBestAssignment(createDogs(), createAdopters(), full);
+
+        assertEquals(full.totalScore, seeded.totalScore, 0.001);
+        assertTrue(seeded.nodesExplored <= full.nodesExplored);
+    }
+}
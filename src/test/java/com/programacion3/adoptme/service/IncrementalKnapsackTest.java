@@ -0,0 +1,158 @@
+package com.programacion3.adoptme.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IncrementalKnapsack (Add/Remove Maintenance) Unit Tests")
+class IncrementalKnapsackTest {
+
+    /** Óptimo con una DP desde cero sobre los ítems presentes */
+    private int fullSolve(Map<String, int[]> items, int capacity) {
+        int[] row = new int[capacity + 1];
+        for (int[] item : items.values()) {
+            for (int c = capacity; c >= item[0]; c--) {
+                row[c] = Math.max(row[c], row[c - item[0]] + item[1]);
+            }
+        }
+        return row[capacity];
+    }
+
+    @Test
+    @DisplayName("Incremental: Random arrivals and departures match a full solve")
+    void testRandomOperationsMatchFullSolve() {
+        // Arrange
+        Random random = new Random(49);
+        int capacity = 120;
+        IncrementalKnapsack knapsack = new IncrementalKnapsack(capacity);
+        Map<String, int[]> present = new LinkedHashMap<>();
+
+        for (int step = 0; step < 400; step++) {
+            // Act: altas, bajas y ediciones mezcladas
+            int op = random.nextInt(10);
+            if (op < 5 || present.isEmpty()) {
+                String id = "D" + step;
+                int[] item = {random.nextInt(60), random.nextInt(20)};
+                knapsack.add(id, item[0], item[1]);
+                present.put(id, item);
+            } else if (op < 8) {
+                String id = new ArrayList<>(present.keySet()).get(random.nextInt(present.size()));
+                assertTrue(knapsack.remove(id));
+                present.remove(id);
+            } else {
+                String id = new ArrayList<>(present.keySet()).get(random.nextInt(present.size()));
+                int[] item = {random.nextInt(60), random.nextInt(20)};
+                knapsack.add(id, item[0], item[1]);
+                present.put(id, item);
+            }
+            if (random.nextInt(3) > 0) continue; // a veces varias operaciones antes de consultar
+
+            // Assert
+            assertEquals(fullSolve(present, capacity), knapsack.value(), "step " + step);
+            int weight = 0;
+            int priority = 0;
+            for (String id : knapsack.selection()) {
+                weight += present.get(id)[0];
+                priority += present.get(id)[1];
+            }
+            assertTrue(weight <= capacity);
+            assertEquals(knapsack.value(), priority);
+            assertEquals(present.size(), knapsack.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Incremental: An arrival costs one row and recent departures are cheap")
+    void testUpdateCost() {
+        // Arrange
+        IncrementalKnapsack knapsack = new IncrementalKnapsack(1000);
+        for (int i = 0; i < 200; i++) {
+            knapsack.add("D" + i, 5 + i % 40, 1 + i % 9);
+        }
+        knapsack.value();
+        long base = knapsack.rowsComputed();
+
+        // Act + Assert: un alta apila una sola fila
+        knapsack.add("NEW", 12, 30);
+        assertEquals(base + 1, knapsack.rowsComputed());
+
+        // Quitar uno de los últimos recalcula desde la fila guardada anterior (ítem 192)
+        knapsack.remove("D195");
+        knapsack.value();
+        assertEquals(base + 1 + 8, knapsack.rowsComputed()); // D192..D199 y NEW, menos D195
+
+        // Varias bajas seguidas se pagan una sola vez, desde la más antigua
+        long before = knapsack.rowsComputed();
+        knapsack.remove("D150");
+        knapsack.remove("D180");
+        knapsack.remove("D170");
+        knapsack.value();
+        assertEquals(before + 69, knapsack.rowsComputed()); // 72 ítems desde el 128, menos las 3 bajas
+
+        // Editar sin cambiar peso ni prioridad no toca nada
+        before = knapsack.rowsComputed();
+        knapsack.add("D10", 15, 2);
+        knapsack.value();
+        assertEquals(before, knapsack.rowsComputed());
+    }
+
+    @Test
+    @DisplayName("Incremental: Removals across checkpoints keep the selection consistent")
+    void testRemovalsAcrossCheckpoints() {
+        // Arrange
+        Random random = new Random(7);
+        int capacity = 300;
+        IncrementalKnapsack knapsack = new IncrementalKnapsack(capacity);
+        Map<String, int[]> present = new LinkedHashMap<>();
+        for (int i = 0; i < 5 * IncrementalKnapsack.CHECKPOINT_EVERY + 3; i++) {
+            int[] item = {1 + random.nextInt(40), random.nextInt(15)};
+            knapsack.add("D" + i, item[0], item[1]);
+            present.put("D" + i, item);
+        }
+
+        for (int removal : new int[]{0, 31, 32, 33, 95, 64, 150}) {
+            // Act
+            knapsack.remove("D" + removal);
+            present.remove("D" + removal);
+
+            // Assert
+            assertEquals(fullSolve(present, capacity), knapsack.value(), "after D" + removal);
+            int priority = 0;
+            int weight = 0;
+            for (String id : knapsack.selection()) {
+                priority += present.get(id)[1];
+                weight += present.get(id)[0];
+            }
+            assertEquals(knapsack.value(), priority);
+            assertTrue(weight <= capacity);
+        }
+    }
+
+    @Test
+    @DisplayName("Incremental: Dogs that never fit or add nothing share the previous row")
+    void testUselessItemsAreFree() {
+        // Arrange
+        IncrementalKnapsack knapsack = new IncrementalKnapsack(10);
+
+        // Act
+        knapsack.add("HEAVY", 11, 50);
+        knapsack.add("ZERO", 3, 0);
+        knapsack.add("OK", 10, 4);
+
+        // Assert
+        assertEquals(1, knapsack.rowsComputed());
+        assertEquals(4, knapsack.value());
+        assertEquals(List.of("OK"), knapsack.selection());
+        assertFalse(knapsack.remove("MISSING"));
+    }
+
+    @Test
+    @DisplayName("Incremental: Invalid capacity or weight is rejected")
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new IncrementalKnapsack(-1));
+        assertThrows(IllegalArgumentException.class, () -> new IncrementalKnapsack(10).add("X", -1, 5));
+    }
+}
@@ -0,0 +1,126 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.domain.Adopter;
+import com.programacion3.adoptme.domain.Dog;
+import com.programacion3.adoptme.repo.AdopterRepository;
+import com.programacion3.adoptme.repo.DogRepository;
+import com.programacion3.adoptme.service.IncrementalTransportService.Plan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("IncrementalTransportService (Knapsack Kept Across Queries) Unit Tests")
+class IncrementalTransportServiceTest {
+
+    private TransportService transportService;
+    private CatalogService catalogService;
+    private IncrementalTransportService incrementalTransportService;
+    private List<Dog> dogs;
+
+    @Mock
+    private DogRepository dogRepository;
+
+    @Mock
+    private AdopterRepository adopterRepository;
+
+    @Mock
+    private GraphLoader graphLoader;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Random random = new Random(49);
+        dogs = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            dogs.add(Dog.builder().id("D" + i).name("Dog " + i).size("MEDIUM").energy("LOW")
+                    .goodWithKids(true).specialNeeds(false)
+                    .weightKg(3 + random.nextInt(40)).priority(1 + random.nextInt(10)).build());
+        }
+        Adopter adopter = Adopter.builder().id("A1").name("Ana").budget(20000).hasKids(false).hasYard(true).maxDogs(1).build();
+        when(dogRepository.findAll()).thenReturn(dogs);
+        when(dogRepository.findAvailable()).thenReturn(dogs);
+        when(adopterRepository.findAll()).thenReturn(List.of(adopter));
+        when(graphLoader.loadDogShelters()).thenReturn(Map.of());
+        when(graphLoader.createAdoption(anyString(), anyString())).thenReturn(true);
+        when(dogRepository.save(any(Dog.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        transportService = new TransportService();
+        catalogService = new CatalogService(dogRepository, adopterRepository, graphLoader);
+        incrementalTransportService = new IncrementalTransportService(catalogService);
+    }
+
+    private void assertMatchesFullSolve(Plan plan) {
+        List<Dog> available = catalogService.snapshot().available;
+        assertEquals(transportService.optimizeTransport(available, plan.capacityKg).totalPriority, plan.totalPriority);
+        assertTrue(plan.totalWeight <= plan.capacityKg);
+        assertEquals(plan.totalPriority, plan.selectedDogs.stream().mapToInt(Dog::getPriority).sum());
+        assertEquals(plan.totalWeight, plan.selectedDogs.stream().mapToInt(Dog::getWeight).sum());
+    }
+
+    @Test
+    @DisplayName("Incremental: Arrivals and adoptions only touch the changed rows")
+    void testCatalogChangesAreApplied() {
+        // Arrange
+        Plan first = incrementalTransportService.optimize(150);
+        assertTrue(first.rebuilt);
+        assertMatchesFullSolve(first);
+
+        // Act: llega un perro nuevo
+        catalogService.saveDog(Dog.builder().id("NEW").name("New").size("SMALL").energy("LOW")
+                .goodWithKids(true).specialNeeds(false).weightKg(4).priority(25).build());
+        Plan afterArrival = incrementalTransportService.optimize(150);
+
+        // Assert: una sola fila de DP
+        assertFalse(afterArrival.rebuilt);
+        assertEquals(1, afterArrival.rowsComputed);
+        assertTrue(afterArrival.selectedDogs.stream().anyMatch(d -> d.getId().equals("NEW")));
+        assertMatchesFullSolve(afterArrival);
+
+        // Act: se adopta uno de los últimos en llegar
+        catalogService.adopt("A1", "D55");
+        Plan afterAdoption = incrementalTransportService.optimize(150);
+
+        // Assert: se recalcula desde la fila guardada anterior a D55 (ítem 32), no todo
+        assertEquals(60 - 32, afterAdoption.rowsComputed);
+        assertTrue(afterAdoption.selectedDogs.stream().noneMatch(d -> d.getId().equals("D55")));
+        assertMatchesFullSolve(afterAdoption);
+    }
+
+    @Test
+    @DisplayName("Incremental: Each capacity keeps its own knapsack")
+    void testCapacitiesAreIndependent() {
+        // Act
+        Plan small = incrementalTransportService.optimize(40);
+        Plan large = incrementalTransportService.optimize(300);
+        Plan smallAgain = incrementalTransportService.optimize(40);
+
+        // Assert
+        assertTrue(small.rebuilt);
+        assertTrue(large.rebuilt);
+        assertFalse(smallAgain.rebuilt);
+        assertEquals(0, smallAgain.rowsComputed);
+        assertEquals(small.totalPriority, smallAgain.totalPriority);
+        assertMatchesFullSolve(small);
+        assertMatchesFullSolve(large);
+    }
+
+    @Test
+    @DisplayName("Incremental: Non-positive or oversized capacity is rejected")
+    void testInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> incrementalTransportService.optimize(0));
+        assertThrows(IllegalArgumentException.class,
+                () -> incrementalTransportService.optimize(IncrementalTransportService.MAX_CAPACITY_KG + 1));
+        assertThrows(IllegalArgumentException.class, () -> incrementalTransportService.optimize(Integer.MAX_VALUE));
+        assertTrue(incrementalTransportService.optimize(IncrementalTransportService.MAX_CAPACITY_KG).totalWeight
+                <= IncrementalTransportService.MAX_CAPACITY_KG);
+    }
+}
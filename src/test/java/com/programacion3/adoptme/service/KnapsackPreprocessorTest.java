@@ -0,0 +1,132 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.domain.Dog;
+import com.programacion3.adoptme.service.KnapsackPreprocessor.Reduced;
+import com.programacion3.adoptme.service.TransportService.KnapsackResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("KnapsackPreprocessor (Item Reduction) Unit Tests")
+class KnapsackPreprocessorTest {
+
+    /** Valor óptimo sin reducir (una fila de DP) */
+    private int plainOptimum(int[] weight, int[] priority, int capacity) {
+        int[] row = new int[capacity + 1];
+        for (int i = 0; i < weight.length; i++) {
+            if (priority[i] <= 0) continue;
+            for (int w = capacity; w >= weight[i]; w--) {
+                row[w] = Math.max(row[w], row[w - weight[i]] + priority[i]);
+            }
+        }
+        return row[capacity];
+    }
+
+    private List<Dog> toDogs(int[] weight, int[] priority) {
+        List<Dog> dogs = new ArrayList<>();
+        for (int i = 0; i < weight.length; i++) {
+            Dog dog = new Dog();
+            dog.setId("D" + i);
+            dog.setWeightKg(weight[i]);
+            dog.setPriority(priority[i]);
+            dogs.add(dog);
+        }
+        return dogs;
+    }
+
+    @Test
+    @DisplayName("Preprocess: Reduced knapsack keeps the optimum on random instances")
+    void testKeepsOptimum() {
+        // Arrange
+        Random random = new Random(43);
+        TransportService transportService = new TransportService();
+
+        for (int round = 0; round < 40; round++) {
+            int n = 1 + random.nextInt(120);
+            int scale = 1 + random.nextInt(4); // a veces todos los pesos comparten divisor
+            int[] weight = new int[n];
+            int[] priority = new int[n];
+            for (int i = 0; i < n; i++) {
+                weight[i] = scale * random.nextInt(12);
+                priority[i] = random.nextInt(6) - 1; // incluye prioridades 0 y negativas
+            }
+            int capacity = 1 + random.nextInt(150);
+
+            // Act
+            KnapsackResult result = transportService.optimizeTransport(toDogs(weight, priority), capacity);
+
+            // Assert
+            assertEquals(plainOptimum(weight, priority, capacity), result.totalPriority, "round " + round);
+            assertTrue(result.totalWeight <= capacity);
+            assertEquals(result.totalPriority, result.selectedDogs.stream().mapToInt(Dog::getPriority).sum());
+        }
+    }
+
+    @Test
+    @DisplayName("Preprocess: Drops infeasible, useless and dominated dogs")
+    void testRemovals() {
+        // Arrange: capacidad 10
+        int[] weight = {12, 3, 5, 6, 4, 0};
+        int[] priority = {9, 0, 8, 7, 9, 2};
+        // 0: no entra, 1: no suma, 5: peso 0 (siempre va)
+        // 4 (4 kg, 9) y 2 (5 kg, 8) entran juntos; 3 (6 kg, 7) con ambos no entra -> dominado
+
+        // Act
+        Reduced reduced = KnapsackPreprocessor.reduce(weight, priority, 10);
+
+        // Assert
+        assertEquals(1, reduced.stats.infeasible);
+        assertEquals(1, reduced.stats.useless);
+        assertEquals(1, reduced.stats.dominated);
+        assertArrayEquals(new int[]{5, 4, 2}, reduced.expand(List.of()));
+        assertEquals(0, reduced.size(), "Everything left fits: no DP needed");
+        assertEquals(0, reduced.stats.reducedCells);
+    }
+
+    @Test
+    @DisplayName("Preprocess: Scales by the weight GCD and splits identical dogs in binary packages")
+    void testGcdAndGrouping() {
+        // Arrange: 7 perros idénticos de 10 kg y 3 de 15 kg, capacidad 105
+        int[] weight = new int[10];
+        int[] priority = new int[10];
+        for (int i = 0; i < 7; i++) {
+            weight[i] = 10;
+            priority[i] = 3;
+        }
+        for (int i = 7; i < 10; i++) {
+            weight[i] = 15;
+            priority[i] = 4;
+        }
+
+        // Act
+        Reduced reduced = KnapsackPreprocessor.reduce(weight, priority, 105);
+
+        // Assert: MCD 5, capacidad 21; 7 = 1 + 2 + 4 y 3 = 1 + 2
+        assertEquals(5, reduced.stats.gcd);
+        assertEquals(21, reduced.capacity);
+        assertEquals(5, reduced.size());
+        assertEquals(7 * 2 + 3 * 3, Arrays.stream(reduced.weight).sum());
+        assertTrue(reduced.stats.reducedCells < reduced.stats.originalCells);
+    }
+
+    @Test
+    @DisplayName("Preprocess: Identical dogs beyond capacity / weight are dominated")
+    void testBoundedMultiplicity() {
+        // Arrange: 50 perros de 7 kg, capacidad 30 -> sólo sirven 4
+        int[] weight = new int[50];
+        int[] priority = new int[50];
+        Arrays.fill(weight, 7);
+        Arrays.fill(priority, 2);
+
+        // Act
+        Reduced reduced = KnapsackPreprocessor.reduce(weight, priority, 30);
+
+        // Assert
+        assertEquals(46, reduced.stats.dominated);
+        assertEquals(4, reduced.expand(List.of()).length);
+        assertEquals(0, reduced.size());
+    }
+}
@@ -0,0 +1,115 @@
+package com.programacion3.adoptme.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("KnapsackRowKernel (Vectorizable DP Row) Unit Tests")
+class KnapsackRowKernelTest {
+
+    /** Implementación anterior: celda por celda, con rama */
+    private void scalarRow(int[] prev, int[] next, int weight, int priority, int capacity) {
+        for (int w = 0; w <= capacity; w++) {
+            next[w] = prev[w];
+            if (weight <= w) {
+                next[w] = Math.max(next[w], prev[w - weight] + priority);
+            }
+        }
+    }
+
+    private int[] randomRow(int capacity, Random random) {
+        int[] row = new int[capacity + 1];
+        for (int w = 1; w <= capacity; w++) {
+            row[w] = row[w - 1] + random.nextInt(3); // filas DP: no decrecientes
+        }
+        return row;
+    }
+
+    @Test
+    @DisplayName("Kernel: Matches the scalar row update, including weights above capacity")
+    void testMatchesScalar() {
+        // Arrange
+        Random random = new Random(46);
+
+        for (int round = 0; round < 50; round++) {
+            int capacity = random.nextInt(300);
+            int weight = random.nextInt(capacity + 20);
+            int priority = random.nextInt(50);
+            int[] prev = randomRow(capacity, random);
+            int[] expected = new int[capacity + 1];
+            int[] actual = new int[capacity + 1];
+
+            // Act
+            scalarRow(prev, expected, weight, priority, capacity);
+            KnapsackRowKernel.relax(prev, actual, weight, priority, capacity);
+
+            // Assert
+            assertArrayEquals(expected, actual, "round " + round);
+        }
+    }
+
+    @Test
+    @DisplayName("Kernel: Wide rows split across cores give the same row")
+    void testParallelWideRow() {
+        // Arrange: más ancho que el umbral de fork-join
+        Random random = new Random(7);
+        int capacity = KnapsackRowKernel.PARALLEL_MIN_WIDTH * 4;
+        int[] prev = randomRow(capacity, random);
+        int[] sequential = new int[capacity + 1];
+        int[] parallel = new int[capacity + 1];
+
+        // Act
+        KnapsackRowKernel.relaxSequential(prev, sequential, 1234, 17, capacity);
+        KnapsackRowKernel.relax(prev, parallel, 1234, 17, capacity);
+
+        // Assert
+        assertArrayEquals(sequential, parallel);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Kernel: Benchmark against the scalar row update (-Dbenchmark=true)")
+    void benchmarkAgainstScalar() {
+        // Arrange: 200 ítems, capacidad 1M (tabla de dos filas que se alternan)
+        Random random = new Random(1);
+        int capacity = 1_000_000;
+        int items = 200;
+        int[] weights = new int[items];
+        int[] priorities = new int[items];
+        for (int i = 0; i < items; i++) {
+            weights[i] = 1 + random.nextInt(50_000);
+            priorities[i] = 1 + random.nextInt(100);
+        }
+
+        // Act: calentamiento y medición de las tres variantes
+        long[] results = new long[3];
+        long[] nanos = new long[3];
+        for (int repeat = 0; repeat < 3; repeat++) {
+            for (int variant = 0; variant < 3; variant++) {
+                int[] a = new int[capacity + 1];
+                int[] b = new int[capacity + 1];
+                long start = System.nanoTime();
+                for (int i = 0; i < items; i++) {
+                    if (variant == 0) scalarRow(a, b, weights[i], priorities[i], capacity);
+                    else if (variant == 1) KnapsackRowKernel.relaxSequential(a, b, weights[i], priorities[i], capacity);
+                    else KnapsackRowKernel.relax(a, b, weights[i], priorities[i], capacity);
+                    int[] t = a;
+                    a = b;
+                    b = t;
+                }
+                nanos[variant] = System.nanoTime() - start;
+                results[variant] = a[capacity];
+            }
+        }
+
+        // Assert
+        System.out.printf("scalar: %d ms, kernel: %d ms, kernel + fork-join: %d ms%n",
+                nanos[0] / 1_000_000, nanos[1] / 1_000_000, nanos[2] / 1_000_000);
+        assertEquals(results[0], results[1]);
+        assertEquals(results[0], results[2]);
+    }
+}
@@ -0,0 +1,103 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.service.BacktrackingService.Adopter;
+import com.programacion3.adoptme.service.BacktrackingService.Dog;
+import com.programacion3.adoptme.service.LnsMatchingService.LnsResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static com.programacion3.adoptme.service.MatchingFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LnsMatchingService (Large Neighborhood Search) Unit Tests")
+class LnsMatchingServiceTest {
+
+    private BacktrackingService backtrackingService;
+    private LnsMatchingService lnsService;
+
+    @BeforeEach
+    void setUp() {
+        backtrackingService = new BacktrackingService();
+        lnsService = new LnsMatchingService(backtrackingService);
+    }
+
+    @Test
+    @DisplayName("LNS: Empty input returns empty assignment")
+    void testEmptyInput() {
+        LnsResult result = lnsService.solve(List.of(), createRandomAdopters(3, new Random(1), 1.0), 50, 1, 1);
+
+        assertTrue(result.assignment.assignments.isEmpty());
+        assertEquals(0.0, result.assignment.totalScore, 0.001);
+    }
+
+    @Test
+    @DisplayName("LNS: Respects all backtracking constraints at scale")
+    void testRespectsConstraints() {
+        Random random = new Random(7);
+        List<Dog> dogs = createRandomDogs(500, random);
+        List<Adopter> adopters = createRandomAdopters(60, random, 1.0);
+
+        LnsResult result = lnsService.solve(dogs, adopters, 300, 1, 7);
+
+        Map<String, Dog> dogsById = new HashMap<>();
+        dogs.forEach(d -> dogsById.put(d.id, d));
+        Set<String> seen = new HashSet<>();
+        double recomputed = 0.0;
+        for (Adopter adopter : adopters) {
+            List<String> assigned = result.assignment.assignments.getOrDefault(adopter.id, List.of());
+            assertTrue(assigned.size() <= adopter.maxDogs, "maxDogs exceeded for " + adopter.id);
+            double cost = 0.0;
+            for (String dogId : assigned) {
+                assertTrue(seen.add(dogId), "Dog " + dogId + " assigned twice");
+                Dog dog = dogsById.get(dogId);
+                assertTrue(BacktrackingService.isCompatible(dog, adopter));
+                cost += dog.cost;
+                recomputed += BacktrackingService.calculateScore(dog, adopter);
+            }
+            assertTrue(cost <= adopter.budget + 1e-6, "Budget exceeded for " + adopter.id);
+        }
+        assertEquals(recomputed, result.assignment.totalScore, 0.001);
+    }
+
+    @Test
+    @DisplayName("LNS: Never worse than the greedy start")
+    void testImprovesOnGreedy() {
+        Random random = new Random(11);
+        List<Dog> dogs = createRandomDogs(300, random);
+        List<Adopter> adopters = createRandomAdopters(40, random, 1.0);
+
+        LnsResult result = lnsService.solve(dogs, adopters, 200, 1, 11);
+
+        assertTrue(result.assignment.totalScore >= result.initialScore - 1e-9);
+        assertTrue(result.iterations > 0);
+    }
+
+    @Test
+    @DisplayName("LNS: Reaches backtracking optimum on small instances")
+    void testMatchesExactOnSmallInstance() {
+        Random random = new Random(3);
+        List<Dog> dogs = createRandomDogs(8, random);
+        List<Adopter> adopters = createRandomAdopters(3, random, 1.0);
+
+        double exact = backtrackingService.findBestAssignment(dogs, adopters).totalScore;
+        LnsResult result = lnsService.solve(dogs, adopters, 200, 1, 3);
+
+        assertEquals(exact, result.assignment.totalScore, 0.001);
+    }
+
+    @Test
+    @DisplayName("LNS: Parallel chains return the best chain")
+    void testParallelChains() {
+        Random random = new Random(5);
+        List<Dog> dogs = createRandomDogs(200, random);
+        List<Adopter> adopters = createRandomAdopters(30, random, 1.0);
+
+        LnsResult result = lnsService.solve(dogs, adopters, 200, 4, 5);
+
+        assertEquals(4, result.chains);
+        assertTrue(result.assignment.totalScore >= result.initialScore - 1e-9);
+    }
+}
@@ -0,0 +1,66 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.service.BacktrackingService.Adopter;
+import com.programacion3.adoptme.service.BacktrackingService.Dog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Instancias aleatorias compartidas por los tests de matching (backtracking, LNS, flujo,
+ * estable, matriz de compatibilidad y tabla columnar).
+ */
+final class MatchingFixtures {
+
+    private static final String[] SIZES = {"SMALL", "MEDIUM", "LARGE", null};
+    private static final String[] ENERGIES = {"LOW", "MEDIUM", "HIGH", null};
+
+    private MatchingFixtures() {
+    }
+
+    /**
+     * Perros del backtracking: un tercio necesita jardín, energía 1..10, costo 5000..11000.
+     */
+    static List<Dog> createRandomDogs(int n, Random random) {
+        List<Dog> dogs = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            dogs.add(new Dog("D" + i, random.nextBoolean(), random.nextInt(3) == 0,
+                    1 + random.nextInt(10), 5000.0 + 2000.0 * random.nextInt(4)));
+        }
+        return dogs;
+    }
+
+    /**
+     * Adoptantes del backtracking con 1..3 cupos. Con budgetScale 1 el presupuesto
+     * (10000..30000) alcanza para uno a tres perros; con 100 nunca limita.
+     */
+    static List<Adopter> createRandomAdopters(int m, Random random, double budgetScale) {
+        List<Adopter> adopters = new ArrayList<>();
+        for (int i = 0; i < m; i++) {
+            adopters.add(new Adopter("A" + i, "Adopter" + i, random.nextBoolean(), random.nextBoolean(),
+                    1 + random.nextInt(3), budgetScale * (10000.0 + 5000.0 * random.nextInt(5)),
+                    1 + random.nextInt(10)));
+        }
+        return adopters;
+    }
+
+    /**
+     * Perros del catálogo con atributos a veces nulos (como llegan de la base).
+     */
+    static List<com.programacion3.adoptme.domain.Dog> createRandomCatalogDogs(int n, Random random) {
+        List<com.programacion3.adoptme.domain.Dog> dogs = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            dogs.add(com.programacion3.adoptme.domain.Dog.builder()
+                    .id("D" + i)
+                    .name("Dog" + i)
+                    .size(SIZES[random.nextInt(SIZES.length)])
+                    .energy(ENERGIES[random.nextInt(ENERGIES.length)])
+                    .goodWithKids(random.nextInt(3) == 0 ? null : random.nextBoolean())
+                    .specialNeeds(random.nextBoolean())
+                    .priority(random.nextInt(10))
+                    .build());
+        }
+        return dogs;
+    }
+}
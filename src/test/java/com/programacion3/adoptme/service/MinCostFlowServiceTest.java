@@ -0,0 +1,110 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.service.BacktrackingService.Adopter;
+import com.programacion3.adoptme.service.BacktrackingService.Dog;
+import com.programacion3.adoptme.service.MinCostFlowService.FlowResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static com.programacion3.adoptme.service.MatchingFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MinCostFlowService (Relaxed Matching) Unit Tests")
+class MinCostFlowServiceTest {
+
+    private MinCostFlowService flowService;
+    private BacktrackingService backtrackingService;
+
+    @BeforeEach
+    void setUp() {
+        flowService = new MinCostFlowService();
+        backtrackingService = new BacktrackingService(flowService);
+    }
+
+    @Test
+    @DisplayName("Flow: Empty input returns empty result")
+    void testEmptyInput() {
+        FlowResult result = flowService.solve(List.of(), createRandomAdopters(2, new Random(1), 1.0));
+
+        assertTrue(result.assignments.isEmpty());
+        assertEquals(0.0, result.upperBound, 0.001);
+    }
+
+    @Test
+    @DisplayName("Flow: Matches backtracking optimum when budgets never bind")
+    void testMatchesBacktrackingWithoutBudgets() {
+        Random random = new Random(5);
+        List<Dog> dogs = createRandomDogs(10, random);
+        List<Adopter> adopters = createRandomAdopters(4, random, 100.0);
+
+        FlowResult result = flowService.solve(dogs, adopters);
+        double exact = backtrackingService.findBestAssignment(dogs, adopters).totalScore;
+
+        assertTrue(result.budgetFeasible);
+        assertEquals(exact, result.upperBound, 0.001);
+        assertEquals(exact, result.score, 0.001);
+    }
+
+    @Test
+    @DisplayName("Flow: Upper bound is never below the backtracking optimum")
+    void testUpperBoundWithBudgets() {
+        for (int seed = 0; seed < 10; seed++) {
+            Random random = new Random(seed);
+            List<Dog> dogs = createRandomDogs(9, random);
+            List<Adopter> adopters = createRandomAdopters(3, random, 1.0);
+
+            FlowResult result = flowService.solve(dogs, adopters);
+            double exact = backtrackingService.findBestAssignment(dogs, adopters).totalScore;
+
+            assertTrue(result.upperBound >= exact - 0.001, "Bound below optimum for seed " + seed);
+            assertTrue(result.score <= exact + 0.001, "Repaired assignment above optimum for seed " + seed);
+        }
+    }
+
+    @Test
+    @DisplayName("Flow: Repaired assignment respects every constraint")
+    void testRepairedAssignmentIsFeasible() {
+        Random random = new Random(13);
+        List<Dog> dogs = createRandomDogs(2000, random);
+        List<Adopter> adopters = createRandomAdopters(300, random, 1.0);
+
+        FlowResult result = flowService.solve(dogs, adopters);
+
+        Map<String, Dog> dogsById = new HashMap<>();
+        dogs.forEach(d -> dogsById.put(d.id, d));
+        Set<String> seen = new HashSet<>();
+        double recomputed = 0.0;
+        for (Adopter adopter : adopters) {
+            List<String> assigned = result.assignments.getOrDefault(adopter.id, List.of());
+            assertTrue(assigned.size() <= adopter.maxDogs);
+            double cost = 0.0;
+            for (String dogId : assigned) {
+                assertTrue(seen.add(dogId), "Dog " + dogId + " assigned twice");
+                Dog dog = dogsById.get(dogId);
+                assertTrue(BacktrackingService.isCompatible(dog, adopter));
+                cost += dog.cost;
+                recomputed += BacktrackingService.calculateScore(dog, adopter);
+            }
+            assertTrue(cost <= adopter.budget + 1e-6, "Budget exceeded for " + adopter.id);
+        }
+        assertEquals(recomputed, result.score, 0.001);
+        assertTrue(result.upperBound >= result.score - 0.001);
+    }
+
+    @Test
+    @DisplayName("Flow: Saturated relaxation stops the search early")
+    void testBoundCutsBacktracking() {
+        Random random = new Random(21);
+        List<Dog> dogs = createRandomDogs(12, random);
+        List<Adopter> adopters = createRandomAdopters(4, random, 100.0);
+
+        var assignment = backtrackingService.findBestAssignment(dogs, adopters);
+
+        // La reparación del flujo ya es óptima: no hace falta explorar el árbol
+        assertEquals(flowService.solve(dogs, adopters).upperBound, assignment.totalScore, 0.001);
+        assertEquals(0, assignment.nodesExplored);
+    }
+}
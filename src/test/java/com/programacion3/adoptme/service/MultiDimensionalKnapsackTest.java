@@ -0,0 +1,144 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.service.MultiDimensionalKnapsack.Method;
+import com.programacion3.adoptme.service.MultiDimensionalKnapsack.Solution;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MultiDimensionalKnapsack (DP + Lagrangian B&B) Unit Tests")
+class MultiDimensionalKnapsackTest {
+
+    /** Óptimo por fuerza bruta sobre todos los subconjuntos */
+    private int bruteForce(int[][] weight, int[] priority, int[] capacity) {
+        int n = priority.length;
+        int best = 0;
+        for (int mask = 0; mask < (1 << n); mask++) {
+            long[] used = new long[capacity.length];
+            int value = 0;
+            boolean feasible = true;
+            for (int i = 0; i < n && feasible; i++) {
+                if ((mask & (1 << i)) == 0) continue;
+                value += priority[i];
+                for (int k = 0; k < capacity.length; k++) {
+                    used[k] += weight[i][k];
+                    feasible &= used[k] <= capacity[k];
+                }
+            }
+            if (feasible) best = Math.max(best, value);
+        }
+        return best;
+    }
+
+    private void assertFeasible(Solution solution, int[][] weight, int[] priority, int[] capacity) {
+        long[] used = new long[capacity.length];
+        int value = 0;
+        for (int i : solution.chosen) {
+            value += priority[i];
+            for (int k = 0; k < capacity.length; k++) used[k] += weight[i][k];
+        }
+        for (int k = 0; k < capacity.length; k++) {
+            assertTrue(used[k] <= capacity[k], "dimension " + k + " exceeded");
+        }
+        assertEquals(value, solution.totalPriority);
+        assertTrue(solution.totalPriority <= solution.upperBound);
+    }
+
+    @Test
+    @DisplayName("Multi: DP matches brute force with small capacities")
+    void testDpMatchesBruteForce() {
+        // Arrange
+        Random random = new Random(47);
+
+        for (int round = 0; round < 25; round++) {
+            int n = 1 + random.nextInt(14);
+            int[][] weight = new int[n][];
+            int[] priority = new int[n];
+            for (int i = 0; i < n; i++) {
+                weight[i] = new int[]{random.nextInt(30), 1, random.nextInt(4) == 0 ? 1 : 0};
+                priority[i] = random.nextInt(10);
+            }
+            int[] capacity = {10 + random.nextInt(80), 1 + random.nextInt(6), random.nextInt(3)};
+
+            // Act
+            Solution solution = MultiDimensionalKnapsack.solve(weight, priority, capacity);
+
+            // Assert
+            assertEquals(Method.DP, solution.method);
+            assertTrue(solution.optimal);
+            assertFeasible(solution, weight, priority, capacity);
+            assertEquals(bruteForce(weight, priority, capacity), solution.totalPriority, "round " + round);
+        }
+    }
+
+    @Test
+    @DisplayName("Multi: Lagrangian branch and bound matches brute force when the table is too big")
+    void testBranchAndBoundMatchesBruteForce() {
+        // Arrange: capacidades en gramos y centímetros, la tabla de estados no entra
+        Random random = new Random(5);
+
+        for (int round = 0; round < 15; round++) {
+            int n = 8 + random.nextInt(8);
+            int[][] weight = new int[n][];
+            int[] priority = new int[n];
+            for (int i = 0; i < n; i++) {
+                weight[i] = new int[]{1000 + random.nextInt(40_000), 10 + random.nextInt(200), random.nextInt(3)};
+                priority[i] = 1 + random.nextInt(100);
+            }
+            int[] capacity = {60_000 + random.nextInt(100_000), 300 + random.nextInt(700), 2 + random.nextInt(4)};
+
+            // Act
+            Solution solution = MultiDimensionalKnapsack.solve(weight, priority, capacity);
+
+            // Assert
+            assertEquals(Method.LAGRANGIAN_BNB, solution.method);
+            assertTrue(solution.optimal);
+            assertFeasible(solution, weight, priority, capacity);
+            assertEquals(bruteForce(weight, priority, capacity), solution.totalPriority, "round " + round);
+        }
+    }
+
+    @Test
+    @DisplayName("Multi: Large instance stays feasible and bounded in time")
+    void testLargeInstance() {
+        // Arrange
+        Random random = new Random(8);
+        int n = 2000;
+        int[][] weight = new int[n][];
+        int[] priority = new int[n];
+        for (int i = 0; i < n; i++) {
+            weight[i] = new int[]{500 + random.nextInt(40_000), 1, random.nextInt(5) == 0 ? 1 : 0};
+            priority[i] = 1 + random.nextInt(10);
+        }
+        int[] capacity = {2_000_000, 120, 15};
+
+        // Act
+        long start = System.currentTimeMillis();
+        Solution solution = MultiDimensionalKnapsack.solve(weight, priority, capacity);
+        long elapsed = System.currentTimeMillis() - start;
+
+        // Assert
+        assertFeasible(solution, weight, priority, capacity);
+        assertTrue(solution.totalPriority >= 0.9 * solution.upperBound,
+                solution.totalPriority + " vs bound " + solution.upperBound);
+        assertTrue(elapsed < 10000, "Multi-constraint knapsack took " + elapsed + " ms");
+    }
+
+    @Test
+    @DisplayName("Multi: Zero capacity in a dimension excludes the dogs that use it")
+    void testZeroSeats() {
+        // Arrange: sin asientos especiales
+        int[][] weight = {{10, 1, 1}, {10, 1, 0}, {10, 1, 0}};
+        int[] priority = {9, 3, 2};
+
+        // Act
+        Solution solution = MultiDimensionalKnapsack.solve(weight, priority, new int[]{100, 5, 0});
+
+        // Assert
+        assertArrayEquals(new int[]{1, 2}, solution.chosen);
+        assertEquals(5, solution.totalPriority);
+    }
+}
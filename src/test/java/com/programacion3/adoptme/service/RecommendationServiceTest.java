@@ -0,0 +1,190 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.domain.Adopter;
+import com.programacion3.adoptme.domain.Dog;
+import com.programacion3.adoptme.exception.ResourceNotFoundException;
+import com.programacion3.adoptme.repo.AdopterRepository;
+import com.programacion3.adoptme.repo.DogRepository;
+import com.programacion3.adoptme.service.RecommendationService.Recommendation;
+import com.programacion3.adoptme.service.ScoringProfileService.Rule;
+import com.programacion3.adoptme.service.ScoringProfileService.Segment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("RecommendationService (Materialized Top-N) Unit Tests")
+class RecommendationServiceTest {
+
+    private static final String[] SIZES = {"SMALL", "MEDIUM", "LARGE"};
+    private static final String[] ENERGIES = {"LOW", "MEDIUM", "HIGH"};
+
+    private CatalogService catalogService;
+    private ScoringProfileService profileService;
+    private RecommendationService recommendationService;
+    private Random random;
+
+    @Mock
+    private DogRepository dogRepository;
+
+    @Mock
+    private AdopterRepository adopterRepository;
+
+    @Mock
+    private GraphLoader graphLoader;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        random = new Random(21);
+        List<Dog> dogs = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+            dogs.add(randomDog("D" + i));
+        }
+        List<Adopter> adopters = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            adopters.add(randomAdopter("P" + i));
+        }
+        when(dogRepository.findAll()).thenReturn(dogs);
+        when(dogRepository.findAvailable()).thenReturn(dogs);
+        when(adopterRepository.findAll()).thenReturn(adopters);
+        when(graphLoader.loadDogShelters()).thenReturn(Map.of());
+        when(graphLoader.createAdoption(anyString(), anyString())).thenReturn(true);
+        when(dogRepository.save(any(Dog.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(adopterRepository.save(any(Adopter.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        catalogService = new CatalogService(dogRepository, adopterRepository, graphLoader);
+        profileService = new ScoringProfileService();
+        recommendationService = new RecommendationService(catalogService, profileService, 5);
+    }
+
+    private Dog randomDog(String id) {
+        return Dog.builder().id(id).name("Dog " + id)
+                .size(SIZES[random.nextInt(3)]).energy(ENERGIES[random.nextInt(3)])
+                .goodWithKids(random.nextBoolean()).specialNeeds(random.nextInt(4) == 0)
+                .priority(1 + random.nextInt(10)).build();
+    }
+
+    private Adopter randomAdopter(String id) {
+        return Adopter.builder().id(id).name("Adopter " + id)
+                .hasKids(random.nextBoolean()).hasYard(random.nextBoolean())
+                .budget(9000 + 3000 * random.nextInt(4)).maxDogs(2).build();
+    }
+
+    private List<Double> scores(List<Recommendation> recommendations) {
+        return recommendations.stream().map(r -> r.score).toList();
+    }
+
+    /** Compara el store incremental contra uno recién calculado sobre el mismo catálogo */
+    private void assertMatchesFreshStore() {
+        RecommendationService fresh = new RecommendationService(catalogService, profileService, 5);
+        for (Adopter a : catalogService.snapshot().adopters) {
+            var expected = fresh.recommendationsFor(a.getId());
+            var actual = recommendationService.recommendationsFor(a.getId());
+            assertEquals(scores(expected.dogs), scores(actual.dogs), "adopter " + a.getId());
+            assertEquals(expected.catalogVersion, actual.catalogVersion);
+        }
+    }
+
+    @Test
+    @DisplayName("Recommendations: Top-N is sorted, compatible and affordable")
+    void testTopN() {
+        // Act
+        var result = recommendationService.recommendationsFor("P0");
+        var catalog = catalogService.snapshot();
+        Adopter adopter = catalog.adopter("P0").orElseThrow();
+
+        // Assert
+        assertTrue(result.dogs.size() <= 5);
+        for (int i = 1; i < result.dogs.size(); i++) {
+            assertTrue(result.dogs.get(i - 1).score >= result.dogs.get(i).score);
+        }
+        for (Recommendation r : result.dogs) {
+            int d = catalog.availablePosition(r.dogId);
+            assertTrue(catalog.compatibility.compatible(catalog.adopterPosition("P0"), d));
+            assertTrue(catalog.availableFeatures.cost(d) <= adopter.getBudget());
+        }
+        assertEquals(catalog.version, result.catalogVersion);
+    }
+
+    @Test
+    @DisplayName("Recommendations: Dog writes update only the affected adopters")
+    void testIncrementalMatchesRecompute() {
+        // Arrange
+        recommendationService.recommendationsFor("P0");
+        long initial = recommendationService.fullRecomputes();
+
+        // Act: altas, ediciones y adopciones de perros
+        for (int step = 0; step < 40; step++) {
+            int choice = random.nextInt(3);
+            if (choice == 0) {
+                catalogService.saveDog(randomDog("N" + step));
+            } else if (choice == 1) {
+                catalogService.saveDog(randomDog("D" + random.nextInt(80)));
+            } else {
+                String id = catalogService.snapshot().available.get(0).getId();
+                catalogService.adopt("P0", id);
+            }
+            if (step % 5 == 0) {
+                recommendationService.recommendationsFor("P1");
+            }
+        }
+
+        // Assert
+        assertMatchesFreshStore();
+        assertTrue(recommendationService.incrementalUpdates() > 0);
+        assertTrue(recommendationService.fullRecomputes() - initial < 40 * 12,
+                "Too many full recomputes: " + (recommendationService.fullRecomputes() - initial));
+    }
+
+    @Test
+    @DisplayName("Recommendations: Adopted dogs disappear from every list")
+    void testAdoptedDogRemoved() {
+        // Arrange
+        String top = recommendationService.recommendationsFor("P3").dogs.get(0).dogId;
+
+        // Act
+        catalogService.adopt("P3", top);
+
+        // Assert
+        for (Adopter a : catalogService.snapshot().adopters) {
+            assertTrue(recommendationService.recommendationsFor(a.getId()).dogs.stream()
+                    .noneMatch(r -> r.dogId.equals(top)));
+        }
+        assertMatchesFreshStore();
+    }
+
+    @Test
+    @DisplayName("Recommendations: Adopter edit and profile change refresh the list")
+    void testAdopterAndProfileChanges() {
+        // Arrange
+        recommendationService.recommendationsFor("P2");
+        long before = recommendationService.fullRecomputes();
+
+        // Act
+        catalogService.saveAdopter(Adopter.builder().id("P2").name("Edited")
+                .hasKids(true).hasYard(true).budget(30000).maxDogs(1).build());
+        recommendationService.recommendationsFor("P2");
+        profileService.update(Segment.FAMILY_WITH_GARDEN, Map.of(Rule.PRIORITY, 1.0));
+        var result = recommendationService.recommendationsFor("P2");
+
+        // Assert: sólo cuenta la prioridad (normalizada a 0..1, el mejor tiene prioridad 10)
+        assertEquals(before + 2, recommendationService.fullRecomputes());
+        assertEquals(1.0, result.dogs.get(0).score, 1e-9);
+        assertMatchesFreshStore();
+    }
+
+    @Test
+    @DisplayName("Recommendations: Unknown adopter is rejected")
+    void testUnknownAdopter() {
+        assertThrows(ResourceNotFoundException.class, () -> recommendationService.recommendationsFor("P99"));
+    }
+}
@@ -0,0 +1,72 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.dto.TspResponse;
+import com.programacion3.adoptme.service.ShortestPathService.Edge;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("RoutePlanningService (TSP Tour) Unit Tests")
+class RoutePlanningServiceTest {
+
+    private RoutePlanningService routePlanningService;
+
+    @Mock
+    private GraphLoader graphLoader;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(graphLoader.loadWeightedEdges()).thenReturn(List.of(
+                new Edge("A", "B", 5), new Edge("B", "A", 5),
+                new Edge("B", "C", 4), new Edge("C", "B", 4),
+                new Edge("A", "C", 7), new Edge("C", "A", 7)
+        ));
+        when(graphLoader.loadAllShelterIds()).thenReturn(Set.of("A", "B", "C"));
+        routePlanningService = new RoutePlanningService(graphLoader, new TSPService());
+    }
+
+    @Test
+    @DisplayName("Tour: Visits every requested node and returns to the start")
+    void testTourVisitsAllNodes() {
+        // Act
+        TspResponse response = routePlanningService.tspTour(" A, B ,C");
+
+        // Assert
+        assertNotNull(response.getRoute());
+        assertTrue(response.getRoute().containsAll(List.of("A", "B", "C")));
+        assertEquals(response.getRoute().get(0), response.getRoute().get(response.getRoute().size() - 1));
+        verify(graphLoader, never()).loadAllShelterIds();
+    }
+
+    @Test
+    @DisplayName("Tour: Without nodes uses every shelter")
+    void testDefaultsToAllShelters() {
+        // Act
+        TspResponse response = routePlanningService.tspTour(null);
+
+        // Assert
+        assertTrue(response.getRoute().containsAll(List.of("A", "B", "C")));
+        verify(graphLoader).loadAllShelterIds();
+    }
+
+    @Test
+    @DisplayName("Tour: A single node is a zero-length tour without loading edges")
+    void testSingleNode() {
+        // Act
+        TspResponse response = routePlanningService.tspTour("A");
+
+        // Assert
+        assertEquals(List.of("A"), response.getRoute());
+        assertEquals(0, response.getTotalDistanceKm());
+        verify(graphLoader, never()).loadWeightedEdges();
+    }
+}
@@ -450,4 +450,76 @@ class ScorerServiceTest {
         assertTrue(result.assigned.isEmpty(), "Should not assign any dogs if all exceed budget");
         assertEquals(0.0, result.totalCost, 0.01);
     }
+
+    // ==================== Top-K Selection Tests ====================
+
+    @Test
+    @DisplayName("Greedy: Top-K selection matches full sort under tight budgets")
+    void testTopKMatchesFullSort() {
+        // Arrange: el lote ordena el catálogo completo, sirve de referencia
+        Random random = new Random(17);
+        List<Dog> dogs = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            dogs.add(new Dog("D" + i, random.nextBoolean(), random.nextBoolean(),
+                    1 + random.nextInt(10), 1 + random.nextInt(3), 3000.0 + 1000.0 * random.nextInt(10)));
+        }
+        List<ScorerService.AdopterProfile> adopters = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            adopters.add(new ScorerService.AdopterProfile("A" + i, random.nextBoolean(), random.nextBoolean(),
+                    1 + random.nextInt(5), 3000.0 + 2500.0 * random.nextInt(6)));
+        }
+
+        // Act
+        List<ScorerService.BatchEntry> reference = scorerService.scoreAndAssignBatch(dogs, adopters);
+
+        // Assert
+        for (int i = 0; i < adopters.size(); i++) {
+            ScorerService.AdopterProfile a = adopters.get(i);
+            AssignmentResult topK = scorerService.scoreAndAssign(dogs, a.hasKids, a.hasGarden, a.maxDogs, a.budget);
+            assertEquals(reference.get(i).result.assigned.stream().map(d -> d.id).toList(),
+                    topK.assigned.stream().map(d -> d.id).toList(), "Adopter " + a.id);
+            assertEquals(reference.get(i).result.totalCost, topK.totalCost, 0.001);
+        }
+    }
+
+    // ==================== Batch Tests ====================
+
+    @Test
+    @DisplayName("Greedy batch: Matches one call per adopter, in input order")
+    void testBatchMatchesSingleCalls() {
+        // Arrange
+        List<Dog> dogs = createTestDogs();
+        List<ScorerService.AdopterProfile> adopters = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            adopters.add(new ScorerService.AdopterProfile("A" + i, i % 2 == 0, i % 3 == 0,
+                    1 + i % 4, 6000.0 + 1500.0 * (i % 7)));
+        }
+
+        // Act
+        List<ScorerService.BatchEntry> batch = scorerService.scoreAndAssignBatch(dogs, adopters);
+
+        // Assert
+        assertEquals(adopters.size(), batch.size());
+        for (int i = 0; i < adopters.size(); i++) {
+            ScorerService.AdopterProfile a = adopters.get(i);
+            AssignmentResult single = scorerService.scoreAndAssign(dogs, a.hasKids, a.hasGarden, a.maxDogs, a.budget);
+            ScorerService.BatchEntry entry = batch.get(i);
+
+            assertEquals(a.id, entry.adopterId);
+            assertEquals(single.assigned.stream().map(d -> d.id).toList(),
+                    entry.result.assigned.stream().map(d -> d.id).toList());
+            assertEquals(single.totalScore, entry.result.totalScore, 0.001);
+            assertTrue(entry.latencyMicros >= 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Greedy batch: Empty adopter list returns empty batch")
+    void testBatchEmptyAdopters() {
+        // Act
+        List<ScorerService.BatchEntry> batch = scorerService.scoreAndAssignBatch(createTestDogs(), List.of());
+
+        // Assert
+        assertTrue(batch.isEmpty());
+    }
 }
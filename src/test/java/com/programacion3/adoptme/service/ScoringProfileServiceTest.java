@@ -0,0 +1,128 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.domain.Dog;
+import com.programacion3.adoptme.service.ScoringProfileService.AdopterContext;
+import com.programacion3.adoptme.service.ScoringProfileService.CompiledProfile;
+import com.programacion3.adoptme.service.ScoringProfileService.Rule;
+import com.programacion3.adoptme.service.ScoringProfileService.Segment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ScoringProfileService (Configurable Scoring) Unit Tests")
+class ScoringProfileServiceTest {
+
+    private ScoringProfileService profileService;
+    private DogFeatureTable table;
+
+    @BeforeEach
+    void setUp() {
+        profileService = new ScoringProfileService();
+        table = DogFeatureTable.from(List.of(
+                Dog.builder().id("D1").name("Luna").size("SMALL").energy("MEDIUM")
+                        .goodWithKids(true).specialNeeds(false).priority(10).build(),
+                Dog.builder().id("D2").name("Rex").size("LARGE").energy("HIGH")
+                        .goodWithKids(false).specialNeeds(true).priority(2).build(),
+                Dog.builder().id("D3").name("Toto").size("MEDIUM").energy("LOW")
+                        .goodWithKids(true).specialNeeds(false).priority(5).build()
+        ));
+    }
+
+    @Test
+    @DisplayName("Profiles: Default profile reproduces the historic greedy score")
+    void testDefaultProfileMatchesScorer() {
+        // Arrange: Luna -> niños 3 + energía 2 + tamaño 1 = 6
+        CompiledProfile compiled = profileService.compiledFor(Segment.FAMILY);
+
+        // Act
+        double score = compiled.score(table, 0, new AdopterContext(true, false, 5));
+
+        // Assert
+        assertEquals(6.0, score, 1e-9);
+    }
+
+    @Test
+    @DisplayName("Profiles: Compiled chain and columnar kernel agree")
+    void testChainMatchesKernel() {
+        // Arrange
+        CompiledProfile compiled = profileService.compiledFor(Segment.FAMILY_WITH_GARDEN);
+        AdopterContext ctx = new AdopterContext(true, true, 5);
+        double[] kernel = new double[table.size()];
+
+        // Act
+        compiled.scoreAll(table, ctx, kernel);
+
+        // Assert
+        for (int i = 0; i < table.size(); i++) {
+            assertEquals(compiled.score(table, i, ctx), kernel[i], 1e-9);
+        }
+    }
+
+    @Test
+    @DisplayName("Profiles: Segment profile overrides default and bumps version")
+    void testSegmentOverride() {
+        // Arrange
+        CompiledProfile before = profileService.compiledFor(Segment.GARDEN);
+
+        // Act
+        profileService.update(Segment.GARDEN, Map.of(Rule.PRIORITY, 10.0, Rule.SPECIAL_NEEDS, -4.0));
+        CompiledProfile after = profileService.compiledFor(Segment.GARDEN);
+        AdopterContext ctx = new AdopterContext(false, true, 5);
+
+        // Assert
+        assertNotEquals(before.version, after.version);
+        assertEquals(10.0, after.score(table, 0, ctx), 1e-9);       // prioridad 10 -> 1.0 * 10
+        assertEquals(2.0 - 4.0, after.score(table, 1, ctx), 1e-9);  // prioridad 2 -> 2, necesidades especiales -4
+        assertEquals(before.version, profileService.compiledFor(Segment.BASIC).version);
+    }
+
+    @Test
+    @DisplayName("Profiles: Unchanged profile reuses the compiled evaluator")
+    void testCompiledCacheIsReused() {
+        CompiledProfile first = profileService.compiledFor(Segment.BASIC);
+        CompiledProfile second = profileService.compiledFor(Segment.BASIC);
+
+        assertSame(first, second);
+    }
+
+    @Test
+    @DisplayName("Profiles: Reset returns segment to the default profile")
+    void testResetSegment() {
+        // Arrange
+        profileService.update(Segment.FAMILY, Map.of(Rule.KIDS, 100.0));
+
+        // Act
+        profileService.reset(Segment.FAMILY);
+
+        // Assert
+        assertEquals(Segment.DEFAULT, profileService.profileFor(Segment.FAMILY).segment);
+        assertEquals(6.0, profileService.compiledFor(Segment.FAMILY)
+                .score(table, 0, new AdopterContext(true, false, 5)), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Profiles: Non-finite weights are rejected")
+    void testInvalidWeightRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> profileService.update(Segment.BASIC, Map.of(Rule.SIZE, Double.NaN)));
+    }
+
+    @Test
+    @DisplayName("Profiles: Greedy on the feature table follows the segment profile")
+    void testScorerUsesProfile() {
+        // Arrange: el segmento FAMILY sólo valora la prioridad
+        profileService.update(Segment.FAMILY, Map.of(Rule.PRIORITY, 1.0));
+        ScorerService scorer = new ScorerService(profileService);
+
+        // Act
+        var result = scorer.scoreAndAssign(table, true, false, 1, 100000.0);
+
+        // Assert
+        assertEquals("D1", result.assigned.get(0).id);
+        assertEquals(1.0, result.totalScore, 1e-9);
+    }
+}
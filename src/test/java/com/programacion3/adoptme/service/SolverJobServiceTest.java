@@ -0,0 +1,219 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.exception.JobRejectedException;
+import com.programacion3.adoptme.exception.ResourceNotFoundException;
+import com.programacion3.adoptme.service.SolverJobService.Job;
+import com.programacion3.adoptme.service.SolverJobService.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SolverJobService (Async Jobs) Unit Tests")
+class SolverJobServiceTest {
+
+    private SolverJobService jobService;
+
+    @AfterEach
+    void tearDown() {
+        if (jobService != null) {
+            jobService.shutdown();
+        }
+    }
+
+    private void awaitFinished(Job job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!job.isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    @DisplayName("Jobs: Completed job exposes its result")
+    void testJobCompletes() throws InterruptedException {
+        jobService = new SolverJobService(1, 4, 2, Duration.ofMinutes(1));
+
+        Job job = jobService.submit("backtracking", () -> 42);
+        awaitFinished(job);
+
+        assertEquals(Status.SUCCEEDED, job.getStatus());
+        assertEquals(42, job.getResult());
+        assertNotNull(job.getFinishedAt());
+    }
+
+    @Test
+    @DisplayName("Jobs: Failing solver is reported as FAILED")
+    void testJobFails() throws InterruptedException {
+        jobService = new SolverJobService(1, 4, 2, Duration.ofMinutes(1));
+
+        Job job = jobService.submit("backtracking", () -> {
+            throw new IllegalStateException("boom");
+        });
+        awaitFinished(job);
+
+        assertEquals(Status.FAILED, job.getStatus());
+        assertEquals("boom", job.getError());
+    }
+
+    @Test
+    @DisplayName("Jobs: Running job can be cancelled")
+    void testCancelRunningJob() throws InterruptedException {
+        jobService = new SolverJobService(1, 4, 2, Duration.ofMinutes(1));
+        CountDownLatch started = new CountDownLatch(1);
+
+        Job job = jobService.submit("tsp-bnb", () -> {
+            started.countDown();
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.onSpinWait();
+            }
+            return null;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        jobService.cancel(job.id);
+        awaitFinished(job);
+
+        assertEquals(Status.CANCELLED, job.getStatus());
+    }
+
+    @Test
+    @DisplayName("Jobs: Per-algorithm cap rejects extra jobs")
+    void testPerAlgorithmCap() throws InterruptedException {
+        jobService = new SolverJobService(2, 4, 1, Duration.ofMinutes(1));
+        CountDownLatch release = new CountDownLatch(1);
+
+        Job first = jobService.submit("backtracking", () -> {
+            release.await();
+            return "done";
+        });
+
+        assertThrows(JobRejectedException.class, () -> jobService.submit("backtracking", () -> "x"));
+        // Otro algoritmo tiene su propio cupo
+        Job other = jobService.submit("lns", () -> "ok");
+        awaitFinished(other);
+        assertEquals(Status.SUCCEEDED, other.getStatus());
+
+        release.countDown();
+        awaitFinished(first);
+        Job again = jobService.submit("backtracking", () -> "again");
+        awaitFinished(again);
+        assertEquals(Status.SUCCEEDED, again.getStatus());
+    }
+
+    @Test
+    @DisplayName("Jobs: Cancelled job keeps its slot until the solver thread exits")
+    void testCancelKeepsSlotUntilExit() throws InterruptedException {
+        jobService = new SolverJobService(2, 4, 1, Duration.ofMinutes(1));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch exited = new CountDownLatch(1);
+
+        // Arrange: un solver que ignora la interrupción hasta que se lo suelta
+        Job job = jobService.submit("backtracking", () -> {
+            started.countDown();
+            try {
+                while (release.getCount() > 0) {
+                    Thread.onSpinWait();
+                }
+                return null;
+            } finally {
+                exited.countDown();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        jobService.cancel(job.id);
+
+        // Assert: cancelado, pero el hilo sigue corriendo y ocupa el cupo
+        assertEquals(Status.CANCELLED, job.getStatus());
+        assertThrows(JobRejectedException.class, () -> jobService.submit("backtracking", () -> "x"));
+
+        release.countDown();
+        assertTrue(exited.await(5, TimeUnit.SECONDS));
+        Job again = null;
+        long deadline = System.currentTimeMillis() + 5000;
+        while (again == null && System.currentTimeMillis() < deadline) {
+            try {
+                again = jobService.submit("backtracking", () -> "again");
+            } catch (JobRejectedException e) {
+                Thread.sleep(5); // el finally del hilo todavía no liberó el cupo
+            }
+        }
+        assertNotNull(again);
+        awaitFinished(again);
+        assertEquals(Status.SUCCEEDED, again.getStatus());
+    }
+
+    @Test
+    @DisplayName("Jobs: Queued job cancelled before starting frees its slot")
+    void testCancelQueuedJobFreesSlot() throws InterruptedException {
+        jobService = new SolverJobService(1, 4, 1, Duration.ofMinutes(1));
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Arrange: el único worker queda ocupado por otro algoritmo
+        Job blocker = jobService.submit("lns", () -> {
+            release.await();
+            return null;
+        });
+        Job queued = jobService.submit("backtracking", () -> "never");
+
+        // Act
+        jobService.cancel(queued.id);
+
+        // Assert: nunca arrancó, así que el cupo queda libre de inmediato
+        assertEquals(Status.CANCELLED, queued.getStatus());
+        Job again = jobService.submit("backtracking", () -> "again");
+        release.countDown();
+        awaitFinished(blocker);
+        awaitFinished(again);
+        assertEquals(Status.SUCCEEDED, again.getStatus());
+        assertNull(queued.getStartedAt());
+    }
+
+    @Test
+    @DisplayName("Jobs: Full queue rejects new jobs")
+    void testQueueLimit() {
+        jobService = new SolverJobService(1, 1, 10, Duration.ofMinutes(1));
+        CountDownLatch release = new CountDownLatch(1);
+        List<Job> accepted = new ArrayList<>();
+
+        assertThrows(JobRejectedException.class, () -> {
+            for (int i = 0; i < 5; i++) {
+                accepted.add(jobService.submit("backtracking", () -> {
+                    release.await();
+                    return null;
+                }));
+            }
+        });
+        assertTrue(accepted.size() <= 2, "One running plus one queued at most");
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Jobs: Finished results are evicted after TTL")
+    void testTtlEviction() throws InterruptedException {
+        jobService = new SolverJobService(1, 4, 2, Duration.ZERO);
+
+        Job job = jobService.submit("backtracking", () -> "result");
+        awaitFinished(job);
+        Thread.sleep(5);
+        jobService.evictExpired();
+
+        assertThrows(ResourceNotFoundException.class, () -> jobService.get(job.id));
+    }
+
+    @Test
+    @DisplayName("Jobs: Unknown job id is not found")
+    void testUnknownJob() {
+        jobService = new SolverJobService(1, 4, 2, Duration.ofMinutes(1));
+
+        assertThrows(ResourceNotFoundException.class, () -> jobService.get("missing"));
+    }
+}
@@ -242,6 +242,85 @@ class SortServiceTest {
         }
     }
 
+    @Test
+    @DisplayName("QuickSort handles sorted, reversed and all-equal large inputs")
+    void testQuickSortAdversarialInputs() {
+        // Arrange: entradas que degradaban el pivote "último elemento" a O(n²)
+        int n = 200_000;
+        List<Dog> sorted = new ArrayList<>();
+        List<Dog> reversed = new ArrayList<>();
+        List<Dog> equal = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            sorted.add(createDog("S" + i, i));
+            reversed.add(createDog("R" + i, n - i));
+            equal.add(createDog("E" + i, 7));
+        }
+
+        // Act
+        long start = System.currentTimeMillis();
+        sortService.sortDogs(sorted, "priority", "quicksort");
+        sortService.sortDogs(reversed, "priority", "quicksort");
+        sortService.sortDogs(equal, "priority", "quicksort");
+        long elapsed = System.currentTimeMillis() - start;
+
+        // Assert
+        for (List<Dog> dogs : List.of(sorted, reversed, equal)) {
+            assertEquals(n, dogs.size());
+            for (int i = 0; i < n - 1; i++) {
+                assertTrue(dogs.get(i).getPriority() <= dogs.get(i + 1).getPriority());
+            }
+        }
+        assertEquals("S0", sorted.get(0).getId());
+        assertEquals("R" + (n - 1), reversed.get(0).getId());
+        assertTrue(elapsed < 5000, "QuickSort took " + elapsed + " ms");
+    }
+
+    @Test
+    @DisplayName("QuickSort with many duplicates matches MergeSort keys for every criteria")
+    void testQuickSortMatchesMergeSort() {
+        // Arrange
+        java.util.Random random = new java.util.Random(50);
+        for (String criteria : List.of("priority", "age", "weight")) {
+            for (int n : new int[]{2, 15, 16, 17, 100, 5000}) {
+                List<Dog> quick = new ArrayList<>();
+                for (int i = 0; i < n; i++) {
+                    Dog dog = createDog("D" + i, 1 + random.nextInt(10));
+                    dog.setAge(random.nextInt(15));
+                    dog.setWeightKg(1 + random.nextInt(60));
+                    quick.add(dog);
+                }
+                List<Dog> merge = new ArrayList<>(quick);
+
+                // Act
+                sortService.sortDogs(quick, criteria, "quicksort");
+                sortService.sortDogs(merge, criteria, "mergesort");
+
+                // Assert: mismas claves en el mismo orden y los mismos perros
+                for (int i = 0; i < n; i++) {
+                    assertEquals(key(merge.get(i), criteria), key(quick.get(i), criteria), criteria + " n=" + n);
+                }
+                assertEquals(new java.util.HashSet<>(merge), new java.util.HashSet<>(quick));
+            }
+        }
+    }
+
+    private Dog createDog(String id, int priority) {
+        Dog dog = new Dog();
+        dog.setId(id);
+        dog.setPriority(priority);
+        dog.setAge(1);
+        dog.setWeightKg(10);
+        return dog;
+    }
+
+    private int key(Dog dog, String criteria) {
+        return switch (criteria) {
+            case "priority" -> dog.getPriority();
+            case "age" -> dog.getAge();
+            default -> dog.getWeight();
+        };
+    }
+
     @Test
     @DisplayName("Sort defaults to MergeSort when algorithm not specified")
     void testDefaultAlgorithm() {
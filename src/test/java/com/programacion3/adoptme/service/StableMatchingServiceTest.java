@@ -0,0 +1,241 @@
+package com.programacion3.adoptme.service;
+
+import com.programacion3.adoptme.service.BacktrackingService.Adopter;
+import com.programacion3.adoptme.service.BacktrackingService.Dog;
+import com.programacion3.adoptme.service.StableMatchingService.MatchResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static com.programacion3.adoptme.service.MatchingFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StableMatchingService (Deferred Acceptance) Unit Tests")
+class StableMatchingServiceTest {
+
+    private StableMatchingService stableMatchingService;
+
+    @BeforeEach
+    void setUp() {
+        stableMatchingService = new StableMatchingService();
+    }
+
+    private double score(Adopter a, Dog d) {
+        return BacktrackingService.isCompatible(d, a) && d.cost <= a.budget
+                ? BacktrackingService.calculateScore(d, a) : -1.0;
+    }
+
+    /** Verifica cupos, presupuestos, compatibilidad y que ningún perro quede asignado dos veces */
+    private void assertFeasible(MatchResult result, List<Dog> dogs, List<Adopter> adopters) {
+        Map<String, Dog> dogsById = new HashMap<>();
+        dogs.forEach(d -> dogsById.put(d.id, d));
+        Set<String> used = new HashSet<>();
+        double total = 0.0;
+        for (Adopter a : adopters) {
+            List<String> ids = result.assignment.assignments.getOrDefault(a.id, List.of());
+            assertTrue(ids.size() <= a.maxDogs);
+            double cost = 0.0;
+            for (String id : ids) {
+                Dog d = dogsById.get(id);
+                assertTrue(used.add(id), "Dog assigned twice: " + id);
+                assertTrue(score(a, d) >= 0);
+                cost += d.cost;
+                total += score(a, d);
+            }
+            assertTrue(cost <= a.budget + 1e-6);
+        }
+        assertEquals(total, result.assignment.totalScore, 1e-6);
+    }
+
+    @Test
+    @DisplayName("Stable: Empty input returns empty matching")
+    void testEmptyInput() {
+        MatchResult result = stableMatchingService.solve(List.of(), createRandomAdopters(3, new Random(1), 1.0));
+
+        assertTrue(result.assignment.assignments.isEmpty());
+        assertEquals(0, result.proposals);
+    }
+
+    @Test
+    @DisplayName("Stable: Contested dog goes to the adopter it scores best with")
+    void testContestedDog() {
+        // Arrange: el perro es bueno con niños y tiene energía 8
+        List<Dog> dogs = List.of(new Dog("D1", true, false, 8, 5000.0));
+        List<Adopter> adopters = List.of(
+                new Adopter("A1", "NoKids", false, false, 1, 20000.0, 8), // 5
+                new Adopter("A2", "Kids", true, false, 1, 20000.0, 8)     // 5 + 5
+        );
+
+        // Act
+        MatchResult result = stableMatchingService.solve(dogs, adopters);
+
+        // Assert
+        assertEquals(List.of("D1"), result.assignment.assignments.get("A2"));
+        assertNull(result.assignment.assignments.get("A1"));
+        assertEquals(10.0, result.assignment.totalScore, 1e-9);
+    }
+
+    @Test
+    @DisplayName("Stable: Budget overflow rejects the worst held dog")
+    void testBudgetRejectsWorst() {
+        // Arrange: entran dos perros por cupo pero sólo uno por presupuesto
+        List<Dog> dogs = List.of(
+                new Dog("Low", false, false, 1, 8000.0),   // score 1
+                new Dog("High", false, false, 5, 8000.0)   // score 5
+        );
+        List<Adopter> adopters = List.of(new Adopter("A1", "Ana", false, false, 2, 10000.0, 5));
+
+        // Act
+        MatchResult result = stableMatchingService.solve(dogs, adopters);
+
+        // Assert
+        assertEquals(List.of("High"), result.assignment.assignments.get("A1"));
+        assertEquals(1, result.unmatchedDogs);
+    }
+
+    /**
+     * true si el adoptante a prefiere al perro x antes que a y: mayor score, después el más
+     * barato y después el que aparece primero en la lista (el mismo orden que el servicio).
+     */
+    private boolean prefers(Adopter a, Dog x, Dog y, List<Dog> dogs) {
+        double sx = score(a, x);
+        double sy = score(a, y);
+        if (sx != sy) return sx > sy;
+        if (x.cost != y.cost) return x.cost < y.cost;
+        return dogs.indexOf(x) < dogs.indexOf(y);
+    }
+
+    /**
+     * Ningún par (adoptante, perro) bloquea: si el perro prefiere a ese adoptante, el
+     * adoptante no puede sumarlo quedándose sólo con los perros que prefiere antes que él
+     * (no le entran por cupo o por presupuesto).
+     */
+    private void assertNoBlockingPair(MatchResult result, List<Dog> dogs, List<Adopter> adopters) {
+        Map<String, Dog> dogsById = new HashMap<>();
+        dogs.forEach(d -> dogsById.put(d.id, d));
+        Map<String, Adopter> adoptersById = new HashMap<>();
+        adopters.forEach(a -> adoptersById.put(a.id, a));
+        Map<String, String> ownerOf = new HashMap<>();
+        result.assignment.assignments.forEach((a, ids) -> ids.forEach(d -> ownerOf.put(d, a)));
+
+        for (Dog d : dogs) {
+            String owner = ownerOf.get(d.id);
+            double current = owner == null ? -1.0 : score(adoptersById.get(owner), d);
+            for (Adopter a : adopters) {
+                double s = score(a, d);
+                if (s <= current) continue; // el perro no prefiere a este adoptante
+                int kept = 1;
+                double cost = d.cost;
+                for (String other : result.assignment.assignments.getOrDefault(a.id, List.of())) {
+                    Dog o = dogsById.get(other);
+                    if (prefers(a, o, d, dogs)) {
+                        kept++;
+                        cost += o.cost;
+                    }
+                }
+                assertTrue(kept > a.maxDogs || cost > a.budget + 1e-6,
+                        "Adopter " + a.id + " and dog " + d.id + " block the matching");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Stable: Result is feasible and has no blocking pair")
+    void testNoBlockingPair() {
+        // Arrange: presupuestos holgados para que sólo el cupo limite
+        Random random = new Random(11);
+        List<Dog> dogs = createRandomDogs(60, random);
+        List<Adopter> adopters = createRandomAdopters(15, random, 100.0);
+
+        // Act
+        MatchResult result = stableMatchingService.solve(dogs, adopters);
+
+        // Assert
+        assertFeasible(result, dogs, adopters);
+        assertNoBlockingPair(result, dogs, adopters);
+    }
+
+    /**
+     * Con presupuestos puede no haber matching estable, pero ningún adoptante queda con
+     * cupo y presupuesto libres para un perro que lo prefiere.
+     */
+    private void assertNoWaste(MatchResult result, List<Dog> dogs, List<Adopter> adopters) {
+        Map<String, Dog> dogsById = new HashMap<>();
+        dogs.forEach(d -> dogsById.put(d.id, d));
+        Map<String, Adopter> adoptersById = new HashMap<>();
+        adopters.forEach(a -> adoptersById.put(a.id, a));
+        Map<String, String> ownerOf = new HashMap<>();
+        result.assignment.assignments.forEach((a, ids) -> ids.forEach(d -> ownerOf.put(d, a)));
+        for (Dog d : dogs) {
+            String owner = ownerOf.get(d.id);
+            double current = owner == null ? -1.0 : score(adoptersById.get(owner), d);
+            for (Adopter a : adopters) {
+                if (score(a, d) <= current) continue;
+                List<String> held = result.assignment.assignments.getOrDefault(a.id, List.of());
+                double cost = d.cost;
+                for (String o : held) cost += dogsById.get(o).cost;
+                assertTrue(held.size() + 1 > a.maxDogs || cost > a.budget + 1e-6,
+                        "Adopter " + a.id + " has room for " + d.id);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Stable: A dog rejected for budget comes back when room frees up")
+    void testBudgetRejectionIsRepaired() {
+        // Arrange: X entra primero, Low se rechaza por presupuesto y después High desplaza a X
+        List<Dog> dogs = List.of(
+                new Dog("X", false, false, 4, 6000.0),    // score 4
+                new Dog("Low", false, false, 3, 5000.0),  // score 3
+                new Dog("High", false, false, 5, 5000.0)  // score 5
+        );
+        List<Adopter> adopters = List.of(new Adopter("A1", "Ana", false, false, 2, 10000.0, 5));
+
+        // Act
+        MatchResult result = stableMatchingService.solve(dogs, adopters);
+
+        // Assert: con High y X no alcanza; High y Low sí
+        assertEquals(List.of("High", "Low"), result.assignment.assignments.get("A1"));
+        assertEquals(1, result.unmatchedDogs);
+        assertEquals(8.0, result.assignment.totalScore, 1e-9);
+    }
+
+    @Test
+    @DisplayName("Stable: No wasted room when budgets bind")
+    void testNoWasteTightBudgets() {
+        for (int seed = 0; seed < 200; seed++) {
+            // Arrange: presupuestos de uno a tres perros, así que se rechaza por presupuesto
+            Random random = new Random(seed);
+            List<Dog> dogs = createRandomDogs(60, random);
+            List<Adopter> adopters = createRandomAdopters(15, random, 1.0);
+
+            // Act
+            MatchResult result = stableMatchingService.solve(dogs, adopters);
+
+            // Assert
+            assertFeasible(result, dogs, adopters);
+            assertNoWaste(result, dogs, adopters);
+        }
+    }
+
+    @Test
+    @DisplayName("Stable: Scales to thousands of dogs and adopters")
+    void testLargeInstance() {
+        // Arrange
+        Random random = new Random(3);
+        List<Dog> dogs = createRandomDogs(5000, random);
+        List<Adopter> adopters = createRandomAdopters(2000, random, 1.0);
+
+        // Act
+        long start = System.currentTimeMillis();
+        MatchResult result = stableMatchingService.solve(dogs, adopters);
+        long elapsed = System.currentTimeMillis() - start;
+
+        // Assert
+        assertFeasible(result, dogs, adopters);
+        assertTrue(result.assignment.totalScore > 0);
+        assertTrue(elapsed < 10000, "Stable matching took " + elapsed + " ms");
+    }
+}
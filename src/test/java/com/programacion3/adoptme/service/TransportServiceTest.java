@@ -557,4 +557,415 @@ class TransportServiceTest {
         assertEquals(result1.selectedDogs.size(), result2.selectedDogs.size(),
                 "Same input should select same number of dogs");
     }
+
+    // ==================== Linear Memory Mode Tests ====================
+
+    private List<Dog> createRandomDogs(int n, Random random, int maxWeight) {
+        List<Dog> dogs = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Dog dog = new Dog();
+            dog.setId("R" + i);
+            dog.setWeightKg(random.nextInt(maxWeight + 1)); // incluye pesos 0
+            dog.setPriority(random.nextInt(20));
+            dogs.add(dog);
+        }
+        return dogs;
+    }
+
+    private List<String> ids(KnapsackResult result) {
+        return result.selectedDogs.stream().map(Dog::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Knapsack: Linear mode finds the same optimum as the dense table")
+    void testLinearMatchesDense() {
+        // Arrange
+        Random random = new Random(41);
+
+        for (int round = 0; round < 30; round++) {
+            List<Dog> dogs = createRandomDogs(1 + random.nextInt(150), random, 30);
+            int capacity = 1 + random.nextInt(400);
+
+            // Act
+            KnapsackResult dense = transportService.optimizeTransport(dogs, capacity, TransportService.Mode.DENSE);
+            KnapsackResult linear = transportService.optimizeTransport(dogs, capacity, TransportService.Mode.LINEAR);
+
+            // Assert
+            assertEquals(dense.totalPriority, linear.totalPriority, "round " + round);
+            assertEquals(TransportService.Mode.LINEAR, linear.mode);
+            assertTrue(linear.totalWeight <= capacity);
+            assertEquals(linear.totalPriority, linear.selectedDogs.stream().mapToInt(Dog::getPriority).sum());
+            assertEquals(linear.totalWeight, linear.selectedDogs.stream().mapToInt(Dog::getWeight).sum());
+            assertEquals(linear.selectedDogs.size(), new HashSet<>(ids(linear)).size());
+        }
+    }
+
+    @Test
+    @DisplayName("Knapsack: Auto mode switches to linear memory for large tables")
+    void testAutoModeLargeInstance() {
+        // Arrange: 3000 perros × 5000 kg superan el límite de la tabla densa
+        Random random = new Random(7);
+        List<Dog> dogs = createRandomDogs(3000, random, 40);
+
+        // Act
+        KnapsackResult result = transportService.optimizeTransport(dogs, 5000);
+
+        // Assert
+        assertEquals(TransportService.Mode.LINEAR, result.mode);
+        assertTrue(result.totalWeight <= 5000);
+        int priority = result.selectedDogs.stream().mapToInt(Dog::getPriority).sum();
+        int weight = result.selectedDogs.stream().mapToInt(Dog::getWeight).sum();
+        assertEquals(result.totalPriority, priority);
+        assertEquals(result.totalWeight, weight);
+        assertEquals(TransportService.Mode.DENSE, transportService.optimizeTransport(dogs.subList(0, 200), 50).mode);
+    }
+
+    // ==================== Fleet (Multiple Knapsack) Tests ====================
+
+    /** Óptimo por fuerza bruta: cada perro va a un vehículo o queda afuera */
+    private int bruteForceFleet(List<Dog> dogs, int k, int[] residual) {
+        if (k == dogs.size()) return 0;
+        Dog dog = dogs.get(k);
+        int best = bruteForceFleet(dogs, k + 1, residual);
+        for (int j = 0; j < residual.length; j++) {
+            if (residual[j] >= dog.getWeight()) {
+                residual[j] -= dog.getWeight();
+                best = Math.max(best, dog.getPriority() + bruteForceFleet(dogs, k + 1, residual));
+                residual[j] += dog.getWeight();
+            }
+        }
+        return best;
+    }
+
+    private void assertFeasibleFleet(TransportService.FleetResult result, List<Integer> capacities) {
+        Set<Dog> used = Collections.newSetFromMap(new IdentityHashMap<>());
+        assertEquals(capacities.size(), result.vehicles.size());
+        for (TransportService.VehicleLoad v : result.vehicles) {
+            assertEquals(capacities.get(v.vehicle), v.capacityKg);
+            assertTrue(v.totalWeight <= v.capacityKg, "vehicle " + v.vehicle + " overloaded");
+            assertEquals(v.totalWeight, v.dogs.stream().mapToInt(Dog::getWeight).sum());
+            v.dogs.forEach(d -> assertTrue(used.add(d), "Dog loaded twice: " + d.getId()));
+        }
+        assertTrue(result.totalPriority <= result.upperBound);
+    }
+
+    @Test
+    @DisplayName("Fleet: Exact mode matches brute force on small fleets")
+    void testFleetExactMatchesBruteForce() {
+        // Arrange
+        Random random = new Random(42);
+
+        for (int round = 0; round < 15; round++) {
+            List<Dog> dogs = createRandomDogs(9, random, 25);
+            List<Integer> capacities = List.of(10 + random.nextInt(30), 10 + random.nextInt(30), 5 + random.nextInt(15));
+            int[] residual = capacities.stream().mapToInt(Integer::intValue).toArray();
+
+            // Act
+            TransportService.FleetResult result = transportService.optimizeFleet(dogs, capacities,
+                    TransportService.FleetMode.EXACT);
+
+            // Assert
+            assertFeasibleFleet(result, capacities);
+            assertTrue(result.optimal);
+            assertEquals(bruteForceFleet(dogs, 0, residual), result.totalPriority, "round " + round);
+        }
+    }
+
+    @Test
+    @DisplayName("Fleet: Beats loading vehicles one after another in a bad order")
+    void testFleetBeatsSequentialLoading() {
+        // Arrange: si el vehículo de 10 kg se llena primero con A, B no entra en ninguno
+        List<Dog> dogs = new ArrayList<>();
+        Dog a = new Dog();
+        a.setId("A");
+        a.setWeightKg(6);
+        a.setPriority(6);
+        dogs.add(a);
+        Dog b = new Dog();
+        b.setId("B");
+        b.setWeightKg(10);
+        b.setPriority(9);
+        dogs.add(b);
+        Dog c = new Dog();
+        c.setId("C");
+        c.setWeightKg(4);
+        c.setPriority(4);
+        dogs.add(c);
+
+        // Act
+        TransportService.FleetResult result = transportService.optimizeFleet(dogs, List.of(10, 10),
+                TransportService.FleetMode.EXACT);
+
+        // Assert
+        assertEquals(19, result.totalPriority);
+        assertTrue(result.optimal);
+        assertFeasibleFleet(result, List.of(10, 10));
+    }
+
+    @Test
+    @DisplayName("Fleet: Single vehicle equals the single knapsack")
+    void testFleetSingleVehicle() {
+        // Arrange
+        List<Dog> dogs = createRandomDogs(60, new Random(5), 20);
+
+        // Act
+        TransportService.FleetResult fleet = transportService.optimizeFleet(dogs, List.of(80),
+                TransportService.FleetMode.HEURISTIC);
+        KnapsackResult single = transportService.optimizeTransport(dogs, 80);
+
+        // Assert
+        assertEquals(single.totalPriority, fleet.totalPriority);
+        assertTrue(fleet.optimal);
+    }
+
+    @Test
+    @DisplayName("Fleet: Heuristic is feasible and never beats exact on larger fleets")
+    void testFleetHeuristicVsExact() {
+        // Arrange
+        Random random = new Random(8);
+        List<Dog> dogs = createRandomDogs(200, random, 30);
+        List<Integer> capacities = List.of(60, 45, 45, 80, 30, 100);
+
+        // Act
+        long start = System.currentTimeMillis();
+        TransportService.FleetResult heuristic = transportService.optimizeFleet(dogs, capacities,
+                TransportService.FleetMode.HEURISTIC);
+        TransportService.FleetResult exact = transportService.optimizeFleet(dogs, capacities,
+                TransportService.FleetMode.EXACT);
+        long elapsed = System.currentTimeMillis() - start;
+
+        // Assert
+        assertFeasibleFleet(heuristic, capacities);
+        assertFeasibleFleet(exact, capacities);
+        assertTrue(heuristic.totalPriority <= exact.totalPriority);
+        assertTrue(elapsed < 10000, "Fleet loading took " + elapsed + " ms");
+    }
+
+    @Test
+    @DisplayName("Fleet: Exact mode proves optimality for 300 dogs and 8 vans")
+    void testFleetExactProvesOptimalityAtScale() {
+        // Arrange: perros livianos y pesados respecto de vans de 100 a 400 kg
+        Random random = new Random(42);
+
+        for (int maxWeight : new int[]{30, 120, 300}) {
+            List<Dog> dogs = createRandomDogs(300, random, maxWeight);
+            List<Integer> capacities = new ArrayList<>();
+            for (int j = 0; j < 8; j++) capacities.add(100 + random.nextInt(301));
+
+            // Act
+            TransportService.FleetResult exact = transportService.optimizeFleet(dogs, capacities,
+                    TransportService.FleetMode.EXACT);
+
+            // Assert
+            assertFeasibleFleet(exact, capacities);
+            assertTrue(exact.optimal, "maxWeight " + maxWeight);
+            assertEquals(exact.upperBound, exact.totalPriority, "maxWeight " + maxWeight);
+        }
+    }
+
+    @Test
+    @DisplayName("Fleet: Empty inputs return empty manifests")
+    void testFleetEmpty() {
+        // Act
+        TransportService.FleetResult noDogs = transportService.optimizeFleet(List.of(), List.of(10, 20),
+                TransportService.FleetMode.EXACT);
+        TransportService.FleetResult noVehicles = transportService.optimizeFleet(createTestDogs(), List.of(),
+                TransportService.FleetMode.EXACT);
+
+        // Assert
+        assertEquals(2, noDogs.vehicles.size());
+        assertEquals(0, noDogs.totalPriority);
+        assertTrue(noVehicles.vehicles.isEmpty());
+        assertEquals(0, noVehicles.totalPriority);
+    }
+
+    // ==================== Sparse (Pareto Frontier) Tests ====================
+
+    @Test
+    @DisplayName("Knapsack: Sparse mode finds the same optimum as the dense table")
+    void testSparseMatchesDense() {
+        // Arrange
+        Random random = new Random(44);
+
+        for (int round = 0; round < 30; round++) {
+            List<Dog> dogs = createRandomDogs(1 + random.nextInt(120), random, 40);
+            int capacity = 1 + random.nextInt(500);
+
+            // Act
+            KnapsackResult dense = transportService.optimizeTransport(dogs, capacity, TransportService.Mode.DENSE);
+            KnapsackResult sparse = transportService.optimizeTransport(dogs, capacity, TransportService.Mode.SPARSE);
+
+            // Assert
+            assertEquals(dense.totalPriority, sparse.totalPriority, "round " + round);
+            assertTrue(sparse.totalWeight <= capacity);
+            assertEquals(sparse.totalPriority, sparse.selectedDogs.stream().mapToInt(Dog::getPriority).sum());
+            assertEquals(sparse.totalWeight, sparse.selectedDogs.stream().mapToInt(Dog::getWeight).sum());
+        }
+    }
+
+    @Test
+    @DisplayName("Knapsack: Auto mode picks the sparse solver for capacities in grams")
+    void testAutoSparseForLargeCapacity() {
+        // Arrange: pesos en gramos, capacidad de 400 kg
+        Random random = new Random(12);
+        List<Dog> dogs = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            Dog dog = new Dog();
+            dog.setId("G" + i);
+            dog.setWeightKg(3000 + random.nextInt(37000));
+            dog.setPriority(1 + random.nextInt(10));
+            dogs.add(dog);
+        }
+
+        // Act
+        KnapsackResult auto = transportService.optimizeTransport(dogs, 400_000);
+        KnapsackResult linear = transportService.optimizeTransport(dogs, 400_000, TransportService.Mode.LINEAR);
+
+        // Assert
+        assertEquals(TransportService.Mode.SPARSE, auto.mode);
+        assertEquals(linear.totalPriority, auto.totalPriority);
+        assertTrue(auto.totalWeight <= 400_000);
+    }
+
+    // ==================== Approximation (FPTAS) Tests ====================
+
+    @Test
+    @DisplayName("FPTAS: Result is within (1 - epsilon) of the optimum and below the reported bound")
+    void testApproximationGuarantee() {
+        // Arrange: prioridades grandes para que el escalado redondee de verdad
+        Random random = new Random(45);
+
+        for (int round = 0; round < 20; round++) {
+            List<Dog> dogs = new ArrayList<>();
+            for (int i = 0; i < 40 + random.nextInt(60); i++) {
+                Dog dog = new Dog();
+                dog.setId("F" + i);
+                dog.setWeightKg(1 + random.nextInt(40));
+                dog.setPriority(1 + random.nextInt(5000));
+                dogs.add(dog);
+            }
+            int capacity = 20 + random.nextInt(300);
+            double epsilon = 0.05 + 0.4 * random.nextDouble();
+
+            // Act
+            TransportService.ApproximateResult approx = transportService.approximateTransport(dogs, capacity, epsilon);
+            int optimum = transportService.optimizeTransport(dogs, capacity).totalPriority;
+
+            // Assert
+            assertTrue(approx.epsilonMet);
+            assertTrue(approx.guaranteedRatio >= 1 - epsilon - 1e-9);
+            assertTrue(approx.totalWeight <= capacity);
+            assertEquals(approx.totalPriority, approx.selectedDogs.stream().mapToInt(Dog::getPriority).sum());
+            assertTrue(approx.totalPriority >= (1 - epsilon) * optimum, "round " + round);
+            assertTrue(optimum <= approx.upperBound, "bound below optimum in round " + round);
+            assertTrue(approx.achievedRatio >= approx.guaranteedRatio - 1e-9);
+        }
+    }
+
+    @Test
+    @DisplayName("FPTAS: Small priorities make the scaling exact")
+    void testApproximationExactForSmallPriorities() {
+        // Arrange
+        List<Dog> dogs = createRandomDogs(300, new Random(3), 30);
+
+        // Act
+        TransportService.ApproximateResult approx = transportService.approximateTransport(dogs, 200, 0.1);
+
+        // Assert: K = 1, así que coincide con el óptimo
+        assertEquals(1.0, approx.scale);
+        assertEquals(transportService.optimizeTransport(dogs, 200).totalPriority, approx.totalPriority);
+        assertEquals(approx.totalPriority, approx.upperBound);
+    }
+
+    @Test
+    @DisplayName("FPTAS: Thousands of dogs answer quickly")
+    void testApproximationLargeInstance() {
+        // Arrange
+        Random random = new Random(9);
+        List<Dog> dogs = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Dog dog = new Dog();
+            dog.setId("L" + i);
+            dog.setWeightKg(1 + random.nextInt(60));
+            dog.setPriority(1 + random.nextInt(100_000));
+            dogs.add(dog);
+        }
+
+        // Act
+        long start = System.currentTimeMillis();
+        TransportService.ApproximateResult approx = transportService.approximateTransport(dogs, 2000, 0.2);
+        long elapsed = System.currentTimeMillis() - start;
+
+        // Assert
+        assertTrue(approx.totalWeight <= 2000);
+        assertTrue(approx.achievedRatio >= 0.8);
+        assertTrue(elapsed < 5000, "FPTAS took " + elapsed + " ms");
+    }
+
+    @Test
+    @DisplayName("FPTAS: Epsilon too small for the memory cap is reported, not assumed")
+    void testApproximationCoarsenedGuarantee() {
+        // Arrange: muchos perros distintos y epsilon chico -> la tabla pasaría de FPTAS_MAX_BITS
+        Random random = new Random(17);
+        List<Dog> dogs = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Dog dog = new Dog();
+            dog.setId("E" + i);
+            dog.setWeightKg(1 + random.nextInt(200));
+            dog.setPriority(1 + random.nextInt(1_000_000));
+            dogs.add(dog);
+        }
+        double epsilon = 0.001;
+
+        // Act
+        TransportService.ApproximateResult approx = transportService.approximateTransport(dogs, 5000, epsilon);
+
+        // Assert: K se agrandó y la garantía informada es la real, no 1 - epsilon
+        assertFalse(approx.epsilonMet);
+        assertTrue(approx.guaranteedRatio < 1 - epsilon);
+        assertTrue(approx.totalWeight <= 5000);
+        assertTrue(approx.achievedRatio >= approx.guaranteedRatio - 1e-9);
+    }
+
+    @Test
+    @DisplayName("FPTAS: Epsilon outside (0, 1) is rejected")
+    void testApproximationInvalidEpsilon() {
+        assertThrows(IllegalArgumentException.class, () -> transportService.approximateTransport(createTestDogs(), 10, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> transportService.approximateTransport(createTestDogs(), 10, 1.0));
+    }
+
+    // ==================== Multi-Constraint Tests ====================
+
+    @Test
+    @DisplayName("Multi-constraint: Crates and special-needs seats limit the load")
+    void testMultiConstraintLimits() {
+        // Arrange: entran 100 kg, pero sólo 3 jaulas y un asiento especial
+        List<Dog> dogs = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Dog dog = new Dog();
+            dog.setId("M" + i);
+            dog.setWeightKg(10);
+            dog.setPriority(10 - i);
+            dog.setSpecialNeeds(i < 2); // los dos más prioritarios necesitan asiento especial
+            dogs.add(dog);
+        }
+
+        // Act
+        TransportService.MultiConstraintResult result = transportService.optimizeMultiConstraint(dogs, new int[]{100, 3, 1});
+
+        // Assert: M0 (asiento especial) + M2 + M3
+        assertEquals(List.of("M0", "M2", "M3"), result.selectedDogs.stream().map(Dog::getId).toList());
+        assertEquals(10 + 8 + 7, result.totalPriority);
+        assertArrayEquals(new int[]{30, 3, 1}, result.used);
+        assertTrue(result.optimal);
+    }
+
+    @Test
+    @DisplayName("Multi-constraint: Invalid capacity vectors are rejected")
+    void testMultiConstraintInvalidCapacities() {
+        assertThrows(IllegalArgumentException.class,
+                () -> transportService.optimizeMultiConstraint(createTestDogs(), new int[]{50, 3}));
+        assertThrows(IllegalArgumentException.class,
+                () -> transportService.optimizeMultiConstraint(createTestDogs(), new int[]{50, -1, 0}));
+    }
 }